@@ -1,21 +1,57 @@
 package com.sistema.config;
 
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sistema.config.cache.TwoLevelCacheManager;
+import com.sistema.config.cache.TwoLevelCacheSpec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Function;
 
 @Configuration
 @EnableCaching
 public class RedisConfig {
 
+    @Value("${app.cache.two-level.enabled:false}")
+    private boolean twoLevelCacheEnabled;
+
+    @Value("${app.cache.two-level.cache-names:}")
+    private String[] twoLevelCacheNames = new String[0];
+
+    @Value("${app.cache.two-level.default.l1-max-size:1000}")
+    private long twoLevelDefaultL1MaxSize = 1000;
+
+    @Value("${app.cache.two-level.default.l1-ttl-seconds:60}")
+    private long twoLevelDefaultL1TtlSeconds = 60;
+
+    @Value("${app.cache.two-level.default.ttl-seconds:600}")
+    private long twoLevelDefaultTtlSeconds = 600;
+
+    private Environment environment;
+
+    @Autowired(required = false)
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
@@ -31,24 +67,77 @@ public class RedisConfig {
         return template;
     }
 
+    /**
+     * Template sem serialização de valores para as famílias de chaves com codec compacto
+     * (contadores, sinalizações, timestamps e hashes). O template padrão continua em JSON.
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> binaryRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setEnableDefaultSerializer(false);
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    /**
+     * CacheManager dos caches anotados. Com app.cache.two-level.enabled, cada cache ganha
+     * um L1 local (Caffeine) à frente do Redis. O TTL do Redis e o tamanho e TTL do L1 vêm
+     * da mesma {@link TwoLevelCacheSpec}, resolvida pelo nome de qualquer cache; cache-names
+     * apenas lista os caches criados na inicialização.
+     */
     @Bean
     public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-        return RedisCacheManager
-                .builder(connectionFactory)
-                .cacheDefaults(
-                    org.springframework.data.redis.cache.RedisCacheConfiguration
-                        .defaultCacheConfig()
-                        .entryTtl(Duration.ofMinutes(10))
-                        .serializeKeysWith(
-                            org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair
-                                .fromSerializer(new StringRedisSerializer())
-                        )
-                        .serializeValuesWith(
-                            org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair
-                                .fromSerializer(new GenericJackson2JsonRedisSerializer())
-                        )
+        if (!twoLevelCacheEnabled) {
+            return RedisCacheManager
+                    .builder(connectionFactory)
+                    .cacheDefaults(defaultCacheConfiguration(Duration.ofMinutes(10)))
+                    .build();
+        }
+        TwoLevelCacheSpec defaults = new TwoLevelCacheSpec("default", twoLevelDefaultL1MaxSize,
+                Duration.ofSeconds(twoLevelDefaultL1TtlSeconds), Duration.ofSeconds(twoLevelDefaultTtlSeconds));
+        Function<String, TwoLevelCacheSpec> specs = name -> TwoLevelCacheSpec.resolve(environment, name, defaults);
+        RedisCacheConfiguration defaultConfiguration = defaultCacheConfiguration(defaults.getTtl());
+        String[] initialCacheNames = Arrays.stream(twoLevelCacheNames)
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .toArray(String[]::new);
+        RedisCacheManager redisCacheManager = new RedisCacheManager(
+                RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory), defaultConfiguration, initialCacheNames) {
+            @Override
+            protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfiguration) {
+                return super.createRedisCache(name, defaultConfiguration.entryTtl(specs.apply(name).getTtl()));
+            }
+        };
+        redisCacheManager.afterPropertiesSet();
+        return new TwoLevelCacheManager(redisCacheManager, specs);
+    }
+
+    private static RedisCacheConfiguration defaultCacheConfiguration(Duration ttl) {
+        return RedisCacheConfiguration
+                .defaultCacheConfig()
+                .entryTtl(ttl)
+                .serializeKeysWith(
+                    RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer())
                 )
-                .build();
+                .serializeValuesWith(
+                    RedisSerializationContext.SerializationPair.fromSerializer(
+                        new GenericJackson2JsonRedisSerializer().configure(mapper -> mapper.registerModule(new JavaTimeModule())))
+                );
+    }
+
+    /**
+     * Container de listeners pub/sub compartilhado pelos caches locais que precisam
+     * ser invalidados em todas as instâncias. Só abre a assinatura no Redis quando
+     * algum listener é registrado.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,216 @@
+package com.sistema.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Cache de dois níveis: L1 local (Caffeine, limitado e com TTL curto) à frente do L2 no Redis.
+ * Leituras consultam o L1 e, na falta, o L2, preenchendo o L1. Escritas e remoções vão ao L2,
+ * atualizam o L1 local e publicam a invalidação para o L1 das demais instâncias.
+ * <p>
+ * As chaves do L1 são a forma textual da chave, a mesma usada pelo L2 no Redis, para que
+ * a invalidação recebida de outra instância identifique a mesma entrada.
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final Cache redisCache;
+    private final com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> localCache;
+    private final BiConsumer<String, String> invalidationPublisher;
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+
+    /**
+     * @param spec configuração do cache
+     * @param redisCache cache L2 no Redis
+     * @param invalidationPublisher publica (nome do cache, chave) para as demais instâncias; chave null limpa o cache
+     */
+    public TwoLevelCache(TwoLevelCacheSpec spec, Cache redisCache, BiConsumer<String, String> invalidationPublisher) {
+        this.name = spec.getName();
+        this.redisCache = redisCache;
+        this.invalidationPublisher = invalidationPublisher;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(spec.getL1MaxSize())
+                .expireAfterWrite(spec.getL1Ttl())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Registra as métricas do L1 (Caffeine) e os acertos e faltas do L2 no Micrometer,
+     * diferenciados pela tag "level".
+     *
+     * @param meterRegistry registro de métricas
+     */
+    public void bindMetrics(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, name, "level", "l1");
+        FunctionCounter.builder("cache.gets", remoteHits, LongAdder::sum)
+                .tags("cache", name, "level", "l2", "result", "hit")
+                .description("Acertos no Redis após falta no L1")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", remoteMisses, LongAdder::sum)
+                .tags("cache", name, "level", "l2", "result", "miss")
+                .description("Faltas no Redis após falta no L1")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return redisCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        ValueWrapper local = localCache.getIfPresent(localKey);
+        if (local != null) {
+            return local;
+        }
+        ValueWrapper remote = redisCache.get(key);
+        if (remote != null) {
+            remoteHits.increment();
+            localCache.put(localKey, remote);
+        } else {
+            remoteMisses.increment();
+        }
+        return remote;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Valor em cache não é do tipo esperado [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        ValueWrapper local = localCache.getIfPresent(localKey);
+        if (local != null) {
+            return (T) local.get();
+        }
+        // O Redis é consultado fora do cálculo do L1: a chave não fica bloqueada durante a ida ao Redis
+        ValueWrapper remote = redisCache.get(key);
+        if (remote != null) {
+            remoteHits.increment();
+            localCache.put(localKey, remote);
+            return (T) remote.get();
+        }
+        remoteMisses.increment();
+        // Carga única por chave nesta instância: concorrentes aguardam o mesmo cálculo
+        boolean[] loaded = new boolean[1];
+        ValueWrapper wrapper = localCache.get(localKey, ignored -> {
+            loaded[0] = true;
+            return new SimpleValueWrapper(load(key, valueLoader));
+        });
+        if (loaded[0]) {
+            redisCache.put(key, wrapper.get());
+        }
+        return (T) wrapper.get();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String localKey = localKey(key);
+        redisCache.put(key, value);
+        localCache.put(localKey, new SimpleValueWrapper(value));
+        invalidationPublisher.accept(name, localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        String localKey = localKey(key);
+        ValueWrapper existing = redisCache.putIfAbsent(key, value);
+        if (existing != null) {
+            localCache.put(localKey, existing);
+            return existing;
+        }
+        localCache.put(localKey, new SimpleValueWrapper(value));
+        invalidationPublisher.accept(name, localKey);
+        return null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = localKey(key);
+        redisCache.evict(key);
+        localCache.invalidate(localKey);
+        invalidationPublisher.accept(name, localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        String localKey = localKey(key);
+        boolean evicted = redisCache.evictIfPresent(key);
+        localCache.invalidate(localKey);
+        invalidationPublisher.accept(name, localKey);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        redisCache.clear();
+        localCache.invalidateAll();
+        invalidationPublisher.accept(name, null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = redisCache.invalidate();
+        localCache.invalidateAll();
+        invalidationPublisher.accept(name, null);
+        return invalidated;
+    }
+
+    /**
+     * Aplica uma invalidação recebida de outra instância apenas ao L1.
+     *
+     * @param localKey chave textual ou null para limpar todo o L1
+     */
+    void evictLocal(String localKey) {
+        if (localKey == null) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidate(localKey);
+        }
+    }
+
+    /**
+     * @return número aproximado de entradas no L1
+     */
+    public long localSize() {
+        return localCache.estimatedSize();
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private static <T> T load(Object key, Callable<T> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.sistema.config.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * CacheManager de dois níveis: cada cache do {@link RedisCacheManager} (L2) ganha um L1 local
+ * configurado por nome. Alterações feitas em uma instância são publicadas no canal de
+ * invalidação e removem a entrada do L1 das demais; o TTL do L1 limita a defasagem caso
+ * alguma mensagem se perca.
+ */
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "cache:invalidate:two-level";
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+    private static final String SEPARATOR = "\n";
+    private static final String KEY_MARKER = "k";
+
+    private final RedisCacheManager redisCacheManager;
+    private final Function<String, TwoLevelCacheSpec> specResolver;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    private RedisTemplate<String, Object> redisTemplate;
+    private RedisMessageListenerContainer listenerContainer;
+    private MeterRegistry meterRegistry;
+
+    /**
+     * @param redisCacheManager gerenciador do L2, já inicializado
+     * @param specResolver configuração de cada cache pelo nome
+     */
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager, Function<String, TwoLevelCacheSpec> specResolver) {
+        this.redisCacheManager = redisCacheManager;
+        this.specResolver = specResolver;
+    }
+
+    @Autowired(required = false)
+    public void setRedisTemplate(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Autowired(required = false)
+    public void setListenerContainer(RedisMessageListenerContainer listenerContainer) {
+        this.listenerContainer = listenerContainer;
+    }
+
+    /**
+     * Registra as métricas dos caches já criados e dos que forem criados depois.
+     *
+     * @param meterRegistry registro de métricas
+     */
+    @Autowired(required = false)
+    public void bindMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        caches.values().forEach(cache -> cache.bindMetrics(meterRegistry));
+    }
+
+    /**
+     * Assina o canal de invalidação do L1.
+     */
+    @PostConstruct
+    public void subscribe() {
+        if (listenerContainer != null) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+            logger.info("Cache de dois níveis habilitado com invalidação via canal {}", INVALIDATION_CHANNEL);
+        }
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache redisCache = redisCacheManager.getCache(name);
+        if (redisCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> createCache(cacheName, redisCache));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return redisCacheManager.getCacheNames();
+    }
+
+    /**
+     * Recebe invalidações publicadas por outras instâncias.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object payload = redisTemplate != null
+                ? redisTemplate.getValueSerializer().deserialize(message.getBody())
+                : null;
+        if (payload == null) {
+            return;
+        }
+        String[] parts = payload.toString().split(SEPARATOR, 3);
+        if (parts.length < 3 || instanceId.equals(parts[0])) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.evictLocal(parts[2].startsWith(KEY_MARKER) ? parts[2].substring(KEY_MARKER.length()) : null);
+            logger.debug("L1 do cache {} invalidado por mensagem remota", parts[1]);
+        }
+    }
+
+    private TwoLevelCache createCache(String name, Cache redisCache) {
+        TwoLevelCacheSpec spec = specResolver.apply(name);
+        TwoLevelCache cache = new TwoLevelCache(spec, redisCache, this::publishInvalidation);
+        if (meterRegistry != null) {
+            cache.bindMetrics(meterRegistry);
+        }
+        logger.debug("Cache de dois níveis criado: {}", spec);
+        return cache;
+    }
+
+    /**
+     * Publica a invalidação de uma chave (ou do cache inteiro, com chave null) para as demais instâncias.
+     */
+    private void publishInvalidation(String cacheName, String key) {
+        if (redisTemplate == null) {
+            return;
+        }
+        String payload = instanceId + SEPARATOR + cacheName + SEPARATOR + (key != null ? KEY_MARKER + key : "");
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, payload);
+        } catch (Exception e) {
+            // As demais instâncias ainda respeitam o TTL do L1
+            logger.warn("Falha ao publicar invalidação do cache {} no Redis: {}", cacheName, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.sistema.config.cache;
+
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Configuração de um cache de dois níveis: tamanho e TTL do L1 local e TTL do L2 no Redis.
+ * Resolvida por nome em app.cache.two-level.caches.&lt;nome&gt;.*, com fallback para
+ * app.cache.two-level.default.*.
+ */
+public final class TwoLevelCacheSpec {
+
+    private static final String CACHES_PREFIX = "app.cache.two-level.caches.";
+
+    private final String name;
+    private final long l1MaxSize;
+    private final Duration l1Ttl;
+    private final Duration ttl;
+
+    public TwoLevelCacheSpec(String name, long l1MaxSize, Duration l1Ttl, Duration ttl) {
+        this.name = name;
+        this.l1MaxSize = l1MaxSize;
+        this.l1Ttl = l1Ttl;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Resolve a configuração do cache a partir do ambiente.
+     *
+     * @param environment ambiente da aplicação (null usa apenas os padrões)
+     * @param name nome do cache
+     * @param defaults configuração padrão
+     * @return configuração do cache
+     */
+    public static TwoLevelCacheSpec resolve(Environment environment, String name, TwoLevelCacheSpec defaults) {
+        if (environment == null) {
+            return new TwoLevelCacheSpec(name, defaults.l1MaxSize, defaults.l1Ttl, defaults.ttl);
+        }
+        String prefix = CACHES_PREFIX + name + ".";
+        long l1MaxSize = environment.getProperty(prefix + "l1-max-size", Long.class, defaults.l1MaxSize);
+        long l1TtlSeconds = environment.getProperty(prefix + "l1-ttl-seconds", Long.class, defaults.l1Ttl.toSeconds());
+        long ttlSeconds = environment.getProperty(prefix + "ttl-seconds", Long.class, defaults.ttl.toSeconds());
+        return new TwoLevelCacheSpec(name, l1MaxSize, Duration.ofSeconds(l1TtlSeconds), Duration.ofSeconds(ttlSeconds));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getL1MaxSize() {
+        return l1MaxSize;
+    }
+
+    /**
+     * @return TTL do L1, limitado ao TTL do L2 (quando houver) para que o L1 não sobreviva ao valor no Redis
+     */
+    public Duration getL1Ttl() {
+        return !ttl.isZero() && !ttl.isNegative() && l1Ttl.compareTo(ttl) > 0 ? ttl : l1Ttl;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    @Override
+    public String toString() {
+        return "TwoLevelCacheSpec{name='" + name + "', l1MaxSize=" + l1MaxSize
+                + ", l1Ttl=" + getL1Ttl() + ", ttl=" + ttl + "}";
+    }
+}
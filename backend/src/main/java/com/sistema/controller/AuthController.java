@@ -23,6 +23,7 @@ import jakarta.validation.constraints.Size;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -82,6 +83,11 @@ public class AuthController {
         String clientIp = getClientIpAddress(httpRequest);
         String identifier = loginRequest.getEmail();
         
+        // Rajadas de um mesmo IP são rejeitadas localmente, sem acesso ao Redis
+        if (attemptService.isLocallyThrottled("login", clientIp)) {
+            return createThrottledResponse();
+        }
+        
         try {
             // Verificar se captcha é necessário
             boolean requiresCaptcha = attemptService.isCaptchaRequiredForLogin(clientIp);
@@ -121,7 +127,7 @@ public class AuthController {
             
         } catch (org.springframework.security.authentication.BadCredentialsException e) {
             // Registrar tentativa falhada
-            attemptService.recordLoginAttempt(clientIp);
+            int attempts = attemptService.recordLoginAttempt(clientIp);
             
             logger.warn("Falha no login para: {} (IP: {}) - {}", loginRequest.getEmail(), clientIp, e.getMessage());
             
@@ -139,20 +145,20 @@ public class AuthController {
             }
             
             // Verificar se captcha será necessário na próxima tentativa
-            boolean willRequireCaptcha = attemptService.isCaptchaRequiredForLogin(clientIp);
+            boolean willRequireCaptcha = attemptService.isLoginCaptchaThresholdReached(attempts);
             errorResponse.put("requiresCaptcha", willRequireCaptcha);
             
             return ResponseEntity.status(status).body(errorResponse);
         } catch (Exception e) {
             // Registrar tentativa falhada
-            attemptService.recordLoginAttempt(clientIp);
+            int attempts = attemptService.recordLoginAttempt(clientIp);
             
             logger.warn("Falha no login para: {} (IP: {})", loginRequest.getEmail(), clientIp);
             
             Map<String, Object> errorResponse = createErrorResponse("Credenciais inválidas", "INVALID_CREDENTIALS");
             
             // Verificar se captcha será necessário na próxima tentativa
-            boolean willRequireCaptcha = attemptService.isCaptchaRequiredForLogin(clientIp);
+            boolean willRequireCaptcha = attemptService.isLoginCaptchaThresholdReached(attempts);
             errorResponse.put("requiresCaptcha", willRequireCaptcha);
             
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
@@ -290,6 +296,8 @@ public class AuthController {
 
     /**
      * Endpoint para obter informações do usuário autenticado.
+     * O perfil é lido do banco: com app.jwt.stateless-principal.enabled=true o principal
+     * é montado só com os claims do token e não traz nome, último login nem data de cadastro.
      * 
      * @return informações do usuário
      */
@@ -298,7 +306,13 @@ public class AuthController {
     public ResponseEntity<?> getCurrentUser() {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            User user = (User) auth.getPrincipal();
+            User principal = (User) auth.getPrincipal();
+            Optional<User> userOpt = authService.findById(principal.getId());
+            if (userOpt.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(createErrorResponse("Usuário não encontrado", "USER_NOT_FOUND"));
+            }
+            User user = userOpt.get();
             
             Map<String, Object> userInfo = new HashMap<>();
             userInfo.put("id", user.getId());
@@ -472,6 +486,10 @@ public class AuthController {
     @PostMapping("/verify-cpf")
     public ResponseEntity<?> verifyCpf(@Valid @RequestBody VerifyCpfRequest verifyCpfRequest, 
                                       HttpServletRequest httpRequest) {
+        if (attemptService.isLocallyThrottled("verify_cpf", getClientIpAddress(httpRequest))) {
+            return createThrottledResponse();
+        }
+        
         try {
             String cpf = verifyCpfRequest.getCpf();
             
@@ -530,14 +548,14 @@ public class AuthController {
                 return ResponseEntity.ok(response);
             } else {
                 // Registrar tentativa de erro (CPF não encontrado)
-                attemptService.recordCpfErrorAttempt(cpf);
+                int attempts = attemptService.recordCpfErrorAttempt(cpf);
                 
                 Map<String, Object> errorResponse = createErrorResponse(
                     "CPF não encontrado", 
                     "CPF_NOT_FOUND"
                 );
-                errorResponse.put("requiresCaptcha", attemptService.isCaptchaRequiredForCpf(cpf));
-                errorResponse.put("remainingAttempts", attemptService.getRemainingCpfAttempts(cpf));
+                errorResponse.put("requiresCaptcha", attemptService.isCpfCaptchaThresholdReached(attempts));
+                errorResponse.put("remainingAttempts", attemptService.remainingCpfAttemptsAfter(attempts));
                 
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
             }
@@ -1222,6 +1240,17 @@ public class AuthController {
         return error;
     }
 
+    /**
+     * Cria a resposta para requisições rejeitadas pelo limite local de rajadas.
+     *
+     * @return resposta 429 com Retry-After
+     */
+    private ResponseEntity<Map<String, Object>> createThrottledResponse() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(createErrorResponse("Muitas requisições em sequência. Aguarde alguns instantes", "RATE_LIMIT_EXCEEDED"));
+    }
+
     /**
      * Cria uma resposta padronizada com dados do usuário.
      * 
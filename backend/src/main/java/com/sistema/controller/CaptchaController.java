@@ -4,12 +4,13 @@ import com.sistema.service.CaptchaService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -38,7 +39,7 @@ public class CaptchaController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("captchaId", captchaData.get("id"));
-            response.put("imageDataUrl", "data:image/png;base64," + captchaData.get("imageBase64"));
+            response.put("imageDataUrl", toDataUrl(captchaData));
             
             logger.debug("Captcha gerado via API: {}", captchaData.get("id"));
             
@@ -56,26 +57,33 @@ public class CaptchaController {
     }
     
     /**
-     * Gera um novo captcha e retorna a imagem diretamente.
+     * Gera um novo captcha e retorna a imagem diretamente, sem a conversão para base64.
+     * O ID do captcha segue no header X-Captcha-Id; a resposta não deve ser armazenada em cache,
+     * pois cada requisição gera um captcha diferente.
      * 
-     * @return imagem PNG do captcha
+     * @return imagem do captcha (PNG ou JPEG, conforme app.captcha.image.format)
      */
-    @GetMapping(value = "/image", produces = MediaType.IMAGE_PNG_VALUE)
+    @GetMapping(value = "/image", produces = {MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_JPEG_VALUE})
     public ResponseEntity<byte[]> generateCaptchaImage() {
         try {
-            Map<String, String> captchaData = captchaService.generateCaptcha();
+            CaptchaService.CaptchaImage captcha = captchaService.generateCaptchaImage();
             
-            // Decodificar base64 para bytes
-            byte[] imageBytes = Base64.getDecoder().decode(captchaData.get("imageBase64"));
+            logger.debug("Imagem de captcha gerada via API: {}", captcha.getId());
             
             // Adicionar ID do captcha no header para o frontend usar
             return ResponseEntity.ok()
-                .header("X-Captcha-Id", captchaData.get("id"))
-                .body(imageBytes);
+                .contentType(MediaType.parseMediaType(captcha.getContentType()))
+                .contentLength(captcha.getImage().length)
+                .cacheControl(CacheControl.noStore())
+                .header(HttpHeaders.PRAGMA, "no-cache")
+                .header("X-Captcha-Id", captcha.getId())
+                .body(captcha.getImage());
             
         } catch (Exception e) {
             logger.error("Erro ao gerar imagem de captcha via API", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .cacheControl(CacheControl.noStore())
+                .build();
         }
     }
     
@@ -218,7 +226,7 @@ public class CaptchaController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("captchaId", captchaData.get("id"));
-            response.put("imageDataUrl", "data:image/png;base64," + captchaData.get("imageBase64"));
+            response.put("imageDataUrl", toDataUrl(captchaData));
             response.put("testAnswer", captchaData.get("answer")); // Apenas para teste
             
             logger.debug("Captcha de teste gerado via API: {}", captchaData.get("id"));
@@ -266,6 +274,14 @@ public class CaptchaController {
         }
     }
     
+    /**
+     * Monta a data URL da imagem usando o tipo de conteúdo informado pelo serviço.
+     */
+    private String toDataUrl(Map<String, String> captchaData) {
+        String contentType = captchaData.getOrDefault("contentType", MediaType.IMAGE_PNG_VALUE);
+        return "data:" + contentType + ";base64," + captchaData.get("imageBase64");
+    }
+    
     /**
      * Classe para request de validação de captcha.
      */
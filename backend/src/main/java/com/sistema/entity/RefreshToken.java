@@ -1,5 +1,6 @@
 package com.sistema.entity;
 
+import com.sistema.util.SecurityUtils;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -10,6 +11,8 @@ import java.util.Objects;
 /**
  * Entidade para gerenciar tokens de refresh com sessão persistente.
  * Permite que usuários mantenham sessões ativas por até 6 meses.
+ * O banco guarda apenas o hash SHA-256 do token; o valor original só existe em memória
+ * no momento da criação, para ser entregue ao cliente.
  */
 @Entity
 @Table(name = "refresh_tokens", indexes = {
@@ -23,7 +26,12 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "token", nullable = false, unique = true, length = 500)
+    // Hash SHA-256 (hex) do token; a coluna mantém o nome original por compatibilidade
+    @Column(name = "token", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    // Valor original do token, nunca persistido
+    @Transient
     private String token;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -60,7 +68,7 @@ public class RefreshToken {
     public RefreshToken() {}
 
     public RefreshToken(String token, User user, LocalDateTime expiresAt) {
-        this.token = token;
+        setToken(token);
         this.user = user;
         this.expiresAt = expiresAt;
         this.isRevoked = false;
@@ -75,6 +83,16 @@ public class RefreshToken {
 
     // Métodos de conveniência
     
+    /**
+     * Calcula o hash armazenado para um valor de token.
+     *
+     * @param token valor original do token
+     * @return hash SHA-256 em hexadecimal (64 caracteres)
+     */
+    public static String hashToken(String token) {
+        return SecurityUtils.hashSHA256(token);
+    }
+    
     /**
      * Verifica se o token está expirado.
      *
@@ -170,8 +188,20 @@ public class RefreshToken {
         return token;
     }
 
+    /**
+     * Define o valor original do token e o hash correspondente.
+     */
     public void setToken(String token) {
         this.token = token;
+        this.tokenHash = token != null ? hashToken(token) : null;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
     }
 
     public User getUser() {
@@ -253,19 +283,19 @@ public class RefreshToken {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         RefreshToken that = (RefreshToken) o;
-        return Objects.equals(id, that.id) && Objects.equals(token, that.token);
+        return Objects.equals(id, that.id) && Objects.equals(tokenHash, that.tokenHash);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, token);
+        return Objects.hash(id, tokenHash);
     }
 
     @Override
     public String toString() {
         return "RefreshToken{" +
                 "id=" + id +
-                ", token='" + (token != null ? token.substring(0, Math.min(token.length(), 10)) + "..." : "null") + "'" +
+                ", tokenHash='" + (tokenHash != null ? tokenHash.substring(0, Math.min(tokenHash.length(), 10)) + "..." : "null") + "'" +
                 ", userId=" + (user != null ? user.getId() : "null") +
                 ", expiresAt=" + expiresAt +
                 ", isRevoked=" + isRevoked +
@@ -21,21 +21,22 @@ import java.util.Optional;
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
     /**
-     * Busca um token de refresh pelo valor do token.
+     * Busca um token de refresh pelo hash do token.
      *
-     * @param token O valor do token
+     * @param tokenHash O hash SHA-256 do token (ver {@link RefreshToken#hashToken(String)})
      * @return Optional contendo o RefreshToken se encontrado
      */
-    Optional<RefreshToken> findByToken(String token);
+    @Query("SELECT rt FROM RefreshToken rt WHERE rt.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByToken(@Param("tokenHash") String tokenHash);
 
     /**
-     * Busca um token de refresh válido pelo valor do token.
+     * Busca um token de refresh válido pelo hash do token.
      *
-     * @param token O valor do token
+     * @param tokenHash O hash SHA-256 do token (ver {@link RefreshToken#hashToken(String)})
      * @return Optional contendo o RefreshToken se encontrado e válido
      */
-    @Query("SELECT rt FROM RefreshToken rt WHERE rt.token = :token AND rt.isRevoked = false AND rt.expiresAt > :now")
-    Optional<RefreshToken> findValidByToken(@Param("token") String token, @Param("now") LocalDateTime now);
+    @Query("SELECT rt FROM RefreshToken rt WHERE rt.tokenHash = :tokenHash AND rt.isRevoked = false AND rt.expiresAt > :now")
+    Optional<RefreshToken> findValidByToken(@Param("tokenHash") String tokenHash, @Param("now") LocalDateTime now);
 
     /**
      * Busca todos os tokens de refresh de um usuário.
@@ -89,13 +90,13 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
      * Revoga todos os tokens de refresh de um usuário exceto o token especificado.
      *
      * @param user O usuário
-     * @param excludeToken Token a ser excluído da revogação
+     * @param excludeTokenHash Hash do token a ser excluído da revogação
      * @return Número de tokens revogados
      */
     @Modifying
     @Transactional
-    @Query("UPDATE RefreshToken rt SET rt.isRevoked = true WHERE rt.user = :user AND rt.token != :excludeToken AND rt.isRevoked = false")
-    int revokeAllByUserExcept(@Param("user") User user, @Param("excludeToken") String excludeToken);
+    @Query("UPDATE RefreshToken rt SET rt.isRevoked = true WHERE rt.user = :user AND rt.tokenHash != :excludeTokenHash AND rt.isRevoked = false")
+    int revokeAllByUserExcept(@Param("user") User user, @Param("excludeTokenHash") String excludeTokenHash);
 
     /**
      * Remove tokens expirados do banco de dados.
@@ -150,14 +151,14 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
     /**
      * Atualiza o último uso de um token.
      *
-     * @param token O valor do token
+     * @param tokenHash O hash SHA-256 do token
      * @param lastUsedAt Nova data de último uso
      * @return Número de registros atualizados
      */
     @Modifying
     @Transactional
-    @Query("UPDATE RefreshToken rt SET rt.lastUsedAt = :lastUsedAt WHERE rt.token = :token")
-    int updateLastUsed(@Param("token") String token, @Param("lastUsedAt") LocalDateTime lastUsedAt);
+    @Query("UPDATE RefreshToken rt SET rt.lastUsedAt = :lastUsedAt WHERE rt.tokenHash = :tokenHash")
+    int updateLastUsed(@Param("tokenHash") String tokenHash, @Param("lastUsedAt") LocalDateTime lastUsedAt);
 
     /**
      * Busca estatísticas de tokens por usuário.
@@ -0,0 +1,137 @@
+package com.sistema.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom thread-safe para strings.
+ * Nunca produz falso negativo; a taxa de falsos positivos depende do dimensionamento
+ * (número esperado de inserções e taxa alvo). As posições são obtidas por hashing
+ * duplo (Kirsch-Mitzenmacher) a partir de um hash FNV-1a de 64 bits.
+ */
+final class BloomFilter {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctions;
+    private final AtomicLong insertions = new AtomicLong();
+
+    private BloomFilter(long bitCount, int hashFunctions) {
+        int words = (int) Math.max(1, (bitCount + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = words * 64L;
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * Cria um filtro dimensionado para o número esperado de inserções.
+     *
+     * @param expectedInsertions inserções esperadas no período de vida do filtro
+     * @param falsePositiveRate taxa alvo de falsos positivos (ex.: 0.001)
+     * @return filtro vazio
+     */
+    static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Número esperado de inserções deve ser maior que zero");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Taxa de falsos positivos deve estar entre 0 e 1");
+        }
+        long bitCount = optimalBitCount(expectedInsertions, falsePositiveRate);
+        return new BloomFilter(bitCount, optimalHashFunctions(expectedInsertions, bitCount));
+    }
+
+    /**
+     * m = -n ln(p) / (ln 2)^2
+     */
+    static long optimalBitCount(long expectedInsertions, double falsePositiveRate) {
+        return (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    }
+
+    /**
+     * k = (m / n) ln 2
+     */
+    static int optimalHashFunctions(long expectedInsertions, long bitCount) {
+        return Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    void put(String value) {
+        long hash1 = fnv1a(value);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = Math.floorMod(hash1 + i * hash2, bitCount);
+            setBit(index);
+        }
+        insertions.incrementAndGet();
+    }
+
+    boolean mightContain(String value) {
+        long hash1 = fnv1a(value);
+        long hash2 = mix(hash1);
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Taxa de falsos positivos estimada para o número atual de inserções:
+     * (1 - e^(-k n / m))^k
+     */
+    double expectedFalsePositiveRate() {
+        double fill = 1 - Math.exp(-(double) hashFunctions * insertions.get() / bitCount);
+        return Math.pow(fill, hashFunctions);
+    }
+
+    long insertions() {
+        return insertions.get();
+    }
+
+    long bitCount() {
+        return bitCount;
+    }
+
+    int hashFunctions() {
+        return hashFunctions;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+
+    private static long fnv1a(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Finalizador do MurmurHash3 (fmix64), usado para derivar o segundo hash.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash | 1L;
+    }
+}
@@ -44,6 +44,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private TokenBlacklistService tokenBlacklistService;
 
+    @Autowired(required = false)
+    private StatelessPrincipalResolver statelessPrincipalResolver;
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
@@ -89,32 +92,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      */
     private void authenticateUser(String jwt, HttpServletRequest request) {
         try {
-            // Valida o token e extrai o username
-            if (!jwtService.isValidAccessToken(jwt)) {
+            // Verifica a assinatura e lê os claims uma única vez para toda a requisição
+            VerifiedToken verifiedToken = jwtService.verifyToken(jwt);
+            if (!verifiedToken.isValidAccessToken()) {
                 logger.debug("Token JWT inválido ou expirado");
                 return;
             }
 
-            // Verifica se o token está na blacklist
-            if (tokenBlacklistService.isTokenRevoked(jwt)) {
-                logger.debug("Token JWT está na blacklist (revogado)");
-                return;
-            }
-
-            String email = jwtService.extractSubject(jwt);
+            String email = verifiedToken.getSubject();
             if (email == null) {
                 logger.debug("Email não encontrado no token JWT");
                 return;
             }
 
-            // Verifica se todos os tokens do usuário foram revogados
-            if (tokenBlacklistService.isTokenGloballyRevoked(jwt, email)) {
-                logger.debug("Token JWT foi revogado globalmente para o usuário: {}", email);
+            // Verifica a blacklist do token e a revogação global do usuário em uma única ida ao Redis
+            RevocationStatus revocationStatus = tokenBlacklistService.checkRevocation(verifiedToken, email);
+            if (revocationStatus.isRevoked()) {
+                logger.debug("Token JWT revogado ({}) para o usuário: {}", revocationStatus, email);
                 return;
             }
 
-            // Carrega os detalhes do usuário
-            UserDetails userDetails = authService.loadUserByUsername(email);
+            // Carrega os detalhes do usuário (dos claims no modo sem estado, senão do banco)
+            UserDetails userDetails = null;
+            if (statelessPrincipalResolver != null && statelessPrincipalResolver.isEnabled()) {
+                if (statelessPrincipalResolver.isSecurityVersionStale(verifiedToken)) {
+                    logger.debug("Token JWT emitido antes de alteração de segurança do usuário: {}", email);
+                    return;
+                }
+                userDetails = statelessPrincipalResolver.resolve(verifiedToken);
+            }
+            if (userDetails == null) {
+                userDetails = authService.loadUserByUsername(email);
+            }
             
             // Cria o objeto de autenticação
             UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
@@ -0,0 +1,31 @@
+package com.sistema.security;
+
+/**
+ * Resultado da verificação de revogação de um token já verificado.
+ * Reúne em uma única decisão a consulta à blacklist do token e à revogação
+ * global do usuário, obtidas em uma única ida ao Redis.
+ */
+public enum RevocationStatus {
+
+    /**
+     * Token não revogado.
+     */
+    ACTIVE,
+
+    /**
+     * Identificador do token presente na blacklist.
+     */
+    REVOKED,
+
+    /**
+     * Token emitido antes da revogação global dos tokens do usuário.
+     */
+    GLOBALLY_REVOKED;
+
+    /**
+     * @return true se o token não deve ser aceito
+     */
+    public boolean isRevoked() {
+        return this != ACTIVE;
+    }
+}
@@ -0,0 +1,216 @@
+package com.sistema.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Filtro de Bloom local dos identificadores (JTI) de tokens revogados.
+ * Uma resposta negativa dispensa a consulta à blacklist no Redis; respostas positivas
+ * devem ser confirmadas nas chaves jwt:blacklist:. Revogações são replicadas entre as
+ * instâncias via pub/sub e o filtro é reconstruído periodicamente a partir do Redis,
+ * descartando identificadores cujas entradas já expiraram.
+ *
+ * O filtro deve ser dimensionado para o número de revogações esperadas durante a vida
+ * útil de um access token (expected-insertions), com a taxa alvo de falsos positivos.
+ */
+@Component
+public class RevokedTokenFilter implements MessageListener {
+
+    public static final String REVOCATION_CHANNEL = "jwt:blacklist:events";
+
+    private static final Logger logger = LoggerFactory.getLogger(RevokedTokenFilter.class);
+
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter rebuilding;
+    private volatile boolean ready;
+
+    private final AtomicLong negatives = new AtomicLong();
+    private final AtomicLong positives = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    private RedisTemplate<String, Object> redisTemplate;
+    private RedisMessageListenerContainer listenerContainer;
+
+    public RevokedTokenFilter(
+            @Value("${app.jwt.blacklist-filter.enabled:false}") boolean enabled,
+            @Value("${app.jwt.blacklist-filter.expected-insertions:100000}") long expectedInsertions,
+            @Value("${app.jwt.blacklist-filter.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.current = BloomFilter.create(expectedInsertions, falsePositiveRate);
+    }
+
+    @Autowired(required = false)
+    public void setRedisTemplate(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Autowired(required = false)
+    public void setListenerContainer(RedisMessageListenerContainer listenerContainer) {
+        this.listenerContainer = listenerContainer;
+    }
+
+    /**
+     * Registra as métricas do filtro: taxa de falsos positivos estimada e observada,
+     * número de inserções e consultas por resultado.
+     *
+     * @param meterRegistry registro de métricas
+     */
+    @Autowired(required = false)
+    public void bindMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("jwt.blacklist.filter.fpp.expected", this, filter -> filter.current.expectedFalsePositiveRate())
+                .description("Taxa de falsos positivos estimada para o preenchimento atual do filtro")
+                .register(meterRegistry);
+        Gauge.builder("jwt.blacklist.filter.fpp.observed", this, RevokedTokenFilter::observedFalsePositiveRate)
+                .description("Falsos positivos confirmados no Redis sobre o total de tokens não revogados consultados")
+                .register(meterRegistry);
+        Gauge.builder("jwt.blacklist.filter.insertions", this, filter -> filter.current.insertions())
+                .register(meterRegistry);
+        FunctionCounter.builder("jwt.blacklist.filter.checks", negatives, AtomicLong::get)
+                .tag("result", "negative")
+                .register(meterRegistry);
+        FunctionCounter.builder("jwt.blacklist.filter.checks", positives, AtomicLong::get)
+                .tag("result", "positive")
+                .register(meterRegistry);
+        FunctionCounter.builder("jwt.blacklist.filter.false.positives", falsePositives, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Assina o canal de revogações quando o filtro está habilitado.
+     */
+    @PostConstruct
+    public void subscribe() {
+        if (enabled && listenerContainer != null) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(REVOCATION_CHANNEL));
+            logger.info("Filtro de revogação habilitado: {} bits, {} funções de hash (n={}, p={})",
+                    current.bitCount(), current.hashFunctions(), expectedInsertions, falsePositiveRate);
+        }
+    }
+
+    /**
+     * @return true se o filtro está habilitado e já foi carregado a partir do Redis
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Verifica se o identificador pode estar revogado.
+     * Enquanto o filtro não estiver pronto, responde sempre true para forçar a consulta ao Redis.
+     *
+     * @param tokenId identificador do token
+     * @return false somente se o token certamente não foi revogado
+     */
+    public boolean mightBeRevoked(String tokenId) {
+        if (!isReady()) {
+            return true;
+        }
+        boolean result = current.mightContain(tokenId);
+        (result ? positives : negatives).incrementAndGet();
+        return result;
+    }
+
+    /**
+     * Registra que uma resposta positiva do filtro não foi confirmada no Redis.
+     */
+    public void recordFalsePositive() {
+        falsePositives.incrementAndGet();
+    }
+
+    /**
+     * Adiciona um identificador revogado localmente e publica para as demais instâncias.
+     *
+     * @param tokenId identificador do token revogado
+     */
+    public void add(String tokenId) {
+        if (!enabled) {
+            return;
+        }
+        putLocal(tokenId);
+        if (redisTemplate != null) {
+            try {
+                redisTemplate.convertAndSend(REVOCATION_CHANNEL, tokenId);
+            } catch (Exception e) {
+                // As demais instâncias recebem o identificador na próxima reconstrução
+                logger.warn("Falha ao publicar revogação no Redis: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reconstrói o filtro a partir da fonte de identificadores revogados.
+     * Revogações recebidas durante a reconstrução são aplicadas aos dois filtros.
+     * Se a fonte falhar, o filtro atual é mantido.
+     *
+     * @param loader recebe o consumidor que deve ser chamado para cada identificador revogado
+     */
+    public synchronized void rebuild(Consumer<Consumer<String>> loader) {
+        if (!enabled) {
+            return;
+        }
+        BloomFilter replacement = BloomFilter.create(expectedInsertions, falsePositiveRate);
+        rebuilding = replacement;
+        try {
+            loader.accept(replacement::put);
+            current = replacement;
+            ready = true;
+            logger.info("Filtro de revogação reconstruído com {} identificadores", replacement.insertions());
+        } catch (Exception e) {
+            logger.warn("Falha ao reconstruir filtro de revogação, mantendo o atual: {}", e.getMessage());
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    /**
+     * Recebe revogações publicadas por outras instâncias.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object tokenId = redisTemplate != null
+                ? redisTemplate.getValueSerializer().deserialize(message.getBody())
+                : null;
+        if (tokenId != null) {
+            putLocal(tokenId.toString());
+        }
+    }
+
+    /**
+     * Lê o filtro em reconstrução antes de gravar no atual: se a reconstrução terminar entre as
+     * duas gravações, o identificador já está no filtro que passou a ser o atual.
+     */
+    private void putLocal(String tokenId) {
+        BloomFilter pending = rebuilding;
+        current.put(tokenId);
+        if (pending != null) {
+            pending.put(tokenId);
+        }
+    }
+
+    private double observedFalsePositiveRate() {
+        long fp = falsePositives.get();
+        long total = fp + negatives.get();
+        return total == 0 ? 0.0 : (double) fp / total;
+    }
+}
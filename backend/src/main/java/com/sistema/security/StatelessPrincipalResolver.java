@@ -0,0 +1,102 @@
+package com.sistema.security;
+
+import com.sistema.entity.User;
+import com.sistema.entity.UserRole;
+import com.sistema.service.UserSecurityVersionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Monta o principal autenticado diretamente a partir dos claims do token de acesso,
+ * sem consultar o banco a cada requisição.
+ * Só é usado quando app.jwt.stateless-principal.enabled=true; a versão de segurança
+ * gravada no token é comparada com a versão atual do usuário para que alterações de
+ * status, role ou senha invalidem tokens emitidos antes delas.
+ */
+@Component
+public class StatelessPrincipalResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatelessPrincipalResolver.class);
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final String FULL_NAME_CLAIM = "fullName";
+
+    private final boolean enabled;
+    private final UserSecurityVersionService userSecurityVersionService;
+
+    public StatelessPrincipalResolver(
+            @Value("${app.jwt.stateless-principal.enabled:false}") boolean enabled,
+            UserSecurityVersionService userSecurityVersionService) {
+        this.enabled = enabled;
+        this.userSecurityVersionService = userSecurityVersionService;
+    }
+
+    /**
+     * @return true se o modo sem estado está habilitado
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Verifica se o token foi emitido antes de uma alteração de segurança do usuário.
+     * Tokens sem versão ou sem ID de usuário não são considerados desatualizados;
+     * eles seguem pelo carregamento tradicional do usuário.
+     *
+     * @param verifiedToken token verificado
+     * @return true se a versão do token não é a versão atual
+     */
+    public boolean isSecurityVersionStale(VerifiedToken verifiedToken) {
+        Long userId = verifiedToken.getUserId();
+        Long tokenVersion = verifiedToken.getSecurityVersion();
+        if (userId == null || tokenVersion == null) {
+            return false;
+        }
+        return !userSecurityVersionService.isCurrentVersion(userId, tokenVersion);
+    }
+
+    /**
+     * Monta o principal a partir dos claims do token.
+     * O principal só traz ID, email, role e o nome completo (em firstName); quem precisa do
+     * perfil completo, como o /api/auth/me, deve carregar o usuário do banco.
+     *
+     * @param verifiedToken token de acesso verificado e com versão atual
+     * @return usuário montado a partir dos claims ou null se o token não tem os claims necessários
+     */
+    public User resolve(VerifiedToken verifiedToken) {
+        if (!enabled
+                || verifiedToken.getUserId() == null
+                || verifiedToken.getSecurityVersion() == null
+                || verifiedToken.getSubject() == null) {
+            return null;
+        }
+
+        UserRole role = resolveRole(verifiedToken);
+        if (role == null) {
+            return null;
+        }
+
+        User user = new User();
+        user.setId(verifiedToken.getUserId());
+        user.setEmail(verifiedToken.getSubject());
+        user.setFirstName(verifiedToken.getClaim(FULL_NAME_CLAIM, String.class));
+        user.setRole(role);
+        user.setEnabled(true);
+        return user;
+    }
+
+    private UserRole resolveRole(VerifiedToken verifiedToken) {
+        if (verifiedToken.getRoles().isEmpty()) {
+            return null;
+        }
+        String authority = verifiedToken.getRoles().get(0);
+        String roleName = authority.startsWith(ROLE_PREFIX) ? authority.substring(ROLE_PREFIX.length()) : authority;
+        try {
+            return UserRole.fromString(roleName);
+        } catch (IllegalArgumentException e) {
+            logger.debug("Role desconhecida no token: {}", authority);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.sistema.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sistema.entity.User;
+import com.sistema.entity.UserRole;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Cache local (near-cache) dos usuários carregados por email no fluxo de autenticação.
+ * Cada entrada vive no máximo max-staleness-seconds; alterações no usuário removem a
+ * entrada localmente e publicam a invalidação no Redis para que as demais instâncias
+ * também a removam.
+ *
+ * O cache guarda uma cópia imutável dos campos usados na autenticação, nunca a entidade
+ * JPA; cada leitura devolve um novo {@link User} desanexado, que não deve ser persistido.
+ */
+@Component
+public class UserDetailsNearCache implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "cache:invalidate:users";
+
+    private static final Logger logger = LoggerFactory.getLogger(UserDetailsNearCache.class);
+    private static final String CACHE_NAME = "users.details";
+
+    private final boolean enabled;
+    private final Cache<String, CachedUser> cache;
+
+    private RedisTemplate<String, Object> redisTemplate;
+    private RedisMessageListenerContainer listenerContainer;
+
+    public UserDetailsNearCache(
+            @Value("${app.security.user-cache.enabled:false}") boolean enabled,
+            @Value("${app.security.user-cache.max-size:10000}") long maxSize,
+            @Value("${app.security.user-cache.max-staleness-seconds:30}") long maxStalenessSeconds) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(maxStalenessSeconds))
+                .recordStats()
+                .build();
+    }
+
+    @Autowired(required = false)
+    public void setRedisTemplate(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Autowired(required = false)
+    public void setListenerContainer(RedisMessageListenerContainer listenerContainer) {
+        this.listenerContainer = listenerContainer;
+    }
+
+    /**
+     * Registra as métricas do cache (tamanho, hits e misses para a taxa de acerto) no Micrometer.
+     *
+     * @param meterRegistry registro de métricas
+     */
+    @Autowired(required = false)
+    public void bindMetrics(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Assina o canal de invalidação quando o cache está habilitado.
+     */
+    @PostConstruct
+    public void subscribe() {
+        if (enabled && listenerContainer != null) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+            logger.info("Near-cache de usuários habilitado com invalidação via canal {}", INVALIDATION_CHANNEL);
+        }
+    }
+
+    /**
+     * @return true se o cache está habilitado
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Busca um usuário no cache.
+     *
+     * @param email email do usuário
+     * @return usuário em cache ou null
+     */
+    public User get(String email) {
+        if (!enabled || email == null) {
+            return null;
+        }
+        CachedUser cached = cache.getIfPresent(normalize(email));
+        return cached != null ? cached.toUser() : null;
+    }
+
+    /**
+     * Armazena um usuário carregado do banco.
+     *
+     * @param user usuário carregado
+     */
+    public void put(User user) {
+        if (!enabled || user == null || user.getEmail() == null) {
+            return;
+        }
+        cache.put(normalize(user.getEmail()), CachedUser.of(user));
+    }
+
+    /**
+     * Remove o usuário do cache local e publica a invalidação para as demais instâncias.
+     * Dentro de uma transação a invalidação é repetida após o commit, para que uma leitura
+     * concorrente da linha ainda não confirmada não volte a armazenar o valor antigo.
+     *
+     * @param email email do usuário alterado
+     */
+    public void invalidate(String email) {
+        if (!enabled || email == null) {
+            return;
+        }
+        String key = normalize(email);
+        evictAndPublish(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAndPublish(key);
+                }
+            });
+        }
+    }
+
+    private void evictAndPublish(String key) {
+        cache.invalidate(key);
+        if (redisTemplate != null) {
+            try {
+                redisTemplate.convertAndSend(INVALIDATION_CHANNEL, key);
+            } catch (Exception e) {
+                // As demais instâncias ainda respeitam o limite de max-staleness
+                logger.warn("Falha ao publicar invalidação do usuário no Redis: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Recebe invalidações publicadas por outras instâncias.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object key = redisTemplate != null
+                ? redisTemplate.getValueSerializer().deserialize(message.getBody())
+                : null;
+        if (key != null) {
+            cache.invalidate(key.toString());
+            logger.debug("Usuário invalidado no near-cache por mensagem remota");
+        }
+    }
+
+    /**
+     * @return número aproximado de entradas no cache
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Cópia imutável dos campos do usuário usados na autenticação e no principal.
+     * Tokens de verificação e de reset de senha não são copiados.
+     */
+    private static final class CachedUser {
+        private final Long id;
+        private final String email;
+        private final String password;
+        private final String firstName;
+        private final String lastName;
+        private final String cpf;
+        private final String phone;
+        private final UserRole role;
+        private final boolean accountNonExpired;
+        private final boolean accountNonLocked;
+        private final boolean credentialsNonExpired;
+        private final boolean enabled;
+        private final boolean emailVerified;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime updatedAt;
+        private final LocalDateTime lastLogin;
+
+        private CachedUser(User user) {
+            this.id = user.getId();
+            this.email = user.getEmail();
+            this.password = user.getPassword();
+            this.firstName = user.getFirstName();
+            this.lastName = user.getLastName();
+            this.cpf = user.getCpf();
+            this.phone = user.getPhone();
+            this.role = user.getRole();
+            this.accountNonExpired = user.isAccountNonExpired();
+            this.accountNonLocked = user.isAccountNonLocked();
+            this.credentialsNonExpired = user.isCredentialsNonExpired();
+            this.enabled = user.isEnabled();
+            this.emailVerified = user.isEmailVerified();
+            this.createdAt = user.getCreatedAt();
+            this.updatedAt = user.getUpdatedAt();
+            this.lastLogin = user.getLastLogin();
+        }
+
+        static CachedUser of(User user) {
+            return new CachedUser(user);
+        }
+
+        User toUser() {
+            User user = new User();
+            user.setId(id);
+            user.setEmail(email);
+            user.setPassword(password);
+            user.setFirstName(firstName);
+            user.setLastName(lastName);
+            user.setCpf(cpf);
+            user.setPhone(phone);
+            user.setRole(role);
+            user.setAccountNonExpired(accountNonExpired);
+            user.setAccountNonLocked(accountNonLocked);
+            user.setCredentialsNonExpired(credentialsNonExpired);
+            user.setEnabled(enabled);
+            user.setEmailVerified(emailVerified);
+            user.setCreatedAt(createdAt);
+            user.setUpdatedAt(updatedAt);
+            user.setLastLogin(lastLogin);
+            return user;
+        }
+    }
+}
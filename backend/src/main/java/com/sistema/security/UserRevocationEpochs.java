@@ -0,0 +1,190 @@
+package com.sistema.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Tabela local de "épocas" de revogação global por usuário: o instante a partir do qual
+ * todos os tokens emitidos antes foram revogados (revokeAllUserTokens).
+ * Permite que a verificação de revogação global seja feita em memória, sem GET no Redis.
+ * As novas épocas são replicadas via pub/sub e a tabela é recarregada periodicamente do
+ * Redis, o que também descarta as entradas cujas chaves já expiraram.
+ */
+@Component
+public class UserRevocationEpochs implements MessageListener {
+
+    public static final String REVOCATION_CHANNEL = "jwt:blacklist:user-events";
+
+    private static final Logger logger = LoggerFactory.getLogger(UserRevocationEpochs.class);
+    private static final char SEPARATOR = ':';
+
+    private final boolean enabled;
+
+    private volatile Map<String, Long> epochs = new ConcurrentHashMap<>();
+    private volatile Map<String, Long> rebuilding;
+    private volatile boolean ready;
+
+    private RedisTemplate<String, Object> redisTemplate;
+    private RedisMessageListenerContainer listenerContainer;
+
+    public UserRevocationEpochs(@Value("${app.jwt.revocation-epochs.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Autowired(required = false)
+    public void setRedisTemplate(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Autowired(required = false)
+    public void setListenerContainer(RedisMessageListenerContainer listenerContainer) {
+        this.listenerContainer = listenerContainer;
+    }
+
+    /**
+     * Registra o tamanho da tabela no Micrometer.
+     *
+     * @param meterRegistry registro de métricas
+     */
+    @Autowired(required = false)
+    public void bindMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("jwt.revocation.epochs.size", this, table -> table.epochs.size())
+                .description("Usuários com revogação global ativa na tabela local")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Assina o canal de revogações globais quando a tabela está habilitada.
+     */
+    @PostConstruct
+    public void subscribe() {
+        if (enabled && listenerContainer != null) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(REVOCATION_CHANNEL));
+            logger.info("Tabela local de revogação global habilitada via canal {}", REVOCATION_CHANNEL);
+        }
+    }
+
+    /**
+     * @return true se a tabela está habilitada
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return true se a tabela está habilitada e já foi carregada do Redis
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Obtém a época de revogação global do usuário.
+     *
+     * @param username nome do usuário
+     * @return timestamp em milissegundos ou null se não houver revogação
+     */
+    public Long getEpoch(String username) {
+        return username != null ? epochs.get(username) : null;
+    }
+
+    /**
+     * Registra uma nova época localmente e publica para as demais instâncias.
+     *
+     * @param username nome do usuário
+     * @param epoch timestamp da revogação em milissegundos
+     */
+    public void record(String username, long epoch) {
+        if (!enabled) {
+            return;
+        }
+        putLocal(username, epoch);
+        if (redisTemplate != null) {
+            try {
+                redisTemplate.convertAndSend(REVOCATION_CHANNEL, epoch + String.valueOf(SEPARATOR) + username);
+            } catch (Exception e) {
+                // As demais instâncias recebem a época na próxima recarga
+                logger.warn("Falha ao publicar revogação global no Redis: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Recarrega a tabela a partir da fonte de épocas persistidas.
+     * Épocas recebidas durante a recarga são aplicadas às duas tabelas.
+     * Se a fonte falhar, a tabela atual é mantida.
+     *
+     * @param loader recebe o consumidor que deve ser chamado para cada (usuário, época)
+     * @return true se a recarga foi concluída
+     */
+    public synchronized boolean rebuild(Consumer<BiConsumer<String, Long>> loader) {
+        if (!enabled) {
+            return false;
+        }
+        Map<String, Long> replacement = new ConcurrentHashMap<>();
+        rebuilding = replacement;
+        try {
+            loader.accept((username, epoch) -> replacement.merge(username, epoch, Math::max));
+            epochs = replacement;
+            ready = true;
+            logger.info("Tabela de revogação global recarregada com {} usuários", replacement.size());
+            return true;
+        } catch (Exception e) {
+            logger.warn("Falha ao recarregar tabela de revogação global, mantendo a atual: {}", e.getMessage());
+            return false;
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    /**
+     * Recebe épocas publicadas por outras instâncias.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object payload = redisTemplate != null
+                ? redisTemplate.getValueSerializer().deserialize(message.getBody())
+                : null;
+        if (payload == null) {
+            return;
+        }
+        String value = payload.toString();
+        int separator = value.indexOf(SEPARATOR);
+        if (separator <= 0) {
+            return;
+        }
+        try {
+            putLocal(value.substring(separator + 1), Long.parseLong(value.substring(0, separator)));
+        } catch (NumberFormatException e) {
+            logger.warn("Mensagem de revogação global inválida ignorada");
+        }
+    }
+
+    /**
+     * Lê a tabela em recarga antes de gravar na atual: se a recarga terminar entre as duas
+     * gravações, a época já está na tabela que passou a ser a atual.
+     */
+    private void putLocal(String username, long epoch) {
+        Map<String, Long> pending = rebuilding;
+        epochs.merge(username, epoch, Math::max);
+        if (pending != null) {
+            pending.merge(username, epoch, Math::max);
+        }
+    }
+}
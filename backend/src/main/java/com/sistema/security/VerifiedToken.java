@@ -0,0 +1,175 @@
+package com.sistema.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Resultado imutável da verificação de um token JWT.
+ * A assinatura é validada e os claims são lidos uma única vez pelo JwtService;
+ * o resultado é então repassado às verificações de blacklist e à montagem do principal,
+ * evitando que cada etapa do filtro repita a verificação RSA.
+ */
+public final class VerifiedToken {
+
+    /**
+     * Nome do claim com a versão de segurança do usuário no momento da emissão.
+     */
+    public static final String SECURITY_VERSION_CLAIM = "securityVersion";
+
+    private static final String TYPE_CLAIM = "type";
+    private static final String ROLES_CLAIM = "roles";
+    private static final String USER_ID_CLAIM = "userId";
+
+    private final String token;
+    private final Claims claims;
+    private final String subject;
+    private final String jti;
+    private final String type;
+    private final Date issuedAt;
+    private final Date expiration;
+    private final List<String> roles;
+
+    private VerifiedToken(String token, Claims claims) {
+        this.token = token;
+        this.claims = claims;
+        this.subject = claims.getSubject();
+        this.jti = claims.getId();
+        this.type = claims.get(TYPE_CLAIM, String.class);
+        this.issuedAt = claims.getIssuedAt();
+        this.expiration = claims.getExpiration();
+        this.roles = extractRoles(claims);
+    }
+
+    /**
+     * Cria um VerifiedToken a partir de claims já verificados.
+     *
+     * @param token token JWT compacto
+     * @param claims claims com assinatura já validada
+     * @return token verificado
+     */
+    public static VerifiedToken of(String token, Claims claims) {
+        if (token == null || claims == null) {
+            throw new IllegalArgumentException("Token e claims são obrigatórios");
+        }
+        return new VerifiedToken(token, claims);
+    }
+
+    private static List<String> extractRoles(Claims claims) {
+        Object rawRoles = claims.get(ROLES_CLAIM);
+        if (!(rawRoles instanceof List<?> list)) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(list.stream()
+                .map(String::valueOf)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * @return token JWT compacto original
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * @return claims verificados do token
+     */
+    public Claims getClaims() {
+        return claims;
+    }
+
+    /**
+     * @return subject (email) do token
+     */
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * @return JTI do token ou null se não estiver presente
+     */
+    public String getJti() {
+        return jti;
+    }
+
+    /**
+     * @return tipo do token (access ou refresh)
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return data de emissão do token
+     */
+    public Date getIssuedAt() {
+        return issuedAt;
+    }
+
+    /**
+     * @return data de expiração do token
+     */
+    public Date getExpiration() {
+        return expiration;
+    }
+
+    /**
+     * @return roles do token (lista imutável, vazia se ausente)
+     */
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    /**
+     * @return ID do usuário presente no token ou null
+     */
+    public Long getUserId() {
+        Object userId = claims.get(USER_ID_CLAIM);
+        return userId instanceof Number number ? number.longValue() : null;
+    }
+
+    /**
+     * @return versão de segurança do usuário gravada no token ou null se ausente
+     */
+    public Long getSecurityVersion() {
+        Object version = claims.get(SECURITY_VERSION_CLAIM);
+        return version instanceof Number number ? number.longValue() : null;
+    }
+
+    /**
+     * Obtém um claim customizado do token.
+     *
+     * @param claimName nome do claim
+     * @param claimType tipo esperado
+     * @param <T> tipo do claim
+     * @return valor do claim ou null
+     */
+    public <T> T getClaim(String claimName, Class<T> claimType) {
+        return claims.get(claimName, claimType);
+    }
+
+    /**
+     * @return true se o token está expirado
+     */
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+
+    /**
+     * @return true se for um token de acesso não expirado
+     */
+    public boolean isValidAccessToken() {
+        return "access".equals(type) && !isExpired();
+    }
+
+    /**
+     * @return true se for um token de refresh não expirado
+     */
+    public boolean isValidRefreshToken() {
+        return "refresh".equals(type) && !isExpired();
+    }
+}
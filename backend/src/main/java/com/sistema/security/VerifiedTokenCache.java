@@ -0,0 +1,153 @@
+package com.sistema.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache local e limitado de tokens JWT já verificados.
+ * A chave é o hash SHA-256 do token compacto, de modo que o token em si não fica
+ * como chave em memória. Cada entrada expira no menor valor entre o TTL máximo
+ * configurado e a expiração do próprio token; o despejo por tamanho usa a política
+ * W-TinyLFU do Caffeine.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedTokenCache.class);
+    private static final String CACHE_NAME = "jwt.verified-tokens";
+
+    private final boolean enabled;
+    private final long maxTtlNanos;
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(
+            @Value("${app.jwt.verification-cache.enabled:false}") boolean enabled,
+            @Value("${app.jwt.verification-cache.max-size:10000}") long maxSize,
+            @Value("${app.jwt.verification-cache.max-ttl-seconds:300}") long maxTtlSeconds) {
+        this.enabled = enabled;
+        this.maxTtlNanos = TimeUnit.SECONDS.toNanos(maxTtlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Registra as métricas do cache (hits, misses, despejos e tamanho) no Micrometer.
+     *
+     * @param meterRegistry registro de métricas
+     */
+    @Autowired(required = false)
+    public void bindMetrics(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * @return true se o cache está habilitado
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Busca um token verificado no cache.
+     *
+     * @param token token JWT compacto
+     * @return token verificado ou null se ausente/expirado
+     */
+    public VerifiedToken get(String token) {
+        if (!enabled || token == null) {
+            return null;
+        }
+        VerifiedToken cached = cache.getIfPresent(hash(token));
+        // Confirma o token completo para que uma colisão de hash nunca reaproveite outro token
+        return cached != null && cached.getToken().equals(token) ? cached : null;
+    }
+
+    /**
+     * Armazena um token recém-verificado.
+     *
+     * @param verifiedToken token verificado
+     */
+    public void put(VerifiedToken verifiedToken) {
+        if (!enabled || verifiedToken.getExpiration() == null) {
+            return;
+        }
+        cache.put(hash(verifiedToken.getToken()), verifiedToken);
+    }
+
+    /**
+     * Remove um token do cache (ex.: após revogação).
+     *
+     * @param token token JWT compacto
+     */
+    public void invalidate(String token) {
+        if (!enabled || token == null) {
+            return;
+        }
+        cache.invalidate(hash(token));
+        logger.debug("Token removido do cache de verificação");
+    }
+
+    /**
+     * Remove todas as entradas do cache (ex.: após rotação de chaves).
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return número aproximado de entradas no cache
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hashed = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hashed);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+    }
+
+    /**
+     * Política de expiração por entrada: nunca ultrapassa a expiração do token.
+     */
+    private final class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(
+                    value.getExpiration().getTime() - System.currentTimeMillis());
+            return Math.max(0, Math.min(maxTtlNanos, remainingNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,15 +1,30 @@
 package com.sistema.service;
 
 import com.sistema.service.base.BaseRedisService;
+import com.sistema.service.base.RedisValueCodecs;
 import com.sistema.service.interfaces.AttemptControlOperations;
+import com.sistema.service.ratelimit.AttemptRecord;
+import com.sistema.service.ratelimit.LocalAttemptTier;
+import com.sistema.service.ratelimit.RateLimitDecision;
+import com.sistema.service.ratelimit.RateLimitDimension;
+import com.sistema.service.ratelimit.RateLimitPolicies;
+import com.sistema.service.ratelimit.RateLimitPolicy;
+import com.sistema.service.ratelimit.RateLimiter;
+import com.sistema.service.resilience.DegradedAttemptCounter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -31,7 +46,87 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
     private static final String PASSWORD_RESET_RATE_LIMIT_PREFIX = "password_reset_rate_limit:";
     private static final String CPF_VERIFICATION_ATTEMPT_PREFIX = "cpf_verification_attempts:";
     private static final String EMAIL_CONFIRMATION_ATTEMPT_PREFIX = "email_confirmation_attempts:";
+    private static final String CPF_ERROR_ATTEMPT_PREFIX = "cpf_error_attempts:";
     private static final String CAPTCHA_REQUIRED_PREFIX = "captcha_required:";
+    private static final String ATTEMPT_RECORD_PREFIX = "attempts:";
+    private static final String PASSWORD_RESET_RATE_LIMIT_OPERATION = "password_reset_rate_limit";
+    
+    // Motor de limite com janela deslizante (GCRA); quando desabilitado, usa os contadores fixos
+    @Value("${app.rate-limit.enabled:false}")
+    private boolean rateLimitEngineEnabled;
+    
+    // Contadores fixos de um identificador em um único hash (AttemptRecord), com uma janela por tipo
+    @Value("${app.rate-limit.attempt-record.enabled:false}")
+    private boolean attemptRecordEnabled;
+    
+    private RateLimiter rateLimiter;
+    private RateLimitPolicies rateLimitPolicies;
+    private LocalAttemptTier localAttemptTier;
+    private DegradedAttemptCounter degradedAttemptCounter;
+    
+    @Autowired(required = false)
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+    
+    @Autowired(required = false)
+    public void setRateLimitPolicies(RateLimitPolicies rateLimitPolicies) {
+        this.rateLimitPolicies = rateLimitPolicies;
+    }
+    
+    @Autowired(required = false)
+    public void setDegradedAttemptCounter(DegradedAttemptCounter degradedAttemptCounter) {
+        this.degradedAttemptCounter = degradedAttemptCounter;
+    }
+
+    @Autowired(required = false)
+    public void setLocalAttemptTier(LocalAttemptTier localAttemptTier) {
+        this.localAttemptTier = localAttemptTier;
+    }
+    
+    /**
+     * Verifica se o cliente excedeu a rajada local de requisições da operação.
+     * A decisão é tomada em memória, sem acesso ao Redis.
+     * 
+     * @param operation operação (login, verify_cpf)
+     * @param clientIp IP do cliente
+     * @return true se a requisição deve ser rejeitada
+     */
+    public boolean isLocallyThrottled(String operation, String clientIp) {
+        return localAttemptTier != null && !localAttemptTier.tryAdmit(operation, clientIp);
+    }
+    
+    /**
+     * Verifica se o número de tentativas retornado por {@link #recordLoginAttempt} exige captcha,
+     * sem nova consulta ao Redis.
+     * 
+     * @param attempts número de tentativas
+     * @return true se captcha é necessário
+     */
+    public boolean isLoginCaptchaThresholdReached(int attempts) {
+        return attempts >= maxAttempts("login");
+    }
+    
+    /**
+     * Verifica se o número de tentativas retornado por {@link #recordCpfErrorAttempt} exige captcha,
+     * sem nova consulta ao Redis.
+     * 
+     * @param attempts número de tentativas
+     * @return true se captcha é necessário
+     */
+    public boolean isCpfCaptchaThresholdReached(int attempts) {
+        return attempts >= maxAttempts("cpf_error");
+    }
+    
+    /**
+     * Tentativas restantes para um CPF a partir do número retornado por {@link #recordCpfErrorAttempt}.
+     * 
+     * @param attempts número de tentativas
+     * @return número de tentativas restantes
+     */
+    public int remainingCpfAttemptsAfter(int attempts) {
+        return Math.max(0, maxAttempts("cpf_error") - attempts);
+    }
     
     /**
      * Registra uma tentativa de login falhada.
@@ -85,7 +180,7 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
      */
     public boolean isCaptchaRequiredForLogin(String identifier) {
         String attemptKey = LOGIN_ATTEMPT_PREFIX + identifier;
-        return isCaptchaRequired(attemptKey);
+        return isCaptchaRequired(attemptKey, identifier, "login");
     }
     
     /**
@@ -96,7 +191,7 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
      */
     public boolean isCaptchaRequiredForPasswordReset(String identifier) {
         String attemptKey = PASSWORD_RESET_ATTEMPT_PREFIX + identifier;
-        return isCaptchaRequired(attemptKey);
+        return isCaptchaRequired(attemptKey, identifier, "password_reset");
     }
     
     /**
@@ -107,7 +202,7 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
      */
     public boolean isCpfVerificationCaptchaRequired(String identifier) {
         String key = CPF_VERIFICATION_ATTEMPT_PREFIX + identifier;
-        return isCaptchaRequired(key);
+        return isCaptchaRequired(key, identifier, "cpf_verification");
     }
     
     /**
@@ -118,7 +213,7 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
      */
     public boolean isEmailConfirmationCaptchaRequired(String identifier) {
         String key = EMAIL_CONFIRMATION_ATTEMPT_PREFIX + identifier;
-        return isCaptchaRequired(key);
+        return isCaptchaRequired(key, identifier, "email_confirmation");
     }
     
     /**
@@ -130,8 +225,7 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
         String attemptKey = LOGIN_ATTEMPT_PREFIX + identifier;
         String captchaKey = CAPTCHA_REQUIRED_PREFIX + "login:" + identifier;
         
-        redisTemplate.delete(attemptKey);
-        redisTemplate.delete(captchaKey);
+        clearAttempts(attemptKey, captchaKey, identifier, "login");
         
         logger.info("Tentativas de login limpas para identificador: {}", identifier);
     }
@@ -145,8 +239,7 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
         String attemptKey = PASSWORD_RESET_ATTEMPT_PREFIX + identifier;
         String captchaKey = CAPTCHA_REQUIRED_PREFIX + "password_reset:" + identifier;
         
-        redisTemplate.delete(attemptKey);
-        redisTemplate.delete(captchaKey);
+        clearAttempts(attemptKey, captchaKey, identifier, "password_reset");
         
         logger.info("Tentativas de recuperação de senha limpas para identificador: {}", identifier);
     }
@@ -160,8 +253,7 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
         String key = CPF_VERIFICATION_ATTEMPT_PREFIX + identifier;
         String captchaKey = CAPTCHA_REQUIRED_PREFIX + "cpf_verification:" + identifier;
         
-        delete(key);
-        delete(captchaKey);
+        clearAttempts(key, captchaKey, identifier, "cpf_verification");
         
         logInfo("Tentativas de verificação de CPF limpas para identificador: " + identifier);
     }
@@ -175,8 +267,7 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
         String key = EMAIL_CONFIRMATION_ATTEMPT_PREFIX + identifier;
         String captchaKey = CAPTCHA_REQUIRED_PREFIX + "email_confirmation:" + identifier;
         
-        delete(key);
-        delete(captchaKey);
+        clearAttempts(key, captchaKey, identifier, "email_confirmation");
         
         logInfo("Tentativas de confirmação de email limpas para identificador: " + identifier);
     }
@@ -189,7 +280,7 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
      */
     public int getLoginAttempts(String identifier) {
         String key = LOGIN_ATTEMPT_PREFIX + identifier;
-        return getAttempts(key);
+        return getAttempts(key, identifier, "login");
     }
     
     /**
@@ -200,7 +291,7 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
      */
     public int getPasswordResetAttempts(String identifier) {
         String key = PASSWORD_RESET_ATTEMPT_PREFIX + identifier;
-        return getAttempts(key);
+        return getAttempts(key, identifier, "password_reset");
     }
     
     /**
@@ -211,7 +302,7 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
      */
     public int getCpfVerificationAttempts(String identifier) {
         String key = CPF_VERIFICATION_ATTEMPT_PREFIX + identifier;
-        return getAttempts(key);
+        return getAttempts(key, identifier, "cpf_verification");
     }
     
     /**
@@ -222,7 +313,7 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
      */
     public int getEmailConfirmationAttempts(String identifier) {
         String key = EMAIL_CONFIRMATION_ATTEMPT_PREFIX + identifier;
-        return getAttempts(key);
+        return getAttempts(key, identifier, "email_confirmation");
     }
 
     /**
@@ -234,8 +325,10 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
     public boolean isPasswordResetRateLimited(String identifier) {
         String key = PASSWORD_RESET_RATE_LIMIT_PREFIX + identifier;
         try {
-            Object rateLimitObj = redisTemplate.opsForValue().get(key);
-            return rateLimitObj != null;
+            if (isRateLimitEngineEnabled()) {
+                return !rateLimiter.peek(policyFor(PASSWORD_RESET_RATE_LIMIT_OPERATION), identifier).isAllowed();
+            }
+            return Boolean.TRUE.equals(getDecoded(key, RedisValueCodecs.FLAG));
         } catch (Exception e) {
             logger.error("Erro ao verificar rate limiting para identificador: {}", identifier, e);
             return false;
@@ -250,8 +343,17 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
     public void recordPasswordResetSuccess(String identifier) {
         String key = PASSWORD_RESET_RATE_LIMIT_PREFIX + identifier;
         try {
+            if (isRateLimitEngineEnabled()) {
+                rateLimiter.tryAcquire(policyFor(PASSWORD_RESET_RATE_LIMIT_OPERATION), identifier);
+                logger.info("Rate limiting de recuperação de senha registrado para identificador: {}", identifier);
+                return;
+            }
             // Registra o rate limiting por 1 minuto
-            redisTemplate.opsForValue().set(key, "true", Duration.ofMinutes(PASSWORD_RESET_RATE_LIMIT_MINUTES));
+            if (isCompactCodecsEnabled()) {
+                setEncoded(key, Boolean.TRUE, RedisValueCodecs.FLAG, Duration.ofMinutes(PASSWORD_RESET_RATE_LIMIT_MINUTES));
+            } else {
+                setWithTTLMinutes(key, "true", PASSWORD_RESET_RATE_LIMIT_MINUTES);
+            }
             
             logger.info("Rate limiting de recuperação de senha ativado para identificador: {} por {} minuto(s)", 
                        identifier, PASSWORD_RESET_RATE_LIMIT_MINUTES);
@@ -269,6 +371,10 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
     public long getPasswordResetRateLimitRemainingSeconds(String identifier) {
         String key = PASSWORD_RESET_RATE_LIMIT_PREFIX + identifier;
         try {
+            if (isRateLimitEngineEnabled()) {
+                return rateLimiter.peek(policyFor(PASSWORD_RESET_RATE_LIMIT_OPERATION), identifier)
+                        .getRetryAfter().toSeconds();
+            }
             Long ttl = redisTemplate.getExpire(key, TimeUnit.SECONDS);
             return ttl != null && ttl > 0 ? ttl : 0;
         } catch (Exception e) {
@@ -286,39 +392,115 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
      * @return número atual de tentativas
      */
     private int recordAttempt(String key, String identifier, String type) {
+        if (isRedisDegraded()) {
+            return recordDegradedAttempt(identifier, type);
+        }
         try {
-            long attempts = incrementValueWithTTL(key, Duration.ofMinutes(ATTEMPT_EXPIRY_MINUTES));
+            int localAttempts = localAttemptTier != null
+                    ? localAttemptTier.tryRecordLocally(type, identifier, maxAttempts(type))
+                    : LocalAttemptTier.UNKNOWN;
+            if (localAttempts != LocalAttemptTier.UNKNOWN) {
+                // Longe do limite: a tentativa segue para o Redis no próximo envio em lote
+                logWarn("Tentativa " + type + " falhada para identificador: " + identifier + " - Total: " + localAttempts);
+                return localAttempts;
+            }
+            
+            if (isRateLimitEngineEnabled()) {
+                int engineAttempts = recordAttemptWithEngine(identifier, type);
+                observeAttempts(type, identifier, engineAttempts);
+                return engineAttempts + pendingAttempts(type, identifier);
+            }
+            
+            // Incrementa, renova o TTL e ativa o captcha ao atingir o limite em uma única ida ao Redis
+            long attempts;
+            if (attemptRecordEnabled) {
+                attempts = incrementFieldAndCheckThreshold(ATTEMPT_RECORD_PREFIX + identifier, type,
+                        AttemptRecord.captchaField(type), AttemptRecord.expiryField(type),
+                        Duration.ofMinutes(ATTEMPT_EXPIRY_MINUTES), MAX_ATTEMPTS_BEFORE_CAPTCHA);
+            } else {
+                String captchaKey = CAPTCHA_REQUIRED_PREFIX + type + ":" + identifier;
+                attempts = incrementAndCheckThreshold(key, Duration.ofMinutes(ATTEMPT_EXPIRY_MINUTES),
+                        MAX_ATTEMPTS_BEFORE_CAPTCHA, captchaKey, captchaFlagValue());
+            }
             
             int currentAttempts = (int) attempts;
+            observeAttempts(type, identifier, currentAttempts);
+            currentAttempts += pendingAttempts(type, identifier);
             
             logWarn("Tentativa " + type + " falhada para identificador: " + identifier + " - Total: " + currentAttempts);
             
-            // Ativa captcha se atingir o limite
             if (currentAttempts >= MAX_ATTEMPTS_BEFORE_CAPTCHA) {
-                activateCaptcha(identifier, type);
+                logWarn("Captcha ativado para " + type + " - identificador: " + identifier + " após " + MAX_ATTEMPTS_BEFORE_CAPTCHA + " tentativas");
             }
             
             return currentAttempts;
             
         } catch (Exception e) {
             logError("Erro ao registrar tentativa " + type + " para identificador: " + identifier, e);
-            return 0;
+            return recordDegradedAttempt(identifier, type);
+        }
+    }
+    
+    /**
+     * Registra uma tentativa falhada no motor de limite.
+     * O captcha passa a ser exigido quando a janela deslizante da operação se esgota.
+     * 
+     * @param identifier identificador (IP ou CPF)
+     * @param type tipo de tentativa
+     * @return número de tentativas na janela
+     */
+    private int recordAttemptWithEngine(String identifier, String type) {
+        RateLimitPolicy policy = policyFor(type);
+        RateLimitDecision decision = rateLimiter.tryAcquire(policy, identifier);
+        int currentAttempts = decision.consumed(policy);
+        
+        logWarn("Tentativa " + type + " falhada para identificador: " + identifier + " - Total: " + currentAttempts);
+        
+        if (decision.getRemaining() == 0) {
+            logWarn("Captcha ativado para " + type + " - identificador: " + identifier + " após " + policy.getLimit() + " tentativas");
         }
+        return currentAttempts;
     }
     
     /**
      * Verifica se captcha é necessário baseado no número de tentativas.
      * 
      * @param attemptKey chave das tentativas
+     * @param identifier identificador (IP ou CPF)
+     * @param type tipo de tentativa
      * @return true se captcha é necessário
      */
-    private boolean isCaptchaRequired(String attemptKey) {
+    private boolean isCaptchaRequired(String attemptKey, String identifier, String type) {
+        if (isRedisDegraded()) {
+            return degradedAttempts(identifier, type) >= maxAttempts(type);
+        }
         try {
-            int attempts = getIntegerValue(attemptKey);
-            return attempts >= MAX_ATTEMPTS_BEFORE_CAPTCHA;
+            Boolean local = localAttemptTier != null
+                    ? localAttemptTier.captchaRequired(type, identifier, maxAttempts(type))
+                    : null;
+            if (local != null) {
+                return local;
+            }
+            if (isRateLimitEngineEnabled()) {
+                RateLimitPolicy policy = policyFor(type);
+                RateLimitDecision decision = rateLimiter.peek(policy, identifier);
+                observeAttempts(type, identifier, decision.consumed(policy));
+                return !decision.isAllowed()
+                        || decision.consumed(policy) + pendingAttempts(type, identifier) >= policy.getLimit();
+            }
+            if (attemptRecordEnabled) {
+                AttemptRecord record = getAttemptRecord(identifier);
+                int attempts = record.getAttempts(type);
+                observeAttempts(type, identifier, attempts);
+                return record.isCaptchaFlagged(type)
+                        || attempts + pendingAttempts(type, identifier) >= MAX_ATTEMPTS_BEFORE_CAPTCHA;
+            }
+            int attempts = getCounter(attemptKey);
+            observeAttempts(type, identifier, attempts);
+            return attempts + pendingAttempts(type, identifier) >= MAX_ATTEMPTS_BEFORE_CAPTCHA;
         } catch (Exception e) {
             logError("Erro ao verificar necessidade de captcha para chave: " + attemptKey, e);
-            return false;
+            return degradedAttempts(identifier, type) >= maxAttempts(type);
         }
     }
     
@@ -326,29 +508,238 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
      * Obtém número de tentativas.
      * 
      * @param key chave Redis
+     * @param identifier identificador (IP ou CPF)
+     * @param type tipo de tentativa
+     * @return número de tentativas
+     */
+    private int getAttempts(String key, String identifier, String type) {
+        return getAttempts(key, identifier, type, null);
+    }
+    
+    /**
+     * Obtém número de tentativas, usando o registro já lido quando informado.
+     * 
+     * @param key chave Redis
+     * @param identifier identificador (IP ou CPF)
+     * @param type tipo de tentativa
+     * @param record registro consolidado já lido, ou null para consultar o Redis
      * @return número de tentativas
      */
-    private int getAttempts(String key) {
+    private int getAttempts(String key, String identifier, String type, AttemptRecord record) {
+        if (isRedisDegraded()) {
+            return degradedAttempts(identifier, type);
+        }
         try {
-            return getIntegerValue(key);
+            int localAttempts = localAttemptTier != null
+                    ? localAttemptTier.knownCount(type, identifier)
+                    : LocalAttemptTier.UNKNOWN;
+            if (localAttempts != LocalAttemptTier.UNKNOWN) {
+                return localAttempts;
+            }
+            int attempts;
+            if (isRateLimitEngineEnabled()) {
+                RateLimitPolicy policy = policyFor(type);
+                attempts = rateLimiter.peek(policy, identifier).consumed(policy);
+            } else {
+                attempts = record != null ? record.getAttempts(type) : readAttempts(key, identifier, type);
+            }
+            observeAttempts(type, identifier, attempts);
+            return attempts + pendingAttempts(type, identifier);
         } catch (Exception e) {
             logError("Erro ao obter tentativas para chave: " + key, e);
-            return 0;
+            return degradedAttempts(identifier, type);
         }
     }
     
     /**
-     * Ativa captcha para um identificador e tipo específico.
+     * Remove as tentativas e a marcação de captcha de um identificador.
      * 
-     * @param identifier identificador único
-     * @param type tipo de operação
+     * @param key chave das tentativas
+     * @param captchaKey chave de captcha obrigatório
+     * @param identifier identificador (IP ou CPF)
+     * @param type tipo de tentativa
      */
-    private void activateCaptcha(String identifier, String type) {
-        String captchaKey = CAPTCHA_REQUIRED_PREFIX + type + ":" + identifier;
-        
-        storeWithTTLMinutes(captchaKey, "true", ATTEMPT_EXPIRY_MINUTES);
-        
-        logWarn("Captcha ativado para " + type + " - identificador: " + identifier + " após " + MAX_ATTEMPTS_BEFORE_CAPTCHA + " tentativas");
+    private void clearAttempts(String key, String captchaKey, String identifier, String type) {
+        if (localAttemptTier != null) {
+            localAttemptTier.clear(type, identifier);
+        }
+        if (degradedAttemptCounter != null) {
+            degradedAttemptCounter.clear(type, identifier);
+        }
+        if (isRedisDegraded()) {
+            // O Redis mantém as tentativas anteriores até expirarem
+            return;
+        }
+        if (isRateLimitEngineEnabled()) {
+            rateLimiter.reset(policyFor(type), identifier);
+            return;
+        }
+        if (attemptRecordEnabled) {
+            deleteHashFields(ATTEMPT_RECORD_PREFIX + identifier, type, AttemptRecord.captchaField(type),
+                    AttemptRecord.expiryField(type));
+            return;
+        }
+        delete(key, captchaKey);
+    }
+    
+    /**
+     * Número de tentativas permitidas antes do captcha para o tipo de tentativa.
+     * 
+     * @param type tipo de tentativa
+     * @return limite configurado
+     */
+    private int maxAttempts(String type) {
+        return isRateLimitEngineEnabled() ? policyFor(type).getLimit() : MAX_ATTEMPTS_BEFORE_CAPTCHA;
+    }
+    
+    /**
+     * Envia ao Redis, em lote, as tentativas acumuladas pela camada local.
+     * Com contadores fixos, todos os incrementos vão em um único script; com o motor de
+     * limite, cada tentativa é consumida na política correspondente.
+     * Se o envio falhar, as tentativas são devolvidas para o próximo ciclo.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.local-tier.flush-interval-ms:500}")
+    public void flushLocalAttempts() {
+        if (localAttemptTier == null || !localAttemptTier.isEnabled() || isRedisDegraded()) {
+            // Com o Redis degradado as tentativas pendentes aguardam o próximo ciclo
+            return;
+        }
+        List<LocalAttemptTier.PendingAttempts> batch = localAttemptTier.drainPending();
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            if (isRateLimitEngineEnabled()) {
+                for (LocalAttemptTier.PendingAttempts pending : batch) {
+                    RateLimitPolicy policy = policyFor(pending.getType());
+                    for (int i = 0; i < pending.getDelta(); i++) {
+                        rateLimiter.tryAcquire(policy, pending.getIdentifier());
+                    }
+                }
+            } else if (attemptRecordEnabled) {
+                Map<String, Map<String, Long>> deltas = new LinkedHashMap<>();
+                for (LocalAttemptTier.PendingAttempts pending : batch) {
+                    deltas.computeIfAbsent(ATTEMPT_RECORD_PREFIX + pending.getIdentifier(), k -> new LinkedHashMap<>())
+                            .merge(pending.getType(), (long) pending.getDelta(), Long::sum);
+                }
+                incrementFieldsAndCheckThreshold(deltas, AttemptRecord::captchaField, AttemptRecord::expiryField,
+                        Duration.ofMinutes(ATTEMPT_EXPIRY_MINUTES), MAX_ATTEMPTS_BEFORE_CAPTCHA);
+            } else {
+                Map<String, Long> deltas = new LinkedHashMap<>();
+                Map<String, String> captchaKeys = new HashMap<>();
+                for (LocalAttemptTier.PendingAttempts pending : batch) {
+                    String attemptKey = attemptKeyFor(pending.getType(), pending.getIdentifier());
+                    deltas.merge(attemptKey, (long) pending.getDelta(), Long::sum);
+                    captchaKeys.put(attemptKey, CAPTCHA_REQUIRED_PREFIX + pending.getType() + ":" + pending.getIdentifier());
+                }
+                incrementAllAndCheckThreshold(deltas, captchaKeys::get,
+                        Duration.ofMinutes(ATTEMPT_EXPIRY_MINUTES), MAX_ATTEMPTS_BEFORE_CAPTCHA, captchaFlagValue());
+            }
+        } catch (Exception e) {
+            localAttemptTier.restore(batch);
+            logWarn("Falha ao enviar " + batch.size() + " contadores de tentativas locais ao Redis: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Lê as tentativas do tipo no Redis: campo do registro consolidado ou contador próprio.
+     */
+    private int readAttempts(String key, String identifier, String type) {
+        return attemptRecordEnabled ? getAttemptRecord(identifier).getAttempts(type) : getCounter(key);
+    }
+    
+    /**
+     * Lê o registro consolidado de tentativas do identificador com um único HGETALL.
+     * 
+     * @param identifier identificador único (IP ou CPF)
+     * @return registro de tentativas (vazio se não houver tentativas ou se o registro consolidado estiver desabilitado)
+     */
+    public AttemptRecord getAttemptRecord(String identifier) {
+        if (!attemptRecordEnabled) {
+            return AttemptRecord.EMPTY;
+        }
+        return AttemptRecord.fromHash(getHashEntries(ATTEMPT_RECORD_PREFIX + identifier));
+    }
+    
+    /**
+     * Lê um contador de tentativas (decimal gravado pelo INCR) sem passar pelo JSON.
+     */
+    private int getCounter(String key) {
+        Long value = getDecoded(key, RedisValueCodecs.COUNTER);
+        return value != null ? value.intValue() : 0;
+    }
+    
+    /**
+     * Valor da sinalização de captcha gravada pelos scripts: o byte de {@link RedisValueCodecs#FLAG}
+     * (números vão ao script como texto) ou a string JSON legada.
+     */
+    private Object captchaFlagValue() {
+        return isCompactCodecsEnabled() ? (Object) 1 : "true";
+    }
+    
+    /**
+     * Política de degradação: conta a tentativa em memória quando o Redis não responde.
+     * O captcha passa a depender apenas das tentativas recebidas por esta instância.
+     */
+    private int recordDegradedAttempt(String identifier, String type) {
+        if (degradedAttemptCounter == null) {
+            return 0;
+        }
+        recordDegradedFallback("attempts");
+        int attempts = degradedAttemptCounter.increment(type, identifier);
+        logWarn("Tentativa " + type + " contada localmente (Redis indisponível) para identificador: "
+                + identifier + " - Total: " + attempts);
+        return attempts;
+    }
+    
+    private int degradedAttempts(String identifier, String type) {
+        if (degradedAttemptCounter == null) {
+            return 0;
+        }
+        recordDegradedFallback("attempts");
+        return degradedAttemptCounter.get(type, identifier);
+    }
+    
+    private void observeAttempts(String type, String identifier, int attempts) {
+        if (localAttemptTier != null) {
+            localAttemptTier.observe(type, identifier, attempts);
+        }
+    }
+    
+    private int pendingAttempts(String type, String identifier) {
+        return localAttemptTier != null ? localAttemptTier.pending(type, identifier) : 0;
+    }
+    
+    /**
+     * Chave do contador de tentativas do tipo, com os mesmos prefixos usados nos métodos públicos.
+     */
+    private static String attemptKeyFor(String type, String identifier) {
+        switch (type) {
+            case "login":
+                return LOGIN_ATTEMPT_PREFIX + identifier;
+            case "password_reset":
+                return PASSWORD_RESET_ATTEMPT_PREFIX + identifier;
+            case "cpf_verification":
+                return CPF_VERIFICATION_ATTEMPT_PREFIX + identifier;
+            case "email_confirmation":
+                return EMAIL_CONFIRMATION_ATTEMPT_PREFIX + identifier;
+            case "cpf_error":
+                return CPF_ERROR_ATTEMPT_PREFIX + identifier;
+            default:
+                return type + "_attempts:" + identifier;
+        }
+    }
+    
+    private boolean isRateLimitEngineEnabled() {
+        return rateLimitEngineEnabled && rateLimiter != null && rateLimitPolicies != null;
+    }
+    
+    /**
+     * Política do tipo de tentativa: erros de CPF são limitados por CPF, os demais por IP.
+     */
+    private RateLimitPolicy policyFor(String type) {
+        RateLimitDimension dimension = "cpf_error".equals(type) ? RateLimitDimension.CPF : RateLimitDimension.IP;
+        return rateLimitPolicies.get(type, dimension);
     }
     
     /**
@@ -448,6 +839,23 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
     
     @Override
     public AttemptControlOperations.AttemptStatistics getAttemptStatistics(String identifier) {
+        if (attemptRecordEnabled && !isRateLimitEngineEnabled()) {
+            // Um único HGETALL para todos os contadores do identificador
+            AttemptRecord record = readAttemptRecord(identifier);
+            int loginAttempts = getAttempts(LOGIN_ATTEMPT_PREFIX + identifier, identifier, "login", record);
+            int passwordResetAttempts = getAttempts(PASSWORD_RESET_ATTEMPT_PREFIX + identifier, identifier,
+                    "password_reset", record);
+            return new AttemptControlOperations.AttemptStatistics(
+                identifier,
+                loginAttempts,
+                passwordResetAttempts,
+                isCaptchaFlagged(record, "login", loginAttempts),
+                isCaptchaFlagged(record, "password_reset", passwordResetAttempts),
+                isPasswordResetRateLimited(identifier),
+                getPasswordResetRateLimitRemainingSeconds(identifier),
+                getMaxAttemptsBeforeCaptcha()
+            );
+        }
         return new AttemptControlOperations.AttemptStatistics(
             identifier,
             getLoginAttempts(identifier),
@@ -456,13 +864,34 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
             isCaptchaRequiredForPasswordReset(identifier),
             isPasswordResetRateLimited(identifier),
             getPasswordResetRateLimitRemainingSeconds(identifier),
-            MAX_ATTEMPTS_BEFORE_CAPTCHA
+            getMaxAttemptsBeforeCaptcha()
         );
     }
     
+    /**
+     * Lê o registro consolidado para as estatísticas e tentativas restantes; em caso de falha, as consultas
+     * individuais tratam o erro como nas demais leituras.
+     */
+    private AttemptRecord readAttemptRecord(String identifier) {
+        try {
+            return getAttemptRecord(identifier);
+        } catch (Exception e) {
+            logError("Erro ao obter registro de tentativas para identificador: " + identifier, e);
+            return null;
+        }
+    }
+    
+    /**
+     * Captcha obrigatório pelo registro consolidado: marcação gravada ao atingir o limite
+     * ou tentativas já no limite.
+     */
+    private boolean isCaptchaFlagged(AttemptRecord record, String type, int attempts) {
+        return attempts >= MAX_ATTEMPTS_BEFORE_CAPTCHA || (record != null && record.isCaptchaFlagged(type));
+    }
+    
     @Override
     public int getMaxAttemptsBeforeCaptcha() {
-        return MAX_ATTEMPTS_BEFORE_CAPTCHA;
+        return maxAttempts("login");
     }
     
     /**
@@ -472,9 +901,27 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
      * @return número de tentativas restantes
      */
     public int getRemainingAttempts(String identifier) {
-        int currentAttempts = getLoginAttempts(identifier);
-        int remaining = MAX_ATTEMPTS_BEFORE_CAPTCHA - currentAttempts;
-        return Math.max(0, remaining);
+        return remainingAttempts(LOGIN_ATTEMPT_PREFIX + identifier, identifier, "login");
+    }
+    
+    /**
+     * Tentativas restantes do tipo. Com o registro consolidado, contador e marcação de
+     * captcha vêm do mesmo HGETALL; tipo marcado não tem tentativas restantes.
+     * 
+     * @param key chave do contador do tipo
+     * @param identifier identificador (IP ou CPF)
+     * @param type tipo de tentativa
+     * @return número de tentativas restantes
+     */
+    private int remainingAttempts(String key, String identifier, String type) {
+        if (attemptRecordEnabled && !isRateLimitEngineEnabled() && !isRedisDegraded()) {
+            AttemptRecord record = readAttemptRecord(identifier);
+            if (record != null && record.isCaptchaFlagged(type)) {
+                return 0;
+            }
+            return Math.max(0, maxAttempts(type) - getAttempts(key, identifier, type, record));
+        }
+        return Math.max(0, maxAttempts(type) - getAttempts(key, identifier, type));
     }
     
     // ===== MÉTODOS ESPECÍFICOS PARA CONTROLE DE TENTATIVAS BASEADO EM CPF =====
@@ -486,7 +933,7 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
      * @return número atual de tentativas para este CPF
      */
     public int recordCpfErrorAttempt(String cpf) {
-        String key = "cpf_error_attempts:" + cpf;
+        String key = CPF_ERROR_ATTEMPT_PREFIX + cpf;
         return recordAttempt(key, cpf, "cpf_error");
     }
     
@@ -497,8 +944,8 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
      * @return true se captcha é necessário
      */
     public boolean isCaptchaRequiredForCpf(String cpf) {
-        String attemptKey = "cpf_error_attempts:" + cpf;
-        return isCaptchaRequired(attemptKey);
+        String attemptKey = CPF_ERROR_ATTEMPT_PREFIX + cpf;
+        return isCaptchaRequired(attemptKey, cpf, "cpf_error");
     }
     
     /**
@@ -507,11 +954,10 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
      * @param cpf CPF que foi verificado com sucesso
      */
     public void clearCpfErrorAttempts(String cpf) {
-        String key = "cpf_error_attempts:" + cpf;
+        String key = CPF_ERROR_ATTEMPT_PREFIX + cpf;
         String captchaKey = CAPTCHA_REQUIRED_PREFIX + "cpf_error:" + cpf;
         
-        delete(key);
-        delete(captchaKey);
+        clearAttempts(key, captchaKey, cpf, "cpf_error");
         
         logInfo("Tentativas de erro de CPF limpas para CPF: " + cpf);
     }
@@ -523,8 +969,8 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
      * @return número de tentativas de erro
      */
     public int getCpfErrorAttempts(String cpf) {
-        String key = "cpf_error_attempts:" + cpf;
-        return getAttempts(key);
+        String key = CPF_ERROR_ATTEMPT_PREFIX + cpf;
+        return getAttempts(key, cpf, "cpf_error");
     }
     
     /**
@@ -534,9 +980,7 @@ public class AttemptService extends BaseRedisService implements AttemptControlOp
      * @return número de tentativas restantes
      */
     public int getRemainingCpfAttempts(String cpf) {
-        int currentAttempts = getCpfErrorAttempts(cpf);
-        int remaining = MAX_ATTEMPTS_BEFORE_CAPTCHA - currentAttempts;
-        return Math.max(0, remaining);
+        return remainingAttempts(CPF_ERROR_ATTEMPT_PREFIX + cpf, cpf, "cpf_error");
     }
     
     /**
@@ -3,6 +3,7 @@ package com.sistema.service;
 import com.sistema.entity.RefreshToken;
 import com.sistema.entity.User;
 import com.sistema.entity.UserRole;
+import com.sistema.security.UserDetailsNearCache;
 import com.sistema.service.base.BaseUserService;
 // import com.sistema.telemetry.metrics.CustomMetricsService;
 // import com.sistema.telemetry.metrics.SecurityMetricsService;
@@ -11,6 +12,8 @@ import com.sistema.util.ValidationUtils;
 // import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
@@ -38,6 +41,11 @@ import java.util.Optional;
 @Transactional
 public class AuthService extends BaseUserService implements UserDetailsService {
 
+    /**
+     * Cache das estatísticas de usuários (TTL por app.cache.two-level.caches.userStatistics.*).
+     */
+    public static final String USER_STATISTICS_CACHE = "userStatistics";
+
     private final JwtService jwtService;
     private final RefreshTokenService refreshTokenService;
     private final EmailVerificationService emailVerificationService;
@@ -45,6 +53,8 @@ public class AuthService extends BaseUserService implements UserDetailsService {
     // private final SecurityMetricsService securityMetricsService;
     // private final DistributedTracingService tracingService;
     private AuthenticationManager authenticationManager;
+    private UserSecurityVersionService userSecurityVersionService;
+    private UserDetailsNearCache userDetailsNearCache;
 
     @Autowired
     public AuthService(JwtService jwtService, RefreshTokenService refreshTokenService, 
@@ -62,6 +72,16 @@ public class AuthService extends BaseUserService implements UserDetailsService {
         this.authenticationManager = authenticationManager;
     }
 
+    @Autowired(required = false)
+    public void setUserSecurityVersionService(UserSecurityVersionService userSecurityVersionService) {
+        this.userSecurityVersionService = userSecurityVersionService;
+    }
+
+    @Autowired(required = false)
+    public void setUserDetailsNearCache(UserDetailsNearCache userDetailsNearCache) {
+        this.userDetailsNearCache = userDetailsNearCache;
+    }
+
     /**
      * Implementação do UserDetailsService para Spring Security.
      * 
@@ -71,6 +91,12 @@ public class AuthService extends BaseUserService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        if (userDetailsNearCache != null) {
+            User cached = userDetailsNearCache.get(email);
+            if (cached != null) {
+                return cached;
+            }
+        }
         try {
             Optional<User> userOpt = findUserByEmail(email);
             if (userOpt.isEmpty()) {
@@ -79,6 +105,9 @@ public class AuthService extends BaseUserService implements UserDetailsService {
             
             User user = userOpt.get();
             logger.debug("Usuário carregado: {}", user.getEmail());
+            if (userDetailsNearCache != null) {
+                userDetailsNearCache.put(user);
+            }
             return user;
         } catch (Exception e) {
             logger.warn("Erro ao carregar usuário: {}", email, e);
@@ -262,6 +291,7 @@ public class AuthService extends BaseUserService implements UserDetailsService {
      * @return usuário criado
      * @throws RuntimeException se email ou CPF já existirem
      */
+    @CacheEvict(cacheNames = USER_STATISTICS_CACHE, allEntries = true)
     public User register(String email, String password, String firstName, String lastName, String cpf) {
         // String traceId = tracingService.startTrace("auth.register", null, "POST /api/auth/register");
         // Timer.Sample registrationTimer = customMetricsService.startRegistrationTimer();
@@ -395,6 +425,7 @@ public class AuthService extends BaseUserService implements UserDetailsService {
      * @return tokens de autenticação
      * @throws RuntimeException se email ou CPF já existirem
      */
+    @CacheEvict(cacheNames = USER_STATISTICS_CACHE, allEntries = true)
     public Map<String, Object> registerAndAuthenticate(String email, String password, 
                                                        String firstName, String lastName, String cpf, HttpServletRequest request) {
         // Registrar o usuário
@@ -496,8 +527,11 @@ public class AuthService extends BaseUserService implements UserDetailsService {
             throw new IllegalArgumentException("Senha atual incorreta");
         }
         
+        // Invalida os tokens emitidos antes da troca; se falhar, a senha não é alterada
+        bumpSecurityVersion(user.getId());
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        invalidateCachedUser(email);
         
         logger.info("Senha alterada para usuário: {}", email);
     }
@@ -508,13 +542,41 @@ public class AuthService extends BaseUserService implements UserDetailsService {
      * @param userId ID do usuário
      * @param enabled true para ativar, false para desativar
      */
+    @CacheEvict(cacheNames = USER_STATISTICS_CACHE, allEntries = true)
     public void setUserEnabled(Long userId, boolean enabled) {
         userRepository.updateUserStatus(userId, enabled);
+        bumpSecurityVersion(userId);
+        if (userDetailsNearCache != null && userDetailsNearCache.isEnabled()) {
+            userRepository.findById(userId).ifPresent(user -> invalidateCachedUser(user.getEmail()));
+        }
         logger.info("Status do usuário {} alterado para: {}", userId, enabled ? "ativo" : "inativo");
     }
 
 
 
+    /**
+     * Incrementa a versão de segurança do usuário para que tokens emitidos
+     * antes da alteração deixem de ser aceitos no modo de principal sem estado.
+     *
+     * @param userId ID do usuário
+     */
+    private void bumpSecurityVersion(Long userId) {
+        if (userSecurityVersionService != null && userId != null) {
+            userSecurityVersionService.bumpVersion(userId);
+        }
+    }
+
+    /**
+     * Remove o usuário do near-cache local e das demais instâncias.
+     *
+     * @param email email do usuário alterado
+     */
+    private void invalidateCachedUser(String email) {
+        if (userDetailsNearCache != null) {
+            userDetailsNearCache.invalidate(email);
+        }
+    }
+
     /**
      * Cria a resposta de autenticação com tokens e informações do usuário.
      * 
@@ -586,6 +648,7 @@ public class AuthService extends BaseUserService implements UserDetailsService {
                 if (revokeAll) {
                     // Revoga todos os tokens do usuário
                     int revokedCount = refreshTokenService.revokeAllUserTokens(user);
+                    invalidateCachedUser(user.getEmail());
                     logger.info("Logout completo: {} tokens revogados para usuário: {}", revokedCount, user.getEmail());
                 } else {
                     // Revoga apenas o token atual
@@ -630,6 +693,7 @@ public class AuthService extends BaseUserService implements UserDetailsService {
         user.setUpdatedAt(LocalDateTime.now());
         
         User savedUser = userRepository.save(user);
+        invalidateCachedUser(user.getEmail());
         
         logInfo("Perfil do usuário atualizado com sucesso");
         
@@ -643,6 +707,7 @@ public class AuthService extends BaseUserService implements UserDetailsService {
      * @param newRole nova role
      * @return usuário atualizado
      */
+    @CacheEvict(cacheNames = USER_STATISTICS_CACHE, allEntries = true)
     public User updateUserRole(Long userId, UserRole newRole) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado"));
@@ -652,6 +717,8 @@ public class AuthService extends BaseUserService implements UserDetailsService {
         user.setUpdatedAt(LocalDateTime.now());
         
         User updatedUser = userRepository.save(user);
+        bumpSecurityVersion(userId);
+        invalidateCachedUser(user.getEmail());
         
         logger.info("Role do usuário {} (ID: {}) alterado de {} para {}", 
                    user.getEmail(), userId, oldRole, newRole);
@@ -677,9 +744,11 @@ public class AuthService extends BaseUserService implements UserDetailsService {
     
     /**
      * Retorna estatísticas de usuários como Map para uso em controllers.
+     * O resultado fica em cache; "lastUpdated" indica quando as contagens foram feitas.
      * 
      * @return mapa com estatísticas dos usuários
      */
+    @Cacheable(cacheNames = USER_STATISTICS_CACHE, key = "'all'")
     public Map<String, Object> getUserStatisticsAsMap() {
         UserStatistics stats = getUserStatistics();
         
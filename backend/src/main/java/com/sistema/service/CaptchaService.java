@@ -1,22 +1,27 @@
 package com.sistema.service;
 
-import com.google.code.kaptcha.impl.DefaultKaptcha;
-import com.google.code.kaptcha.util.Config;
 import com.sistema.service.base.BaseRedisService;
+import com.sistema.service.base.RedisValueCodecs;
+import com.sistema.service.captcha.CaptchaPool;
+import com.sistema.service.captcha.CaptchaRenderer;
+import com.sistema.service.captcha.CaptchaTokenSealer;
+import com.sistema.service.captcha.CaptchaTokenSealer.SealedCaptcha;
+import com.sistema.service.captcha.RenderedCaptcha;
 import com.sistema.service.interfaces.CaptchaOperations;
+import com.sistema.service.resilience.LocalCaptchaStore;
 import com.sistema.util.SecurityUtils;
 import com.sistema.util.ValidationUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.security.MessageDigest;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.Base64;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
-import java.util.Properties;
 import java.util.UUID;
 
 /**
@@ -29,30 +34,41 @@ public class CaptchaService extends BaseRedisService implements CaptchaOperation
     
     private static final int CAPTCHA_EXPIRY_MINUTES = 10;
     private static final String CAPTCHA_PREFIX = "captcha:";
+    // Índice de expiração dos captchas emitidos, usado pelas estatísticas no lugar de KEYS
+    private static final String CAPTCHA_INDEX = "stats:captcha";
+    // Registro de uso único dos captchas selados (modo sem estado): apenas IDs já validados
+    private static final String CAPTCHA_USED_PREFIX = "captcha_used:";
     
-    private final DefaultKaptcha kaptcha;
+    // Renderizador compartilhado com a reserva de captchas (mesmo Kaptcha e codificador)
+    private CaptchaRenderer renderer;
     
-    public CaptchaService() {
-        this.kaptcha = new DefaultKaptcha();
-        
-        Properties properties = new Properties();
-        properties.setProperty("kaptcha.image.width", "200");
-        properties.setProperty("kaptcha.image.height", "50");
-        properties.setProperty("kaptcha.textproducer.char.string", "ABCDEFGHJKLMNPQRSTUVWXYZ23456789");
-        properties.setProperty("kaptcha.textproducer.char.length", "5");
-        properties.setProperty("kaptcha.textproducer.font.names", "Arial");
-        properties.setProperty("kaptcha.textproducer.font.size", "40");
-        properties.setProperty("kaptcha.textproducer.font.color", "black");
-        properties.setProperty("kaptcha.textproducer.char.space", "5");
-        properties.setProperty("kaptcha.noise.impl", "com.google.code.kaptcha.impl.DefaultNoise");
-        properties.setProperty("kaptcha.noise.color", "blue");
-        properties.setProperty("kaptcha.background.clear.from", "lightGray");
-        properties.setProperty("kaptcha.background.clear.to", "white");
-        properties.setProperty("kaptcha.border", "yes");
-        properties.setProperty("kaptcha.border.color", "black");
-        
-        Config config = new Config(properties);
-        kaptcha.setConfig(config);
+    // Reserva opcional de captchas pré-renderizados
+    private CaptchaPool captchaPool;
+    
+    // Armazenamento local opcional usado enquanto o Redis está indisponível
+    private LocalCaptchaStore localCaptchaStore;
+    
+    // Selagem opcional do desafio no próprio ID (modo sem estado)
+    private CaptchaTokenSealer tokenSealer;
+    
+    @Autowired(required = false)
+    public void setLocalCaptchaStore(LocalCaptchaStore localCaptchaStore) {
+        this.localCaptchaStore = localCaptchaStore;
+    }
+    
+    @Autowired
+    public void setCaptchaRenderer(CaptchaRenderer renderer) {
+        this.renderer = renderer;
+    }
+    
+    @Autowired(required = false)
+    public void setCaptchaPool(CaptchaPool captchaPool) {
+        this.captchaPool = captchaPool;
+    }
+    
+    @Autowired(required = false)
+    public void setTokenSealer(CaptchaTokenSealer tokenSealer) {
+        this.tokenSealer = tokenSealer;
     }
     
     /**
@@ -61,27 +77,37 @@ public class CaptchaService extends BaseRedisService implements CaptchaOperation
      * @return objeto CaptchaData com ID e imagem em base64
      */
     public CaptchaData generateCaptchaData() {
+        CaptchaImage captcha = generateCaptchaImage();
+        return new CaptchaData(captcha.getId(), Base64.getEncoder().encodeToString(captcha.getImage()),
+                captcha.getContentType());
+    }
+    
+    /**
+     * Gera um novo captcha com a imagem em bytes, sem a conversão para base64.
+     * 
+     * @return objeto CaptchaImage com ID, imagem codificada e tipo de conteúdo
+     */
+    public CaptchaImage generateCaptchaImage() {
         try {
-            // Gerar texto do captcha
-            String captchaText = kaptcha.createText();
-            
-            // Gerar imagem do captcha
-            BufferedImage captchaImage = kaptcha.createImage(captchaText);
-            
-            // Converter imagem para base64
-            String base64Image = convertImageToBase64(captchaImage);
-            
-            // Gerar ID único para o captcha usando utilitário de segurança
-            String captchaId = SecurityUtils.generateSecureToken(32);
+            // Obter captcha pré-renderizado da reserva ou renderizar na hora
+            RenderedCaptcha rendered = captchaPool != null ? captchaPool.take() : renderer.render();
             
-            // Armazenar hash da resposta no Redis com TTL usando método da classe base
-            String hashedAnswer = SecurityUtils.hashSHA256(captchaText.toLowerCase());
-            String key = CAPTCHA_PREFIX + captchaId;
-            storeWithTTL(key, hashedAnswer, Duration.ofMinutes(CAPTCHA_EXPIRY_MINUTES));
+            String captchaId;
+            if (tokenSealer != null && tokenSealer.isEnabled()) {
+                // Modo sem estado: hash da resposta e expiração selados no próprio ID, sem escrita no Redis
+                Instant expiresAt = tokenSealer.now().plus(Duration.ofMinutes(CAPTCHA_EXPIRY_MINUTES));
+                captchaId = tokenSealer.seal(HexFormat.of().parseHex(rendered.getAnswerHash()), expiresAt);
+            } else {
+                // Gerar ID único para o captcha usando utilitário de segurança
+                captchaId = SecurityUtils.generateSecureToken(32);
+                
+                // Armazenar hash da resposta no Redis com TTL usando método da classe base
+                storeAnswerHash(captchaId, rendered.getAnswerHash());
+            }
             
             logger.info("Captcha gerado com ID: {}", captchaId);
             
-            return new CaptchaData(captchaId, base64Image);
+            return new CaptchaImage(captchaId, rendered.getImage(), rendered.getContentType());
             
         } catch (Exception e) {
             logger.error("Erro ao gerar captcha", e);
@@ -102,8 +128,18 @@ public class CaptchaService extends BaseRedisService implements CaptchaOperation
             ValidationUtils.validateNotBlank(captchaId, "ID do captcha é obrigatório");
             ValidationUtils.validateNotBlank(userAnswer, "Resposta do captcha é obrigatória");
             
+            SealedCaptcha sealed = openSealed(captchaId);
+            if (sealed != null) {
+                return validateSealed(sealed, userAnswer);
+            }
+            
             String key = CAPTCHA_PREFIX + captchaId;
-            String storedHash = getStringValue(key);
+            byte[] storedHash = readRemoteAnswerHash(key);
+            boolean local = false;
+            if (storedHash == null && localCaptchaStore != null) {
+                storedHash = localCaptchaStore.get(captchaId);
+                local = storedHash != null;
+            }
             
             if (storedHash == null) {
                 logger.warn("Captcha não encontrado ou expirado: {}", captchaId);
@@ -112,11 +148,16 @@ public class CaptchaService extends BaseRedisService implements CaptchaOperation
             
             // Comparar hash da resposta do usuário com o hash armazenado
             String userAnswerHash = SecurityUtils.hashSHA256(userAnswer.trim().toLowerCase());
-            boolean isValid = storedHash.equals(userAnswerHash);
+            boolean isValid = MessageDigest.isEqual(storedHash, HexFormat.of().parseHex(userAnswerHash));
             
             if (isValid) {
                 // Remover captcha após validação bem-sucedida (uso único)
-                removeKey(key);
+                if (local) {
+                    localCaptchaStore.remove(captchaId);
+                } else {
+                    removeKey(key);
+                    untrackExpiring(CAPTCHA_INDEX, captchaId);
+                }
                 logger.info("Captcha validado com sucesso: {}", captchaId);
             } else {
                 logger.warn("Resposta incorreta para captcha: {}", captchaId);
@@ -130,6 +171,140 @@ public class CaptchaService extends BaseRedisService implements CaptchaOperation
         }
     }
     
+    /**
+     * Valida um captcha selado: a resposta é conferida com o hash do próprio ID e, se correta,
+     * o ID é registrado como usado. Apenas o primeiro uso de cada ID é aceito.
+     */
+    private boolean validateSealed(SealedCaptcha sealed, String userAnswer) {
+        String userAnswerHash = SecurityUtils.hashSHA256(userAnswer.trim().toLowerCase());
+        if (!MessageDigest.isEqual(sealed.getAnswerHash(), HexFormat.of().parseHex(userAnswerHash))) {
+            logger.warn("Resposta incorreta para captcha selado: {}", sealed.getId());
+            return false;
+        }
+        if (!markSealedUsed(sealed)) {
+            logger.warn("Captcha selado já utilizado: {}", sealed.getId());
+            return false;
+        }
+        logger.info("Captcha selado validado com sucesso: {}", sealed.getId());
+        return true;
+    }
+    
+    /**
+     * Abre o ID como captcha selado; IDs aleatórios do modo com estado resultam em null.
+     * Captchas selados continuam aceitos após desabilitar o modo sem estado, até expirarem.
+     */
+    private SealedCaptcha openSealed(String captchaId) {
+        return tokenSealer != null ? tokenSealer.open(captchaId) : null;
+    }
+    
+    /**
+     * Registra o uso de um captcha selado (SET NX com TTL até a expiração do captcha).
+     * Com o Redis indisponível o registro é feito no armazenamento local, o que garante uso
+     * único apenas nesta instância; sem armazenamento local o erro é propagado e a validação falha.
+     * 
+     * @return true se este foi o primeiro uso
+     */
+    private boolean markSealedUsed(SealedCaptcha sealed) {
+        String key = CAPTCHA_USED_PREFIX + sealed.getId();
+        if (localCaptchaStore != null && (isRedisDegraded() || localCaptchaStore.get(key) != null)) {
+            return markSealedUsedLocally(key);
+        }
+        Duration ttl = Duration.between(tokenSealer.now(), sealed.getExpiresAt());
+        if (ttl.compareTo(Duration.ofSeconds(1)) < 0) {
+            ttl = Duration.ofSeconds(1);
+        }
+        try {
+            return setIfAbsent(key, 1, ttl);
+        } catch (RuntimeException e) {
+            if (localCaptchaStore == null) {
+                throw e;
+            }
+            logger.warn("Falha ao registrar uso de captcha no Redis, usando armazenamento local: {}", e.getMessage());
+            return markSealedUsedLocally(key);
+        }
+    }
+    
+    private boolean markSealedUsedLocally(String key) {
+        recordDegradedFallback("captcha");
+        if (localCaptchaStore.get(key) != null) {
+            return false;
+        }
+        localCaptchaStore.put(key, new byte[0]);
+        return true;
+    }
+    
+    /**
+     * @return true se o captcha selado já foi utilizado
+     */
+    private boolean isSealedUsed(SealedCaptcha sealed) {
+        String key = CAPTCHA_USED_PREFIX + sealed.getId();
+        if (localCaptchaStore != null && localCaptchaStore.get(key) != null) {
+            return true;
+        }
+        return !isRedisDegraded() && keyExists(key);
+    }
+    
+    /**
+     * Armazena o hash da resposta: 32 bytes do digest com os codecs compactos,
+     * hexadecimal em JSON caso contrário. Com o Redis indisponível, o hash fica no
+     * armazenamento local desta instância.
+     * 
+     * @param captchaId ID do captcha
+     * @param hashedAnswer hash SHA-256 da resposta em hexadecimal
+     */
+    private void storeAnswerHash(String captchaId, String hashedAnswer) {
+        if (localCaptchaStore != null && isRedisDegraded()) {
+            storeLocally(captchaId, hashedAnswer);
+            return;
+        }
+        String key = CAPTCHA_PREFIX + captchaId;
+        Duration ttl = Duration.ofMinutes(CAPTCHA_EXPIRY_MINUTES);
+        try {
+            if (isCompactCodecsEnabled()) {
+                setEncoded(key, HexFormat.of().parseHex(hashedAnswer), RedisValueCodecs.SHA256, ttl);
+            } else {
+                storeWithTTL(key, hashedAnswer, ttl);
+            }
+            trackExpiring(CAPTCHA_INDEX, captchaId, ttl);
+        } catch (RuntimeException e) {
+            if (localCaptchaStore == null) {
+                throw e;
+            }
+            logger.warn("Falha ao armazenar captcha {} no Redis, usando armazenamento local: {}",
+                    captchaId, e.getMessage());
+            storeLocally(captchaId, hashedAnswer);
+        }
+    }
+    
+    private void storeLocally(String captchaId, String hashedAnswer) {
+        recordDegradedFallback("captcha");
+        localCaptchaStore.put(captchaId, HexFormat.of().parseHex(hashedAnswer));
+    }
+    
+    /**
+     * Lê o hash da resposta no Redis. Sem armazenamento local, erros seguem para o chamador;
+     * com ele, o Redis indisponível equivale a captcha ausente no Redis.
+     * 
+     * @param key chave do captcha
+     * @return digest da resposta ou null
+     */
+    private byte[] readRemoteAnswerHash(String key) {
+        if (localCaptchaStore == null) {
+            return getDecoded(key, RedisValueCodecs.SHA256);
+        }
+        if (isRedisDegraded()) {
+            recordDegradedFallback("captcha");
+            return null;
+        }
+        try {
+            return getDecoded(key, RedisValueCodecs.SHA256);
+        } catch (RuntimeException e) {
+            logger.warn("Falha ao consultar captcha no Redis, usando armazenamento local: {}", e.getMessage());
+            recordDegradedFallback("captcha");
+            return null;
+        }
+    }
+    
     /**
      * Verifica se um captcha existe e não expirou.
      * 
@@ -139,6 +314,16 @@ public class CaptchaService extends BaseRedisService implements CaptchaOperation
     public boolean captchaExistsInternal(String captchaId) {
         try {
             ValidationUtils.validateNotBlank(captchaId, "ID do captcha é obrigatório");
+            SealedCaptcha sealed = openSealed(captchaId);
+            if (sealed != null) {
+                return !isSealedUsed(sealed);
+            }
+            if (localCaptchaStore != null && localCaptchaStore.get(captchaId) != null) {
+                return true;
+            }
+            if (isRedisDegraded()) {
+                return false;
+            }
             String key = CAPTCHA_PREFIX + captchaId;
             return keyExists(key);
         } catch (Exception e) {
@@ -149,13 +334,14 @@ public class CaptchaService extends BaseRedisService implements CaptchaOperation
     
     /**
      * Remove captchas expirados (limpeza manual).
-     * O Redis já remove automaticamente com TTL, mas este método pode ser usado para limpeza forçada.
+     * O Redis já remove automaticamente com TTL; este método usa o índice de expiração para
+     * remover apenas os captchas vencidos e suas entradas no índice, sem tocar nos válidos.
      * 
-     * @return número de captchas removidos
+     * @return número de captchas expirados removidos
      */
     public long cleanupExpiredCaptchasInternal() {
         try {
-            return cleanupKeysByPattern(CAPTCHA_PREFIX + "*");
+            return cleanupExpiredTracked(CAPTCHA_INDEX, CAPTCHA_PREFIX);
         } catch (Exception e) {
             logger.error("Erro ao limpar captchas expirados", e);
             return 0;
@@ -164,14 +350,14 @@ public class CaptchaService extends BaseRedisService implements CaptchaOperation
     
     /**
      * Obtém estatísticas de captchas.
+     * Captchas selados (modo sem estado) não são registrados no Redis e não entram na contagem.
      * 
      * @return estatísticas dos captchas
      */
     public CaptchaStatistics getStatistics() {
         try {
-            // Contar captchas ativos
-            String pattern = CAPTCHA_PREFIX + "*";
-            long activeCaptchas = redisTemplate.keys(pattern).size();
+            // Contar captchas ativos pelo índice de expiração, sem percorrer o keyspace
+            long activeCaptchas = countActive(CAPTCHA_INDEX);
             
             return new CaptchaStatistics(activeCaptchas, CAPTCHA_EXPIRY_MINUTES);
             
@@ -182,13 +368,10 @@ public class CaptchaService extends BaseRedisService implements CaptchaOperation
     }
     
     /**
-     * Converte uma imagem BufferedImage para string base64.
+     * Converte uma imagem BufferedImage para string base64 no formato do codificador configurado.
      */
-    private String convertImageToBase64(BufferedImage image) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(image, "png", baos);
-        byte[] imageBytes = baos.toByteArray();
-        return Base64.getEncoder().encodeToString(imageBytes);
+    private String convertImageToBase64(BufferedImage image) {
+        return Base64.getEncoder().encodeToString(renderer.getEncoder().encode(image));
     }
     
 
@@ -199,14 +382,40 @@ public class CaptchaService extends BaseRedisService implements CaptchaOperation
     public static class CaptchaData {
         private final String id;
         private final String imageBase64;
+        private final String contentType;
         
         public CaptchaData(String id, String imageBase64) {
+            this(id, imageBase64, "image/png");
+        }
+        
+        public CaptchaData(String id, String imageBase64, String contentType) {
             this.id = id;
             this.imageBase64 = imageBase64;
+            this.contentType = contentType;
         }
         
         public String getId() { return id; }
         public String getImageBase64() { return imageBase64; }
+        public String getContentType() { return contentType; }
+    }
+    
+    /**
+     * Classe para captcha com a imagem em bytes.
+     */
+    public static class CaptchaImage {
+        private final String id;
+        private final byte[] image;
+        private final String contentType;
+        
+        public CaptchaImage(String id, byte[] image, String contentType) {
+            this.id = id;
+            this.image = image;
+            this.contentType = contentType;
+        }
+        
+        public String getId() { return id; }
+        public byte[] getImage() { return image; }
+        public String getContentType() { return contentType; }
     }
     
     /**
@@ -236,10 +445,24 @@ public class CaptchaService extends BaseRedisService implements CaptchaOperation
     public boolean removeCaptchaInternal(String captchaId) {
         try {
             ValidationUtils.validateNotBlank(captchaId, "ID do captcha é obrigatório");
-            String key = CAPTCHA_PREFIX + captchaId;
-            boolean existed = keyExists(key);
+            SealedCaptcha sealed = openSealed(captchaId);
+            if (sealed != null) {
+                // Um captcha selado não pode ser apagado; é invalidado registrando seu uso
+                boolean removed = markSealedUsed(sealed);
+                if (removed) {
+                    logger.info("Captcha removido: {}", captchaId);
+                }
+                return removed;
+            }
+            boolean existed = localCaptchaStore != null && localCaptchaStore.remove(captchaId);
+            if (!isRedisDegraded()) {
+                String key = CAPTCHA_PREFIX + captchaId;
+                if (keyExists(key)) {
+                    removeKey(key);
+                    existed = true;
+                }
+            }
             if (existed) {
-                removeKey(key);
                 logger.info("Captcha removido: {}", captchaId);
             }
             return existed;
@@ -259,6 +482,7 @@ public class CaptchaService extends BaseRedisService implements CaptchaOperation
         Map<String, String> result = new HashMap<>();
         result.put("id", data.getId());
         result.put("imageBase64", data.getImageBase64());
+        result.put("contentType", data.getContentType());
         return result;
     }
     
@@ -296,15 +520,15 @@ public class CaptchaService extends BaseRedisService implements CaptchaOperation
             String base64Image = convertImageToBase64(image);
             
             // Armazenar hash da resposta no Redis
-            String key = CAPTCHA_PREFIX + captchaId;
             String hashedAnswer = SecurityUtils.hashSHA256(testAnswer.toLowerCase());
-            storeWithTTL(key, hashedAnswer, Duration.ofMinutes(CAPTCHA_EXPIRY_MINUTES));
+            storeAnswerHash(captchaId, hashedAnswer);
             
             logger.info("Captcha de teste gerado com ID: {} e resposta: {}", captchaId, testAnswer);
             
             Map<String, String> result = new HashMap<>();
             result.put("id", captchaId);
             result.put("imageBase64", base64Image);
+            result.put("contentType", renderer.getEncoder().getContentType());
             result.put("answer", testAnswer);
             return result;
             
@@ -341,11 +565,11 @@ public class CaptchaService extends BaseRedisService implements CaptchaOperation
     public Map<String, Object> getDefaultCaptchaConfig() {
         Map<String, Object> config = new HashMap<>();
         config.put("expiryMinutes", CAPTCHA_EXPIRY_MINUTES);
-        config.put("imageWidth", 200);
-        config.put("imageHeight", 50);
-        config.put("textLength", 5);
-        config.put("fontName", "Arial");
-        config.put("fontSize", 40);
+        config.put("imageWidth", CaptchaRenderer.IMAGE_WIDTH);
+        config.put("imageHeight", CaptchaRenderer.IMAGE_HEIGHT);
+        config.put("textLength", CaptchaRenderer.TEXT_LENGTH);
+        config.put("fontName", CaptchaRenderer.FONT_NAME);
+        config.put("fontSize", CaptchaRenderer.FONT_SIZE);
         return config;
     }
     
@@ -2,6 +2,7 @@ package com.sistema.service;
 
 import com.sistema.entity.User;
 import com.sistema.repository.UserRepository;
+import com.sistema.security.UserDetailsNearCache;
 import com.sistema.service.base.BaseService;
 import com.sistema.util.SecurityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +30,10 @@ public class EmailVerificationService extends BaseService {
     @Autowired
     private EmailService emailService;
 
+    // Near-cache de autenticação; o status de verificação do email faz parte do usuário em cache
+    @Autowired(required = false)
+    private UserDetailsNearCache userDetailsNearCache;
+
     @Value("${app.email.verification.token.expiration.hours:24}")
     private int tokenExpirationHours;
 
@@ -57,6 +62,7 @@ public class EmailVerificationService extends BaseService {
         user.setEmailVerified(false);
         
         userRepository.save(user);
+        invalidateCachedUser(user);
         
         // Enviar email de verificação
         try {
@@ -118,6 +124,7 @@ public class EmailVerificationService extends BaseService {
         user.setUpdatedAt(LocalDateTime.now());
         
         userRepository.save(user);
+        invalidateCachedUser(user);
         
         logInfo("Email verificado com sucesso para usuário: " + user.getEmail());
         
@@ -245,6 +252,17 @@ public class EmailVerificationService extends BaseService {
         return SecurityUtils.hashSHA256(combined);
     }
 
+    /**
+     * Remove o usuário do near-cache de autenticação local e das demais instâncias.
+     * 
+     * @param user usuário alterado
+     */
+    private void invalidateCachedUser(User user) {
+        if (userDetailsNearCache != null) {
+            userDetailsNearCache.invalidate(user.getEmail());
+        }
+    }
+
     /**
      * Classe para estatísticas de verificação de email.
      */
@@ -2,10 +2,13 @@ package com.sistema.service;
 
 import com.sistema.config.RSAKeyManager;
 import com.sistema.entity.User;
+import com.sistema.security.VerifiedToken;
+import com.sistema.security.VerifiedTokenCache;
 import com.sistema.service.base.BaseService;
 import com.sistema.service.interfaces.TokenOperations;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureAlgorithm;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +16,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 
+import java.security.Key;
+import java.security.KeyPair;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.time.Instant;
@@ -35,6 +40,15 @@ public class JwtService extends BaseService implements TokenOperations {
 
     private final RSAKeyManager rsaKeyManager;
 
+    // Parser imutável e thread-safe, construído uma vez; a chave é resolvida por token via kid
+    private final JwtParser jwtParser;
+
+    // Cache opcional de tokens já verificados (desabilitado por padrão)
+    private VerifiedTokenCache verifiedTokenCache;
+
+    // Versão de segurança dos usuários, gravada nos tokens de acesso quando disponível
+    private UserSecurityVersionService userSecurityVersionService;
+
     // Configurações de tempo de vida dos tokens
     @Value("${app.jwt.access-token.expiration:3600}")
     private long accessTokenExpirationSeconds;
@@ -48,6 +62,19 @@ public class JwtService extends BaseService implements TokenOperations {
     @Autowired
     public JwtService(RSAKeyManager rsaKeyManager) {
         this.rsaKeyManager = rsaKeyManager;
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new KeyringLocator())
+                .build();
+    }
+
+    @Autowired(required = false)
+    public void setVerifiedTokenCache(VerifiedTokenCache verifiedTokenCache) {
+        this.verifiedTokenCache = verifiedTokenCache;
+    }
+
+    @Autowired(required = false)
+    public void setUserSecurityVersionService(UserSecurityVersionService userSecurityVersionService) {
+        this.userSecurityVersionService = userSecurityVersionService;
     }
 
     /**
@@ -65,6 +92,10 @@ public class JwtService extends BaseService implements TokenOperations {
                 .collect(Collectors.toList()));
         extraClaims.put("email", user.getEmail());
         extraClaims.put("fullName", user.getFullName());
+        if (userSecurityVersionService != null && userSecurityVersionService.isEnabled() && user.getId() != null) {
+            extraClaims.put(VerifiedToken.SECURITY_VERSION_CLAIM,
+                    userSecurityVersionService.getCurrentVersion(user.getId()));
+        }
         
         return generateToken(extraClaims, user.getEmail(), accessTokenExpirationSeconds);
     }
@@ -97,18 +128,34 @@ public class JwtService extends BaseService implements TokenOperations {
         }
         
         try {
-            PrivateKey privateKey = rsaKeyManager.getPrivateKey();
+            PrivateKey privateKey;
+            String keyId;
+            SignatureAlgorithm signatureAlgorithm;
+            KeyPair curveKeyPair = rsaKeyManager.getCurveKeyPair();
+            if (curveKeyPair != null) {
+                privateKey = curveKeyPair.getPrivate();
+                keyId = RSAKeyManager.keyIdOf(curveKeyPair.getPublic());
+                signatureAlgorithm = RSAKeyManager.ES256.equals(rsaKeyManager.getSignatureAlgorithm())
+                        ? Jwts.SIG.ES256
+                        : Jwts.SIG.EdDSA;
+            } else {
+                privateKey = rsaKeyManager.getPrivateKey();
+                // kid derivado da própria chave de assinatura, consistente mesmo durante uma rotação
+                keyId = RSAKeyManager.keyIdOf(privateKey);
+                signatureAlgorithm = Jwts.SIG.RS256;
+            }
             
             Instant now = Instant.now();
             Instant expiration = now.plus(expirationSeconds, ChronoUnit.SECONDS);
             
             String token = Jwts.builder()
+                    .header().keyId(keyId).and()
                     .claims(extraClaims)
                     .subject(email)
                     .issuer(issuer)
                     .issuedAt(Date.from(now))
                     .expiration(Date.from(expiration))
-                    .signWith(privateKey, Jwts.SIG.RS256)
+                    .signWith(privateKey, signatureAlgorithm)
                     .compact();
             
             logger.debug("Token JWT gerado para usuário: {}", email);
@@ -201,10 +248,46 @@ public class JwtService extends BaseService implements TokenOperations {
      * @return valor do claim
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verifyToken(token).getClaims();
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verifica a assinatura do token e lê seus claims uma única vez.
+     * O resultado imutável pode ser repassado às demais verificações da requisição
+     * sem nova validação RSA.
+     * 
+     * @param token o token JWT
+     * @return token verificado com os claims já extraídos
+     * @throws ExpiredJwtException se o token estiver expirado
+     * @throws MalformedJwtException se o token for malformado
+     * @throws io.jsonwebtoken.security.SignatureException se a assinatura for inválida
+     */
+    public VerifiedToken verifyToken(String token) {
+        if (verifiedTokenCache != null && verifiedTokenCache.isEnabled()) {
+            VerifiedToken cached = verifiedTokenCache.get(token);
+            if (cached != null) {
+                return cached;
+            }
+            VerifiedToken verified = VerifiedToken.of(token, extractAllClaims(token));
+            verifiedTokenCache.put(verified);
+            return verified;
+        }
+        return VerifiedToken.of(token, extractAllClaims(token));
+    }
+
+    /**
+     * Remove um token do cache de verificação, se habilitado.
+     * Chamado na revogação para que o token não seja mais servido a partir do cache.
+     * 
+     * @param token o token JWT
+     */
+    public void invalidateCachedToken(String token) {
+        if (verifiedTokenCache != null) {
+            verifiedTokenCache.invalidate(token);
+        }
+    }
+
     /**
      * Extrai todos os claims do token JWT.
      * 
@@ -213,11 +296,7 @@ public class JwtService extends BaseService implements TokenOperations {
      */
     private Claims extractAllClaims(String token) {
         try {
-            PublicKey publicKey = rsaKeyManager.getPublicKey();
-            
-            return Jwts.parser()
-                    .verifyWith(publicKey)
-                    .build()
+            return jwtParser
                     .parseSignedClaims(token)
                     .getPayload();
                     
@@ -286,8 +365,7 @@ public class JwtService extends BaseService implements TokenOperations {
      * @throws ExpiredJwtException se o token estiver expirado
      */
     public boolean isValidAccessToken(String token) {
-        String tokenType = extractTokenType(token);
-        return "access".equals(tokenType) && !isTokenExpired(token);
+        return verifyToken(token).isValidAccessToken();
     }
 
     /**
@@ -298,8 +376,7 @@ public class JwtService extends BaseService implements TokenOperations {
      */
     public boolean isValidAccessTokenSafe(String token) {
         try {
-            String tokenType = extractTokenType(token);
-            return "access".equals(tokenType) && !isTokenExpired(token);
+            return verifyToken(token).isValidAccessToken();
         } catch (Exception e) {
             logger.warn("Token de acesso inválido: {}", e.getMessage());
             return false;
@@ -314,8 +391,7 @@ public class JwtService extends BaseService implements TokenOperations {
      */
     public boolean isValidRefreshToken(String token) {
         try {
-            String tokenType = extractTokenType(token);
-            return "refresh".equals(tokenType) && !isTokenExpired(token);
+            return verifyToken(token).isValidRefreshToken();
         } catch (Exception e) {
             logger.warn("Token de refresh inválido: {}", e.getMessage());
             return false;
@@ -340,7 +416,7 @@ public class JwtService extends BaseService implements TokenOperations {
             info.put("issuer", claims.getIssuer());
             info.put("issuedAt", claims.getIssuedAt());
             info.put("expiresAt", claims.getExpiration());
-            info.put("expired", isTokenExpired(token));
+            info.put("expired", claims.getExpiration() != null && claims.getExpiration().before(new Date()));
             return info;
         } catch (Exception e) {
             logger.error("Erro ao obter informações do token: {}", e.getMessage());
@@ -418,8 +494,7 @@ public class JwtService extends BaseService implements TokenOperations {
     
     public boolean validateToken(String token) {
         try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
+            return !verifyToken(token).isExpired();
         } catch (Exception e) {
             return false;
         }
@@ -471,4 +546,17 @@ public class JwtService extends BaseService implements TokenOperations {
     public long getRefreshTokenExpiration() {
         return refreshTokenExpirationSeconds;
     }
-}
\ No newline at end of file
+
+    /**
+     * Resolve a chave de verificação pelo header "kid" no keyring do RSAKeyManager.
+     * Tokens sem kid (emitidos antes do keyring) ou com kid desconhecido usam a chave ativa.
+     */
+    private final class KeyringLocator extends LocatorAdapter<Key> {
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            PublicKey verificationKey = rsaKeyManager.getVerificationKey(header.getKeyId());
+            return verificationKey != null ? verificationKey : rsaKeyManager.getPublicKey();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.sistema.service;
 
 import com.sistema.entity.User;
 import com.sistema.repository.UserRepository;
+import com.sistema.security.UserDetailsNearCache;
 import com.sistema.service.base.BaseService;
 import com.sistema.util.SecurityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +23,8 @@ public class PasswordResetService extends BaseService {
 
     private final UserRepository userRepository;
     private final EmailService emailService;
+    private UserSecurityVersionService userSecurityVersionService;
+    private UserDetailsNearCache userDetailsNearCache;
 
     @Value("${app.password-reset.token.expiration.hours:2}")
     private int tokenExpirationHours;
@@ -32,6 +35,16 @@ public class PasswordResetService extends BaseService {
         this.emailService = emailService;
     }
 
+    @Autowired(required = false)
+    public void setUserSecurityVersionService(UserSecurityVersionService userSecurityVersionService) {
+        this.userSecurityVersionService = userSecurityVersionService;
+    }
+
+    @Autowired(required = false)
+    public void setUserDetailsNearCache(UserDetailsNearCache userDetailsNearCache) {
+        this.userDetailsNearCache = userDetailsNearCache;
+    }
+
     /**
      * Gera um token de reset de senha para o usuário.
      * 
@@ -120,14 +133,22 @@ public class PasswordResetService extends BaseService {
             
             User user = userOpt.get();
             
+            // Invalida os tokens de acesso emitidos antes do reset; se falhar, a senha não é alterada
+            if (userSecurityVersionService != null) {
+                userSecurityVersionService.bumpVersion(user.getId());
+            }
+            
             // Atualiza a senha (será codificada pelo AuthService)
             user.setPassword(newPassword);
             
             // Limpa o token de reset
             user.clearResetPasswordToken();
             
-            // Salva as alterações
+            // Salva as alterações e descarta a senha antiga do near-cache de autenticação
             userRepository.save(user);
+            if (userDetailsNearCache != null) {
+                userDetailsNearCache.invalidate(user.getEmail());
+            }
             
             logInfo("Senha redefinida com sucesso para usuário: " + user.getEmail());
             return true;
@@ -3,6 +3,11 @@ package com.sistema.service;
 import com.sistema.entity.RefreshToken;
 import com.sistema.entity.User;
 import com.sistema.repository.RefreshTokenRepository;
+import com.sistema.repository.UserRepository;
+import com.sistema.service.refreshtoken.IndexedRefreshToken;
+import com.sistema.service.refreshtoken.RefreshTokenHashMigration;
+import com.sistema.service.refreshtoken.RefreshTokenIndex;
+import com.sistema.service.refreshtoken.RefreshTokenLastUsedWriter;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,12 +16,15 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Serviço para gerenciar tokens de refresh.
@@ -41,6 +49,33 @@ public class RefreshTokenService {
 
     @Autowired
     private RefreshTokenRepository refreshTokenRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    // Índice opcional de validação no Redis
+    private RefreshTokenIndex refreshTokenIndex;
+    
+    // Gravação adiada opcional do último uso
+    private RefreshTokenLastUsedWriter lastUsedWriter;
+    
+    // Migração dos tokens em texto puro para hash
+    private RefreshTokenHashMigration hashMigration;
+    
+    @Autowired(required = false)
+    public void setRefreshTokenIndex(RefreshTokenIndex refreshTokenIndex) {
+        this.refreshTokenIndex = refreshTokenIndex;
+    }
+    
+    @Autowired(required = false)
+    public void setLastUsedWriter(RefreshTokenLastUsedWriter lastUsedWriter) {
+        this.lastUsedWriter = lastUsedWriter;
+    }
+    
+    @Autowired(required = false)
+    public void setHashMigration(RefreshTokenHashMigration hashMigration) {
+        this.hashMigration = hashMigration;
+    }
 
     /**
      * Cria um novo token de refresh para o usuário.
@@ -73,7 +108,11 @@ public class RefreshTokenService {
         
         refreshToken.setLastUsedAt(LocalDateTime.now());
         
+        long validAsOf = System.currentTimeMillis();
         RefreshToken saved = refreshTokenRepository.save(refreshToken);
+        if (isIndexEnabled()) {
+            afterCommit(() -> refreshTokenIndex.index(saved, validAsOf));
+        }
         logger.info("Refresh token criado com sucesso para usuário: {} (ID: {})", user.getEmail(), saved.getId());
         
         return saved;
@@ -81,6 +120,8 @@ public class RefreshTokenService {
 
     /**
      * Busca e valida um token de refresh.
+     * Com o índice habilitado, tokens indexados são validados no Redis e o token retornado é
+     * uma cópia destacada (não gerenciada pelo JPA) com o usuário carregado.
      *
      * @param token O valor do token
      * @return Optional contendo o RefreshToken se válido
@@ -90,12 +131,36 @@ public class RefreshTokenService {
             return Optional.empty();
         }
         
-        Optional<RefreshToken> refreshToken = refreshTokenRepository.findValidByToken(token, LocalDateTime.now());
+        String tokenHash = RefreshToken.hashToken(token);
+        LocalDateTime now = LocalDateTime.now();
+        if (isIndexEnabled()) {
+            IndexedRefreshToken indexed = refreshTokenIndex.lookup(tokenHash, now);
+            if (indexed != null) {
+                if (!indexed.isUsableAt(now)) {
+                    logger.debug("Refresh token revogado ou expirado segundo o índice");
+                    return Optional.empty();
+                }
+                Optional<User> user = userRepository.findById(indexed.getUserId());
+                if (user.isPresent()) {
+                    RefreshToken refreshToken = indexed.toRefreshToken(token, user.get());
+                    recordLastUsed(refreshToken, now, false);
+                    logger.debug("Refresh token válido encontrado no índice");
+                    return Optional.of(refreshToken);
+                }
+            }
+        }
+        
+        long validAsOf = System.currentTimeMillis();
+        Optional<RefreshToken> refreshToken = findStored(token, tokenHash,
+                key -> refreshTokenRepository.findValidByToken(key, now));
         
         if (refreshToken.isPresent()) {
             // Atualiza último uso
-            refreshToken.get().updateLastUsed();
-            refreshTokenRepository.save(refreshToken.get());
+            recordLastUsed(refreshToken.get(), now, true);
+            if (isIndexEnabled()) {
+                RefreshToken found = refreshToken.get();
+                afterCommit(() -> refreshTokenIndex.index(found, validAsOf));
+            }
             logger.debug("Refresh token válido encontrado e atualizado");
         } else {
             logger.debug("Refresh token inválido ou expirado: {}", token.substring(0, Math.min(token.length(), 10)) + "...");
@@ -111,11 +176,17 @@ public class RefreshTokenService {
      * @return true se o token foi revogado com sucesso
      */
     public boolean revokeRefreshToken(String token) {
-        Optional<RefreshToken> refreshToken = refreshTokenRepository.findByToken(token);
+        if (token == null || token.isEmpty()) {
+            return false;
+        }
+        
+        Optional<RefreshToken> refreshToken = findStored(token, RefreshToken.hashToken(token),
+                refreshTokenRepository::findByToken);
         
         if (refreshToken.isPresent() && !refreshToken.get().getIsRevoked()) {
             refreshToken.get().revoke();
             refreshTokenRepository.save(refreshToken.get());
+            markRevokedInIndex(refreshToken.get());
             logger.info("Refresh token revogado: {}", refreshToken.get().getId());
             return true;
         }
@@ -131,6 +202,7 @@ public class RefreshTokenService {
      */
     public int revokeAllUserTokens(User user) {
         int revokedCount = refreshTokenRepository.revokeAllByUser(user);
+        revokeAllInIndex(user);
         logger.info("Revogados {} refresh tokens do usuário: {}", revokedCount, user.getEmail());
         return revokedCount;
     }
@@ -143,7 +215,13 @@ public class RefreshTokenService {
      * @return Número de tokens revogados
      */
     public int revokeOtherUserTokens(User user, String currentToken) {
-        int revokedCount = refreshTokenRepository.revokeAllByUserExcept(user, currentToken);
+        String currentTokenHash = currentToken != null ? RefreshToken.hashToken(currentToken) : null;
+        if (currentToken != null && isLegacyLookupEnabled()) {
+            // Converte o token atual, se ainda estiver em texto puro, para que seja preservado
+            findStored(currentToken, currentTokenHash, refreshTokenRepository::findByToken);
+        }
+        int revokedCount = refreshTokenRepository.revokeAllByUserExcept(user, currentTokenHash);
+        revokeAllInIndex(user);
         logger.info("Revogados {} outros refresh tokens do usuário: {}", revokedCount, user.getEmail());
         return revokedCount;
     }
@@ -201,12 +279,83 @@ public class RefreshTokenService {
                 RefreshToken tokenToRevoke = validTokens.get(i);
                 tokenToRevoke.revoke();
                 refreshTokenRepository.save(tokenToRevoke);
+                markRevokedInIndex(tokenToRevoke);
             }
             
             logger.info("Removidos {} tokens antigos do usuário: {}", tokensToRemove, user.getEmail());
         }
     }
 
+    /**
+     * Atualiza o último uso: com a gravação adiada, apenas registra em memória para o próximo
+     * lote; sem ela, grava imediatamente (pela entidade gerenciada ou por UPDATE direto).
+     */
+    private void recordLastUsed(RefreshToken refreshToken, LocalDateTime now, boolean managed) {
+        if (lastUsedWriter != null && lastUsedWriter.isEnabled()) {
+            lastUsedWriter.record(refreshToken.getId(), now);
+        } else if (managed) {
+            refreshToken.updateLastUsed();
+            refreshTokenRepository.save(refreshToken);
+        } else {
+            refreshTokenRepository.updateLastUsed(refreshToken.getTokenHash(), now);
+        }
+    }
+    
+    /**
+     * Busca o token pelo hash e, enquanto a migração para hash não terminou, também pelo valor
+     * original; uma linha ainda em texto puro é convertida para o hash ao ser encontrada.
+     */
+    private Optional<RefreshToken> findStored(String token, String tokenHash,
+                                              Function<String, Optional<RefreshToken>> finder) {
+        Optional<RefreshToken> refreshToken = finder.apply(tokenHash);
+        if (refreshToken.isEmpty() && isLegacyLookupEnabled()) {
+            refreshToken = finder.apply(token);
+            refreshToken.ifPresent(legacy -> {
+                legacy.setTokenHash(tokenHash);
+                logger.debug("Refresh token em texto puro convertido para hash: {}", legacy.getId());
+            });
+        }
+        return refreshToken;
+    }
+    
+    private boolean isLegacyLookupEnabled() {
+        return hashMigration != null && !hashMigration.isComplete();
+    }
+    
+    private boolean isIndexEnabled() {
+        return refreshTokenIndex != null && refreshTokenIndex.isEnabled();
+    }
+    
+    private void markRevokedInIndex(RefreshToken refreshToken) {
+        if (isIndexEnabled()) {
+            afterCommit(() -> refreshTokenIndex.markRevoked(refreshToken));
+        }
+    }
+    
+    private void revokeAllInIndex(User user) {
+        if (isIndexEnabled()) {
+            Long userId = user.getId();
+            afterCommit(() -> refreshTokenIndex.revokeAllForUser(userId));
+        }
+    }
+    
+    /**
+     * Executa a ação após o commit da transação atual (ou imediatamente, fora de transação),
+     * para que o índice nunca anteceda o estado confirmado no banco.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
     /**
      * Gera um token seguro aleatório.
      *
@@ -1,17 +1,29 @@
 package com.sistema.service;
 
+import com.sistema.security.RevocationStatus;
+import com.sistema.security.RevokedTokenFilter;
+import com.sistema.security.UserRevocationEpochs;
+import com.sistema.security.VerifiedToken;
 import com.sistema.service.base.BaseRedisService;
+import com.sistema.service.base.RedisValueCodec;
+import com.sistema.service.base.RedisValueCodecs;
 import com.sistema.service.interfaces.SecurityOperations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
-import java.util.concurrent.TimeUnit;
+import java.util.List;
+import java.util.function.BiConsumer;
 
 /**
  * Serviço responsável por gerenciar a blacklist de tokens JWT revogados.
@@ -23,13 +35,26 @@ public class TokenBlacklistService extends BaseRedisService implements SecurityO
     
     private static final Logger logger = LoggerFactory.getLogger(TokenBlacklistService.class);
     private static final String BLACKLIST_PREFIX = "jwt:blacklist:";
-    
-    @Autowired
-    private RedisTemplate<String, Object> redisTemplate;
+    // Índice de expiração das entradas da blacklist, usado pelas estatísticas no lugar de KEYS
+    private static final String BLACKLIST_INDEX = "stats:jwt:blacklist";
+    private static final String USER_REVOCATION_SEGMENT = "user:";
+    private static final String FAIL_CLOSED = "fail-closed";
     
     @Autowired
     private JwtService jwtService;
     
+    // Filtro local opcional que evita consultar o Redis para tokens certamente não revogados
+    @Autowired(required = false)
+    private RevokedTokenFilter revokedTokenFilter;
+    
+    // Tabela local opcional das revogações globais por usuário, evitando o GET por requisição
+    @Autowired(required = false)
+    private UserRevocationEpochs userRevocationEpochs;
+    
+    // Decisão quando a blacklist não pode ser consultada: fail-open aceita o token, fail-closed o rejeita
+    @Value("${app.redis.circuit-breaker.token-blacklist-policy:fail-open}")
+    private String degradedPolicy;
+    
     /**
      * Adiciona um token à blacklist.
      * O token será armazenado no Redis com TTL baseado na sua data de expiração.
@@ -53,7 +78,18 @@ public class TokenBlacklistService extends BaseRedisService implements SecurityO
             
             // Adiciona à blacklist com TTL
             String key = BLACKLIST_PREFIX + tokenId;
-            redisTemplate.opsForValue().set(key, "revoked", ttlSeconds, TimeUnit.SECONDS);
+            if (isCompactCodecsEnabled()) {
+                setEncoded(key, Boolean.TRUE, RedisValueCodecs.FLAG, Duration.ofSeconds(ttlSeconds));
+            } else {
+                setWithTTL(key, "revoked", Duration.ofSeconds(ttlSeconds));
+            }
+            trackExpiring(BLACKLIST_INDEX, tokenId, Duration.ofSeconds(ttlSeconds));
+            if (revokedTokenFilter != null) {
+                revokedTokenFilter.add(tokenId);
+            }
+            
+            // Garante que o token não seja mais servido pelo cache local de verificação
+            jwtService.invalidateCachedToken(token);
             
             logger.info("Token revogado e adicionado à blacklist: {} (TTL: {}s)", tokenId, ttlSeconds);
             return true;
@@ -72,23 +108,181 @@ public class TokenBlacklistService extends BaseRedisService implements SecurityO
      */
     public boolean isTokenRevoked(String token) {
         try {
-            String tokenId = extractTokenIdentifier(token);
-            String key = BLACKLIST_PREFIX + tokenId;
+            return isRevokedIdentifier(extractTokenIdentifier(token));
+        } catch (Exception e) {
+            logger.error("Erro ao verificar blacklist para token: {}", e.getMessage(), e);
+            // Em caso de erro aplica a política configurada (por padrão não bloqueia usuários válidos)
+            return applyDegradedPolicy();
+        }
+    }
+    
+    /**
+     * Verifica se um token já verificado está na blacklist.
+     * Usa o JTI lido na verificação, sem validar a assinatura novamente.
+     * 
+     * @param verifiedToken token com assinatura e claims já verificados
+     * @return true se o token está revogado, false caso contrário
+     */
+    public boolean isRevoked(VerifiedToken verifiedToken) {
+        try {
+            return isRevokedIdentifier(extractTokenIdentifier(verifiedToken));
+        } catch (Exception e) {
+            logger.error("Erro ao verificar blacklist para token: {}", e.getMessage(), e);
+            return applyDegradedPolicy();
+        }
+    }
+    
+    /**
+     * Verifica a blacklist do token e a revogação global do usuário em uma única decisão.
+     * As consultas que não puderem ser respondidas localmente (filtro de revogação e
+     * tabela de revogações globais) são feitas juntas em um único MGET.
+     * 
+     * @param verifiedToken token com assinatura e claims já verificados
+     * @param username Nome do usuário
+     * @return situação de revogação do token
+     */
+    public RevocationStatus checkRevocation(VerifiedToken verifiedToken, String username) {
+        try {
+            String tokenId = extractTokenIdentifier(verifiedToken);
+            boolean lookupToken = revokedTokenFilter == null || revokedTokenFilter.mightBeRevoked(tokenId);
+            boolean localEpochs = userRevocationEpochs != null && userRevocationEpochs.isReady();
+            boolean lookupUser = username != null && !localEpochs;
             
-            Boolean exists = redisTemplate.hasKey(key);
-            boolean isRevoked = Boolean.TRUE.equals(exists);
+            if ((lookupToken || lookupUser) && isRedisDegraded()) {
+                // Redis indisponível: decide sem consultá-lo
+                if (applyDegradedPolicy()) {
+                    return RevocationStatus.REVOKED;
+                }
+                lookupToken = false;
+                lookupUser = false;
+            }
             
-            if (isRevoked) {
-                logger.debug("Token encontrado na blacklist: {}", tokenId);
+            List<String> keys = new ArrayList<>(2);
+            List<RedisValueCodec<?>> codecs = new ArrayList<>(2);
+            if (lookupToken) {
+                keys.add(BLACKLIST_PREFIX + tokenId);
+                codecs.add(RedisValueCodecs.FLAG);
             }
+            if (lookupUser) {
+                keys.add(BLACKLIST_PREFIX + USER_REVOCATION_SEGMENT + username);
+                codecs.add(RedisValueCodecs.TIMESTAMP);
+            }
+            List<Object> values = multiGetDecoded(keys, codecs);
             
-            return isRevoked;
+            if (lookupToken) {
+                if (Boolean.TRUE.equals(values.get(0))) {
+                    logger.debug("Token encontrado na blacklist: {}", tokenId);
+                    return RevocationStatus.REVOKED;
+                }
+                if (revokedTokenFilter != null && revokedTokenFilter.isReady()) {
+                    revokedTokenFilter.recordFalsePositive();
+                }
+            }
+            
+            Long revocationTimestamp = null;
+            if (lookupUser) {
+                revocationTimestamp = (Long) values.get(values.size() - 1);
+            } else if (localEpochs) {
+                revocationTimestamp = userRevocationEpochs.getEpoch(username);
+            }
+            
+            if (revocationTimestamp != null
+                    && isIssuedBefore(verifiedToken.getIssuedAt(), revocationTimestamp, username)) {
+                return RevocationStatus.GLOBALLY_REVOKED;
+            }
+            return RevocationStatus.ACTIVE;
             
         } catch (Exception e) {
-            logger.error("Erro ao verificar blacklist para token: {}", e.getMessage(), e);
-            // Em caso de erro, considera o token como não revogado para não bloquear usuários válidos
+            logger.error("Erro ao verificar revogação do token para usuário {}: {}", username, e.getMessage(), e);
+            // Em caso de erro aplica a política configurada (por padrão não bloqueia usuários válidos)
+            return applyDegradedPolicy() ? RevocationStatus.REVOKED : RevocationStatus.ACTIVE;
+        }
+    }
+    
+    /**
+     * Consulta a blacklist pelo identificador do token.
+     * 
+     * @param tokenId identificador do token (JTI ou hash)
+     * @return true se o identificador está na blacklist
+     */
+    private boolean isRevokedIdentifier(String tokenId) {
+        // Resposta negativa do filtro local dispensa a consulta ao Redis
+        if (revokedTokenFilter != null && !revokedTokenFilter.mightBeRevoked(tokenId)) {
             return false;
         }
+        
+        if (isRedisDegraded()) {
+            return applyDegradedPolicy();
+        }
+        
+        String key = BLACKLIST_PREFIX + tokenId;
+        
+        boolean isRevoked = exists(key);
+        
+        if (isRevoked) {
+            logger.debug("Token encontrado na blacklist: {}", tokenId);
+        } else if (revokedTokenFilter != null && revokedTokenFilter.isReady()) {
+            revokedTokenFilter.recordFalsePositive();
+        }
+        
+        return isRevoked;
+    }
+    
+    /**
+     * Reconstrói o estado local de revogação (filtro de tokens e tabela de revogações
+     * globais) a partir do Redis. Executado na inicialização e periodicamente, para
+     * descartar entradas cujas chaves na blacklist já expiraram.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.jwt.blacklist-filter.rebuild-interval-ms:300000}",
+               initialDelayString = "${app.jwt.blacklist-filter.rebuild-interval-ms:300000}")
+    public void rebuildLocalRevocationState() {
+        rebuildRevocationFilter();
+        rebuildUserRevocationEpochs();
+    }
+    
+    /**
+     * Reconstrói o filtro local de revogação percorrendo a blacklist com SCAN.
+     */
+    public void rebuildRevocationFilter() {
+        if (revokedTokenFilter == null) {
+            return;
+        }
+        revokedTokenFilter.rebuild(sink -> scanKeys(BLACKLIST_PREFIX + "*", 1000, batch -> {
+            for (String key : batch) {
+                String tokenId = key.substring(BLACKLIST_PREFIX.length());
+                if (!tokenId.startsWith(USER_REVOCATION_SEGMENT)) {
+                    sink.accept(tokenId);
+                }
+            }
+        }));
+    }
+    
+    /**
+     * Recarrega a tabela local de revogações globais percorrendo as chaves
+     * jwt:blacklist:user:* com SCAN e lendo os timestamps em lotes com MGET.
+     */
+    public void rebuildUserRevocationEpochs() {
+        if (userRevocationEpochs == null || !userRevocationEpochs.isEnabled()) {
+            return;
+        }
+        String userPrefix = BLACKLIST_PREFIX + USER_REVOCATION_SEGMENT;
+        userRevocationEpochs.rebuild(sink ->
+            scanKeys(userPrefix + "*", 500, batch -> loadUserRevocationBatch(batch, userPrefix, sink)));
+    }
+    
+    private void loadUserRevocationBatch(List<String> keys, String userPrefix, BiConsumer<String, Long> sink) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<Object> values = multiGetDecoded(keys, Collections.nCopies(keys.size(), RedisValueCodecs.TIMESTAMP));
+        for (int i = 0; i < keys.size(); i++) {
+            Object value = values.get(i);
+            // Chaves que expiraram entre o SCAN e o MGET retornam null
+            if (value != null) {
+                sink.accept(keys.get(i).substring(userPrefix.length()), (Long) value);
+            }
+        }
     }
     
     /**
@@ -102,10 +296,10 @@ public class TokenBlacklistService extends BaseRedisService implements SecurityO
             String tokenId = extractTokenIdentifier(token);
             String key = BLACKLIST_PREFIX + tokenId;
             
-            Boolean deleted = redisTemplate.delete(key);
-            boolean success = Boolean.TRUE.equals(deleted);
+            boolean success = delete(key);
             
             if (success) {
+                untrackExpiring(BLACKLIST_INDEX, tokenId);
                 logger.info("Token removido da blacklist: {}", tokenId);
             }
             
@@ -131,7 +325,16 @@ public class TokenBlacklistService extends BaseRedisService implements SecurityO
             long currentTime = System.currentTimeMillis();
             
             // Armazena o timestamp de revogação (tokens emitidos antes deste momento são inválidos)
-            redisTemplate.opsForValue().set(key, currentTime, Duration.ofDays(30));
+            if (isCompactCodecsEnabled()) {
+                setEncoded(key, currentTime, RedisValueCodecs.TIMESTAMP, Duration.ofDays(30));
+            } else {
+                setWithTTL(key, currentTime, Duration.ofDays(30));
+            }
+            trackExpiring(BLACKLIST_INDEX, USER_REVOCATION_SEGMENT + username, Duration.ofDays(30));
+            
+            if (userRevocationEpochs != null) {
+                userRevocationEpochs.record(username, currentTime);
+            }
             
             logger.info("Todos os tokens do usuário {} foram revogados a partir de {}", username, new Date(currentTime));
             return true;
@@ -151,32 +354,97 @@ public class TokenBlacklistService extends BaseRedisService implements SecurityO
      */
     public boolean isTokenGloballyRevoked(String token, String username) {
         try {
-            String key = BLACKLIST_PREFIX + "user:" + username;
-            Object revocationTime = redisTemplate.opsForValue().get(key);
-            
-            if (revocationTime == null) {
-                return false;
+            if (!hasLocalUserEpochs() && isRedisDegraded()) {
+                return applyDegradedPolicy();
             }
-            
-            long revocationTimestamp = Long.parseLong(revocationTime.toString());
-            Date tokenIssuedAt = jwtService.extractIssuedAt(token);
-            
-            if (tokenIssuedAt == null) {
+            Long revocationTimestamp = getUserRevocationTimestamp(username);
+            if (revocationTimestamp == null) {
                 return false;
             }
+            return isIssuedBefore(jwtService.extractIssuedAt(token), revocationTimestamp, username);
             
-            boolean isRevoked = tokenIssuedAt.getTime() < revocationTimestamp;
-            
-            if (isRevoked) {
-                logger.debug("Token do usuário {} foi revogado globalmente", username);
+        } catch (Exception e) {
+            logger.error("Erro ao verificar revogação global para usuário {}: {}", username, e.getMessage(), e);
+            return applyDegradedPolicy();
+        }
+    }
+    
+    /**
+     * Verifica se um token já verificado foi emitido antes da revogação global do usuário.
+     * Usa a data de emissão lida na verificação, sem validar a assinatura novamente.
+     * 
+     * @param verifiedToken token com assinatura e claims já verificados
+     * @param username Nome do usuário
+     * @return true se o token foi revogado globalmente
+     */
+    public boolean isGloballyRevoked(VerifiedToken verifiedToken, String username) {
+        try {
+            if (!hasLocalUserEpochs() && isRedisDegraded()) {
+                return applyDegradedPolicy();
             }
-            
-            return isRevoked;
+            Long revocationTimestamp = getUserRevocationTimestamp(username);
+            if (revocationTimestamp == null) {
+                return false;
+            }
+            return isIssuedBefore(verifiedToken.getIssuedAt(), revocationTimestamp, username);
             
         } catch (Exception e) {
             logger.error("Erro ao verificar revogação global para usuário {}: {}", username, e.getMessage(), e);
+            return applyDegradedPolicy();
+        }
+    }
+    
+    /**
+     * Obtém o timestamp de revogação global do usuário.
+     * Usa a tabela local quando ela já foi carregada; caso contrário consulta o Redis.
+     * 
+     * @param username Nome do usuário
+     * @return timestamp em milissegundos ou null se não houver revogação
+     */
+    private Long getUserRevocationTimestamp(String username) {
+        if (hasLocalUserEpochs()) {
+            return userRevocationEpochs.getEpoch(username);
+        }
+        String key = BLACKLIST_PREFIX + "user:" + username;
+        return getDecoded(key, RedisValueCodecs.TIMESTAMP);
+    }
+    
+    private boolean hasLocalUserEpochs() {
+        return userRevocationEpochs != null && userRevocationEpochs.isReady();
+    }
+    
+    /**
+     * Política de degradação da blacklist, aplicada quando o Redis não pode ser consultado.
+     * fail-open considera o token válido (disponibilidade); fail-closed o considera revogado
+     * (segurança), exigindo novo login ao fim do incidente.
+     * 
+     * @return true se o token deve ser tratado como revogado
+     */
+    private boolean applyDegradedPolicy() {
+        recordDegradedFallback("token_blacklist");
+        return FAIL_CLOSED.equalsIgnoreCase(degradedPolicy);
+    }
+    
+    /**
+     * Compara a data de emissão do token com o timestamp de revogação.
+     * 
+     * @param tokenIssuedAt data de emissão do token
+     * @param revocationTimestamp timestamp de revogação global
+     * @param username Nome do usuário (para logs)
+     * @return true se o token foi emitido antes da revogação
+     */
+    private boolean isIssuedBefore(Date tokenIssuedAt, long revocationTimestamp, String username) {
+        if (tokenIssuedAt == null) {
             return false;
         }
+        
+        boolean isRevoked = tokenIssuedAt.getTime() < revocationTimestamp;
+        
+        if (isRevoked) {
+            logger.debug("Token do usuário {} foi revogado globalmente", username);
+        }
+        
+        return isRevoked;
     }
     
     /**
@@ -186,7 +454,7 @@ public class TokenBlacklistService extends BaseRedisService implements SecurityO
      */
     public long getBlacklistSize() {
         try {
-            return redisTemplate.keys(BLACKLIST_PREFIX + "*").size();
+            return countActive(BLACKLIST_INDEX);
         } catch (Exception e) {
             logger.error("Erro ao obter tamanho da blacklist: {}", e.getMessage(), e);
             return -1;
@@ -215,6 +483,20 @@ public class TokenBlacklistService extends BaseRedisService implements SecurityO
         return String.valueOf(token.hashCode());
     }
     
+    /**
+     * Extrai o identificador único de um token já verificado.
+     * 
+     * @param verifiedToken token verificado
+     * @return Identificador único do token
+     */
+    private String extractTokenIdentifier(VerifiedToken verifiedToken) {
+        String jti = verifiedToken.getJti();
+        if (jti != null && !jti.isEmpty()) {
+            return jti;
+        }
+        return String.valueOf(verifiedToken.getToken().hashCode());
+    }
+    
     /**
      * Calcula o TTL em segundos baseado na data de expiração do token.
      * 
@@ -307,23 +589,10 @@ public class TokenBlacklistService extends BaseRedisService implements SecurityO
      */
     public java.util.Map<String, Object> getBlacklistStatistics() {
         try {
-            java.util.Set<String> blacklistedKeys = redisTemplate.keys(BLACKLIST_PREFIX + "*");
-            if (blacklistedKeys == null) {
-                blacklistedKeys = java.util.Set.of();
-            }
-            
-            int totalBlacklisted = blacklistedKeys.size();
-            int activeBlacklisted = 0;
-            int expiredBlacklisted = 0;
-            
-            for (String key : blacklistedKeys) {
-                Long ttl = redisTemplate.getExpire(key, TimeUnit.SECONDS);
-                if (ttl != null && ttl > 0) {
-                    activeBlacklisted++;
-                } else {
-                    expiredBlacklisted++;
-                }
-            }
+            // Contagens mantidas no índice de expiração: O(1)/O(log N), sem percorrer o keyspace
+            int totalBlacklisted = (int) countTracked(BLACKLIST_INDEX);
+            int activeBlacklisted = (int) countActive(BLACKLIST_INDEX);
+            int expiredBlacklisted = Math.max(0, totalBlacklisted - activeBlacklisted);
             
             java.util.Map<String, Object> stats = new java.util.HashMap<>();
             stats.put("totalBlacklisted", totalBlacklisted);
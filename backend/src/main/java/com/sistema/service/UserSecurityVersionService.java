@@ -0,0 +1,98 @@
+package com.sistema.service;
+
+import com.sistema.service.base.BaseRedisService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serviço que mantém a "versão de segurança" de cada usuário.
+ * A versão é incrementada sempre que algo que afeta a autenticação muda
+ * (status, role ou senha) e é gravada nos tokens de acesso; um token com
+ * versão diferente da atual é considerado desatualizado.
+ *
+ * O Redis é a fonte compartilhada entre instâncias. Um mapa em memória guarda
+ * a última versão conhecida localmente e é usado como fallback de leitura quando
+ * o Redis está indisponível. O incremento não tem fallback local: uma versão que
+ * só esta instância conhece não revogaria os tokens nas demais, então a falha é
+ * propagada e a alteração que o originou não é concluída.
+ *
+ * A versão só é gravada nos tokens quando app.jwt.stateless-principal.enabled=true.
+ */
+@Service
+public class UserSecurityVersionService extends BaseRedisService {
+
+    private static final String VERSION_PREFIX = "user:security_version:";
+
+    private final Map<Long, Long> localVersions = new ConcurrentHashMap<>();
+
+    @Value("${app.jwt.stateless-principal.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * @return true se a versão de segurança é usada nos tokens de acesso
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Obtém a versão de segurança atual do usuário.
+     *
+     * @param userId ID do usuário
+     * @return versão atual (0 se nunca foi alterada)
+     */
+    public long getCurrentVersion(Long userId) {
+        validateId(userId, "userId");
+        try {
+            String value = getString(VERSION_PREFIX + userId);
+            long version = value != null ? Long.parseLong(value) : 0L;
+            localVersions.merge(userId, version, Math::max);
+            return version;
+        } catch (Exception e) {
+            logger.warn("Falha ao ler versão de segurança do Redis para usuário {}, usando valor local: {}",
+                    userId, e.getMessage());
+            return localVersions.getOrDefault(userId, 0L);
+        }
+    }
+
+    /**
+     * Incrementa a versão de segurança do usuário, invalidando tokens emitidos antes.
+     * Deve ser chamado antes de persistir a alteração ou na mesma transação, para que
+     * uma falha aqui a impeça. Com o principal sem estado desabilitado os tokens não
+     * carregam a versão, então nada é gravado e o Redis não é consultado.
+     *
+     * @param userId ID do usuário
+     * @return nova versão (0 com o principal sem estado desabilitado)
+     * @throws RuntimeException se o Redis não puder ser atualizado
+     */
+    public long bumpVersion(Long userId) {
+        validateId(userId, "userId");
+        if (!enabled) {
+            return 0L;
+        }
+        try {
+            long version = increment(VERSION_PREFIX + userId);
+            localVersions.merge(userId, version, Math::max);
+            logger.info("Versão de segurança do usuário {} incrementada para {}", userId, version);
+            return version;
+        } catch (RuntimeException e) {
+            logger.error("Falha ao incrementar versão de segurança no Redis para usuário {}: {}",
+                    userId, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Verifica se a versão gravada no token ainda é a versão atual do usuário.
+     *
+     * @param userId ID do usuário
+     * @param tokenVersion versão presente no token
+     * @return true se a versão do token é a atual
+     */
+    public boolean isCurrentVersion(Long userId, long tokenVersion) {
+        return getCurrentVersion(userId) == tokenVersion;
+    }
+}
@@ -3,6 +3,7 @@ package com.sistema.service;
 import com.sistema.entity.User;
 import com.sistema.entity.UserRole;
 import com.sistema.repository.UserRepository;
+import com.sistema.security.UserDetailsNearCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -18,6 +19,8 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private UserSecurityVersionService userSecurityVersionService;
+    private UserDetailsNearCache userDetailsNearCache;
 
     @Autowired
     public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
@@ -25,6 +28,16 @@ public class UserService {
         this.passwordEncoder = passwordEncoder;
     }
 
+    @Autowired(required = false)
+    public void setUserSecurityVersionService(UserSecurityVersionService userSecurityVersionService) {
+        this.userSecurityVersionService = userSecurityVersionService;
+    }
+
+    @Autowired(required = false)
+    public void setUserDetailsNearCache(UserDetailsNearCache userDetailsNearCache) {
+        this.userDetailsNearCache = userDetailsNearCache;
+    }
+
     /**
      * Cria um novo usuário
      */
@@ -104,7 +117,10 @@ public class UserService {
                 .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado"));
         
         user.setActive(active);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        bumpSecurityVersion(userId);
+        invalidateCachedUser(savedUser.getEmail());
+        return savedUser;
     }
 
     /**
@@ -115,7 +131,29 @@ public class UserService {
                 .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado"));
         
         user.setRole(newRole);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        bumpSecurityVersion(userId);
+        invalidateCachedUser(savedUser.getEmail());
+        return savedUser;
+    }
+
+    /**
+     * Incrementa a versão de segurança para que tokens emitidos antes da alteração
+     * deixem de ser aceitos; uma falha desfaz a transação
+     */
+    private void bumpSecurityVersion(Long userId) {
+        if (userSecurityVersionService != null) {
+            userSecurityVersionService.bumpVersion(userId);
+        }
+    }
+
+    /**
+     * Remove o usuário do near-cache de autenticação local e das demais instâncias
+     */
+    private void invalidateCachedUser(String email) {
+        if (userDetailsNearCache != null) {
+            userDetailsNearCache.invalidate(email);
+        }
     }
 
     /**
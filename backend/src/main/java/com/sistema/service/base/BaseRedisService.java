@@ -1,12 +1,32 @@
 package com.sistema.service.base;
 
 import com.sistema.service.interfaces.CacheOperations;
+import com.sistema.service.resilience.RedisCircuitBreaker;
+import com.sistema.service.resilience.RedisUnavailableException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Classe base para serviços que utilizam Redis.
@@ -15,9 +35,240 @@ import java.util.concurrent.TimeUnit;
  */
 public abstract class BaseRedisService extends BaseService implements CacheOperations {
     
+    /**
+     * INCR + PEXPIRE atômicos. O TTL também é aplicado a contadores que tenham ficado
+     * sem expiração (ex.: falha entre INCR e EXPIRE na implementação anterior).
+     * KEYS[1] = contador; ARGV[1] = TTL em milissegundos.
+     */
+    private static final RedisScript<Long> INCREMENT_WITH_TTL_SCRIPT = RedisScript.of(
+            "local value = redis.call('INCR', KEYS[1]) " +
+            "if value == 1 or redis.call('PTTL', KEYS[1]) < 0 then " +
+            "  redis.call('PEXPIRE', KEYS[1], ARGV[1]) " +
+            "end " +
+            "return value",
+            Long.class);
+    
+    /**
+     * Incremento com TTL que, ao atingir o limite, grava a chave de sinalização com o mesmo TTL.
+     * KEYS[1] = contador, KEYS[2] = sinalização; ARGV[1] = TTL em milissegundos,
+     * ARGV[2] = limite, ARGV[3] = valor da sinalização.
+     */
+    private static final RedisScript<Long> INCREMENT_AND_CHECK_THRESHOLD_SCRIPT = RedisScript.of(
+            "local value = redis.call('INCR', KEYS[1]) " +
+            "if value == 1 or redis.call('PTTL', KEYS[1]) < 0 then " +
+            "  redis.call('PEXPIRE', KEYS[1], ARGV[1]) " +
+            "end " +
+            "if value >= tonumber(ARGV[2]) then " +
+            "  redis.call('SET', KEYS[2], ARGV[3], 'PX', ARGV[1]) " +
+            "end " +
+            "return value",
+            Long.class);
+    
+    /**
+     * Versão em lote do incremento com limite: aplica INCRBY a cada contador e grava a
+     * sinalização correspondente ao atingir o limite.
+     * KEYS = pares (contador, sinalização); ARGV[1] = TTL em milissegundos, ARGV[2] = limite,
+     * ARGV[3] = valor da sinalização, ARGV[4..] = incremento de cada contador, na ordem das chaves.
+     */
+    private static final RedisScript<Long> INCREMENT_ALL_AND_CHECK_THRESHOLD_SCRIPT = RedisScript.of(
+            "local threshold = tonumber(ARGV[2]) " +
+            "local count = 0 " +
+            "for i = 1, #KEYS, 2 do " +
+            "  count = count + 1 " +
+            "  local delta = tonumber(ARGV[3 + count]) " +
+            "  local value = redis.call('INCRBY', KEYS[i], delta) " +
+            "  if value == delta or redis.call('PTTL', KEYS[i]) < 0 then " +
+            "    redis.call('PEXPIRE', KEYS[i], ARGV[1]) " +
+            "  end " +
+            "  if value >= threshold then " +
+            "    redis.call('SET', KEYS[i + 1], ARGV[3], 'PX', ARGV[1]) " +
+            "  end " +
+            "end " +
+            "return count",
+            Long.class);
+    
+    /**
+     * Incrementos de campos de hashes, cada campo com sua própria janela de expiração,
+     * e sinalização em outro campo ao atingir o limite. A janela de um campo fica em um
+     * campo de expiração (instante em milissegundos); vencida a janela, o contador recomeça
+     * e a sinalização é removida. O TTL do hash só é estendido, até cobrir a janela mais longa.
+     * KEYS = hash de cada incremento (pode repetir); ARGV[1] = agora (ms),
+     * ARGV[2] = duração da janela (ms), ARGV[3] = limite, ARGV[4] = valor da sinalização,
+     * ARGV[5..] = quádruplas (campo, campo de sinalização, campo de expiração, incremento),
+     * na ordem das chaves. Retorna o valor do último campo incrementado.
+     */
+    private static final RedisScript<Long> INCREMENT_FIELDS_AND_CHECK_THRESHOLD_SCRIPT = RedisScript.of(
+            "local now = tonumber(ARGV[1]) " +
+            "local window = tonumber(ARGV[2]) " +
+            "local threshold = tonumber(ARGV[3]) " +
+            "local value = 0 " +
+            "for i = 1, #KEYS do " +
+            "  local base = 1 + 4 * i " +
+            "  local delta = tonumber(ARGV[base + 3]) " +
+            "  local expiresAt = tonumber(redis.call('HGET', KEYS[i], ARGV[base + 2])) " +
+            "  if expiresAt == nil or expiresAt <= now then " +
+            "    expiresAt = now + window " +
+            "    redis.call('HDEL', KEYS[i], ARGV[base + 1]) " +
+            "    redis.call('HSET', KEYS[i], ARGV[base], ARGV[base + 3], ARGV[base + 2], string.format('%d', expiresAt)) " +
+            "    value = delta " +
+            "  else " +
+            "    value = redis.call('HINCRBY', KEYS[i], ARGV[base], delta) " +
+            "  end " +
+            "  if redis.call('PTTL', KEYS[i]) < expiresAt - now then " +
+            "    redis.call('PEXPIRE', KEYS[i], string.format('%d', expiresAt - now)) " +
+            "  end " +
+            "  if value >= threshold then " +
+            "    redis.call('HSET', KEYS[i], ARGV[base + 1], ARGV[4]) " +
+            "  end " +
+            "end " +
+            "return value",
+            Long.class);
+    
+    /**
+     * Índice de expiração: remove os membros vencidos e registra o novo membro.
+     * KEYS[1] = índice; ARGV[1] = agora (ms), ARGV[2] = expiração do membro (ms), ARGV[3] = membro.
+     */
+    private static final RedisScript<Long> TRACK_EXPIRING_SCRIPT = RedisScript.of(
+            "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[1]) " +
+            "return redis.call('ZADD', KEYS[1], ARGV[2], ARGV[3])",
+            Long.class);
+    
+    /**
+     * Tamanho dos lotes de SCAN e UNLINK.
+     */
+    private static final int SCAN_BATCH_SIZE = 500;
+    
+    /**
+     * Argumentos de scripts são enviados como texto: números sem o envelope de tipo do JSON.
+     */
+    private static final RedisSerializer<String> SCRIPT_ARGS_SERIALIZER = RedisSerializer.string();
+    
     @Autowired
     protected RedisTemplate<String, Object> redisTemplate;
     
+    /**
+     * Template sem serialização de valores, usado pelos codecs compactos ({@link RedisValueCodecs}).
+     */
+    private RedisTemplate<String, byte[]> binaryRedisTemplate;
+    
+    /**
+     * Grava as famílias de chaves com codec no formato compacto. A leitura aceita os dois
+     * formatos independentemente desta opção, então ela só deve ser habilitada depois que
+     * todas as instâncias estiverem lendo com os codecs.
+     */
+    @Value("${app.redis.compact-codecs.enabled:false}")
+    private boolean compactCodecsEnabled;
+    
+    private RedisCircuitBreaker circuitBreaker;
+    
+    /**
+     * Cache local opcional das leituras de prefixos acompanhados pelo servidor (CLIENT TRACKING).
+     */
+    private TrackedReadCache trackedReadCache;
+    
+    private RedisCommandMetrics commandMetrics;
+    
+    @Autowired(required = false)
+    public void setBinaryRedisTemplate(RedisTemplate<String, byte[]> binaryRedisTemplate) {
+        this.binaryRedisTemplate = binaryRedisTemplate;
+    }
+    
+    void setCompactCodecsEnabled(boolean compactCodecsEnabled) {
+        this.compactCodecsEnabled = compactCodecsEnabled;
+    }
+    
+    @Autowired(required = false)
+    public void setCommandMetrics(RedisCommandMetrics commandMetrics) {
+        this.commandMetrics = commandMetrics;
+    }
+    
+    @Autowired(required = false)
+    public void setTrackedReadCache(TrackedReadCache trackedReadCache) {
+        this.trackedReadCache = trackedReadCache;
+    }
+    
+    @Autowired(required = false)
+    public void setCircuitBreaker(RedisCircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+    
+    /**
+     * Executa a operação no Redis através do circuit breaker: com o circuito aberto falha
+     * imediatamente com {@link RedisUnavailableException}, sem aguardar o timeout do cliente.
+     */
+    @Override
+    protected <T> T executeWithErrorHandling(Supplier<T> operation, String errorMessage) {
+        if (circuitBreaker == null) {
+            return super.executeWithErrorHandling(operation, errorMessage);
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw new RedisUnavailableException(errorMessage + ": circuit breaker do Redis aberto");
+        }
+        long start = System.nanoTime();
+        try {
+            T result = super.executeWithErrorHandling(operation, errorMessage);
+            circuitBreaker.onSuccess(System.nanoTime() - start);
+            return result;
+        } catch (RuntimeException e) {
+            circuitBreaker.onError(e, System.nanoTime() - start);
+            throw e;
+        }
+    }
+    
+    @Override
+    protected void executeWithErrorHandling(Runnable operation, String errorMessage) {
+        executeWithErrorHandling(() -> {
+            operation.run();
+            return null;
+        }, errorMessage);
+    }
+    
+    /**
+     * Executa a operação registrando sua duração em {@link RedisCommandMetrics}, por operação
+     * lógica e família da chave, separando sucessos, erros, timeouts e recusas do circuit breaker.
+     * 
+     * @param operation nome da operação (ex.: get, incrementWithTTL)
+     * @param key chave ou padrão usado, para identificar a família
+     * @param operationSupplier operação no Redis
+     * @param errorMessage mensagem de erro personalizada
+     * @return resultado da operação
+     */
+    protected <T> T executeTimed(String operation, String key, Supplier<T> operationSupplier, String errorMessage) {
+        if (commandMetrics == null || !commandMetrics.isEnabled()) {
+            return executeWithErrorHandling(operationSupplier, errorMessage);
+        }
+        long start = System.nanoTime();
+        try {
+            T result = executeWithErrorHandling(operationSupplier, errorMessage);
+            commandMetrics.record(operation, key, System.nanoTime() - start, null);
+            return result;
+        } catch (RuntimeException e) {
+            commandMetrics.record(operation, key, System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+    
+    /**
+     * Indica se o Redis está em modo degradado (circuito aberto). Nesse caso os serviços
+     * devem aplicar diretamente sua política de degradação, sem tentar o Redis.
+     * 
+     * @return true se o circuito estiver aberto
+     */
+    protected boolean isRedisDegraded() {
+        return circuitBreaker != null && circuitBreaker.isDegraded();
+    }
+    
+    /**
+     * Registra nas métricas o uso da política de degradação de um serviço.
+     * 
+     * @param service nome do serviço
+     */
+    protected void recordDegradedFallback(String service) {
+        if (circuitBreaker != null) {
+            circuitBreaker.recordFallback(service);
+        }
+    }
+    
     /**
      * Armazena um valor no Redis com TTL.
      * 
@@ -26,16 +277,36 @@ public abstract class BaseRedisService extends BaseService implements CacheOpera
      * @param duration duração do TTL
      */
     protected void setWithTTL(String key, Object value, Duration duration) {
-        executeWithErrorHandling(
+        executeTimed("setWithTTL", key,
             () -> {
                 redisTemplate.opsForValue().set(key, value, duration);
                 return null;
             },
             formatErrorMessage("armazenar valor no Redis", "chave: " + key)
         );
+        invalidateTracked(key);
         logger.debug("Valor armazenado no Redis com TTL: {} ({})", key, duration);
     }
     
+    /**
+     * Armazena um valor com TTL apenas se a chave ainda não existir (SET NX).
+     * 
+     * @param key chave
+     * @param value valor
+     * @param duration duração do TTL
+     * @return true se o valor foi armazenado; false se a chave já existia
+     */
+    protected boolean setIfAbsent(String key, Object value, Duration duration) {
+        boolean stored = executeTimed("setIfAbsent", key,
+            () -> Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, value, duration)),
+            formatErrorMessage("armazenar valor no Redis se ausente", "chave: " + key)
+        );
+        if (stored) {
+            invalidateTracked(key);
+        }
+        return stored;
+    }
+    
     /**
      * Armazena um valor no Redis com TTL em minutos.
      * 
@@ -54,12 +325,127 @@ public abstract class BaseRedisService extends BaseService implements CacheOpera
      * @return valor ou null se não encontrado
      */
     protected Object get(String key) {
-        return executeWithErrorHandling(
+        if (isTracked(key)) {
+            return executeTimed("get", key,
+                () -> redisTemplate.getValueSerializer().deserialize(trackedReadCache.get(key)),
+                formatErrorMessage("obter valor do Redis", "chave: " + key)
+            );
+        }
+        return executeTimed("get", key,
             () -> redisTemplate.opsForValue().get(key),
             formatErrorMessage("obter valor do Redis", "chave: " + key)
         );
     }
     
+    /**
+     * Obtém os valores de várias chaves em uma única ida ao Redis (MGET).
+     * 
+     * @param keys chaves
+     * @return valores na mesma ordem das chaves, com null para chaves inexistentes
+     */
+    protected List<Object> multiGet(List<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return executeTimed("multiGet", keys.get(0),
+            () -> {
+                List<Object> values = redisTemplate.opsForValue().multiGet(keys);
+                return values != null ? values : Collections.nCopies(keys.size(), null);
+            },
+            formatErrorMessage("obter valores do Redis", "quantidade: " + keys.size())
+        );
+    }
+    
+    /**
+     * Indica se as famílias de chaves com codec devem ser gravadas no formato compacto.
+     * 
+     * @return true se habilitado e o template binário estiver disponível
+     */
+    protected boolean isCompactCodecsEnabled() {
+        return compactCodecsEnabled && binaryRedisTemplate != null;
+    }
+    
+    /**
+     * Armazena um valor no formato compacto do codec, com TTL.
+     * Requer {@link #isCompactCodecsEnabled()}; caso contrário o chamador grava o formato legado.
+     * 
+     * @param key chave
+     * @param value valor
+     * @param codec codec da família da chave
+     * @param duration duração do TTL
+     */
+    protected <T> void setEncoded(String key, T value, RedisValueCodec<T> codec, Duration duration) {
+        executeTimed("setEncoded", key,
+            () -> {
+                binaryRedisTemplate.opsForValue().set(key, codec.encode(value), duration);
+                return null;
+            },
+            formatErrorMessage("armazenar valor no Redis", "chave: " + key)
+        );
+        invalidateTracked(key);
+    }
+    
+    /**
+     * Obtém um valor decodificado pelo codec, aceitando o formato compacto e o JSON legado.
+     * Sem o template binário a leitura passa pelo template JSON. Chaves acompanhadas pelo
+     * {@link TrackedReadCache} são respondidas da memória enquanto não forem alteradas.
+     * 
+     * @param key chave
+     * @param codec codec da família da chave
+     * @return valor ou null se não encontrado
+     */
+    protected <T> T getDecoded(String key, RedisValueCodec<T> codec) {
+        if (isTracked(key)) {
+            return executeTimed("getDecoded", key,
+                () -> codec.decode(trackedReadCache.get(key)),
+                formatErrorMessage("obter valor do Redis", "chave: " + key)
+            );
+        }
+        return executeTimed("getDecoded", key,
+            () -> binaryRedisTemplate != null
+                    ? codec.decode(binaryRedisTemplate.opsForValue().get(key))
+                    : codec.fromLegacy(redisTemplate.opsForValue().get(key)),
+            formatErrorMessage("obter valor do Redis", "chave: " + key)
+        );
+    }
+    
+    /**
+     * Obtém várias chaves em um único MGET, decodificando cada uma com o codec da sua família.
+     * 
+     * @param keys chaves
+     * @param codecs codec de cada chave, na mesma ordem
+     * @return valores na mesma ordem das chaves, com null para chaves inexistentes
+     */
+    protected List<Object> multiGetDecoded(List<String> keys, List<? extends RedisValueCodec<?>> codecs) {
+        if (keys == null || keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        boolean tracked = trackedReadCache != null && trackedReadCache.coversAll(keys);
+        boolean binary = tracked || binaryRedisTemplate != null;
+        return executeTimed("multiGetDecoded", keys.get(0),
+            () -> {
+                List<?> raw;
+                if (tracked) {
+                    raw = trackedReadCache.getAll(keys);
+                } else if (binaryRedisTemplate != null) {
+                    raw = binaryRedisTemplate.opsForValue().multiGet(keys);
+                } else {
+                    raw = redisTemplate.opsForValue().multiGet(keys);
+                }
+                List<Object> values = new ArrayList<>(keys.size());
+                for (int i = 0; i < keys.size(); i++) {
+                    Object value = raw != null && i < raw.size() ? raw.get(i) : null;
+                    RedisValueCodec<?> codec = codecs.get(i);
+                    values.add(binary
+                            ? codec.decode((byte[]) value)
+                            : codec.fromLegacy(value));
+                }
+                return values;
+            },
+            formatErrorMessage("obter valores do Redis", "quantidade: " + keys.size())
+        );
+    }
+    
     /**
      * Obtém um valor do Redis como String.
      * 
@@ -97,32 +483,250 @@ public abstract class BaseRedisService extends BaseService implements CacheOpera
      * @return novo valor após incremento
      */
     protected long increment(String key) {
-        return executeWithErrorHandling(
+        Long value = executeTimed("increment", key,
             () -> redisTemplate.opsForValue().increment(key),
             formatErrorMessage("incrementar valor no Redis", "chave: " + key)
         );
+        invalidateTracked(key);
+        return value;
     }
     
     /**
      * Incrementa um valor no Redis com TTL.
+     * INCR e EXPIRE são executados atomicamente em um único EVALSHA.
      * 
      * @param key chave
      * @param duration duração do TTL
      * @return novo valor após incremento
      */
     protected long incrementWithTTL(String key, Duration duration) {
-        return executeWithErrorHandling(
+        long value = executeTimed("incrementWithTTL", key,
+            () -> toLong(executeScript(INCREMENT_WITH_TTL_SCRIPT, List.of(key), duration.toMillis())),
+            formatErrorMessage("incrementar valor no Redis com TTL", "chave: " + key)
+        );
+        invalidateTracked(key);
+        return value;
+    }
+    
+    /**
+     * Incrementa um contador com TTL e, se o novo valor atingir o limite, grava a chave de
+     * sinalização com o mesmo TTL. Tudo em um único EVALSHA atômico.
+     * 
+     * @param key chave do contador
+     * @param duration duração do TTL do contador e da sinalização
+     * @param threshold limite a partir do qual a sinalização é gravada
+     * @param flagKey chave de sinalização
+     * @param flagValue valor da sinalização
+     * @return novo valor do contador
+     */
+    protected long incrementAndCheckThreshold(String key, Duration duration, long threshold,
+                                              String flagKey, Object flagValue) {
+        long value = executeTimed("incrementAndCheckThreshold", key,
+            () -> toLong(executeScript(INCREMENT_AND_CHECK_THRESHOLD_SCRIPT,
+                    List.of(key, flagKey), duration.toMillis(), threshold, flagValue)),
+            formatErrorMessage("incrementar contador com limite no Redis", "chave: " + key)
+        );
+        invalidateTracked(key, flagKey);
+        return value;
+    }
+    
+    /**
+     * Aplica vários incrementos de uma vez, com a mesma semântica de
+     * {@link #incrementAndCheckThreshold}, em um único EVALSHA.
+     * 
+     * @param deltas incremento por chave de contador
+     * @param flagKeyFor chave de sinalização de cada contador
+     * @param duration duração do TTL dos contadores e das sinalizações
+     * @param threshold limite a partir do qual a sinalização é gravada
+     * @param flagValue valor da sinalização
+     */
+    protected void incrementAllAndCheckThreshold(Map<String, Long> deltas, Function<String, String> flagKeyFor,
+                                                 Duration duration, long threshold, Object flagValue) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(deltas.size() * 2);
+        List<Object> args = new ArrayList<>(deltas.size() + 3);
+        args.add(duration.toMillis());
+        args.add(threshold);
+        args.add(flagValue);
+        deltas.forEach((key, delta) -> {
+            keys.add(key);
+            keys.add(flagKeyFor.apply(key));
+            args.add(delta);
+        });
+        executeTimed("incrementAllAndCheckThreshold", keys.get(0),
+            () -> executeScript(INCREMENT_ALL_AND_CHECK_THRESHOLD_SCRIPT, keys, args.toArray()),
+            formatErrorMessage("incrementar contadores em lote no Redis", deltas.size() + " chaves")
+        );
+        invalidateTracked(keys);
+    }
+    
+    /**
+     * Incrementa um campo de hash dentro da janela de expiração do próprio campo
+     * (gravada em {@code expiryField}) e grava a sinalização ({@link RedisValueCodecs#FLAG})
+     * em outro campo ao atingir o limite. Vencida a janela, o contador recomeça e a
+     * sinalização é removida; os demais campos do hash mantêm as suas janelas.
+     * 
+     * @param key chave do hash
+     * @param field campo do contador
+     * @param flagField campo da sinalização
+     * @param expiryField campo com o instante de expiração do contador
+     * @param duration duração da janela do contador
+     * @param threshold limite a partir do qual a sinalização é gravada
+     * @return valor do campo após o incremento
+     */
+    protected long incrementFieldAndCheckThreshold(String key, String field, String flagField, String expiryField,
+                                                   Duration duration, long threshold) {
+        return incrementFieldsAndCheckThreshold(Map.of(key, Map.of(field, 1L)), ignored -> flagField,
+                ignored -> expiryField, duration, threshold);
+    }
+    
+    /**
+     * Versão em lote de {@link #incrementFieldAndCheckThreshold}, em um único EVALSHA.
+     * 
+     * @param deltas incremento por campo, agrupado por chave de hash
+     * @param flagFieldFor campo de sinalização de cada campo de contador
+     * @param expiryFieldFor campo de expiração de cada campo de contador
+     * @param duration duração da janela de cada contador
+     * @param threshold limite a partir do qual a sinalização é gravada
+     * @return valor do último campo incrementado
+     */
+    protected long incrementFieldsAndCheckThreshold(Map<String, Map<String, Long>> deltas,
+                                                    Function<String, String> flagFieldFor,
+                                                    Function<String, String> expiryFieldFor,
+                                                    Duration duration, long threshold) {
+        if (deltas.isEmpty()) {
+            return 0L;
+        }
+        List<String> keys = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        args.add(String.valueOf(System.currentTimeMillis()));
+        args.add(String.valueOf(duration.toMillis()));
+        args.add(String.valueOf(threshold));
+        args.add(new String(RedisValueCodecs.FLAG.encode(Boolean.TRUE), StandardCharsets.US_ASCII));
+        deltas.forEach((key, fields) -> fields.forEach((field, delta) -> {
+            keys.add(key);
+            args.add(field);
+            args.add(flagFieldFor.apply(field));
+            args.add(expiryFieldFor.apply(field));
+            args.add(String.valueOf(delta));
+        }));
+        long value = toLong(executeTimed("incrementFieldsAndCheckThreshold", keys.get(0),
+            () -> executeScriptWithTextArgs(INCREMENT_FIELDS_AND_CHECK_THRESHOLD_SCRIPT, keys, args.toArray()),
+            formatErrorMessage("incrementar campos de hash no Redis", keys.size() + " campos")
+        ));
+        invalidateTracked(keys);
+        return value;
+    }
+    
+    /**
+     * Lê todos os campos de um hash com um único HGETALL, sem desserializar os valores.
+     * 
+     * @param key chave do hash
+     * @return valores brutos por campo (vazio se o hash não existir)
+     */
+    protected Map<String, byte[]> getHashEntries(String key) {
+        if (isTracked(key)) {
+            return executeTimed("getHashEntries", key,
+                () -> trackedReadCache.getHash(key),
+                formatErrorMessage("obter hash do Redis", "chave: " + key)
+            );
+        }
+        return executeTimed("getHashEntries", key,
             () -> {
-                long newValue = redisTemplate.opsForValue().increment(key);
-                if (newValue == 1) { // Primeira vez, define TTL
-                    redisTemplate.expire(key, duration);
+                Map<byte[], byte[]> raw = redisTemplate.execute((RedisCallback<Map<byte[], byte[]>>) connection ->
+                        connection.hashCommands().hGetAll(key.getBytes(StandardCharsets.UTF_8)));
+                if (raw == null || raw.isEmpty()) {
+                    return Collections.<String, byte[]>emptyMap();
                 }
-                return newValue;
+                Map<String, byte[]> entries = new HashMap<>(raw.size() * 2);
+                raw.forEach((field, value) -> entries.put(new String(field, StandardCharsets.UTF_8), value));
+                return entries;
             },
-            formatErrorMessage("incrementar valor no Redis com TTL", "chave: " + key)
+            formatErrorMessage("obter hash do Redis", "chave: " + key)
         );
     }
     
+    /**
+     * Remove campos de um hash.
+     * 
+     * @param key chave do hash
+     * @param fields campos a remover
+     * @return número de campos removidos
+     */
+    protected long deleteHashFields(String key, String... fields) {
+        long removed = toLong(executeTimed("deleteHashFields", key,
+            () -> redisTemplate.opsForHash().delete(key, (Object[]) fields),
+            formatErrorMessage("remover campos de hash do Redis", "chave: " + key)
+        ));
+        invalidateTracked(key);
+        return removed;
+    }
+    
+    /**
+     * Executa um script Lua (EVALSHA, com EVAL apenas se o script ainda não estiver em cache
+     * no servidor). Resultados em bytes são lidos com o serializador de valores do template.
+     * 
+     * @param script script com tipo de retorno
+     * @param keys chaves (KEYS)
+     * @param args argumentos (ARGV)
+     * @return resultado do script
+     */
+    protected <T> T executeScript(RedisScript<T> script, List<String> keys, Object... args) {
+        Object[] serializedArgs = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            serializedArgs[i] = toScriptArgument(args[i]);
+        }
+        return executeScriptWithTextArgs(script, keys, serializedArgs);
+    }
+    
+    /**
+     * Executa um script com argumentos já em texto (ex.: nomes de campos de hash).
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T executeScriptWithTextArgs(RedisScript<T> script, List<String> keys, Object[] args) {
+        return redisTemplate.execute(script, SCRIPT_ARGS_SERIALIZER,
+                (RedisSerializer<T>) redisTemplate.getValueSerializer(), keys, args);
+    }
+    
+    /**
+     * Números seguem como texto simples; demais valores como o template os armazenaria.
+     */
+    @SuppressWarnings("unchecked")
+    private String toScriptArgument(Object value) {
+        if (value == null || value instanceof Number) {
+            return String.valueOf(value);
+        }
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        byte[] bytes = valueSerializer != null ? valueSerializer.serialize(value) : null;
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : String.valueOf(value);
+    }
+    
+    private boolean isTracked(String key) {
+        return trackedReadCache != null && trackedReadCache.covers(key);
+    }
+    
+    /**
+     * Descarta as leituras locais das chaves alteradas por esta instância, sem esperar a
+     * invalidação do servidor. Escritas feitas diretamente pelo template dependem apenas dela.
+     */
+    private void invalidateTracked(String... keys) {
+        if (trackedReadCache != null) {
+            trackedReadCache.invalidate(Arrays.asList(keys));
+        }
+    }
+    
+    private void invalidateTracked(Collection<String> keys) {
+        if (trackedReadCache != null) {
+            trackedReadCache.invalidate(keys);
+        }
+    }
+    
+    private static long toLong(Long value) {
+        return value != null ? value : 0L;
+    }
+    
     /**
      * Remove uma chave do Redis.
      * 
@@ -130,10 +734,12 @@ public abstract class BaseRedisService extends BaseService implements CacheOpera
      * @return true se a chave foi removida
      */
     protected boolean delete(String key) {
-        return executeWithErrorHandling(
+        boolean deleted = executeTimed("delete", key,
             () -> Boolean.TRUE.equals(redisTemplate.delete(key)),
             formatErrorMessage("remover chave do Redis", "chave: " + key)
         );
+        invalidateTracked(key);
+        return deleted;
     }
     
     /**
@@ -143,13 +749,15 @@ public abstract class BaseRedisService extends BaseService implements CacheOpera
      * @return número de chaves removidas
      */
     protected long delete(String... keys) {
-        return executeWithErrorHandling(
+        long deleted = executeTimed("delete", keys.length > 0 ? keys[0] : null,
             () -> {
-                Long deleted = redisTemplate.delete(Set.of(keys));
-                return deleted != null ? deleted : 0L;
+                Long count = redisTemplate.delete(Set.of(keys));
+                return count != null ? count : 0L;
             },
             formatErrorMessage("remover múltiplas chaves do Redis", "quantidade: " + keys.length)
         );
+        invalidateTracked(keys);
+        return deleted;
     }
     
     /**
@@ -159,7 +767,13 @@ public abstract class BaseRedisService extends BaseService implements CacheOpera
      * @return true se a chave existe
      */
     protected boolean exists(String key) {
-        return executeWithErrorHandling(
+        if (isTracked(key)) {
+            return executeTimed("exists", key,
+                () -> trackedReadCache.exists(key),
+                formatErrorMessage("verificar existência de chave no Redis", "chave: " + key)
+            );
+        }
+        return executeTimed("exists", key,
             () -> Boolean.TRUE.equals(redisTemplate.hasKey(key)),
             formatErrorMessage("verificar existência de chave no Redis", "chave: " + key)
         );
@@ -173,7 +787,7 @@ public abstract class BaseRedisService extends BaseService implements CacheOpera
      * @return true se TTL foi definido
      */
     protected boolean expire(String key, Duration duration) {
-        return executeWithErrorHandling(
+        return executeTimed("expire", key,
             () -> Boolean.TRUE.equals(redisTemplate.expire(key, duration)),
             formatErrorMessage("definir TTL para chave no Redis", "chave: " + key)
         );
@@ -186,7 +800,7 @@ public abstract class BaseRedisService extends BaseService implements CacheOpera
      * @return TTL em segundos (-1 se sem TTL, -2 se chave não existe)
      */
     protected long getTTLInternal(String key) {
-        return executeWithErrorHandling(
+        return executeTimed("getTTL", key,
             () -> {
                 Long ttl = redisTemplate.getExpire(key, TimeUnit.SECONDS);
                 return ttl != null ? ttl : -2L;
@@ -195,6 +809,46 @@ public abstract class BaseRedisService extends BaseService implements CacheOpera
         );
     }
     
+    /**
+     * Percorre as chaves que correspondem ao padrão com SCAN, entregando-as em lotes.
+     * Diferente de KEYS, não bloqueia o Redis: cada iteração do cursor examina apenas
+     * uma parte do keyspace. Chaves podem ser entregues mais de uma vez se o keyspace
+     * for redimensionado durante a varredura.
+     * 
+     * @param pattern padrão de busca
+     * @param batchSize tamanho dos lotes entregues (também usado como dica de COUNT)
+     * @param batchConsumer consumidor de cada lote
+     * @return número de chaves percorridas
+     */
+    protected long scanKeys(String pattern, int batchSize, Consumer<List<String>> batchConsumer) {
+        return scanKeys("scanKeys", pattern, batchSize, batchConsumer);
+    }
+    
+    private long scanKeys(String operation, String pattern, int batchSize, Consumer<List<String>> batchConsumer) {
+        return executeTimed(operation, pattern,
+            () -> {
+                ScanOptions options = ScanOptions.scanOptions().match(pattern).count(batchSize).build();
+                List<String> batch = new ArrayList<>(batchSize);
+                long scanned = 0;
+                try (Cursor<String> cursor = redisTemplate.scan(options)) {
+                    while (cursor.hasNext()) {
+                        batch.add(cursor.next());
+                        scanned++;
+                        if (batch.size() >= batchSize) {
+                            batchConsumer.accept(batch);
+                            batch = new ArrayList<>(batchSize);
+                        }
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    batchConsumer.accept(batch);
+                }
+                return scanned;
+            },
+            formatErrorMessage("percorrer chaves no Redis", "padrão: " + pattern)
+        );
+    }
+    
     /**
      * Busca chaves por padrão.
      * 
@@ -202,38 +856,152 @@ public abstract class BaseRedisService extends BaseService implements CacheOpera
      * @return conjunto de chaves encontradas
      */
     protected Set<String> findKeys(String pattern) {
-        return executeWithErrorHandling(
-            () -> redisTemplate.keys(pattern),
-            formatErrorMessage("buscar chaves no Redis", "padrão: " + pattern)
-        );
+        Set<String> keys = new LinkedHashSet<>();
+        scanKeys("findKeys", pattern, SCAN_BATCH_SIZE, keys::addAll);
+        return keys;
     }
     
     /**
      * Conta chaves por padrão.
+     * O valor é aproximado: a varredura não mantém as chaves em memória para eliminar repetições.
+     * Para tamanhos consultados com frequência, use um índice de expiração ({@link #countActive}).
      * 
      * @param pattern padrão de busca
      * @return número de chaves encontradas
      */
     protected long countKeys(String pattern) {
-        Set<String> keys = findKeys(pattern);
-        return keys != null ? keys.size() : 0L;
+        return scanKeys("countKeys", pattern, SCAN_BATCH_SIZE, batch -> { });
     }
     
     /**
-     * Limpa chaves por padrão.
+     * Limpa chaves por padrão, removendo cada lote com UNLINK (liberação de memória
+     * feita pelo Redis em segundo plano).
      * 
      * @param pattern padrão de busca
      * @return número de chaves removidas
      */
     protected long cleanupKeys(String pattern) {
-        Set<String> keys = findKeys(pattern);
-        if (keys != null && !keys.isEmpty()) {
-            Long deleted = redisTemplate.delete(keys);
-            long deletedCount = deleted != null ? deleted : 0L;
-            logger.info("Limpeza de chaves Redis: {} chaves removidas para padrão: {}", deletedCount, pattern);
-            return deletedCount;
+        long[] deleted = new long[1];
+        scanKeys("cleanupKeys", pattern, SCAN_BATCH_SIZE, batch -> {
+            Long unlinked = redisTemplate.unlink(batch);
+            deleted[0] += unlinked != null ? unlinked : 0L;
+        });
+        if (deleted[0] > 0) {
+            logger.info("Limpeza de chaves Redis: {} chaves removidas para padrão: {}", deleted[0], pattern);
+        }
+        return deleted[0];
+    }
+    
+    /**
+     * Registra um membro em um índice de expiração: um sorted set cujo score é o instante
+     * de expiração do membro. Membros já expirados são removidos na mesma chamada.
+     * O índice serve apenas para estatísticas; falhas são registradas e ignoradas.
+     * 
+     * @param indexKey chave do índice
+     * @param member membro (ex.: identificador da chave acompanhada)
+     * @param ttl tempo de vida do membro
+     */
+    protected void trackExpiring(String indexKey, String member, Duration ttl) {
+        if (isRedisDegraded()) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            executeScript(TRACK_EXPIRING_SCRIPT, List.of(indexKey), now, now + ttl.toMillis(), member);
+        } catch (Exception e) {
+            logger.warn("Falha ao atualizar índice de expiração {}: {}", indexKey, e.getMessage());
+        }
+    }
+    
+    /**
+     * Remove um membro de um índice de expiração antes do seu vencimento.
+     * 
+     * @param indexKey chave do índice
+     * @param member membro
+     */
+    protected void untrackExpiring(String indexKey, String member) {
+        if (isRedisDegraded()) {
+            return;
+        }
+        try {
+            redisTemplate.opsForZSet().remove(indexKey, member);
+        } catch (Exception e) {
+            logger.warn("Falha ao atualizar índice de expiração {}: {}", indexKey, e.getMessage());
+        }
+    }
+    
+    /**
+     * Conta todos os membros de um índice de expiração, incluindo os já vencidos que
+     * ainda não foram removidos (ZCARD, O(1)).
+     * 
+     * @param indexKey chave do índice
+     * @return número de membros
+     */
+    protected long countTracked(String indexKey) {
+        return executeTimed("countTracked", indexKey,
+            () -> {
+                Long count = redisTemplate.opsForZSet().zCard(indexKey);
+                return count != null ? count : 0L;
+            },
+            formatErrorMessage("contar membros do índice no Redis", "índice: " + indexKey)
+        );
+    }
+    
+    /**
+     * Conta os membros ainda não expirados de um índice de expiração (ZCOUNT, O(log N)).
+     * 
+     * @param indexKey chave do índice
+     * @return número de membros ativos
+     */
+    protected long countActive(String indexKey) {
+        return executeTimed("countActive", indexKey,
+            () -> {
+                Long count = redisTemplate.opsForZSet()
+                        .count(indexKey, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+                return count != null ? count : 0L;
+            },
+            formatErrorMessage("contar membros do índice no Redis", "índice: " + indexKey)
+        );
+    }
+    
+    /**
+     * Remove as chaves cujos membros já venceram em um índice de expiração, em lotes:
+     * ZRANGEBYSCORE até o instante atual, UNLINK de {@code keyPrefix + membro} e ZREM dos
+     * membros processados. Membros ainda válidos e suas chaves não são tocados.
+     * 
+     * @param indexKey chave do índice
+     * @param keyPrefix prefixo que, somado ao membro, forma a chave acompanhada
+     * @return número de membros vencidos removidos do índice
+     */
+    protected long cleanupExpiredTracked(String indexKey, String keyPrefix) {
+        long removed = executeTimed("cleanupExpiredTracked", indexKey,
+            () -> {
+                long now = System.currentTimeMillis();
+                long total = 0;
+                while (true) {
+                    Set<Object> expired = redisTemplate.opsForZSet()
+                            .rangeByScore(indexKey, Double.NEGATIVE_INFINITY, now, 0, SCAN_BATCH_SIZE);
+                    if (expired == null || expired.isEmpty()) {
+                        return total;
+                    }
+                    List<String> keys = new ArrayList<>(expired.size());
+                    for (Object member : expired) {
+                        keys.add(keyPrefix + member);
+                    }
+                    redisTemplate.unlink(keys);
+                    Long count = redisTemplate.opsForZSet().remove(indexKey, expired.toArray());
+                    total += count != null ? count : 0L;
+                    if (expired.size() < SCAN_BATCH_SIZE) {
+                        return total;
+                    }
+                }
+            },
+            formatErrorMessage("limpar membros vencidos do índice no Redis", "índice: " + indexKey)
+        );
+        if (removed > 0) {
+            logger.info("Limpeza por índice de expiração: {} membros vencidos removidos de {}", removed, indexKey);
         }
-        return 0L;
+        return removed;
     }
     
     // Implementação da interface CacheOperations
@@ -253,6 +1021,11 @@ public abstract class BaseRedisService extends BaseService implements CacheOpera
         return get(key);
     }
     
+    @Override
+    public List<Object> getValues(List<String> keys) {
+        return multiGet(keys);
+    }
+    
     @Override
     public String getStringValue(String key) {
         return getString(key);
@@ -0,0 +1,135 @@
+package com.sistema.service.base;
+
+import com.sistema.service.resilience.RedisUnavailableException;
+import io.lettuce.core.RedisCommandTimeoutException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Timers das operações do {@link BaseRedisService}, publicados como "redis.commands" com as tags
+ * operation (método lógico, ex.: get, incrementWithTTL, findKeys), family (família da chave,
+ * derivada dos prefixos configurados) e outcome (success, error, timeout ou rejected, quando o
+ * circuit breaker recusa a chamada).
+ *
+ * As famílias são uma lista fechada para manter a cardinalidade das tags limitada; chaves fora
+ * dela são agrupadas em "other".
+ */
+@Component
+public class RedisCommandMetrics {
+
+    public static final String METRIC_NAME = "redis.commands";
+    static final String OTHER_FAMILY = "other";
+
+    private final boolean enabled;
+    private final boolean histogram;
+    private final String[] families;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    public RedisCommandMetrics(
+            @Value("${app.redis.metrics.enabled:true}") boolean enabled,
+            @Value("${app.redis.metrics.histogram:true}") boolean histogram,
+            @Value("${app.redis.metrics.key-families:jwt:blacklist:user:,jwt:blacklist:,login_attempts:,"
+                    + "password_reset_attempts:,password_reset_rate_limit:,cpf_verification_attempts:,"
+                    + "email_confirmation_attempts:,cpf_error_attempts:,captcha_required:,captcha_used:,attempts:,captcha:,"
+                    + "refresh_token_epoch:,refresh_token:,rate_limit:,user:security_version:,stats:}") String[] families) {
+        this.enabled = enabled;
+        this.histogram = histogram;
+        // Prefixos mais longos primeiro: jwt:blacklist:user: antes de jwt:blacklist:
+        this.families = Arrays.stream(families)
+                .map(String::trim)
+                .filter(family -> !family.isEmpty())
+                .sorted(Comparator.comparingInt(String::length).reversed())
+                .toArray(String[]::new);
+    }
+
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @return true se há registro de métricas e a instrumentação está habilitada
+     */
+    public boolean isEnabled() {
+        return enabled && meterRegistry != null;
+    }
+
+    /**
+     * Registra a duração de uma operação.
+     *
+     * @param operation operação lógica
+     * @param key chave ou padrão usado na operação (define a família)
+     * @param durationNanos duração em nanossegundos
+     * @param error erro da operação ou null se bem-sucedida
+     */
+    public void record(String operation, String key, long durationNanos, Throwable error) {
+        if (!isEnabled()) {
+            return;
+        }
+        String family = familyOf(key);
+        String outcome = outcomeOf(error);
+        timers.computeIfAbsent(operation + '|' + family + '|' + outcome, ignored -> Timer.builder(METRIC_NAME)
+                        .tags("operation", operation, "family", family, "outcome", outcome)
+                        .description("Duração das operações no Redis por operação e família de chave")
+                        .publishPercentileHistogram(histogram)
+                        .minimumExpectedValue(Duration.ofNanos(100_000))
+                        .maximumExpectedValue(Duration.ofSeconds(5))
+                        .register(meterRegistry))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Família da chave: o prefixo configurado mais longo que a contém, sem o ":" final.
+     *
+     * @param key chave ou padrão
+     * @return família ou "other"
+     */
+    String familyOf(String key) {
+        if (key != null) {
+            for (String family : families) {
+                if (key.startsWith(family)) {
+                    return family.endsWith(":") ? family.substring(0, family.length() - 1) : family;
+                }
+            }
+        }
+        return OTHER_FAMILY;
+    }
+
+    /**
+     * Classifica o resultado: recusa do circuit breaker, timeout (do cliente ou traduzido pelo
+     * Spring) ou demais erros.
+     */
+    static String outcomeOf(Throwable error) {
+        if (error == null) {
+            return "success";
+        }
+        if (error instanceof RedisUnavailableException && error.getCause() == null) {
+            return "rejected";
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof QueryTimeoutException
+                    || cause instanceof RedisCommandTimeoutException
+                    || cause instanceof TimeoutException) {
+                return "timeout";
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return "error";
+    }
+}
@@ -0,0 +1,44 @@
+package com.sistema.service.base;
+
+/**
+ * Codificação compacta do valor de uma família de chaves do Redis.
+ * A leitura aceita tanto o formato compacto quanto o JSON gravado pelo template padrão,
+ * o que permite migrar as chaves existentes sem interrupção: primeiro todos os leitores
+ * passam a usar o codec e depois a gravação compacta é habilitada.
+ *
+ * @param <T> tipo do valor
+ */
+public interface RedisValueCodec<T> {
+
+    /**
+     * Codifica o valor no formato compacto.
+     *
+     * @param value valor (não nulo)
+     * @return bytes a gravar no Redis
+     */
+    byte[] encode(T value);
+
+    /**
+     * Decodifica bytes lidos do Redis, no formato compacto ou no JSON legado.
+     *
+     * @param bytes bytes lidos (null para chave inexistente)
+     * @return valor ou null
+     */
+    T decode(byte[] bytes);
+
+    /**
+     * Converte um valor já desserializado pelo template JSON (formato legado).
+     *
+     * @param value valor desserializado (null para chave inexistente)
+     * @return valor ou null
+     */
+    T fromLegacy(Object value);
+
+    /**
+     * Indica se os bytes estão no formato compacto deste codec.
+     *
+     * @param bytes bytes lidos do Redis
+     * @return true se não for o JSON legado
+     */
+    boolean isCompact(byte[] bytes);
+}
@@ -0,0 +1,184 @@
+package com.sistema.service.base;
+
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Codecs compactos por família de chaves do Redis.
+ * <ul>
+ *   <li>{@link #COUNTER}: contadores em decimal ASCII, a mesma representação usada por INCR/INCRBY
+ *       (que o Redis armazena internamente como inteiro)</li>
+ *   <li>{@link #TIMESTAMP}: instantes em milissegundos como long de 8 bytes (big-endian)</li>
+ *   <li>{@link #FLAG}: sinalizações em um único byte</li>
+ *   <li>{@link #SHA256}: hashes SHA-256 como os 32 bytes do digest, sem hexadecimal</li>
+ * </ul>
+ * Valores gravados pelo template JSON continuam legíveis por todos os codecs.
+ */
+public final class RedisValueCodecs {
+
+    /**
+     * Desserializador do formato legado (mesma configuração do template padrão).
+     */
+    private static final RedisSerializer<Object> LEGACY = new GenericJackson2JsonRedisSerializer();
+
+    private static final byte FLAG_TRUE = '1';
+    private static final byte FLAG_FALSE = '0';
+    private static final int TIMESTAMP_LENGTH = Long.BYTES;
+    private static final int SHA256_LENGTH = 32;
+
+    /**
+     * Contadores (tentativas). Compatível com INCR: o formato compacto é o decimal gravado pelo Redis.
+     */
+    public static final RedisValueCodec<Long> COUNTER = new AbstractCodec<>() {
+
+        @Override
+        public byte[] encode(Long value) {
+            return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+        }
+
+        @Override
+        public boolean isCompact(byte[] bytes) {
+            if (bytes.length == 0 || bytes.length > 20) {
+                return false;
+            }
+            for (int i = 0; i < bytes.length; i++) {
+                byte b = bytes[i];
+                if ((b < '0' || b > '9') && !(i == 0 && b == '-' && bytes.length > 1)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        protected Long decodeCompact(byte[] bytes) {
+            return Long.parseLong(new String(bytes, StandardCharsets.US_ASCII));
+        }
+
+        @Override
+        protected Long convertLegacy(Object value) {
+            return toLong(value);
+        }
+    };
+
+    /**
+     * Instantes em milissegundos (revogação global por usuário). Valores no intervalo
+     * [0, 2^56) têm o primeiro byte zero, o que nunca ocorre no JSON legado.
+     */
+    public static final RedisValueCodec<Long> TIMESTAMP = new AbstractCodec<>() {
+
+        @Override
+        public byte[] encode(Long value) {
+            return ByteBuffer.allocate(TIMESTAMP_LENGTH).putLong(value).array();
+        }
+
+        @Override
+        public boolean isCompact(byte[] bytes) {
+            return bytes.length == TIMESTAMP_LENGTH && bytes[0] == 0;
+        }
+
+        @Override
+        protected Long decodeCompact(byte[] bytes) {
+            return ByteBuffer.wrap(bytes).getLong();
+        }
+
+        @Override
+        protected Long convertLegacy(Object value) {
+            return toLong(value);
+        }
+    };
+
+    /**
+     * Sinalizações (token revogado, captcha obrigatório, rate limit ativo).
+     * No formato legado qualquer valor diferente de "false" conta como ativo.
+     */
+    public static final RedisValueCodec<Boolean> FLAG = new AbstractCodec<>() {
+
+        @Override
+        public byte[] encode(Boolean value) {
+            return new byte[] { Boolean.TRUE.equals(value) ? FLAG_TRUE : FLAG_FALSE };
+        }
+
+        @Override
+        public boolean isCompact(byte[] bytes) {
+            return bytes.length == 1 && (bytes[0] == FLAG_TRUE || bytes[0] == FLAG_FALSE);
+        }
+
+        @Override
+        protected Boolean decodeCompact(byte[] bytes) {
+            return bytes[0] == FLAG_TRUE;
+        }
+
+        @Override
+        protected Boolean convertLegacy(Object value) {
+            if (value instanceof Boolean) {
+                return (Boolean) value;
+            }
+            return !"false".equalsIgnoreCase(value.toString());
+        }
+    };
+
+    /**
+     * Digests SHA-256 (resposta do captcha). O formato legado é o hexadecimal em uma string JSON.
+     */
+    public static final RedisValueCodec<byte[]> SHA256 = new AbstractCodec<>() {
+
+        @Override
+        public byte[] encode(byte[] value) {
+            return Arrays.copyOf(value, value.length);
+        }
+
+        @Override
+        public boolean isCompact(byte[] bytes) {
+            return bytes.length == SHA256_LENGTH;
+        }
+
+        @Override
+        protected byte[] decodeCompact(byte[] bytes) {
+            return bytes;
+        }
+
+        @Override
+        protected byte[] convertLegacy(Object value) {
+            return HexFormat.of().parseHex(value.toString());
+        }
+    };
+
+    private RedisValueCodecs() {
+    }
+
+    private static Long toLong(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        return Long.parseLong(value.toString());
+    }
+
+    /**
+     * Base comum: trata chaves inexistentes e delega o formato legado ao desserializador JSON.
+     */
+    private abstract static class AbstractCodec<T> implements RedisValueCodec<T> {
+
+        @Override
+        public final T decode(byte[] bytes) {
+            if (bytes == null || bytes.length == 0) {
+                return null;
+            }
+            return isCompact(bytes) ? decodeCompact(bytes) : fromLegacy(LEGACY.deserialize(bytes));
+        }
+
+        @Override
+        public final T fromLegacy(Object value) {
+            return value != null ? convertLegacy(value) : null;
+        }
+
+        protected abstract T decodeCompact(byte[] bytes);
+
+        protected abstract T convertLegacy(Object value);
+    }
+}
@@ -0,0 +1,428 @@
+package com.sistema.service.base;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushListener;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.stereotype.Component;
+
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache local de leituras do Redis com invalidação pelo servidor (client-side caching).
+ *
+ * Uma conexão Lettuce dedicada, em RESP3, habilita CLIENT TRACKING no modo BCAST para os
+ * prefixos configurados: qualquer alteração em uma chave desses prefixos, feita por qualquer
+ * instância, gera uma mensagem de invalidação que remove a entrada local. As leituras das
+ * chaves acompanhadas passam a ser respondidas da memória enquanto o valor não muda.
+ *
+ * Leituras em andamento são marcadas antes de ir ao Redis; uma invalidação recebida nesse
+ * intervalo descarta a marcação e o valor lido não é guardado, evitando que um valor
+ * antigo sobrescreva a invalidação. Se a conexão cair, o cache é esvaziado e desativado até
+ * o rastreamento ser restabelecido. Um TTL de segurança limita a defasagem caso alguma
+ * mensagem se perca.
+ *
+ * Requer Redis 6+ em modo standalone; em outros casos o cache permanece desativado e as
+ * leituras seguem direto para o Redis.
+ */
+@Component
+public class TrackedReadCache implements PushListener, RedisConnectionStateListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrackedReadCache.class);
+    private static final String INVALIDATE = "invalidate";
+
+    /**
+     * Chave inexistente no Redis.
+     */
+    private static final Object ABSENT = new Object();
+
+    /**
+     * Chave existente cujo valor ainda não foi lido (resultado de EXISTS).
+     */
+    private static final Object PRESENT = new Object();
+
+    private final boolean enabled;
+    private final String[] prefixes;
+    private final Cache<String, Object> entries;
+    private final ConcurrentMap<String, Object> pendingLoads = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private RedisConnectionFactory connectionFactory;
+    private volatile AbstractRedisClient client;
+    private volatile StatefulRedisConnection<String, byte[]> connection;
+    private volatile boolean tracking;
+
+    @Autowired
+    public TrackedReadCache(
+            @Value("${app.redis.client-side-caching.enabled:false}") boolean enabled,
+            @Value("${app.redis.client-side-caching.prefixes:}") String[] prefixes,
+            @Value("${app.redis.client-side-caching.max-entries:50000}") long maxEntries,
+            @Value("${app.redis.client-side-caching.ttl-seconds:300}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.prefixes = Arrays.stream(prefixes).map(String::trim).filter(p -> !p.isEmpty()).toArray(String[]::new);
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    @Autowired(required = false)
+    public void setConnectionFactory(RedisConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    /**
+     * Registra acertos, faltas, invalidações e tamanho do cache no Micrometer.
+     *
+     * @param meterRegistry registro de métricas
+     */
+    @Autowired(required = false)
+    public void bindMetrics(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("redis.client-cache.gets", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Leituras de chaves acompanhadas respondidas da memória")
+                .register(meterRegistry);
+        FunctionCounter.builder("redis.client-cache.gets", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Leituras de chaves acompanhadas que foram ao Redis")
+                .register(meterRegistry);
+        FunctionCounter.builder("redis.client-cache.invalidations", invalidations, LongAdder::sum)
+                .description("Chaves invalidadas por mensagens do servidor ou escritas locais")
+                .register(meterRegistry);
+        Gauge.builder("redis.client-cache.size", entries, Cache::estimatedSize)
+                .description("Entradas no cache local de leituras")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Abre a conexão dedicada e habilita o rastreamento dos prefixos configurados.
+     * Executado após a inicialização, quando a fábrica de conexões já está pronta.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || prefixes.length == 0 || connection != null) {
+            return;
+        }
+        if (!(connectionFactory instanceof LettuceConnectionFactory)) {
+            logger.warn("Client-side caching requer Lettuce; cache de leituras desativado");
+            return;
+        }
+        AbstractRedisClient nativeClient = ((LettuceConnectionFactory) connectionFactory).getNativeClient();
+        if (!(nativeClient instanceof RedisClient)) {
+            logger.warn("Client-side caching disponível apenas para Redis standalone; cache de leituras desativado");
+            return;
+        }
+        StatefulRedisConnection<String, byte[]> trackedConnection = null;
+        try {
+            trackedConnection = ((RedisClient) nativeClient)
+                    .connect(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
+            trackedConnection.addListener((PushListener) this);
+            trackedConnection.sync().clientTracking(trackingArgs());
+            nativeClient.addListener((RedisConnectionStateListener) this);
+            this.client = nativeClient;
+            this.connection = trackedConnection;
+            this.tracking = true;
+            logger.info("Client-side caching habilitado para os prefixos {}", Arrays.toString(prefixes));
+        } catch (Exception e) {
+            logger.warn("Falha ao habilitar CLIENT TRACKING (requer Redis 6+ com RESP3); cache de leituras desativado: {}",
+                    e.getMessage());
+            if (trackedConnection != null) {
+                trackedConnection.close();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        tracking = false;
+        if (client != null) {
+            client.removeListener((RedisConnectionStateListener) this);
+        }
+        if (connection != null) {
+            connection.close();
+            connection = null;
+        }
+        entries.invalidateAll();
+    }
+
+    /**
+     * @param key chave
+     * @return true se a chave pertence a um prefixo acompanhado e o rastreamento está ativo
+     */
+    public boolean covers(String key) {
+        if (!tracking || key == null) {
+            return false;
+        }
+        for (String prefix : prefixes) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param keys chaves
+     * @return true se todas as chaves são acompanhadas
+     */
+    public boolean coversAll(Collection<String> keys) {
+        for (String key : keys) {
+            if (!covers(key)) {
+                return false;
+            }
+        }
+        return !keys.isEmpty();
+    }
+
+    /**
+     * Valor bruto de uma chave (GET).
+     *
+     * @param key chave acompanhada
+     * @return bytes armazenados ou null se a chave não existir
+     */
+    public byte[] get(String key) {
+        Object cached = entries.getIfPresent(key);
+        if (cached == ABSENT || cached instanceof byte[]) {
+            hits.increment();
+            return cached == ABSENT ? null : (byte[]) cached;
+        }
+        misses.increment();
+        Object token = beginLoad(key);
+        try {
+            byte[] value = connection.sync().get(key);
+            completeLoad(key, token, value != null ? value : ABSENT);
+            return value;
+        } finally {
+            pendingLoads.remove(key, token);
+        }
+    }
+
+    /**
+     * Valores brutos de várias chaves; as ausentes do cache são lidas em um único MGET.
+     *
+     * @param keys chaves acompanhadas
+     * @return bytes na mesma ordem das chaves, com null para chaves inexistentes
+     */
+    public List<byte[]> getAll(List<String> keys) {
+        byte[][] values = new byte[keys.size()][];
+        List<String> missing = new ArrayList<>();
+        List<Integer> missingPositions = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            Object cached = entries.getIfPresent(keys.get(i));
+            if (cached == ABSENT || cached instanceof byte[]) {
+                hits.increment();
+                values[i] = cached == ABSENT ? null : (byte[]) cached;
+            } else {
+                misses.increment();
+                missing.add(keys.get(i));
+                missingPositions.add(i);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<Object> tokens = new ArrayList<>(missing.size());
+            for (String key : missing) {
+                tokens.add(beginLoad(key));
+            }
+            try {
+                List<KeyValue<String, byte[]>> loaded = connection.sync().mget(missing.toArray(new String[0]));
+                for (int i = 0; i < missing.size(); i++) {
+                    KeyValue<String, byte[]> keyValue = i < loaded.size() ? loaded.get(i) : null;
+                    byte[] value = keyValue != null && keyValue.hasValue() ? keyValue.getValue() : null;
+                    completeLoad(missing.get(i), tokens.get(i), value != null ? value : ABSENT);
+                    values[missingPositions.get(i)] = value;
+                }
+            } finally {
+                for (int i = 0; i < missing.size(); i++) {
+                    pendingLoads.remove(missing.get(i), tokens.get(i));
+                }
+            }
+        }
+        return Arrays.asList(values);
+    }
+
+    /**
+     * Campos de um hash (HGETALL).
+     *
+     * @param key chave acompanhada
+     * @return campos e valores brutos; vazio se o hash não existir
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, byte[]> getHash(String key) {
+        Object cached = entries.getIfPresent(key);
+        if (cached == ABSENT || cached instanceof Map) {
+            hits.increment();
+            return cached == ABSENT ? Collections.emptyMap() : (Map<String, byte[]>) cached;
+        }
+        misses.increment();
+        Object token = beginLoad(key);
+        try {
+            Map<String, byte[]> hash = connection.sync().hgetall(key);
+            Map<String, byte[]> value = hash != null && !hash.isEmpty()
+                    ? Collections.unmodifiableMap(hash)
+                    : Collections.emptyMap();
+            completeLoad(key, token, value.isEmpty() ? ABSENT : value);
+            return value;
+        } finally {
+            pendingLoads.remove(key, token);
+        }
+    }
+
+    /**
+     * Existência de uma chave de qualquer tipo (EXISTS).
+     *
+     * @param key chave acompanhada
+     * @return true se a chave existir
+     */
+    public boolean exists(String key) {
+        Object cached = entries.getIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            return cached != ABSENT;
+        }
+        misses.increment();
+        Object token = beginLoad(key);
+        try {
+            Long count = connection.sync().exists(key);
+            boolean exists = count != null && count > 0;
+            completeLoad(key, token, exists ? PRESENT : ABSENT);
+            return exists;
+        } finally {
+            pendingLoads.remove(key, token);
+        }
+    }
+
+    /**
+     * Descarta as entradas locais das chaves. Usado após escritas desta instância para que a
+     * leitura seguinte não dependa da chegada da mensagem de invalidação do servidor.
+     *
+     * @param keys chaves alteradas
+     */
+    public void invalidate(Collection<String> keys) {
+        for (String key : keys) {
+            invalidateKey(key);
+        }
+    }
+
+    /**
+     * Recebe as invalidações enviadas pelo servidor para as chaves dos prefixos acompanhados.
+     * Conteúdo nulo indica que todo o cache deve ser descartado (ex.: FLUSHALL).
+     */
+    @Override
+    public void onPushMessage(PushMessage message) {
+        if (!INVALIDATE.equals(message.getType())) {
+            return;
+        }
+        List<Object> content = message.getContent(buffer -> StandardCharsets.UTF_8.decode(buffer).toString());
+        Object keys = content.size() > 1 ? content.get(1) : null;
+        if (keys instanceof Collection) {
+            for (Object key : (Collection<?>) keys) {
+                invalidateKey(String.valueOf(key));
+            }
+        } else {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public void onRedisConnected(RedisChannelHandler<?, ?> handler, SocketAddress address) {
+        StatefulRedisConnection<String, byte[]> current = connection;
+        if (current == null || handler != current) {
+            return;
+        }
+        // O rastreamento é perdido com a conexão e precisa ser habilitado novamente
+        current.async().clientTracking(trackingArgs()).whenComplete((result, error) -> {
+            if (error != null) {
+                logger.warn("Falha ao restabelecer CLIENT TRACKING; cache de leituras desativado: {}", error.getMessage());
+                return;
+            }
+            invalidateAll();
+            tracking = true;
+            logger.info("Client-side caching restabelecido após reconexão");
+        });
+    }
+
+    @Override
+    public void onRedisDisconnected(RedisChannelHandler<?, ?> handler) {
+        if (handler == connection) {
+            tracking = false;
+            invalidateAll();
+            logger.warn("Conexão de client-side caching perdida; leituras seguem direto para o Redis");
+        }
+    }
+
+    /**
+     * @return número aproximado de entradas no cache
+     */
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    private TrackingArgs trackingArgs() {
+        return TrackingArgs.Builder.enabled().bcast().prefixes(prefixes);
+    }
+
+    private Object beginLoad(String key) {
+        Object token = new Object();
+        pendingLoads.put(key, token);
+        return token;
+    }
+
+    /**
+     * Guarda o valor lido apenas se nenhuma invalidação da chave chegou durante a leitura.
+     */
+    private void completeLoad(String key, Object token, Object value) {
+        pendingLoads.computeIfPresent(key, (k, current) -> {
+            if (current == token && tracking) {
+                entries.put(k, value);
+            }
+            return current;
+        });
+    }
+
+    private void invalidateKey(String key) {
+        pendingLoads.remove(key);
+        entries.invalidate(key);
+        invalidations.increment();
+    }
+
+    private void invalidateAll() {
+        pendingLoads.clear();
+        entries.invalidateAll();
+    }
+}
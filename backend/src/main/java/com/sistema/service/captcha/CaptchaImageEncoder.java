@@ -0,0 +1,240 @@
+package com.sistema.service.captcha;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Codificador das imagens de captcha.
+ *
+ * Formatos:
+ * <ul>
+ *   <li>png: PNG truecolor, como o ImageIO.write padrão;</li>
+ *   <li>png-indexed: PNG de 4 bits com paleta fixa de 16 cores (tons de cinza do fundo, preto do
+ *   texto e azul do ruído), com cerca de um quarto do tamanho do PNG truecolor;</li>
+ *   <li>jpeg: JPEG com a qualidade configurada.</li>
+ * </ul>
+ *
+ * Diferente do ImageIO.write, não consulta o registro de plugins a cada imagem nem usa cache em
+ * disco: cada thread mantém seu ImageWriter, e a saída é escrita em memória.
+ */
+@Component
+public class CaptchaImageEncoder {
+
+    public static final String FORMAT_PNG = "png";
+    public static final String FORMAT_PNG_INDEXED = "png-indexed";
+    public static final String FORMAT_JPEG = "jpeg";
+
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Paleta das imagens indexadas: cinzas concentrados na faixa do fundo (lightGray a branco),
+     * preto e cinzas escuros para as bordas suavizadas do texto e tons de azul do ruído.
+     */
+    private static final int[] PALETTE = {
+            0x000000, 0x404040, 0x808080, 0xc0c0c0, 0xc8c8c8, 0xd0d0d0, 0xd8d8d8, 0xe0e0e0,
+            0xe8e8e8, 0xf0f0f0, 0xf8f8f8, 0xffffff, 0x0000ff, 0x4040ff, 0x8080ff, 0xc0c0ff
+    };
+
+    private static final IndexColorModel INDEXED_COLOR_MODEL = createIndexColorModel();
+
+    /**
+     * Índice da cor mais próxima da paleta para cada cor RGB reduzida a 5 bits por canal.
+     */
+    private static final byte[] NEAREST_COLOR = createNearestColorTable();
+
+    private final String format;
+    private final float jpegQuality;
+    private final ThreadLocal<ImageWriter> writers;
+    // Writers criados pelas threads, liberados no encerramento
+    private final Queue<ImageWriter> createdWriters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Codificador com a configuração padrão (PNG truecolor).
+     */
+    public CaptchaImageEncoder() {
+        this(FORMAT_PNG, 0.6f);
+    }
+
+    @Autowired
+    public CaptchaImageEncoder(
+            @Value("${app.captcha.image.format:png}") String format,
+            @Value("${app.captcha.image.jpeg-quality:0.6}") float jpegQuality) {
+        this.format = format.trim().toLowerCase(Locale.ROOT);
+        if (!FORMAT_PNG.equals(this.format) && !FORMAT_PNG_INDEXED.equals(this.format)
+                && !FORMAT_JPEG.equals(this.format)) {
+            throw new IllegalArgumentException("Formato de imagem de captcha não suportado: " + format);
+        }
+        this.jpegQuality = Math.max(0f, Math.min(1f, jpegQuality));
+        String writerFormat = FORMAT_JPEG.equals(this.format) ? "jpeg" : "png";
+        this.writers = ThreadLocal.withInitial(() -> {
+            ImageWriter writer = createWriter(writerFormat);
+            createdWriters.add(writer);
+            return writer;
+        });
+    }
+
+    /**
+     * Libera os ImageWriters criados pelas threads que codificaram imagens.
+     */
+    @PreDestroy
+    public void close() {
+        writers.remove();
+        ImageWriter writer;
+        while ((writer = createdWriters.poll()) != null) {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * @return formato configurado (png, png-indexed ou jpeg)
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * @return tipo de conteúdo das imagens geradas
+     */
+    public String getContentType() {
+        return FORMAT_JPEG.equals(format) ? MediaType.IMAGE_JPEG_VALUE : MediaType.IMAGE_PNG_VALUE;
+    }
+
+    /**
+     * Codifica a imagem no formato configurado.
+     *
+     * @param image imagem do captcha
+     * @return bytes codificados
+     */
+    public byte[] encode(BufferedImage image) {
+        switch (format) {
+            case FORMAT_PNG_INDEXED:
+                return write(toIndexed(image), null);
+            case FORMAT_JPEG:
+                return write(toRgb(image), jpegParam());
+            default:
+                return write(image, null);
+        }
+    }
+
+    private byte[] write(BufferedImage image, ImageWriteParam param) {
+        ImageWriter writer = writers.get();
+        ByteArrayOutputStream output = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        try (ImageOutputStream stream = new MemoryCacheImageOutputStream(output)) {
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao codificar imagem do captcha", e);
+        } finally {
+            writer.reset();
+        }
+        return output.toByteArray();
+    }
+
+    private ImageWriteParam jpegParam() {
+        ImageWriteParam param = writers.get().getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(jpegQuality);
+        return param;
+    }
+
+    /**
+     * Converte para a paleta fixa pela cor mais próxima, sem pontilhado (o pontilhado aumentaria
+     * o tamanho do PNG).
+     */
+    static BufferedImage toIndexed(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        BufferedImage indexed = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY, INDEXED_COLOR_MODEL);
+        WritableRaster raster = indexed.getRaster();
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            for (int x = 0; x < width; x++) {
+                int rgb = row[x];
+                int key = ((rgb >> 9) & 0x7c00) | ((rgb >> 6) & 0x03e0) | ((rgb >> 3) & 0x001f);
+                raster.setSample(x, y, 0, NEAREST_COLOR[key]);
+            }
+        }
+        return indexed;
+    }
+
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        // JPEG não suporta canal alfa
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    private static ImageWriter createWriter(String writerFormat) {
+        Iterator<ImageWriter> iterator = ImageIO.getImageWritersByFormatName(writerFormat);
+        if (!iterator.hasNext()) {
+            throw new IllegalStateException("Nenhum ImageWriter disponível para " + writerFormat);
+        }
+        return iterator.next();
+    }
+
+    private static IndexColorModel createIndexColorModel() {
+        byte[] red = new byte[PALETTE.length];
+        byte[] green = new byte[PALETTE.length];
+        byte[] blue = new byte[PALETTE.length];
+        for (int i = 0; i < PALETTE.length; i++) {
+            red[i] = (byte) (PALETTE[i] >> 16);
+            green[i] = (byte) (PALETTE[i] >> 8);
+            blue[i] = (byte) PALETTE[i];
+        }
+        return new IndexColorModel(4, PALETTE.length, red, green, blue);
+    }
+
+    private static byte[] createNearestColorTable() {
+        byte[] table = new byte[1 << 15];
+        for (int key = 0; key < table.length; key++) {
+            // Centro do intervalo representado pelos 5 bits de cada canal
+            int r = ((key >> 10) << 3) | 4;
+            int g = (((key >> 5) & 0x1f) << 3) | 4;
+            int b = ((key & 0x1f) << 3) | 4;
+            int best = 0;
+            int bestDistance = Integer.MAX_VALUE;
+            for (int i = 0; i < PALETTE.length; i++) {
+                int dr = r - ((PALETTE[i] >> 16) & 0xff);
+                int dg = g - ((PALETTE[i] >> 8) & 0xff);
+                int db = b - (PALETTE[i] & 0xff);
+                int distance = dr * dr + dg * dg + db * db;
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = i;
+                }
+            }
+            table[key] = (byte) best;
+        }
+        return table;
+    }
+}
@@ -0,0 +1,220 @@
+package com.sistema.service.captcha;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reserva limitada de captchas pré-renderizados.
+ *
+ * Produtores em um executor dedicado, com threads daemon de prioridade mínima, renderizam
+ * captchas até encher a fila; quando a profundidade cai até a marca mínima (low-water mark)
+ * um novo ciclo de reposição é disparado. Servir um captcha passa a ser apenas retirar um
+ * item da fila; se ela estiver vazia a renderização é feita na própria requisição.
+ *
+ * Os itens guardam somente o hash da resposta e a imagem já codificada.
+ */
+@Component
+public class CaptchaPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(CaptchaPool.class);
+
+    private final boolean enabled;
+    private final int lowWaterMark;
+    private final int producerThreads;
+    private final CaptchaRenderer renderer;
+    private final BlockingQueue<RenderedCaptcha> queue;
+    private final ExecutorService executor;
+    private final AtomicInteger activeProducers = new AtomicInteger();
+
+    private volatile boolean running;
+    private Timer backgroundRenderTimer;
+    private Timer syncRenderTimer;
+    private Counter hitCounter;
+    private Counter missCounter;
+
+    @Autowired
+    public CaptchaPool(
+            CaptchaRenderer renderer,
+            @Value("${app.captcha.pool.enabled:false}") boolean enabled,
+            @Value("${app.captcha.pool.capacity:200}") int capacity,
+            @Value("${app.captcha.pool.low-water-mark:50}") int lowWaterMark,
+            @Value("${app.captcha.pool.producer-threads:1}") int producerThreads) {
+        this(renderer, enabled, capacity, lowWaterMark, producerThreads, createExecutor(producerThreads));
+    }
+
+    CaptchaPool(CaptchaRenderer renderer, boolean enabled, int capacity, int lowWaterMark,
+                int producerThreads, ExecutorService executor) {
+        this.renderer = renderer;
+        this.enabled = enabled;
+        this.lowWaterMark = Math.max(0, Math.min(lowWaterMark, capacity - 1));
+        this.producerThreads = Math.max(1, producerThreads);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.executor = executor;
+    }
+
+    /**
+     * Registra profundidade da reserva, tempo de renderização e uso da reserva no Micrometer.
+     *
+     * @param meterRegistry registro de métricas
+     */
+    @Autowired(required = false)
+    public void bindMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("captcha.pool.depth", queue, BlockingQueue::size)
+                .description("Captchas pré-renderizados disponíveis")
+                .register(meterRegistry);
+        backgroundRenderTimer = Timer.builder("captcha.render")
+                .tag("mode", "background")
+                .description("Tempo de renderização dos captchas")
+                .register(meterRegistry);
+        syncRenderTimer = Timer.builder("captcha.render")
+                .tag("mode", "sync")
+                .description("Tempo de renderização dos captchas")
+                .register(meterRegistry);
+        hitCounter = Counter.builder("captcha.pool.served")
+                .tag("result", "hit")
+                .description("Captchas servidos a partir da reserva")
+                .register(meterRegistry);
+        missCounter = Counter.builder("captcha.pool.served")
+                .tag("result", "miss")
+                .description("Captchas renderizados na requisição por falta de itens na reserva")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Inicia o preenchimento da reserva após a inicialização da aplicação.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        logger.info("Reserva de captchas habilitada (capacidade {}, mínimo {}, produtores {})",
+                queue.remainingCapacity() + queue.size(), lowWaterMark, producerThreads);
+        requestRefill();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        executor.shutdownNow();
+        queue.clear();
+    }
+
+    /**
+     * Retira um captcha pronto da reserva ou, se não houver, renderiza um na hora.
+     *
+     * @return captcha renderizado
+     */
+    public RenderedCaptcha take() {
+        RenderedCaptcha captcha = running ? queue.poll() : null;
+        if (running && queue.size() <= lowWaterMark) {
+            requestRefill();
+        }
+        if (captcha != null) {
+            increment(hitCounter);
+            return captcha;
+        }
+        increment(missCounter);
+        return render(syncRenderTimer);
+    }
+
+    /**
+     * @return número de captchas disponíveis na reserva
+     */
+    public int depth() {
+        return queue.size();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Dispara produtores até o limite configurado; produtores já ativos continuam enchendo a fila.
+     */
+    void requestRefill() {
+        while (running) {
+            int active = activeProducers.get();
+            if (active >= producerThreads || queue.remainingCapacity() == 0) {
+                return;
+            }
+            if (!activeProducers.compareAndSet(active, active + 1)) {
+                continue;
+            }
+            try {
+                executor.execute(this::produce);
+            } catch (RejectedExecutionException e) {
+                activeProducers.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private void produce() {
+        try {
+            while (running && queue.remainingCapacity() > 0 && !Thread.currentThread().isInterrupted()) {
+                if (!queue.offer(render(backgroundRenderTimer))) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Falha ao pré-renderizar captcha: {}", e.getMessage());
+        } finally {
+            activeProducers.decrementAndGet();
+        }
+    }
+
+    private RenderedCaptcha render(Timer timer) {
+        if (timer == null) {
+            return renderer.render();
+        }
+        long start = System.nanoTime();
+        try {
+            return renderer.render();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private static ExecutorService createExecutor(int producerThreads) {
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "captcha-producer-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        };
+        int threads = Math.max(1, producerThreads);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
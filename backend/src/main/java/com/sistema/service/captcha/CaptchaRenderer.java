@@ -0,0 +1,90 @@
+package com.sistema.service.captcha;
+
+import com.google.code.kaptcha.impl.DefaultKaptcha;
+import com.google.code.kaptcha.util.Config;
+import com.sistema.util.SecurityUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.util.Properties;
+
+/**
+ * Renderiza captchas com Kaptcha: gera o texto, desenha a imagem e a codifica com o
+ * {@link CaptchaImageEncoder}.
+ * É a parte cara da geração (Java2D e compressão), executada em segundo plano pelo
+ * {@link CaptchaPool} ou, na falta de captchas prontos, na própria requisição.
+ */
+@Component
+public class CaptchaRenderer {
+
+    public static final int IMAGE_WIDTH = 200;
+    public static final int IMAGE_HEIGHT = 50;
+    public static final int TEXT_LENGTH = 5;
+    public static final String FONT_NAME = "Arial";
+    public static final int FONT_SIZE = 40;
+
+    private final DefaultKaptcha kaptcha;
+    private final CaptchaImageEncoder encoder;
+
+    /**
+     * Renderizador com codificação PNG padrão.
+     */
+    public CaptchaRenderer() {
+        this(new CaptchaImageEncoder());
+    }
+
+    @Autowired
+    public CaptchaRenderer(CaptchaImageEncoder encoder) {
+        this.encoder = encoder;
+        this.kaptcha = new DefaultKaptcha();
+
+        Properties properties = new Properties();
+        properties.setProperty("kaptcha.image.width", String.valueOf(IMAGE_WIDTH));
+        properties.setProperty("kaptcha.image.height", String.valueOf(IMAGE_HEIGHT));
+        properties.setProperty("kaptcha.textproducer.char.string", "ABCDEFGHJKLMNPQRSTUVWXYZ23456789");
+        properties.setProperty("kaptcha.textproducer.char.length", String.valueOf(TEXT_LENGTH));
+        properties.setProperty("kaptcha.textproducer.font.names", FONT_NAME);
+        properties.setProperty("kaptcha.textproducer.font.size", String.valueOf(FONT_SIZE));
+        properties.setProperty("kaptcha.textproducer.font.color", "black");
+        properties.setProperty("kaptcha.textproducer.char.space", "5");
+        properties.setProperty("kaptcha.noise.impl", "com.google.code.kaptcha.impl.DefaultNoise");
+        properties.setProperty("kaptcha.noise.color", "blue");
+        properties.setProperty("kaptcha.background.clear.from", "lightGray");
+        properties.setProperty("kaptcha.background.clear.to", "white");
+        properties.setProperty("kaptcha.border", "yes");
+        properties.setProperty("kaptcha.border.color", "black");
+
+        Config config = new Config(properties);
+        kaptcha.setConfig(config);
+    }
+
+    /**
+     * Renderiza um novo captcha.
+     *
+     * @return hash da resposta e imagem codificada
+     */
+    public RenderedCaptcha render() {
+        String text = kaptcha.createText();
+        BufferedImage image = createImage(text);
+        return new RenderedCaptcha(SecurityUtils.hashSHA256(text.toLowerCase()),
+                encoder.encode(image), encoder.getContentType());
+    }
+
+    /**
+     * Desenha a imagem de um texto com a configuração do captcha, sem codificá-la.
+     *
+     * @param text texto do captcha
+     * @return imagem
+     */
+    public BufferedImage createImage(String text) {
+        return kaptcha.createImage(text);
+    }
+
+    /**
+     * @return codificador usado nas imagens
+     */
+    public CaptchaImageEncoder getEncoder() {
+        return encoder;
+    }
+}
@@ -0,0 +1,206 @@
+package com.sistema.service.captcha;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Sela o desafio do captcha no próprio ID (modo sem estado): o ID é um token AES-GCM com o
+ * hash da resposta e o instante de expiração, e nada é gravado no Redis na geração.
+ *
+ * A cifragem (e não apenas uma assinatura HMAC) é necessária: o hash de uma resposta de cinco
+ * caracteres seria quebrado por força bruta em segundos se ficasse visível no ID.
+ *
+ * Formato (base64url, 92 caracteres): versão (1 byte) | nonce (12 bytes) | AES-GCM(expiração em
+ * segundos (8 bytes) | hash da resposta (32 bytes)) | tag (16 bytes). O nonce identifica o
+ * captcha no registro de uso único.
+ */
+@Component
+public class CaptchaTokenSealer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CaptchaTokenSealer.class);
+
+    private static final byte VERSION = 1;
+    private static final int NONCE_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+    private static final int HASH_LENGTH = 32;
+    private static final int PAYLOAD_LENGTH = Long.BYTES + HASH_LENGTH;
+    private static final int TOKEN_LENGTH = 1 + NONCE_LENGTH + PAYLOAD_LENGTH + TAG_BITS / 8;
+    static final int ENCODED_LENGTH = (TOKEN_LENGTH * 4 + 2) / 3;
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final boolean enabled;
+    private final SecretKeySpec key;
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    public CaptchaTokenSealer(
+            @Value("${app.captcha.stateless.enabled:false}") boolean enabled,
+            @Value("${app.captcha.stateless.secret:}") String secret) {
+        this(enabled, secret, Clock.systemUTC());
+    }
+
+    CaptchaTokenSealer(boolean enabled, String secret, Clock clock) {
+        this.enabled = enabled;
+        this.clock = clock;
+        this.key = new SecretKeySpec(deriveKey(enabled, secret), "AES");
+    }
+
+    /**
+     * @return true se os captchas devem ser emitidos no modo sem estado
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sela o hash da resposta e a expiração em um novo ID de captcha.
+     *
+     * @param answerHash digest SHA-256 da resposta (32 bytes)
+     * @param expiresAt instante de expiração
+     * @return ID do captcha
+     */
+    public String seal(byte[] answerHash, Instant expiresAt) {
+        if (answerHash.length != HASH_LENGTH) {
+            throw new IllegalArgumentException("Hash da resposta deve ter " + HASH_LENGTH + " bytes");
+        }
+        byte[] nonce = new byte[NONCE_LENGTH];
+        random.nextBytes(nonce);
+        ByteBuffer payload = ByteBuffer.allocate(PAYLOAD_LENGTH)
+                .putLong(expiresAt.getEpochSecond())
+                .put(answerHash);
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, nonce));
+            cipher.updateAAD(new byte[] {VERSION});
+            byte[] sealed = cipher.doFinal(payload.array());
+            ByteBuffer token = ByteBuffer.allocate(TOKEN_LENGTH)
+                    .put(VERSION)
+                    .put(nonce)
+                    .put(sealed);
+            return ENCODER.encodeToString(token.array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Erro ao selar captcha", e);
+        }
+    }
+
+    /**
+     * Abre um ID selado, verificando a integridade e a expiração.
+     *
+     * @param captchaId ID do captcha
+     * @return desafio aberto ou null se o ID não for um token selado válido ou estiver expirado
+     */
+    public SealedCaptcha open(String captchaId) {
+        if (captchaId == null || captchaId.length() != ENCODED_LENGTH) {
+            return null;
+        }
+        byte[] token;
+        try {
+            token = DECODER.decode(captchaId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (token.length != TOKEN_LENGTH || token[0] != VERSION) {
+            return null;
+        }
+        byte[] payload;
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, token, 1, NONCE_LENGTH));
+            cipher.updateAAD(token, 0, 1);
+            payload = cipher.doFinal(token, 1 + NONCE_LENGTH, token.length - 1 - NONCE_LENGTH);
+        } catch (AEADBadTagException e) {
+            return null;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Erro ao abrir captcha selado", e);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        Instant expiresAt = Instant.ofEpochSecond(buffer.getLong());
+        if (!clock.instant().isBefore(expiresAt)) {
+            return null;
+        }
+        byte[] answerHash = new byte[HASH_LENGTH];
+        buffer.get(answerHash);
+        String id = ENCODER.encodeToString(Arrays.copyOfRange(token, 1, 1 + NONCE_LENGTH));
+        return new SealedCaptcha(id, answerHash, expiresAt);
+    }
+
+    /**
+     * @return instante atual do relógio usado na verificação de expiração
+     */
+    public Instant now() {
+        return clock.instant();
+    }
+
+    private static byte[] deriveKey(boolean enabled, String secret) {
+        byte[] material;
+        if (secret == null || secret.isBlank()) {
+            material = new byte[32];
+            new SecureRandom().nextBytes(material);
+            if (enabled) {
+                logger.warn("app.captcha.stateless.secret não configurado: usando chave aleatória; "
+                        + "captchas só serão válidos na instância que os gerou");
+            }
+        } else {
+            material = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update("captcha-seal-v1".getBytes(StandardCharsets.UTF_8));
+            return digest.digest(material);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Desafio extraído de um ID selado.
+     */
+    public static final class SealedCaptcha {
+
+        private final String id;
+        private final byte[] answerHash;
+        private final Instant expiresAt;
+
+        SealedCaptcha(String id, byte[] answerHash, Instant expiresAt) {
+            this.id = id;
+            this.answerHash = answerHash;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * @return identificador curto (nonce) usado no registro de uso único
+         */
+        public String getId() {
+            return id;
+        }
+
+        public byte[] getAnswerHash() {
+            return answerHash;
+        }
+
+        public Instant getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
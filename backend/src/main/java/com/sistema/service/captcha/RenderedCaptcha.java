@@ -0,0 +1,57 @@
+package com.sistema.service.captcha;
+
+import org.springframework.http.MediaType;
+
+import java.util.Base64;
+
+/**
+ * Captcha já renderizado: hash da resposta e imagem codificada. A resposta em texto não
+ * é mantida, apenas o hash SHA-256 que será gravado no Redis ao servir o captcha.
+ */
+public final class RenderedCaptcha {
+
+    private final String answerHash;
+    private final byte[] image;
+    private final String contentType;
+
+    /**
+     * @param answerHash hash SHA-256 da resposta em minúsculas, em hexadecimal
+     * @param png imagem codificada em PNG
+     */
+    public RenderedCaptcha(String answerHash, byte[] png) {
+        this(answerHash, png, MediaType.IMAGE_PNG_VALUE);
+    }
+
+    /**
+     * @param answerHash hash SHA-256 da resposta em minúsculas, em hexadecimal
+     * @param image imagem codificada
+     * @param contentType tipo de conteúdo da imagem (image/png ou image/jpeg)
+     */
+    public RenderedCaptcha(String answerHash, byte[] image, String contentType) {
+        this.answerHash = answerHash;
+        this.image = image;
+        this.contentType = contentType;
+    }
+
+    public String getAnswerHash() {
+        return answerHash;
+    }
+
+    /**
+     * @return bytes da imagem codificada (não devem ser alterados)
+     */
+    public byte[] getImage() {
+        return image;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return imagem em base64, usada apenas pela resposta JSON
+     */
+    public String getImageBase64() {
+        return Base64.getEncoder().encodeToString(image);
+    }
+}
@@ -1,6 +1,7 @@
 package com.sistema.service.interfaces;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -35,6 +36,14 @@ public interface CacheOperations {
      */
     Object getValue(String key);
     
+    /**
+     * Obtém os valores de várias chaves em uma única operação.
+     * 
+     * @param keys chaves
+     * @return valores na mesma ordem das chaves, com null para chaves inexistentes
+     */
+    List<Object> getValues(List<String> keys);
+    
     /**
      * Obtém um valor do cache como String.
      * 
@@ -110,7 +119,7 @@ public interface CacheOperations {
     long getTTL(String key);
     
     /**
-     * Busca chaves por padrão.
+     * Busca chaves por padrão (SCAN incremental, sem bloquear o Redis).
      * 
      * @param pattern padrão de busca (ex: "user:*")
      * @return conjunto de chaves encontradas
@@ -118,7 +127,7 @@ public interface CacheOperations {
     Set<String> findKeysByPattern(String pattern);
     
     /**
-     * Conta chaves por padrão.
+     * Conta chaves por padrão (SCAN incremental; valor aproximado).
      * 
      * @param pattern padrão de busca
      * @return número de chaves encontradas
@@ -126,7 +135,7 @@ public interface CacheOperations {
     long countKeysByPattern(String pattern);
     
     /**
-     * Remove chaves por padrão.
+     * Remove chaves por padrão, em lotes com UNLINK.
      * 
      * @param pattern padrão de busca
      * @return número de chaves removidas
@@ -0,0 +1,144 @@
+package com.sistema.service.ratelimit;
+
+import com.sistema.service.base.RedisValueCodecs;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registro consolidado das tentativas de um identificador, armazenado em um único hash
+ * do Redis: um campo de contador por tipo de tentativa (login, password_reset, ...), um
+ * campo "captcha:&lt;tipo&gt;" marcado quando o tipo atinge o limite e um campo
+ * "expires:&lt;tipo&gt;" com o fim da janela do tipo. Cada tipo expira na sua própria janela;
+ * contador e marcação de um tipo vencido são ignorados na leitura.
+ */
+public final class AttemptRecord {
+
+    /**
+     * Registro de um identificador sem tentativas.
+     */
+    public static final AttemptRecord EMPTY = new AttemptRecord(Collections.emptyMap(), Collections.emptySet());
+
+    private static final String CAPTCHA_FIELD_PREFIX = "captcha:";
+    private static final String EXPIRY_FIELD_PREFIX = "expires:";
+
+    private final Map<String, Integer> attempts;
+    private final Set<String> captchaFlagged;
+
+    private AttemptRecord(Map<String, Integer> attempts, Set<String> captchaFlagged) {
+        this.attempts = attempts;
+        this.captchaFlagged = captchaFlagged;
+    }
+
+    /**
+     * Campo do hash que sinaliza captcha obrigatório para o tipo de tentativa.
+     *
+     * @param type tipo de tentativa
+     * @return nome do campo
+     */
+    public static String captchaField(String type) {
+        return CAPTCHA_FIELD_PREFIX + type;
+    }
+
+    /**
+     * Campo do hash com o instante (epoch em milissegundos) em que a janela do tipo expira.
+     *
+     * @param type tipo de tentativa
+     * @return nome do campo
+     */
+    public static String expiryField(String type) {
+        return EXPIRY_FIELD_PREFIX + type;
+    }
+
+    /**
+     * Monta o registro a partir dos campos brutos lidos com HGETALL, no instante atual.
+     *
+     * @param entries valores por campo
+     * @return registro (vazio se não houver campos)
+     */
+    public static AttemptRecord fromHash(Map<String, byte[]> entries) {
+        return fromHash(entries, System.currentTimeMillis());
+    }
+
+    /**
+     * Monta o registro a partir dos campos brutos lidos com HGETALL, descartando os tipos
+     * cuja janela já venceu em {@code nowMillis}. Tipos sem campo de expiração são mantidos.
+     *
+     * @param entries valores por campo
+     * @param nowMillis instante de referência (epoch em milissegundos)
+     * @return registro (vazio se não houver campos)
+     */
+    public static AttemptRecord fromHash(Map<String, byte[]> entries, long nowMillis) {
+        if (entries == null || entries.isEmpty()) {
+            return EMPTY;
+        }
+        Set<String> expired = new HashSet<>();
+        entries.forEach((field, value) -> {
+            if (field.startsWith(EXPIRY_FIELD_PREFIX)) {
+                Long expiresAt = RedisValueCodecs.COUNTER.decode(value);
+                if (expiresAt != null && expiresAt <= nowMillis) {
+                    expired.add(field.substring(EXPIRY_FIELD_PREFIX.length()));
+                }
+            }
+        });
+        Map<String, Integer> attempts = new HashMap<>();
+        Set<String> captchaFlagged = new HashSet<>();
+        entries.forEach((field, value) -> {
+            if (field.startsWith(EXPIRY_FIELD_PREFIX)) {
+                return;
+            }
+            if (field.startsWith(CAPTCHA_FIELD_PREFIX)) {
+                String type = field.substring(CAPTCHA_FIELD_PREFIX.length());
+                if (!expired.contains(type) && Boolean.TRUE.equals(RedisValueCodecs.FLAG.decode(value))) {
+                    captchaFlagged.add(type);
+                }
+            } else if (!expired.contains(field)) {
+                Long count = RedisValueCodecs.COUNTER.decode(value);
+                if (count != null) {
+                    attempts.put(field, count.intValue());
+                }
+            }
+        });
+        if (attempts.isEmpty() && captchaFlagged.isEmpty()) {
+            return EMPTY;
+        }
+        return new AttemptRecord(Collections.unmodifiableMap(attempts), Collections.unmodifiableSet(captchaFlagged));
+    }
+
+    /**
+     * Número de tentativas do tipo.
+     *
+     * @param type tipo de tentativa
+     * @return tentativas registradas (0 se não houver)
+     */
+    public int getAttempts(String type) {
+        return attempts.getOrDefault(type, 0);
+    }
+
+    /**
+     * Indica se o tipo foi marcado com captcha obrigatório ao atingir o limite.
+     *
+     * @param type tipo de tentativa
+     * @return true se marcado
+     */
+    public boolean isCaptchaFlagged(String type) {
+        return captchaFlagged.contains(type);
+    }
+
+    /**
+     * Tentativas de todos os tipos presentes no registro.
+     *
+     * @return mapa imutável tipo → tentativas
+     */
+    public Map<String, Integer> getAttempts() {
+        return attempts;
+    }
+
+    @Override
+    public String toString() {
+        return "AttemptRecord{attempts=" + attempts + ", captchaFlagged=" + captchaFlagged + "}";
+    }
+}
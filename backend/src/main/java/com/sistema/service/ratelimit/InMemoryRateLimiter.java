@@ -0,0 +1,78 @@
+package com.sistema.service.ratelimit;
+
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementação local (em memória) do GCRA, com a mesma semântica do {@link RedisRateLimiter}.
+ * Usada em testes e onde o limite não precisa ser compartilhado entre instâncias.
+ * Guarda apenas o TAT de cada chave; entradas vencidas são removidas por {@link #cleanup()}.
+ */
+public class InMemoryRateLimiter implements RateLimiter {
+
+    private final Clock clock;
+    private final ConcurrentHashMap<String, Long> theoreticalArrivals = new ConcurrentHashMap<>();
+
+    public InMemoryRateLimiter() {
+        this(Clock.systemUTC());
+    }
+
+    public InMemoryRateLimiter(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(RateLimitPolicy policy, String identifier) {
+        long now = clock.millis();
+        RateLimitDecision[] decision = new RateLimitDecision[1];
+        theoreticalArrivals.compute(policy.keyFor(identifier), (key, stored) -> {
+            long tat = stored == null ? now : Math.max(stored, now);
+            long newTat = tat + policy.getEmissionIntervalMillis();
+            long allowAt = newTat - policy.getPeriodMillis();
+            if (now < allowAt) {
+                decision[0] = RateLimitDecision.of(false, remaining(policy, now, tat), allowAt - now, tat - now);
+                return stored;
+            }
+            decision[0] = RateLimitDecision.of(true, remaining(policy, now, newTat), 0, newTat - now);
+            return newTat;
+        });
+        return decision[0];
+    }
+
+    @Override
+    public RateLimitDecision peek(RateLimitPolicy policy, String identifier) {
+        long now = clock.millis();
+        Long stored = theoreticalArrivals.get(policy.keyFor(identifier));
+        long tat = stored == null ? now : Math.max(stored, now);
+        long allowAt = tat + policy.getEmissionIntervalMillis() - policy.getPeriodMillis();
+        if (now < allowAt) {
+            return RateLimitDecision.of(false, remaining(policy, now, tat), allowAt - now, tat - now);
+        }
+        return RateLimitDecision.of(true, remaining(policy, now, tat), 0, tat - now);
+    }
+
+    @Override
+    public void reset(RateLimitPolicy policy, String identifier) {
+        theoreticalArrivals.remove(policy.keyFor(identifier));
+    }
+
+    /**
+     * Remove as chaves cujo limite já está completamente disponível.
+     */
+    public void cleanup() {
+        long now = clock.millis();
+        theoreticalArrivals.values().removeIf(tat -> tat <= now);
+    }
+
+    /**
+     * @return número de chaves com consumo registrado
+     */
+    public int size() {
+        return theoreticalArrivals.size();
+    }
+
+    static long remaining(RateLimitPolicy policy, long now, long tat) {
+        long available = (now + policy.getPeriodMillis() - tat) / policy.getEmissionIntervalMillis();
+        return Math.min(policy.getLimit(), available);
+    }
+}
@@ -0,0 +1,401 @@
+package com.sistema.service.ratelimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Camada local (em processo) do controle de tentativas, à frente do Redis.
+ *
+ * Baldes de tokens por operação e cliente rejeitam rajadas de um mesmo IP sem nenhum acesso
+ * ao Redis. Para os contadores de tentativas, a camada guarda o último valor lido do Redis e
+ * as tentativas registradas localmente ainda não enviadas: enquanto essa visão estiver recente
+ * e longe do limite, as verificações de captcha são respondidas localmente e as novas tentativas
+ * são acumuladas e enviadas em lote por {@link #drainPending()}. Próximo do limite, ou com a
+ * visão expirada, o chamador deve consultar o Redis.
+ *
+ * As entradas ficam em faixas (lock striping) com tamanho máximo; as menos usadas são
+ * descartadas, preservando os deltas pendentes para o próximo envio.
+ */
+@Component
+public class LocalAttemptTier {
+
+    /**
+     * Valor retornado quando a camada local não pode decidir e o Redis deve ser consultado.
+     */
+    public static final int UNKNOWN = -1;
+
+    private final boolean enabled;
+    private final double burst;
+    private final double refillPerMilli;
+    private final long viewTtlMillis;
+    private final int margin;
+    private final Clock clock;
+
+    private final Stripe<Bucket>[] gates;
+    private final Stripe<Counter>[] counters;
+    private final int mask;
+    private final ConcurrentLinkedQueue<PendingAttempts> orphans = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong localDecisions = new AtomicLong();
+    private final AtomicLong deferred = new AtomicLong();
+
+    @Autowired
+    public LocalAttemptTier(
+            @Value("${app.rate-limit.local-tier.enabled:false}") boolean enabled,
+            @Value("${app.rate-limit.local-tier.stripes:64}") int stripes,
+            @Value("${app.rate-limit.local-tier.max-entries-per-stripe:1024}") int maxEntriesPerStripe,
+            @Value("${app.rate-limit.local-tier.burst:20}") int burst,
+            @Value("${app.rate-limit.local-tier.refill-per-second:5}") double refillPerSecond,
+            @Value("${app.rate-limit.local-tier.view-ttl-ms:2000}") long viewTtlMillis,
+            @Value("${app.rate-limit.local-tier.margin:1}") int margin) {
+        this(enabled, stripes, maxEntriesPerStripe, burst, refillPerSecond, viewTtlMillis, margin, Clock.systemUTC());
+    }
+
+    @SuppressWarnings("unchecked")
+    LocalAttemptTier(boolean enabled, int stripes, int maxEntriesPerStripe, int burst, double refillPerSecond,
+                     long viewTtlMillis, int margin, Clock clock) {
+        this.enabled = enabled;
+        this.burst = burst;
+        this.refillPerMilli = refillPerSecond / 1000.0;
+        this.viewTtlMillis = viewTtlMillis;
+        this.margin = margin;
+        this.clock = clock;
+
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.mask = size - 1;
+        this.gates = new Stripe[size];
+        this.counters = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            gates[i] = new Stripe<>(maxEntriesPerStripe, (key, bucket) -> { });
+            counters[i] = new Stripe<>(maxEntriesPerStripe, this::orphan);
+        }
+    }
+
+    /**
+     * Registra as métricas da camada local: requisições rejeitadas localmente, decisões de
+     * captcha tomadas sem o Redis e tentativas adiadas para o envio em lote.
+     *
+     * @param meterRegistry registro de métricas
+     */
+    @Autowired(required = false)
+    public void bindMetrics(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("auth.attempts.local.throttled", throttled, AtomicLong::get)
+                .description("Requisições rejeitadas pelos baldes de tokens locais")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.attempts.local.decisions", localDecisions, AtomicLong::get)
+                .description("Verificações de captcha respondidas sem consultar o Redis")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.attempts.local.deferred", deferred, AtomicLong::get)
+                .description("Tentativas acumuladas localmente para envio em lote ao Redis")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return true se a camada local está habilitada
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Consome um token do balde da operação para o cliente.
+     *
+     * @param operation operação (login, verify_cpf)
+     * @param clientId identificador do cliente (IP)
+     * @return false se o cliente excedeu a rajada permitida e deve ser rejeitado localmente
+     */
+    public boolean tryAdmit(String operation, String clientId) {
+        if (!enabled) {
+            return true;
+        }
+        String key = key(operation, clientId);
+        long now = clock.millis();
+        Stripe<Bucket> stripe = gates[stripeFor(key)];
+        synchronized (stripe) {
+            Bucket bucket = stripe.entries.computeIfAbsent(key, k -> new Bucket(burst, now));
+            bucket.tokens = Math.min(burst, bucket.tokens + (now - bucket.refilledAt) * refillPerMilli);
+            bucket.refilledAt = now;
+            if (bucket.tokens >= 1.0) {
+                bucket.tokens -= 1.0;
+                return true;
+            }
+        }
+        throttled.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Decide localmente se o captcha é necessário, quando a visão do contador está recente
+     * e não está próxima do limite.
+     *
+     * @param type tipo de tentativa
+     * @param identifier identificador (IP ou CPF)
+     * @param threshold número de tentativas a partir do qual o captcha é exigido
+     * @return decisão local ou null se o Redis deve ser consultado
+     */
+    public Boolean captchaRequired(String type, String identifier, int threshold) {
+        int count = knownCount(type, identifier);
+        if (count == UNKNOWN) {
+            return null;
+        }
+        if (count >= threshold) {
+            localDecisions.incrementAndGet();
+            return Boolean.TRUE;
+        }
+        if (count + margin < threshold) {
+            localDecisions.incrementAndGet();
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    /**
+     * Número de tentativas conhecido localmente: último valor do Redis mais os deltas pendentes.
+     *
+     * @param type tipo de tentativa
+     * @param identifier identificador (IP ou CPF)
+     * @return número de tentativas ou {@link #UNKNOWN} se a visão não existe ou expirou
+     */
+    public int knownCount(String type, String identifier) {
+        if (!enabled) {
+            return UNKNOWN;
+        }
+        String key = key(type, identifier);
+        long now = clock.millis();
+        Stripe<Counter> stripe = counters[stripeFor(key)];
+        synchronized (stripe) {
+            Counter counter = stripe.entries.get(key);
+            return isFresh(counter, now) ? counter.synced + counter.pending : UNKNOWN;
+        }
+    }
+
+    /**
+     * Tentativas registradas apenas localmente, ainda não enviadas ao Redis.
+     *
+     * @param type tipo de tentativa
+     * @param identifier identificador (IP ou CPF)
+     * @return deltas pendentes
+     */
+    public int pending(String type, String identifier) {
+        if (!enabled) {
+            return 0;
+        }
+        String key = key(type, identifier);
+        Stripe<Counter> stripe = counters[stripeFor(key)];
+        synchronized (stripe) {
+            Counter counter = stripe.entries.get(key);
+            return counter != null ? counter.pending : 0;
+        }
+    }
+
+    /**
+     * Registra a tentativa localmente se, mesmo com ela, o contador continuar longe do limite.
+     *
+     * @param type tipo de tentativa
+     * @param identifier identificador (IP ou CPF)
+     * @param threshold número de tentativas a partir do qual o captcha é exigido
+     * @return novo número de tentativas ou {@link #UNKNOWN} se a tentativa deve ir ao Redis
+     */
+    public int tryRecordLocally(String type, String identifier, int threshold) {
+        if (!enabled) {
+            return UNKNOWN;
+        }
+        String key = key(type, identifier);
+        long now = clock.millis();
+        Stripe<Counter> stripe = counters[stripeFor(key)];
+        synchronized (stripe) {
+            Counter counter = stripe.entries.get(key);
+            if (!isFresh(counter, now) || counter.synced + counter.pending + 1 + margin >= threshold) {
+                return UNKNOWN;
+            }
+            counter.pending++;
+            deferred.incrementAndGet();
+            return counter.synced + counter.pending;
+        }
+    }
+
+    /**
+     * Atualiza a visão local com o valor lido ou gravado no Redis.
+     * Os deltas pendentes não fazem parte do valor do Redis e são preservados.
+     *
+     * @param type tipo de tentativa
+     * @param identifier identificador (IP ou CPF)
+     * @param count número de tentativas no Redis
+     */
+    public void observe(String type, String identifier, int count) {
+        if (!enabled) {
+            return;
+        }
+        String key = key(type, identifier);
+        long now = clock.millis();
+        Stripe<Counter> stripe = counters[stripeFor(key)];
+        synchronized (stripe) {
+            Counter counter = stripe.entries.computeIfAbsent(key, k -> new Counter(type, identifier));
+            counter.synced = count;
+            counter.syncedAt = now;
+        }
+    }
+
+    /**
+     * Descarta a visão e os deltas pendentes de um identificador (após sucesso).
+     *
+     * @param type tipo de tentativa
+     * @param identifier identificador (IP ou CPF)
+     */
+    public void clear(String type, String identifier) {
+        if (!enabled) {
+            return;
+        }
+        String key = key(type, identifier);
+        Stripe<Counter> stripe = counters[stripeFor(key)];
+        synchronized (stripe) {
+            stripe.entries.remove(key);
+        }
+    }
+
+    /**
+     * Retira os deltas pendentes para envio ao Redis. A visão local passa a considerá-los
+     * parte do valor do Redis.
+     *
+     * @return tentativas pendentes por identificador
+     */
+    public List<PendingAttempts> drainPending() {
+        List<PendingAttempts> batch = new ArrayList<>();
+        if (!enabled) {
+            return batch;
+        }
+        PendingAttempts orphan;
+        while ((orphan = orphans.poll()) != null) {
+            batch.add(orphan);
+        }
+        for (Stripe<Counter> stripe : counters) {
+            synchronized (stripe) {
+                for (Counter counter : stripe.entries.values()) {
+                    if (counter.pending > 0) {
+                        batch.add(new PendingAttempts(counter.type, counter.identifier, counter.pending));
+                        counter.synced += counter.pending;
+                        counter.pending = 0;
+                    }
+                }
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Devolve deltas cujo envio falhou, para a próxima tentativa de envio.
+     *
+     * @param batch tentativas não enviadas
+     */
+    public void restore(List<PendingAttempts> batch) {
+        if (enabled) {
+            orphans.addAll(batch);
+        }
+    }
+
+    private boolean isFresh(Counter counter, long now) {
+        return counter != null && now - counter.syncedAt < viewTtlMillis;
+    }
+
+    private void orphan(String key, Counter counter) {
+        if (counter.pending > 0) {
+            orphans.add(new PendingAttempts(counter.type, counter.identifier, counter.pending));
+        }
+    }
+
+    private int stripeFor(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static String key(String type, String identifier) {
+        return type + ":" + identifier;
+    }
+
+    /**
+     * Tentativas acumuladas localmente para um identificador.
+     */
+    public static final class PendingAttempts {
+
+        private final String type;
+        private final String identifier;
+        private final int delta;
+
+        public PendingAttempts(String type, String identifier, int delta) {
+            this.type = type;
+            this.identifier = identifier;
+            this.delta = delta;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getIdentifier() {
+            return identifier;
+        }
+
+        public int getDelta() {
+            return delta;
+        }
+    }
+
+    /**
+     * Faixa de entradas protegida por seu próprio monitor, com descarte das menos usadas.
+     */
+    private static final class Stripe<E> {
+
+        private final LinkedHashMap<String, E> entries;
+
+        Stripe(int maxEntries, BiConsumer<String, E> onEvict) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, E> eldest) {
+                    if (size() > maxEntries) {
+                        onEvict.accept(eldest.getKey(), eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+
+    private static final class Counter {
+
+        private final String type;
+        private final String identifier;
+        private int synced;
+        private long syncedAt;
+        private int pending;
+
+        Counter(String type, String identifier) {
+            this.type = type;
+            this.identifier = identifier;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.sistema.service.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Resultado de uma consulta ao limitador.
+ */
+public final class RateLimitDecision {
+
+    private final boolean allowed;
+    private final int remaining;
+    private final long retryAfterMillis;
+    private final long resetAfterMillis;
+
+    private RateLimitDecision(boolean allowed, int remaining, long retryAfterMillis, long resetAfterMillis) {
+        this.allowed = allowed;
+        this.remaining = remaining;
+        this.retryAfterMillis = retryAfterMillis;
+        this.resetAfterMillis = resetAfterMillis;
+    }
+
+    /**
+     * @param allowed se a requisição foi (ou seria) aceita
+     * @param remaining requisições ainda disponíveis na janela
+     * @param retryAfterMillis espera até a próxima requisição ser aceita (0 se aceita)
+     * @param resetAfterMillis espera até o limite estar completamente disponível
+     * @return decisão
+     */
+    public static RateLimitDecision of(boolean allowed, long remaining, long retryAfterMillis, long resetAfterMillis) {
+        return new RateLimitDecision(allowed, (int) Math.max(0, remaining),
+                Math.max(0, retryAfterMillis), Math.max(0, resetAfterMillis));
+    }
+
+    public boolean isAllowed() {
+        return allowed;
+    }
+
+    public int getRemaining() {
+        return remaining;
+    }
+
+    public Duration getRetryAfter() {
+        return Duration.ofMillis(retryAfterMillis);
+    }
+
+    public Duration getResetAfter() {
+        return Duration.ofMillis(resetAfterMillis);
+    }
+
+    /**
+     * Número de requisições já consumidas na janela.
+     *
+     * @param policy política consultada
+     * @return consumo atual
+     */
+    public int consumed(RateLimitPolicy policy) {
+        return policy.getLimit() - remaining;
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimitDecision{allowed=" + allowed + ", remaining=" + remaining
+                + ", retryAfterMillis=" + retryAfterMillis + "}";
+    }
+}
@@ -0,0 +1,20 @@
+package com.sistema.service.ratelimit;
+
+import java.util.Locale;
+
+/**
+ * Dimensão da chave usada para limitar uma operação.
+ */
+public enum RateLimitDimension {
+
+    IP,
+    EMAIL,
+    CPF;
+
+    /**
+     * @return nome usado nas chaves do Redis e na configuração (ex.: "ip")
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
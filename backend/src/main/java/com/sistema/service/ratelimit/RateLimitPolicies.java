@@ -0,0 +1,58 @@
+package com.sistema.service.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolve as políticas de limite por operação e dimensão a partir da configuração.
+ * Ordem de precedência:
+ * app.rate-limit.policies.&lt;operação&gt;.&lt;dimensão&gt;.*, depois
+ * app.rate-limit.policies.&lt;operação&gt;.* e por fim app.rate-limit.default.*.
+ */
+@Component
+public class RateLimitPolicies {
+
+    private static final String POLICIES_PREFIX = "app.rate-limit.policies.";
+
+    private final Environment environment;
+    private final int defaultLimit;
+    private final long defaultPeriodSeconds;
+    private final Map<String, RateLimitPolicy> policies = new ConcurrentHashMap<>();
+
+    public RateLimitPolicies(
+            Environment environment,
+            @Value("${app.rate-limit.default.limit:3}") int defaultLimit,
+            @Value("${app.rate-limit.default.period-seconds:1800}") long defaultPeriodSeconds) {
+        this.environment = environment;
+        this.defaultLimit = defaultLimit;
+        this.defaultPeriodSeconds = defaultPeriodSeconds;
+    }
+
+    /**
+     * Obtém a política da operação para a dimensão informada.
+     *
+     * @param operation tipo de operação (ex.: "login", "password_reset")
+     * @param dimension dimensão da chave
+     * @return política configurada
+     */
+    public RateLimitPolicy get(String operation, RateLimitDimension dimension) {
+        return policies.computeIfAbsent(operation + ":" + dimension.key(), key -> resolve(operation, dimension));
+    }
+
+    private RateLimitPolicy resolve(String operation, RateLimitDimension dimension) {
+        String operationPrefix = POLICIES_PREFIX + operation + ".";
+        String dimensionPrefix = operationPrefix + dimension.key() + ".";
+
+        int limit = environment.getProperty(dimensionPrefix + "limit", Integer.class,
+                environment.getProperty(operationPrefix + "limit", Integer.class, defaultLimit));
+        long periodSeconds = environment.getProperty(dimensionPrefix + "period-seconds", Long.class,
+                environment.getProperty(operationPrefix + "period-seconds", Long.class, defaultPeriodSeconds));
+
+        return RateLimitPolicy.of(operation, dimension, limit, Duration.ofSeconds(periodSeconds));
+    }
+}
@@ -0,0 +1,90 @@
+package com.sistema.service.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Limite de uma operação em uma dimensão: no máximo {@code limit} requisições em
+ * qualquer janela deslizante de {@code period}.
+ * Implementado como GCRA: cada requisição avança o "tempo teórico de chegada" (TAT)
+ * em {@code period / limit}, permitindo rajadas de até {@code limit} requisições.
+ */
+public final class RateLimitPolicy {
+
+    private static final String KEY_PREFIX = "rate_limit:";
+
+    private final String operation;
+    private final RateLimitDimension dimension;
+    private final int limit;
+    private final Duration period;
+    private final long emissionIntervalMillis;
+
+    private RateLimitPolicy(String operation, RateLimitDimension dimension, int limit, Duration period) {
+        this.operation = operation;
+        this.dimension = dimension;
+        this.limit = limit;
+        this.period = period;
+        this.emissionIntervalMillis = Math.max(1, period.toMillis() / limit);
+    }
+
+    /**
+     * Cria uma política.
+     *
+     * @param operation tipo de operação (ex.: "login")
+     * @param dimension dimensão da chave
+     * @param limit número máximo de requisições na janela
+     * @param period tamanho da janela
+     * @return política
+     */
+    public static RateLimitPolicy of(String operation, RateLimitDimension dimension, int limit, Duration period) {
+        if (operation == null || operation.isEmpty() || dimension == null) {
+            throw new IllegalArgumentException("Operação e dimensão são obrigatórias");
+        }
+        if (limit <= 0 || period == null || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Limite e período devem ser maiores que zero");
+        }
+        return new RateLimitPolicy(operation, dimension, limit, period);
+    }
+
+    /**
+     * Chave única da política para um identificador:
+     * rate_limit:&lt;operação&gt;:&lt;dimensão&gt;:&lt;identificador&gt;.
+     *
+     * @param identifier valor da dimensão (IP, email ou CPF)
+     * @return chave
+     */
+    public String keyFor(String identifier) {
+        return KEY_PREFIX + operation + ":" + dimension.key() + ":" + identifier;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public RateLimitDimension getDimension() {
+        return dimension;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public Duration getPeriod() {
+        return period;
+    }
+
+    public long getPeriodMillis() {
+        return period.toMillis();
+    }
+
+    /**
+     * @return intervalo em milissegundos que cada requisição consome da janela
+     */
+    public long getEmissionIntervalMillis() {
+        return emissionIntervalMillis;
+    }
+
+    @Override
+    public String toString() {
+        return operation + ":" + dimension.key() + " (" + limit + "/" + period + ")";
+    }
+}
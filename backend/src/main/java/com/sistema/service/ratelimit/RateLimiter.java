@@ -0,0 +1,33 @@
+package com.sistema.service.ratelimit;
+
+/**
+ * Limitador de taxa com janela deslizante (GCRA).
+ */
+public interface RateLimiter {
+
+    /**
+     * Consome uma requisição se o limite permitir.
+     *
+     * @param policy política aplicada
+     * @param identifier valor da dimensão (IP, email ou CPF)
+     * @return decisão; quando negada, nada é consumido
+     */
+    RateLimitDecision tryAcquire(RateLimitPolicy policy, String identifier);
+
+    /**
+     * Verifica, sem consumir, se uma requisição seria aceita.
+     *
+     * @param policy política aplicada
+     * @param identifier valor da dimensão
+     * @return decisão
+     */
+    RateLimitDecision peek(RateLimitPolicy policy, String identifier);
+
+    /**
+     * Libera todo o limite do identificador (ex.: após login bem-sucedido).
+     *
+     * @param policy política aplicada
+     * @param identifier valor da dimensão
+     */
+    void reset(RateLimitPolicy policy, String identifier);
+}
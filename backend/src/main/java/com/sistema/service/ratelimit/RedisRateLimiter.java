@@ -0,0 +1,79 @@
+package com.sistema.service.ratelimit;
+
+import com.sistema.service.base.BaseRedisService;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Limitador GCRA compartilhado entre instâncias, executado como script Lua no Redis.
+ * Cada consulta é uma única chamada EVALSHA sobre uma única chave (o TAT em milissegundos),
+ * usando o relógio do servidor Redis para que todas as instâncias vejam a mesma janela.
+ */
+@Service
+public class RedisRateLimiter extends BaseRedisService implements RateLimiter {
+
+    /**
+     * KEYS[1] = chave da política; ARGV[1] = intervalo por requisição (ms),
+     * ARGV[2] = período (ms), ARGV[3] = 1 para consumir, 0 para apenas consultar.
+     * Retorna {aceita, disponíveis, espera até a próxima (ms), espera até liberar tudo (ms)}.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> GCRA_SCRIPT = RedisScript.of(
+            "redis.replicate_commands() " +
+            "local time = redis.call('TIME') " +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) " +
+            "local emission = tonumber(ARGV[1]) " +
+            "local period = tonumber(ARGV[2]) " +
+            "local tat = tonumber(redis.call('GET', KEYS[1])) " +
+            "if not tat or tat < now then tat = now end " +
+            "local newTat = tat + emission " +
+            "local allowAt = newTat - period " +
+            "if now < allowAt then " +
+            "  return {0, math.floor((now + period - tat) / emission), allowAt - now, tat - now} " +
+            "end " +
+            "if ARGV[3] == '1' then " +
+            "  redis.call('SET', KEYS[1], string.format('%.0f', newTat), 'PX', string.format('%.0f', newTat - now)) " +
+            "  return {1, math.floor((now + period - newTat) / emission), 0, newTat - now} " +
+            "end " +
+            "return {1, math.floor((now + period - tat) / emission), 0, tat - now}",
+            List.class);
+
+    @Override
+    public RateLimitDecision tryAcquire(RateLimitPolicy policy, String identifier) {
+        return evaluate(policy, identifier, true);
+    }
+
+    @Override
+    public RateLimitDecision peek(RateLimitPolicy policy, String identifier) {
+        return evaluate(policy, identifier, false);
+    }
+
+    @Override
+    public void reset(RateLimitPolicy policy, String identifier) {
+        delete(policy.keyFor(identifier));
+    }
+
+    private RateLimitDecision evaluate(RateLimitPolicy policy, String identifier, boolean consume) {
+        validateNotEmpty(identifier, "identifier");
+        String key = policy.keyFor(identifier);
+        List<?> result = executeTimed("rateLimit", key,
+            () -> executeScript(GCRA_SCRIPT, List.of(key),
+                    policy.getEmissionIntervalMillis(), policy.getPeriodMillis(), consume ? 1 : 0),
+            formatErrorMessage("avaliar limite de taxa no Redis", "política: " + policy)
+        );
+        if (result == null || result.size() < 4) {
+            throw new IllegalStateException("Resposta inválida do script de limite de taxa: " + result);
+        }
+        return RateLimitDecision.of(
+                toLong(result.get(0)) == 1,
+                Math.min(policy.getLimit(), toLong(result.get(1))),
+                toLong(result.get(2)),
+                toLong(result.get(3)));
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.parseLong(String.valueOf(value));
+    }
+}
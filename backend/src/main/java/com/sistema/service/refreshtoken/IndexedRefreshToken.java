@@ -0,0 +1,120 @@
+package com.sistema.service.refreshtoken;
+
+import com.sistema.entity.RefreshToken;
+import com.sistema.entity.User;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Entrada do índice de refresh tokens: o necessário para validar um token sem consultar a
+ * tabela refresh_tokens. Serializada como "id:userId:expiração:revogado:validAsOf".
+ *
+ * validAsOf é o instante (ms), anterior à leitura ou gravação no banco, em que o token era
+ * comprovadamente válido. Revogações em massa registram o instante em que foram confirmadas e
+ * tornam obsoletas as entradas do usuário com validAsOf anterior.
+ */
+public final class IndexedRefreshToken {
+
+    private final long id;
+    private final long userId;
+    private final LocalDateTime expiresAt;
+    private final boolean revoked;
+    private final long validAsOf;
+
+    public IndexedRefreshToken(long id, long userId, LocalDateTime expiresAt, boolean revoked, long validAsOf) {
+        this.id = id;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+        this.revoked = revoked;
+        this.validAsOf = validAsOf;
+    }
+
+    /**
+     * @param refreshToken token persistido
+     * @param validAsOf instante (ms) em que o token era comprovadamente válido
+     * @return entrada correspondente
+     */
+    public static IndexedRefreshToken of(RefreshToken refreshToken, long validAsOf) {
+        return new IndexedRefreshToken(refreshToken.getId(), refreshToken.getUser().getId(),
+                refreshToken.getExpiresAt(), Boolean.TRUE.equals(refreshToken.getIsRevoked()), validAsOf);
+    }
+
+    /**
+     * @return cópia marcada como revogada
+     */
+    public IndexedRefreshToken revoked() {
+        return new IndexedRefreshToken(id, userId, expiresAt, true, validAsOf);
+    }
+
+    /**
+     * @param now instante atual
+     * @return true se o token não está revogado nem expirado
+     */
+    public boolean isUsableAt(LocalDateTime now) {
+        return !revoked && expiresAt.isAfter(now);
+    }
+
+    /**
+     * Monta um RefreshToken destacado (não gerenciado pelo JPA) com os dados do índice.
+     *
+     * @param token valor do token apresentado
+     * @param user usuário dono do token
+     * @return token destacado
+     */
+    public RefreshToken toRefreshToken(String token, User user) {
+        RefreshToken refreshToken = new RefreshToken(token, user, expiresAt);
+        refreshToken.setId(id);
+        refreshToken.setIsRevoked(revoked);
+        return refreshToken;
+    }
+
+    String encode() {
+        return id + ":" + userId + ":" + expiresAt.toEpochSecond(ZoneOffset.UTC) + ":" + (revoked ? 1 : 0)
+                + ":" + validAsOf;
+    }
+
+    /**
+     * @param value valor serializado
+     * @return entrada ou null se o formato for inválido
+     */
+    static IndexedRefreshToken decode(String value) {
+        if (value == null) {
+            return null;
+        }
+        String[] parts = value.split(":");
+        if (parts.length != 5) {
+            return null;
+        }
+        try {
+            return new IndexedRefreshToken(
+                    Long.parseLong(parts[0]),
+                    Long.parseLong(parts[1]),
+                    LocalDateTime.ofEpochSecond(Long.parseLong(parts[2]), 0, ZoneOffset.UTC),
+                    "1".equals(parts[3]),
+                    Long.parseLong(parts[4]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isRevoked() {
+        return revoked;
+    }
+
+    public long getValidAsOf() {
+        return validAsOf;
+    }
+}
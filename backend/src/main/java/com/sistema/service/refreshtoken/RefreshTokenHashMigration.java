@@ -0,0 +1,112 @@
+package com.sistema.service.refreshtoken;
+
+import com.sistema.entity.RefreshToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Migração dos refresh tokens gravados em texto puro para o hash SHA-256.
+ *
+ * Percorre a tabela refresh_tokens por ID, em lotes de batch-size, substituindo cada valor
+ * que ainda não tem o tamanho de um hash (64 caracteres hex) pelo seu hash. Cada lote é uma
+ * gravação JDBC independente e o UPDATE só altera a linha se o valor ainda for o original,
+ * então a migração pode ser interrompida e repetida, inclusive em várias instâncias ao mesmo
+ * tempo. Enquanto não termina, o RefreshTokenService também procura pelo valor original e
+ * converte a linha encontrada.
+ */
+@Component
+public class RefreshTokenHashMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenHashMigration.class);
+
+    static final int HASH_LENGTH = 64;
+
+    static final String SELECT_SQL = "SELECT id, token FROM refresh_tokens "
+            + "WHERE id > ? AND LENGTH(token) <> " + HASH_LENGTH + " ORDER BY id LIMIT ?";
+
+    static final String UPDATE_SQL = "UPDATE refresh_tokens SET token = ? WHERE id = ? AND token = ?";
+
+    private final boolean enabled;
+    private final int batchSize;
+
+    private JdbcTemplate jdbcTemplate;
+    private volatile boolean complete;
+
+    @Autowired
+    public RefreshTokenHashMigration(
+            @Value("${app.refresh-token.hash-migration.enabled:true}") boolean enabled,
+            @Value("${app.refresh-token.hash-migration.batch-size:500}") int batchSize) {
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Autowired(required = false)
+    public void setJdbcTemplate(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Executa a migração quando a aplicação termina de iniciar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled && jdbcTemplate != null) {
+            migrate();
+        }
+    }
+
+    /**
+     * Converte todos os tokens restantes em lotes.
+     *
+     * @return número de tokens convertidos
+     */
+    public int migrate() {
+        int migrated = 0;
+        long lastId = 0;
+        try {
+            while (true) {
+                List<Map<String, Object>> rows = jdbcTemplate.queryForList(SELECT_SQL, lastId, batchSize);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                List<Object[]> batch = new ArrayList<>(rows.size());
+                for (Map<String, Object> row : rows) {
+                    lastId = ((Number) row.get("id")).longValue();
+                    String token = (String) row.get("token");
+                    batch.add(new Object[] {RefreshToken.hashToken(token), lastId, token});
+                }
+                jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+                migrated += batch.size();
+                logger.debug("Lote de {} refresh tokens convertido para hash (último ID {})", batch.size(), lastId);
+                if (rows.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Migração de refresh tokens para hash interrompida após {} tokens: {}", migrated, e.getMessage());
+            return migrated;
+        }
+        complete = true;
+        if (migrated > 0) {
+            logger.info("Migração de refresh tokens para hash concluída: {} tokens convertidos", migrated);
+        }
+        return migrated;
+    }
+
+    /**
+     * @return true se não restam tokens em texto puro no banco
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+}
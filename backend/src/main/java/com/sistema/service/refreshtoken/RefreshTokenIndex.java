@@ -0,0 +1,219 @@
+package com.sistema.service.refreshtoken;
+
+import com.sistema.entity.RefreshToken;
+import com.sistema.service.base.BaseRedisService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice de validação de refresh tokens no Redis: hash SHA-256 do token → (id, usuário,
+ * expiração, revogado). Responde o /api/auth/refresh sem consultar a tabela refresh_tokens;
+ * o banco continua sendo a fonte da verdade e é consultado sempre que o índice não tem uma
+ * resposta confiável (ausência, entrada obsoleta ou Redis indisponível).
+ *
+ * Consistência com as revogações:
+ * <ul>
+ *   <li>entradas nunca sobrescrevem a marca de revogação gravada por uma revogação
+ *   concorrente;</li>
+ *   <li>revogações em massa gravam a época do usuário (instante em que a revogação foi
+ *   confirmada no banco); entradas com validAsOf anterior à época, com margem para diferença
+ *   de relógio entre instâncias, voltam a ser conferidas no banco e são substituídas pela
+ *   nova leitura, se esta for posterior à época;</li>
+ *   <li>se a gravação de uma revogação falhar, o índice deixa de ser usado nesta instância até
+ *   que a gravação seja refeita com sucesso.</li>
+ * </ul>
+ * As demais instâncias não sabem da falha e continuam respondendo pela entrada válida até que
+ * ela expire: o TTL das entradas é limitado por max-ttl-seconds (5 minutos por padrão), que é
+ * portanto a defasagem máxima de uma revogação não gravada. Valores maiores reduzem as consultas
+ * ao banco ao custo de uma janela maior.
+ */
+@Service
+public class RefreshTokenIndex extends BaseRedisService {
+
+    private static final String ENTRY_PREFIX = "refresh_token:";
+    private static final String USER_EPOCH_PREFIX = "refresh_token_epoch:";
+
+    /**
+     * Grava a entrada se a chave não existir ou se a entrada atual, não revogada, estiver
+     * obsoleta pela época do usuário e a nova for posterior a ela. Valores em JSON: as aspas
+     * do serializador são ignoradas na leitura.
+     * KEYS[1] = entrada, KEYS[2] = época do usuário; ARGV[1] = nova entrada, ARGV[2] = TTL (ms),
+     * ARGV[3] = validAsOf da nova entrada, ARGV[4] = margem de relógio (ms).
+     */
+    private static final RedisScript<Long> INDEX_SCRIPT = RedisScript.of(
+            "local current = redis.call('GET', KEYS[1]) " +
+            "if current then " +
+            "  local revoked, validAsOf = string.match(current, ':([01]):(%d+)\"?$') " +
+            "  if revoked ~= '0' then return 0 end " +
+            "  local epoch = redis.call('GET', KEYS[2]) " +
+            "  if not epoch then return 0 end " +
+            "  local limit = tonumber(string.match(epoch, '%d+')) + tonumber(ARGV[4]) " +
+            "  if tonumber(validAsOf) > limit or tonumber(ARGV[3]) <= limit then return 0 end " +
+            "end " +
+            "redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2]) " +
+            "return 1",
+            Long.class);
+
+    @Value("${app.refresh-token.index.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.refresh-token.index.max-ttl-seconds:300}")
+    private long maxTtlSeconds;
+
+    @Value("${app.refresh-token.index.clock-skew-ms:2000}")
+    private long clockSkewMillis;
+
+    @Value("${app.jwt.refresh-expiration:15552000}")
+    private long refreshTokenExpiration;
+
+    /**
+     * Revogações que não chegaram ao Redis (chave → valor), refeitas antes da próxima consulta.
+     */
+    private final Map<String, String> pendingInvalidations = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Consulta o índice.
+     *
+     * @param tokenHash hash do token apresentado
+     * @param now instante atual
+     * @return entrada confiável (válida ou revogada) ou null se o banco deve ser consultado
+     */
+    public IndexedRefreshToken lookup(String tokenHash, LocalDateTime now) {
+        if (isRedisDegraded() || !flushPendingInvalidations()) {
+            return null;
+        }
+        try {
+            IndexedRefreshToken entry = IndexedRefreshToken.decode(getString(entryKey(tokenHash)));
+            if (entry == null || entry.isRevoked() || !entry.isUsableAt(now)) {
+                return entry;
+            }
+            String epoch = getString(USER_EPOCH_PREFIX + entry.getUserId());
+            if (epoch != null && entry.getValidAsOf() <= Long.parseLong(epoch) + clockSkewMillis) {
+                logger.debug("Entrada do índice anterior à última revogação em massa do usuário {}", entry.getUserId());
+                return null;
+            }
+            return entry;
+        } catch (RuntimeException e) {
+            logger.warn("Falha ao consultar índice de refresh tokens, consultando o banco: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Indexa um token válido. Uma entrada existente só é substituída se estiver obsoleta pela
+     * época do usuário; marcas de revogação nunca são sobrescritas.
+     *
+     * @param refreshToken token persistido
+     * @param validAsOf instante (ms), anterior à leitura ou gravação no banco, em que o token era válido
+     */
+    public void index(RefreshToken refreshToken, long validAsOf) {
+        if (isRedisDegraded()) {
+            return;
+        }
+        Duration ttl = ttlFor(refreshToken.getExpiresAt());
+        if (ttl == null) {
+            return;
+        }
+        try {
+            executeScript(INDEX_SCRIPT,
+                    List.of(entryKey(refreshToken.getTokenHash()), USER_EPOCH_PREFIX + refreshToken.getUser().getId()),
+                    IndexedRefreshToken.of(refreshToken, validAsOf).encode(), ttl.toMillis(), validAsOf, clockSkewMillis);
+        } catch (RuntimeException e) {
+            logger.warn("Falha ao indexar refresh token {}: {}", refreshToken.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Grava a marca de revogação de um token. Deve ser chamado após a confirmação no banco.
+     *
+     * @param refreshToken token revogado
+     */
+    public void markRevoked(RefreshToken refreshToken) {
+        Duration ttl = ttlFor(refreshToken.getExpiresAt());
+        if (ttl == null) {
+            return;
+        }
+        IndexedRefreshToken tombstone = IndexedRefreshToken.of(refreshToken, 0L).revoked();
+        writeInvalidation(entryKey(refreshToken.getTokenHash()), tombstone.encode(), ttl);
+    }
+
+    /**
+     * Registra a revogação de todos os tokens do usuário. Deve ser chamado após a confirmação
+     * no banco, para que a época seja posterior a qualquer leitura que ainda via os tokens válidos.
+     *
+     * @param userId ID do usuário
+     */
+    public void revokeAllForUser(Long userId) {
+        writeInvalidation(USER_EPOCH_PREFIX + userId, String.valueOf(System.currentTimeMillis()),
+                Duration.ofSeconds(Math.min(refreshTokenExpiration, maxTtlSeconds)));
+    }
+
+    /**
+     * @return número de revogações aguardando nova tentativa de gravação
+     */
+    public int getPendingInvalidations() {
+        return pendingInvalidations.size();
+    }
+
+    private void writeInvalidation(String key, String value, Duration ttl) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (isRedisDegraded()) {
+                throw new IllegalStateException("Redis em modo degradado");
+            }
+            setWithTTL(key, value, ttl);
+            pendingInvalidations.remove(key, value);
+        } catch (RuntimeException e) {
+            logger.error("Falha ao registrar revogação no índice de refresh tokens ({}); índice suspenso até nova gravação: {}",
+                    key, e.getMessage());
+            pendingInvalidations.put(key, value);
+        }
+    }
+
+    /**
+     * Refaz as revogações pendentes.
+     *
+     * @return true se não restou nenhuma pendente
+     */
+    private boolean flushPendingInvalidations() {
+        if (pendingInvalidations.isEmpty()) {
+            return true;
+        }
+        Duration ttl = Duration.ofSeconds(maxTtlSeconds);
+        for (Map.Entry<String, String> pending : pendingInvalidations.entrySet()) {
+            try {
+                setWithTTL(pending.getKey(), pending.getValue(), ttl);
+                pendingInvalidations.remove(pending.getKey(), pending.getValue());
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+        return pendingInvalidations.isEmpty();
+    }
+
+    private Duration ttlFor(LocalDateTime expiresAt) {
+        Duration untilExpiry = Duration.between(LocalDateTime.now(), expiresAt);
+        if (untilExpiry.isNegative() || untilExpiry.isZero()) {
+            return null;
+        }
+        Duration max = Duration.ofSeconds(maxTtlSeconds);
+        return untilExpiry.compareTo(max) > 0 ? max : untilExpiry;
+    }
+
+    private static String entryKey(String tokenHash) {
+        return ENTRY_PREFIX + tokenHash;
+    }
+}
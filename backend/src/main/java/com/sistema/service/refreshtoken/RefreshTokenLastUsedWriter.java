@@ -0,0 +1,151 @@
+package com.sistema.service.refreshtoken;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gravação adiada (write-behind) do último uso dos refresh tokens.
+ *
+ * Os usos são acumulados em memória por ID de token, mantendo apenas o mais recente, e
+ * gravados periodicamente em lotes JDBC. Um UPDATE só avança o valor (nunca o retrocede),
+ * então lotes de instâncias diferentes podem chegar em qualquer ordem. Em caso de falha os
+ * valores voltam para o próximo ciclo; na parada da aplicação é feita uma última gravação.
+ */
+@Component
+public class RefreshTokenLastUsedWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenLastUsedWriter.class);
+
+    static final String UPDATE_SQL = "UPDATE refresh_tokens SET last_used_at = ? "
+            + "WHERE id = ? AND (last_used_at IS NULL OR last_used_at < ?)";
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    private JdbcTemplate jdbcTemplate;
+    private Counter flushedCounter;
+
+    @Autowired
+    public RefreshTokenLastUsedWriter(
+            @Value("${app.refresh-token.write-behind.enabled:false}") boolean enabled,
+            @Value("${app.refresh-token.write-behind.batch-size:500}") int batchSize) {
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Autowired(required = false)
+    public void setJdbcTemplate(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Registra o número de usos pendentes e de usos gravados no Micrometer.
+     *
+     * @param meterRegistry registro de métricas
+     */
+    @Autowired(required = false)
+    public void bindMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("refresh-token.last-used.pending", pending, Map::size)
+                .description("Tokens com último uso aguardando gravação")
+                .register(meterRegistry);
+        flushedCounter = Counter.builder("refresh-token.last-used.flushed")
+                .description("Últimos usos de refresh tokens gravados em lote")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return true se a gravação adiada está habilitada e há acesso JDBC
+     */
+    public boolean isEnabled() {
+        return enabled && jdbcTemplate != null;
+    }
+
+    /**
+     * Registra o uso de um token, mantendo apenas o mais recente até a próxima gravação.
+     *
+     * @param tokenId ID do refresh token
+     * @param usedAt instante do uso
+     */
+    public void record(Long tokenId, LocalDateTime usedAt) {
+        pending.merge(tokenId, usedAt, RefreshTokenLastUsedWriter::latest);
+    }
+
+    /**
+     * Grava os usos acumulados em lotes de batch-size.
+     */
+    @Scheduled(fixedDelayString = "${app.refresh-token.write-behind.flush-interval-ms:5000}")
+    public void flush() {
+        if (!isEnabled() || pending.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(Math.min(pending.size(), batchSize));
+        for (Long tokenId : pending.keySet()) {
+            LocalDateTime usedAt = pending.remove(tokenId);
+            if (usedAt == null) {
+                continue;
+            }
+            Timestamp timestamp = Timestamp.valueOf(usedAt);
+            batch.add(new Object[] {timestamp, tokenId, timestamp});
+            if (batch.size() >= batchSize) {
+                if (!write(batch)) {
+                    return;
+                }
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * @return número de tokens com último uso aguardando gravação
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private boolean write(List<Object[]> batch) {
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+            if (flushedCounter != null) {
+                flushedCounter.increment(batch.size());
+            }
+            logger.debug("Último uso de {} refresh tokens gravado em lote", batch.size());
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Falha ao gravar último uso de {} refresh tokens, nova tentativa no próximo ciclo: {}",
+                    batch.size(), e.getMessage());
+            for (Object[] row : batch) {
+                record((Long) row[1], ((Timestamp) row[0]).toLocalDateTime());
+            }
+            return false;
+        }
+    }
+
+    private static LocalDateTime latest(LocalDateTime current, LocalDateTime candidate) {
+        return candidate.isAfter(current) ? candidate : current;
+    }
+}
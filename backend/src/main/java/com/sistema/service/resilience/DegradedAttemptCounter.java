@@ -0,0 +1,70 @@
+package com.sistema.service.resilience;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contagem de tentativas em memória usada pelo AttemptService enquanto o Redis está
+ * indisponível. Cada instância conta apenas as tentativas que recebeu, então o captcha pode
+ * ser exigido um pouco mais tarde do que com o Redis; em troca, login e verificações não
+ * aguardam o timeout do cliente.
+ *
+ * Os contadores expiram na mesma janela das tentativas no Redis, contada a partir da primeira
+ * tentativa, e o número de identificadores é limitado.
+ */
+@Component
+public class DegradedAttemptCounter {
+
+    private final Cache<String, AtomicInteger> counters;
+
+    @Autowired
+    public DegradedAttemptCounter(
+            @Value("${app.redis.circuit-breaker.degraded-attempts.max-entries:100000}") long maxEntries,
+            @Value("${app.redis.circuit-breaker.degraded-attempts.window-minutes:30}") long windowMinutes) {
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(windowMinutes))
+                .build();
+    }
+
+    /**
+     * Registra uma tentativa.
+     *
+     * @param type tipo de tentativa
+     * @param identifier identificador (IP ou CPF)
+     * @return tentativas contadas localmente
+     */
+    public int increment(String type, String identifier) {
+        return counters.get(key(type, identifier), ignored -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * @param type tipo de tentativa
+     * @param identifier identificador (IP ou CPF)
+     * @return tentativas contadas localmente
+     */
+    public int get(String type, String identifier) {
+        AtomicInteger counter = counters.getIfPresent(key(type, identifier));
+        return counter != null ? counter.get() : 0;
+    }
+
+    /**
+     * Remove a contagem local de um identificador.
+     *
+     * @param type tipo de tentativa
+     * @param identifier identificador (IP ou CPF)
+     */
+    public void clear(String type, String identifier) {
+        counters.invalidate(key(type, identifier));
+    }
+
+    private static String key(String type, String identifier) {
+        return type + ":" + identifier;
+    }
+}
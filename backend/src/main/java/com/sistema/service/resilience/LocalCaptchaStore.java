@@ -0,0 +1,57 @@
+package com.sistema.service.resilience;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Armazenamento em memória dos hashes de resposta de captcha, usado pelo CaptchaService
+ * enquanto o Redis está indisponível. Um captcha guardado aqui só pode ser validado pela
+ * instância que o gerou, então depende de afinidade de sessão no balanceador; sem ela o
+ * usuário apenas precisa solicitar outro captcha.
+ */
+@Component
+public class LocalCaptchaStore {
+
+    private final Cache<String, byte[]> answers;
+
+    @Autowired
+    public LocalCaptchaStore(
+            @Value("${app.redis.circuit-breaker.local-captcha.max-entries:10000}") long maxEntries,
+            @Value("${app.redis.circuit-breaker.local-captcha.ttl-minutes:10}") long ttlMinutes) {
+        this.answers = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    /**
+     * @param captchaId ID do captcha
+     * @param answerHash digest SHA-256 da resposta
+     */
+    public void put(String captchaId, byte[] answerHash) {
+        answers.put(captchaId, answerHash);
+    }
+
+    /**
+     * @param captchaId ID do captcha
+     * @return digest da resposta ou null se não estiver armazenado localmente
+     */
+    public byte[] get(String captchaId) {
+        return answers.getIfPresent(captchaId);
+    }
+
+    /**
+     * @param captchaId ID do captcha
+     * @return true se o captcha estava armazenado localmente
+     */
+    public boolean remove(String captchaId) {
+        boolean existed = answers.getIfPresent(captchaId) != null;
+        answers.invalidate(captchaId);
+        return existed;
+    }
+}
@@ -0,0 +1,289 @@
+package com.sistema.service.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker das operações no Redis.
+ *
+ * Após failure-threshold falhas consecutivas de disponibilidade (conexão recusada, timeout
+ * ou chamada mais lenta que slow-call-ms) o circuito abre: durante open-duration-ms as
+ * operações falham imediatamente com {@link RedisUnavailableException} e os serviços aplicam
+ * sua política de degradação. Vencido esse prazo, uma única chamada de teste é liberada;
+ * se ela for bem-sucedida o circuito fecha, caso contrário abre novamente.
+ *
+ * Erros que não indicam indisponibilidade (ex.: comando inválido) não abrem o circuito.
+ */
+@Component
+public class RedisCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisCircuitBreaker.class);
+
+    private final boolean enabled;
+    private final int failureThreshold;
+    private final long slowCallNanos;
+    private final long openDurationMillis;
+    private final Clock clock;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAt;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong slowCalls = new AtomicLong();
+    private final AtomicLong openings = new AtomicLong();
+    private final Map<String, AtomicLong> fallbacks = new ConcurrentHashMap<>();
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    public RedisCircuitBreaker(
+            @Value("${app.redis.circuit-breaker.enabled:false}") boolean enabled,
+            @Value("${app.redis.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${app.redis.circuit-breaker.slow-call-ms:500}") long slowCallMillis,
+            @Value("${app.redis.circuit-breaker.open-duration-ms:10000}") long openDurationMillis) {
+        this(enabled, failureThreshold, slowCallMillis, openDurationMillis, Clock.systemUTC());
+    }
+
+    RedisCircuitBreaker(boolean enabled, int failureThreshold, long slowCallMillis, long openDurationMillis,
+                        Clock clock) {
+        this.enabled = enabled;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.slowCallNanos = slowCallMillis * 1_000_000L;
+        this.openDurationMillis = openDurationMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Registra no Micrometer o estado do circuito (0 fechado, 1 meio-aberto, 2 aberto),
+     * as chamadas rejeitadas, falhas, chamadas lentas, aberturas e os fallbacks por serviço.
+     *
+     * @param meterRegistry registro de métricas
+     */
+    @Autowired(required = false)
+    public void bindMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("redis.circuit.state", state, s -> stateCode(s.get()))
+                .description("Estado do circuit breaker do Redis (0 fechado, 1 meio-aberto, 2 aberto)")
+                .register(meterRegistry);
+        FunctionCounter.builder("redis.circuit.rejected", rejected, AtomicLong::get)
+                .description("Operações rejeitadas sem acessar o Redis com o circuito aberto")
+                .register(meterRegistry);
+        FunctionCounter.builder("redis.circuit.failures", failures, AtomicLong::get)
+                .description("Falhas de disponibilidade do Redis")
+                .register(meterRegistry);
+        FunctionCounter.builder("redis.circuit.slow-calls", slowCalls, AtomicLong::get)
+                .description("Operações no Redis acima do limite de lentidão")
+                .register(meterRegistry);
+        FunctionCounter.builder("redis.circuit.openings", openings, AtomicLong::get)
+                .description("Aberturas do circuito")
+                .register(meterRegistry);
+        fallbacks.forEach(this::registerFallbackCounter);
+    }
+
+    /**
+     * @return true se o circuit breaker está habilitado
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Verifica se a operação pode acessar o Redis. Com o circuito aberto, libera apenas
+     * a chamada de teste após open-duration-ms.
+     *
+     * @return false se a operação deve falhar imediatamente
+     */
+    public boolean tryAcquirePermission() {
+        if (!enabled) {
+            return true;
+        }
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && openWindowElapsed() && state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            logger.info("Circuit breaker do Redis meio-aberto: liberando chamada de teste");
+            return true;
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Indica se os serviços devem usar a política de degradação sem tentar o Redis:
+     * circuito aberto dentro do prazo ou chamada de teste em andamento.
+     *
+     * @return true se o Redis está em modo degradado
+     */
+    public boolean isDegraded() {
+        if (!enabled) {
+            return false;
+        }
+        State current = state.get();
+        return current == State.HALF_OPEN || (current == State.OPEN && !openWindowElapsed());
+    }
+
+    /**
+     * Registra uma operação concluída. Chamadas lentas contam como falha.
+     *
+     * @param durationNanos duração da operação
+     */
+    public void onSuccess(long durationNanos) {
+        if (!enabled) {
+            return;
+        }
+        if (durationNanos >= slowCallNanos) {
+            slowCalls.incrementAndGet();
+            recordFailure();
+            return;
+        }
+        consecutiveFailures.set(0);
+        if (state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+            logger.info("Circuit breaker do Redis fechado: operações normalizadas");
+        }
+    }
+
+    /**
+     * Registra uma operação que falhou. Apenas falhas de disponibilidade contam para
+     * abrir o circuito; as demais indicam que o Redis respondeu.
+     *
+     * @param error erro da operação
+     * @param durationNanos duração da operação
+     */
+    public void onError(Throwable error, long durationNanos) {
+        if (!enabled) {
+            return;
+        }
+        if (!isUnavailability(error)) {
+            onSuccess(durationNanos);
+            return;
+        }
+        failures.incrementAndGet();
+        recordFailure();
+    }
+
+    /**
+     * Conta o uso da política de degradação de um serviço.
+     *
+     * @param service serviço (attempts, token_blacklist, captcha)
+     */
+    public void recordFallback(String service) {
+        fallbacks.computeIfAbsent(service, name -> {
+            AtomicLong counter = new AtomicLong();
+            if (meterRegistry != null) {
+                registerFallbackCounter(name, counter);
+            }
+            return counter;
+        }).incrementAndGet();
+    }
+
+    /**
+     * @return estado atual do circuito
+     */
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * @return falhas consecutivas desde a última operação bem-sucedida
+     */
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    /**
+     * @return instante (epoch ms) da última abertura ou 0 se nunca abriu
+     */
+    public long getOpenedAt() {
+        return openedAt;
+    }
+
+    /**
+     * @return fallbacks usados por serviço desde a inicialização
+     */
+    public Map<String, Long> getFallbackCounts() {
+        Map<String, Long> counts = new ConcurrentHashMap<>();
+        fallbacks.forEach((service, counter) -> counts.put(service, counter.get()));
+        return counts;
+    }
+
+    private void recordFailure() {
+        if (state.get() == State.HALF_OPEN) {
+            open("chamada de teste falhou");
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold && state.get() == State.CLOSED) {
+            open(failureThreshold + " falhas consecutivas");
+        }
+    }
+
+    private void open(String reason) {
+        State previous = state.getAndSet(State.OPEN);
+        openedAt = clock.millis();
+        if (previous != State.OPEN) {
+            openings.incrementAndGet();
+            logger.warn("Circuit breaker do Redis aberto por {} ms: {}", openDurationMillis, reason);
+        }
+    }
+
+    private boolean openWindowElapsed() {
+        return clock.millis() - openedAt >= openDurationMillis;
+    }
+
+    private void registerFallbackCounter(String service, AtomicLong counter) {
+        FunctionCounter.builder("redis.degraded.fallbacks", counter, AtomicLong::get)
+                .tag("service", service)
+                .description("Decisões tomadas pela política de degradação com o Redis indisponível")
+                .register(meterRegistry);
+    }
+
+    private static double stateCode(State state) {
+        switch (state) {
+            case OPEN:
+                return 2;
+            case HALF_OPEN:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Falhas de conexão e timeouts, inclusive quando encapsulados por outras exceções.
+     */
+    static boolean isUnavailability(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RedisUnavailableException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof QueryTimeoutException
+                    || cause instanceof TimeoutException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,50 @@
+package com.sistema.service.resilience;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Expõe em /actuator/health o estado do circuit breaker do Redis.
+ *
+ * Com o circuito aberto o componente fica DEGRADED: os serviços continuam atendendo com
+ * suas políticas de degradação, então o status agregado da aplicação permanece UP e a
+ * instância não é retirada do balanceador.
+ */
+@Component
+public class RedisCircuitBreakerHealthIndicator implements HealthIndicator {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "Redis indisponível; usando políticas de degradação");
+
+    private final RedisCircuitBreaker circuitBreaker;
+    private final String tokenBlacklistPolicy;
+
+    public RedisCircuitBreakerHealthIndicator(
+            RedisCircuitBreaker circuitBreaker,
+            @Value("${app.redis.circuit-breaker.token-blacklist-policy:fail-open}") String tokenBlacklistPolicy) {
+        this.circuitBreaker = circuitBreaker;
+        this.tokenBlacklistPolicy = tokenBlacklistPolicy;
+    }
+
+    @Override
+    public Health health() {
+        if (!circuitBreaker.isEnabled()) {
+            return Health.up().withDetail("enabled", false).build();
+        }
+        RedisCircuitBreaker.State state = circuitBreaker.getState();
+        Health.Builder builder = state == RedisCircuitBreaker.State.OPEN
+                ? Health.status(DEGRADED)
+                : Health.up();
+        builder.withDetail("enabled", true)
+                .withDetail("state", state.name())
+                .withDetail("consecutiveFailures", circuitBreaker.getConsecutiveFailures())
+                .withDetail("fallbacks", circuitBreaker.getFallbackCounts())
+                .withDetail("tokenBlacklistPolicy", tokenBlacklistPolicy);
+        if (circuitBreaker.getOpenedAt() > 0) {
+            builder.withDetail("lastOpenedAt", circuitBreaker.getOpenedAt());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.sistema.service.resilience;
+
+/**
+ * Lançada sem acessar o Redis quando o circuit breaker está aberto.
+ * Os serviços tratam como qualquer falha de Redis e aplicam sua política de degradação.
+ */
+public class RedisUnavailableException extends RuntimeException {
+
+    public RedisUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,117 @@
+package com.sistema.benchmark;
+
+import com.sistema.config.RSAKeyManager;
+import com.sistema.config.RedisConfig;
+import com.sistema.entity.User;
+import com.sistema.entity.UserRole;
+import com.sistema.service.JwtService;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Componentes compartilhados pelos benchmarks do caminho de autenticação.
+ * Os serviços são montados manualmente, sem contexto Spring, com a mesma
+ * configuração usada em produção.
+ */
+final class BenchmarkFixtures {
+
+    /**
+     * Propriedade com a porta de um Redis já em execução; se ausente, um Redis é iniciado via Testcontainers.
+     */
+    static final String REDIS_PORT_PROPERTY = "benchmark.redis.port";
+
+    /**
+     * Imagem do Redis iniciado para os benchmarks: precisa suportar os comandos usados em
+     * produção (UNLINK, SCAN, EVALSHA, PEXPIRE), ausentes nos binários do Redis 2.8.
+     */
+    static final DockerImageName REDIS_IMAGE = DockerImageName.parse("redis:7.2-alpine");
+    private static final int REDIS_PORT = 6379;
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Cria um JwtService com chaves RSA novas em diretório temporário.
+     */
+    static JwtService newJwtService() throws Exception {
+        return newJwtService(RSAKeyManager.RS256);
+    }
+
+    /**
+     * Cria um JwtService que assina com o algoritmo informado (RS256, ES256 ou EdDSA).
+     */
+    static JwtService newJwtService(String signatureAlgorithm) throws Exception {
+        Path keysDirectory = Files.createTempDirectory("jmh-keys-" + signatureAlgorithm);
+        RSAKeyManager rsaKeyManager = new RSAKeyManager();
+        ReflectionTestUtils.setField(rsaKeyManager, "keysDirectory", keysDirectory.toString());
+        ReflectionTestUtils.setField(rsaKeyManager, "signatureAlgorithm", signatureAlgorithm);
+        rsaKeyManager.initializeKeys();
+
+        JwtService jwtService = new JwtService(rsaKeyManager);
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpirationSeconds", 3600L);
+        ReflectionTestUtils.setField(jwtService, "refreshTokenExpirationSeconds", 15552000L);
+        ReflectionTestUtils.setField(jwtService, "issuer", "sistema-java-bench");
+        return jwtService;
+    }
+
+    /**
+     * Cria o usuário usado na emissão dos tokens.
+     */
+    static User newUser() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("bench@example.com");
+        user.setFirstName("Bench");
+        user.setLastName("User");
+        user.setRole(UserRole.USER);
+        user.setEnabled(true);
+        return user;
+    }
+
+    /**
+     * Redis usado pelos benchmarks: container {@link #REDIS_IMAGE} por padrão ou externo via
+     * {@link #REDIS_PORT_PROPERTY}.
+     */
+    static final class BenchmarkRedis implements AutoCloseable {
+
+        private final GenericContainer<?> container;
+        private final LettuceConnectionFactory connectionFactory;
+        private final RedisTemplate<String, Object> redisTemplate;
+
+        private BenchmarkRedis(GenericContainer<?> container, String host, int port) {
+            this.container = container;
+            this.connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+            this.connectionFactory.afterPropertiesSet();
+            this.redisTemplate = new RedisConfig().redisTemplate(connectionFactory);
+        }
+
+        static BenchmarkRedis start() throws Exception {
+            String externalPort = System.getProperty(REDIS_PORT_PROPERTY);
+            if (externalPort != null && !externalPort.isBlank()) {
+                return new BenchmarkRedis(null, "localhost", Integer.parseInt(externalPort.trim()));
+            }
+            GenericContainer<?> container = new GenericContainer<>(REDIS_IMAGE).withExposedPorts(REDIS_PORT);
+            container.start();
+            return new BenchmarkRedis(container, container.getHost(), container.getMappedPort(REDIS_PORT));
+        }
+
+        RedisTemplate<String, Object> redisTemplate() {
+            return redisTemplate;
+        }
+
+        @Override
+        public void close() {
+            connectionFactory.destroy();
+            if (container != null) {
+                container.stop();
+            }
+        }
+    }
+}
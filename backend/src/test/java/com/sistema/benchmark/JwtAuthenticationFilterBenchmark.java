@@ -0,0 +1,82 @@
+package com.sistema.benchmark;
+
+import com.sistema.entity.User;
+import com.sistema.security.JwtAuthenticationFilter;
+import com.sistema.service.AuthService;
+import com.sistema.service.JwtService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do caminho completo do JwtAuthenticationFilter para uma requisição autenticada:
+ * verificação do token, revogação no Redis e carga do usuário.
+ * O AuthService é substituído por um stub que devolve o usuário sem acesso ao banco,
+ * de modo que o resultado mede o custo do filtro e do Redis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private BenchmarkFixtures.BenchmarkRedis redis;
+    private JwtAuthenticationFilter filter;
+    private String authorizationHeader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        redis = BenchmarkFixtures.BenchmarkRedis.start();
+        JwtService jwtService = BenchmarkFixtures.newJwtService();
+        User user = BenchmarkFixtures.newUser();
+
+        // stubOnly evita que o Mockito acumule as invocações durante as medições
+        AuthService authService = Mockito.mock(AuthService.class, Mockito.withSettings().stubOnly());
+        Mockito.when(authService.loadUserByUsername(user.getEmail())).thenReturn(user);
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(filter, "authService", authService);
+        ReflectionTestUtils.setField(filter, "tokenBlacklistService",
+                TokenBlacklistBenchmark.newTokenBlacklistService(redis, jwtService));
+
+        authorizationHeader = "Bearer " + jwtService.generateAccessToken(user);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        redis.close();
+    }
+
+    @Benchmark
+    public Authentication doFilterInternal() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/profile");
+        request.addHeader("Authorization", authorizationHeader);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.sistema.benchmark;
+
+import com.sistema.entity.User;
+import com.sistema.service.JwtService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark das operações do JwtService usadas a cada login e a cada requisição autenticada.
+ * extractAllClaims é privado; é medido via {@link JwtService#verifyToken(String)}, que o
+ * executa diretamente quando o cache de verificação está desabilitado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private User user;
+    private String accessToken;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        jwtService = BenchmarkFixtures.newJwtService();
+        user = BenchmarkFixtures.newUser();
+        accessToken = jwtService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public Claims extractAllClaims() {
+        return jwtService.verifyToken(accessToken).getClaims();
+    }
+
+    @Benchmark
+    public boolean isValidAccessToken() {
+        return jwtService.isValidAccessToken(accessToken);
+    }
+}
@@ -0,0 +1,65 @@
+package com.sistema.benchmark;
+
+import com.sistema.config.RSAKeyManager;
+import com.sistema.entity.User;
+import com.sistema.service.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de assinatura e verificação de access tokens por algoritmo (RS256, ES256, EdDSA).
+ * O tamanho do token gerado em cada algoritmo é registrado no log no setup, para comparar
+ * o peso do cabeçalho Authorization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtSignatureAlgorithmBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtSignatureAlgorithmBenchmark.class);
+
+    @Param({RSAKeyManager.RS256, RSAKeyManager.ES256, RSAKeyManager.EDDSA})
+    public String algorithm;
+
+    private JwtService jwtService;
+    private User user;
+    private String accessToken;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        jwtService = BenchmarkFixtures.newJwtService(algorithm);
+        user = BenchmarkFixtures.newUser();
+        accessToken = jwtService.generateAccessToken(user);
+
+        logger.info("[{}] tamanho do access token: {} bytes",
+                algorithm, accessToken.getBytes(StandardCharsets.US_ASCII).length);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return jwtService.verifyToken(accessToken).isValidAccessToken();
+    }
+}
@@ -0,0 +1,69 @@
+package com.sistema.benchmark;
+
+import com.sistema.security.VerifiedToken;
+import com.sistema.service.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do custo de verificação JWT por requisição autenticada.
+ * Compara o fluxo antigo do JwtAuthenticationFilter (uma verificação RSA por claim consultado)
+ * com o fluxo atual, que verifica o token uma única vez via {@link JwtService#verifyToken(String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private JwtService jwtService;
+    private String accessToken;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        jwtService = BenchmarkFixtures.newJwtService();
+        accessToken = jwtService.generateAccessToken(BenchmarkFixtures.newUser());
+    }
+
+    /**
+     * Sequência executada pelo filtro antes do VerifiedToken:
+     * isValidAccessToken (tipo + expiração), JTI da blacklist, subject e data de emissão.
+     */
+    @Benchmark
+    public void perClaimVerification(Blackhole blackhole) {
+        blackhole.consume("access".equals(jwtService.extractTokenType(accessToken)));
+        blackhole.consume(jwtService.isTokenExpired(accessToken));
+        blackhole.consume(jwtService.extractJti(accessToken));
+        String subject = jwtService.extractSubject(accessToken);
+        Date issuedAt = jwtService.extractIssuedAt(accessToken);
+        blackhole.consume(subject);
+        blackhole.consume(issuedAt);
+    }
+
+    /**
+     * Sequência atual do filtro: uma verificação e leitura dos claims do resultado imutável.
+     */
+    @Benchmark
+    public void verifyOnce(Blackhole blackhole) {
+        VerifiedToken verifiedToken = jwtService.verifyToken(accessToken);
+        blackhole.consume(verifiedToken.isValidAccessToken());
+        blackhole.consume(verifiedToken.getJti());
+        blackhole.consume(verifiedToken.getSubject());
+        blackhole.consume(verifiedToken.getIssuedAt());
+    }
+}
@@ -0,0 +1,84 @@
+package com.sistema.benchmark;
+
+import com.sistema.service.base.BaseRedisService;
+import com.sistema.service.ratelimit.InMemoryRateLimiter;
+import com.sistema.service.ratelimit.RateLimitDecision;
+import com.sistema.service.ratelimit.RateLimitDimension;
+import com.sistema.service.ratelimit.RateLimitPolicy;
+import com.sistema.service.ratelimit.RedisRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do limitador GCRA sob contenção (4 threads).
+ * Mede a implementação local com todas as threads na mesma chave (ataque de um único IP)
+ * e em chaves distintas, e a implementação Redis (um EVALSHA por decisão).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int DISTINCT_KEYS = 10_000;
+
+    private BenchmarkFixtures.BenchmarkRedis redis;
+    private InMemoryRateLimiter inMemoryRateLimiter;
+    private RedisRateLimiter redisRateLimiter;
+    private RateLimitPolicy policy;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // Limite alto para que as decisões percorram o caminho de aceitação e de negação
+        policy = RateLimitPolicy.of("login", RateLimitDimension.IP, 1000, Duration.ofSeconds(1));
+        inMemoryRateLimiter = new InMemoryRateLimiter();
+
+        redis = BenchmarkFixtures.BenchmarkRedis.start();
+        redisRateLimiter = new RedisRateLimiter();
+        ReflectionTestUtils.setField(redisRateLimiter, BaseRedisService.class, "redisTemplate", redis.redisTemplate(), null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        redis.close();
+    }
+
+    @Benchmark
+    public RateLimitDecision inMemoryHotKey() {
+        return inMemoryRateLimiter.tryAcquire(policy, "203.0.113.10");
+    }
+
+    @Benchmark
+    public RateLimitDecision inMemoryDistinctKeys() {
+        return inMemoryRateLimiter.tryAcquire(policy, "ip-" + ThreadLocalRandom.current().nextInt(DISTINCT_KEYS));
+    }
+
+    @Benchmark
+    public RateLimitDecision redisHotKey() {
+        return redisRateLimiter.tryAcquire(policy, "203.0.113.10");
+    }
+
+    @Benchmark
+    public RateLimitDecision redisDistinctKeys() {
+        return redisRateLimiter.tryAcquire(policy, "ip-" + ThreadLocalRandom.current().nextInt(DISTINCT_KEYS));
+    }
+}
@@ -0,0 +1,101 @@
+package com.sistema.benchmark;
+
+import com.sistema.entity.User;
+import com.sistema.security.RevocationStatus;
+import com.sistema.security.VerifiedToken;
+import com.sistema.service.JwtService;
+import com.sistema.service.TokenBlacklistService;
+import com.sistema.service.base.BaseRedisService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark das verificações de revogação contra um Redis real (container Redis 7 por padrão).
+ * Compara as consultas sequenciais (blacklist do token e revogação global do usuário)
+ * com a verificação em um único MGET usada pelo JwtAuthenticationFilter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenBlacklistBenchmark {
+
+    private BenchmarkFixtures.BenchmarkRedis redis;
+    private TokenBlacklistService tokenBlacklistService;
+    private VerifiedToken activeToken;
+    private VerifiedToken revokedToken;
+    private String username;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        redis = BenchmarkFixtures.BenchmarkRedis.start();
+        JwtService jwtService = BenchmarkFixtures.newJwtService();
+        tokenBlacklistService = newTokenBlacklistService(redis, jwtService);
+
+        User user = BenchmarkFixtures.newUser();
+        username = user.getEmail();
+        activeToken = jwtService.verifyToken(jwtService.generateAccessToken(user));
+        revokedToken = jwtService.verifyToken(jwtService.generateAccessToken(user));
+        tokenBlacklistService.revokeToken(revokedToken.getToken());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        tokenBlacklistService.removeFromBlacklist(revokedToken.getToken());
+        redis.close();
+    }
+
+    /**
+     * Monta o TokenBlacklistService sem contexto Spring, apontando para o Redis do benchmark.
+     */
+    static TokenBlacklistService newTokenBlacklistService(BenchmarkFixtures.BenchmarkRedis redis, JwtService jwtService) {
+        TokenBlacklistService service = new TokenBlacklistService();
+        ReflectionTestUtils.setField(service, "redisTemplate", redis.redisTemplate());
+        ReflectionTestUtils.setField(service, BaseRedisService.class, "redisTemplate", redis.redisTemplate(), null);
+        ReflectionTestUtils.setField(service, "jwtService", jwtService);
+        return service;
+    }
+
+    @Benchmark
+    public boolean isRevokedActive() {
+        return tokenBlacklistService.isRevoked(activeToken);
+    }
+
+    @Benchmark
+    public boolean isRevokedBlacklisted() {
+        return tokenBlacklistService.isRevoked(revokedToken);
+    }
+
+    /**
+     * Duas idas ao Redis: blacklist do token e revogação global do usuário.
+     */
+    @Benchmark
+    public void sequentialChecks(Blackhole blackhole) {
+        blackhole.consume(tokenBlacklistService.isRevoked(activeToken));
+        blackhole.consume(tokenBlacklistService.isGloballyRevoked(activeToken, username));
+    }
+
+    /**
+     * Uma ida ao Redis (MGET) para as duas verificações.
+     */
+    @Benchmark
+    public RevocationStatus batchedCheck() {
+        return tokenBlacklistService.checkRevocation(activeToken, username);
+    }
+}
@@ -0,0 +1,49 @@
+package com.sistema.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes de leitura dos arquivos de configuração YAML, sem subir o contexto do Spring
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@DisplayName("application.yml Tests")
+class ApplicationYamlTest {
+
+    private final YamlPropertySourceLoader loader = new YamlPropertySourceLoader();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"application.yml", "application-test.yml", "application-dev-test.yml",
+            "application-e2e.yml", "application-repository.yml", "application-repository-test.yml"})
+    @DisplayName("Deve interpretar os arquivos de configuração sem erros de sintaxe")
+    void shouldParseConfigurationFiles(String file) throws IOException {
+        // When
+        List<PropertySource<?>> sources = loader.load(file, new ClassPathResource(file));
+
+        // Then
+        assertThat(sources).isNotEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve manter como texto as listas de prefixos terminadas em dois-pontos")
+    void shouldKeepPrefixListsAsText() throws IOException {
+        // When
+        PropertySource<?> source = loader.load("application.yml", new ClassPathResource("application.yml")).get(0);
+
+        // Then
+        assertThat(source.getProperty("app.redis.client-side-caching.prefixes"))
+                .asString().startsWith("jwt:blacklist:,").endsWith(",attempts:");
+        assertThat(source.getProperty("app.redis.metrics.key-families"))
+                .asString().startsWith("jwt:blacklist:user:,").endsWith(",stats:");
+    }
+}
@@ -1,10 +1,15 @@
 package com.sistema.config;
 
+import com.sistema.security.VerifiedToken;
+import com.sistema.security.VerifiedTokenCache;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -15,6 +20,7 @@ import java.nio.file.Path;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.util.Base64;
+import java.util.Date;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -292,4 +298,118 @@ class RSAKeyManagerTest {
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Falha na inicialização das chaves RSA");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve publicar nova chave sem ativá-la antes do atraso de ativação")
+    void shouldPublishRotatedKeyBeforeActivatingIt() {
+        // Given
+        rsaKeyManager.initializeKeys();
+        ReflectionTestUtils.setField(rsaKeyManager, "activationDelaySeconds", 3600L);
+        String activeKeyId = rsaKeyManager.getActiveKeyId();
+
+        // When
+        rsaKeyManager.rotateKeys();
+
+        // Then - A chave ativa não muda, mas a nova já é aceita na verificação
+        assertThat(rsaKeyManager.getActiveKeyId()).isEqualTo(activeKeyId);
+        assertThat(rsaKeyManager.getVerificationKeys()).hasSize(2).containsKey(activeKeyId);
+    }
+
+    @Test
+    @DisplayName("Deve derivar o mesmo kid das chaves pública e privada do par")
+    void shouldDeriveSameKeyIdFromPublicAndPrivateKeys() {
+        // Given
+        rsaKeyManager.initializeKeys();
+
+        // When
+        String publicKeyId = RSAKeyManager.keyIdOf(rsaKeyManager.getPublicKey());
+        String privateKeyId = RSAKeyManager.keyIdOf(rsaKeyManager.getPrivateKey());
+
+        // Then
+        assertThat(publicKeyId).isNotBlank().isEqualTo(privateKeyId);
+        assertThat(rsaKeyManager.getVerificationKey(publicKeyId)).isEqualTo(rsaKeyManager.getPublicKey());
+    }
+
+    @Test
+    @DisplayName("Deve esvaziar o cache de tokens verificados quando uma chave sai do keyring")
+    void shouldInvalidateVerifiedTokenCacheWhenKeyIsRetired() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, 300);
+        rsaKeyManager.setVerifiedTokenCache(cache);
+        rsaKeyManager.initializeKeys();
+        cache.put(VerifiedToken.of("header.payload.signature", Jwts.claims()
+                .subject("test@example.com")
+                .expiration(new Date(System.currentTimeMillis() + 60000))
+                .build()));
+
+        // When
+        rsaKeyManager.forceRegenerateKeys();
+
+        // Then
+        assertThat(cache.get("header.payload.signature")).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve manter o cache de tokens verificados quando a rotação só adiciona chaves")
+    void shouldKeepVerifiedTokenCacheWhenRotationOnlyAddsKeys() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, 300);
+        rsaKeyManager.setVerifiedTokenCache(cache);
+        rsaKeyManager.initializeKeys();
+        ReflectionTestUtils.setField(rsaKeyManager, "activationDelaySeconds", 3600L);
+        cache.put(VerifiedToken.of("header.payload.signature", Jwts.claims()
+                .subject("test@example.com")
+                .expiration(new Date(System.currentTimeMillis() + 60000))
+                .build()));
+
+        // When
+        rsaKeyManager.rotateKeys();
+
+        // Then
+        assertThat(cache.get("header.payload.signature")).isNotNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {RSAKeyManager.ES256, RSAKeyManager.EDDSA})
+    @DisplayName("Deve publicar a chave de curva e carregá-la em instâncias que compartilham o diretório")
+    void shouldPublishCurveKeyForOtherInstances(String algorithm) {
+        // Given - uma instância assina com a curva e outra ainda com RS256
+        ReflectionTestUtils.setField(rsaKeyManager, "signatureAlgorithm", algorithm);
+        rsaKeyManager.initializeKeys();
+        PublicKey curveKey = rsaKeyManager.getCurveKeyPair().getPublic();
+        String curveKeyId = RSAKeyManager.keyIdOf(curveKey);
+
+        RSAKeyManager rsaInstance = new RSAKeyManager();
+        ReflectionTestUtils.setField(rsaInstance, "keysDirectory", tempDir.toString());
+
+        // When
+        rsaInstance.initializeKeys();
+
+        // Then
+        assertThat(tempDir.resolve("public_key." + curveKeyId + ".pem")).exists();
+        assertThat(rsaInstance.getVerificationKey(curveKeyId)).isEqualTo(curveKey);
+    }
+
+    @Test
+    @DisplayName("Deve manter a chave de curva publicada ao descartar chaves RSA aposentadas")
+    void shouldKeepPublishedCurveKeyWhenPruningRetiredKeys() {
+        // Given
+        ReflectionTestUtils.setField(rsaKeyManager, "signatureAlgorithm", RSAKeyManager.ES256);
+        rsaKeyManager.initializeKeys();
+        String curveKeyId = RSAKeyManager.keyIdOf(rsaKeyManager.getCurveKeyPair().getPublic());
+
+        RSAKeyManager rsaInstance = new RSAKeyManager();
+        ReflectionTestUtils.setField(rsaInstance, "keysDirectory", tempDir.toString());
+        ReflectionTestUtils.setField(rsaInstance, "retainedKeys", 1);
+        rsaInstance.initializeKeys();
+
+        // When - rotações imediatas além do limite de retenção
+        rsaInstance.rotateKeys();
+        rsaInstance.rotateKeys();
+        rsaInstance.rotateKeys();
+
+        // Then
+        assertThat(tempDir.resolve("public_key." + curveKeyId + ".pem")).exists();
+        assertThat(rsaInstance.getVerificationKeys()).containsKey(curveKeyId).hasSize(3);
+    }
+}
@@ -1,5 +1,6 @@
 package com.sistema.config;
 
+import com.sistema.config.cache.TwoLevelCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -7,11 +8,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -72,4 +78,27 @@ class RedisConfigTest {
         // Verificação da configuração de TTL seria feita através de integração
         // pois a configuração interna não é facilmente acessível via API pública
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve derivar o TTL do Redis da mesma configuração do L1 para qualquer cache")
+    void shouldDeriveRedisTtlFromSpecForAnyCacheName() {
+        // Given - cache fora de cache-names, com TTL próprio
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.cache.two-level.caches.providers.ttl-seconds", "42")
+                .withProperty("app.cache.two-level.caches.providers.l1-ttl-seconds", "120");
+        redisConfig.setEnvironment(environment);
+        ReflectionTestUtils.setField(redisConfig, "twoLevelCacheEnabled", true);
+
+        // When
+        CacheManager cacheManager = redisConfig.cacheManager(connectionFactory);
+        TwoLevelCache cache = (TwoLevelCache) cacheManager.getCache("providers");
+        RedisCacheManager redisCacheManager =
+                (RedisCacheManager) ReflectionTestUtils.getField(cacheManager, "redisCacheManager");
+        RedisCache redisCache = (RedisCache) redisCacheManager.getCache("providers");
+
+        // Then
+        assertThat(cache).isNotNull();
+        assertThat(redisCache.getCacheConfiguration().getTtlFunction().getTimeToLive("key", "value"))
+                .isEqualTo(Duration.ofSeconds(42));
+    }
+}
@@ -0,0 +1,145 @@
+package com.sistema.config.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitários para TwoLevelCache
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TwoLevelCache Tests")
+class TwoLevelCacheTest {
+
+    @Mock
+    private Cache redisCache;
+
+    private final List<String> published = new ArrayList<>();
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        TwoLevelCacheSpec spec = new TwoLevelCacheSpec("email-configurations", 100,
+                Duration.ofSeconds(60), Duration.ofMinutes(10));
+        cache = new TwoLevelCache(spec, redisCache, (name, key) -> published.add(name + ":" + key));
+    }
+
+    @Test
+    @DisplayName("Deve servir leituras repetidas do L1 sem consultar o Redis")
+    void shouldServeRepeatedReadsFromLocalCache() {
+        // Given
+        when(redisCache.get("default")).thenReturn(new SimpleValueWrapper("smtp"));
+
+        // When
+        Cache.ValueWrapper first = cache.get("default");
+        Cache.ValueWrapper second = cache.get("default");
+
+        // Then
+        assertThat(first.get()).isEqualTo("smtp");
+        assertThat(second.get()).isEqualTo("smtp");
+        verify(redisCache, times(1)).get("default");
+    }
+
+    @Test
+    @DisplayName("Deve carregar o valor uma vez e gravá-lo nos dois níveis")
+    void shouldLoadValueOnceAndStoreInBothLevels() {
+        // When
+        String first = cache.get("stats", () -> "loaded");
+        String second = cache.get("stats", () -> "reloaded");
+
+        // Then
+        assertThat(first).isEqualTo("loaded");
+        assertThat(second).isEqualTo("loaded");
+        verify(redisCache).put("stats", "loaded");
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve usar o valor do Redis sem chamar o carregador")
+    void shouldUseRedisValueWithoutCallingLoader() {
+        // Given
+        when(redisCache.get("stats")).thenReturn(new SimpleValueWrapper("remote"));
+
+        // When
+        String first = cache.get("stats", () -> "loaded");
+        String second = cache.get("stats", () -> "reloaded");
+
+        // Then
+        assertThat(first).isEqualTo("remote");
+        assertThat(second).isEqualTo("remote");
+        verify(redisCache, times(1)).get("stats");
+        verify(redisCache, never()).put(any(), any());
+    }
+
+    @Test
+    @DisplayName("Não deve gravar no Redis quando o carregador falha")
+    void shouldNotStoreWhenLoaderFails() {
+        // When & Then
+        assertThatThrownBy(() -> cache.get("stats", () -> {
+            throw new IllegalStateException("falha");
+        })).isInstanceOf(Cache.ValueRetrievalException.class);
+        verify(redisCache, never()).put(any(), any());
+        assertThat(cache.localSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve publicar invalidação ao alterar ou remover entradas")
+    void shouldPublishInvalidationOnWrites() {
+        // When
+        cache.put("default", "smtp");
+        cache.evict("default");
+        cache.clear();
+
+        // Then
+        verify(redisCache).put("default", "smtp");
+        verify(redisCache).evict("default");
+        verify(redisCache).clear();
+        assertThat(published).containsExactly(
+                "email-configurations:default", "email-configurations:default", "email-configurations:null");
+    }
+
+    @Test
+    @DisplayName("Deve descartar apenas o L1 ao receber invalidação remota")
+    void shouldEvictOnlyLocalEntryOnRemoteInvalidation() {
+        // Given
+        cache.put("default", "smtp");
+        when(redisCache.get("default")).thenReturn(new SimpleValueWrapper("gmail"));
+
+        // When
+        cache.evictLocal("default");
+
+        // Then
+        assertThat(cache.get("default").get()).isEqualTo("gmail");
+        verify(redisCache, never()).evict(any());
+        assertThat(cache.localSize()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve limitar o TTL do L1 ao TTL do Redis")
+    void shouldCapLocalTtlToRedisTtl() {
+        // Given
+        TwoLevelCacheSpec spec = new TwoLevelCacheSpec("user-statistics", 10,
+                Duration.ofMinutes(5), Duration.ofSeconds(30));
+
+        // Then
+        assertThat(spec.getL1Ttl()).isEqualTo(Duration.ofSeconds(30));
+    }
+}
@@ -394,6 +394,7 @@ class AuthControllerTest {
         SecurityContextHolder.setContext(securityContext);
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getPrincipal()).thenReturn(testUser);
+        when(authService.findById(1L)).thenReturn(Optional.of(testUser));
         
         // When & Then
         mockMvc.perform(get("/api/auth/me")
@@ -403,4 +404,44 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.email").value("test@example.com"));
     }
 
+    @Test
+    @DisplayName("Deve retornar o perfil do banco quando o principal foi montado a partir dos claims")
+    void shouldReturnProfileFromDatabaseForStatelessPrincipal() throws Exception {
+        // Given - principal sem estado: só id, email, role e o nome completo do token
+        User statelessPrincipal = new User();
+        statelessPrincipal.setId(1L);
+        statelessPrincipal.setEmail("test@example.com");
+        statelessPrincipal.setFirstName("Test User");
+        statelessPrincipal.setRole(UserRole.USER);
+        testUser.setFirstName("Maria");
+        testUser.setLastName("Silva");
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(statelessPrincipal);
+        when(authService.findById(1L)).thenReturn(Optional.of(testUser));
+
+        // When & Then
+        mockMvc.perform(get("/api/auth/me")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fullName").value("Maria Silva"))
+                .andExpect(jsonPath("$.createdAt").exists());
+    }
+
+    @Test
+    @DisplayName("Deve retornar 404 quando o usuário autenticado não existe mais no banco")
+    void shouldReturnNotFoundWhenAuthenticatedUserNoLongerExists() throws Exception {
+        // Given
+        SecurityContextHolder.setContext(securityContext);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(testUser);
+        when(authService.findById(1L)).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/auth/me")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errorCode").value("USER_NOT_FOUND"));
+    }
+
 }
\ No newline at end of file
@@ -214,4 +214,52 @@ class RSAKeyManagerJwtIntegrationTest {
         assertThat(tempDir.resolve("server-keys").resolve("private_key.pem")).exists();
         assertThat(tempDir.resolve("server-keys").resolve("public_key.pem")).exists();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve continuar validando tokens antigos após rotação de chaves")
+    void shouldKeepValidatingOldTokensAfterKeyRotation() {
+        // Given - Token assinado com a chave ativa antes da rotação
+        String oldKeyId = rsaKeyManager.getActiveKeyId();
+        String oldToken = jwtService.generateAccessToken(testUser);
+
+        // When - Rotação com ativação imediata
+        ReflectionTestUtils.setField(rsaKeyManager, "retainedKeys", 2);
+        rsaKeyManager.rotateKeys();
+        String newToken = jwtService.generateAccessToken(testUser);
+
+        // Then - Ambas as chaves ficam no keyring e os dois tokens são válidos
+        assertThat(rsaKeyManager.getActiveKeyId()).isNotEqualTo(oldKeyId);
+        assertThat(rsaKeyManager.getVerificationKeys()).containsKeys(oldKeyId, rsaKeyManager.getActiveKeyId());
+        assertThat(tempDir.resolve("public_key." + oldKeyId + ".pem")).exists();
+        assertThat(jwtService.isValidAccessToken(oldToken)).isTrue();
+        assertThat(jwtService.isValidAccessToken(newToken)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve assinar com curva elíptica e manter tokens RSA válidos na migração")
+    void shouldSignWithEllipticCurveAndKeepRsaTokensValid() {
+        // Given - Token RSA emitido antes da migração
+        String rsaToken = jwtService.generateAccessToken(testUser);
+
+        for (String algorithm : List.of(RSAKeyManager.ES256, RSAKeyManager.EDDSA)) {
+            // When - Reinicialização com o novo algoritmo no mesmo diretório de chaves
+            RSAKeyManager curveKeyManager = new RSAKeyManager();
+            ReflectionTestUtils.setField(curveKeyManager, "keysDirectory", tempDir.toString());
+            ReflectionTestUtils.setField(curveKeyManager, "signatureAlgorithm", algorithm);
+            curveKeyManager.initializeKeys();
+
+            JwtService curveJwtService = new JwtService(curveKeyManager);
+            ReflectionTestUtils.setField(curveJwtService, "accessTokenExpirationSeconds", 3600L);
+            ReflectionTestUtils.setField(curveJwtService, "refreshTokenExpirationSeconds", 15552000L);
+            ReflectionTestUtils.setField(curveJwtService, "issuer", "sistema-java-test");
+
+            String curveToken = curveJwtService.generateAccessToken(testUser);
+
+            // Then - Token de curva é menor e ambos são válidos
+            assertThat(curveKeyManager.getCurveKeyPair()).isNotNull();
+            assertThat(curveToken.length()).isLessThan(rsaToken.length());
+            assertThat(curveJwtService.isValidAccessToken(curveToken)).isTrue();
+            assertThat(curveJwtService.isValidAccessToken(rsaToken)).isTrue();
+        }
+    }
+}
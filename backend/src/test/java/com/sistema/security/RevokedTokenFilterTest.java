@@ -0,0 +1,134 @@
+package com.sistema.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+/**
+ * Testes unitários para RevokedTokenFilter
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@DisplayName("RevokedTokenFilter Tests")
+class RevokedTokenFilterTest {
+
+    @Test
+    @DisplayName("Deve forçar consulta ao Redis enquanto o filtro não foi carregado")
+    void shouldAnswerPositiveUntilLoaded() {
+        // Given
+        RevokedTokenFilter filter = new RevokedTokenFilter(true, 1000, 0.01);
+
+        // When / Then
+        assertThat(filter.isReady()).isFalse();
+        assertThat(filter.mightBeRevoked("any-jti")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Nunca deve produzir falso negativo para identificadores revogados")
+    void shouldNeverProduceFalseNegatives() {
+        // Given
+        RevokedTokenFilter filter = new RevokedTokenFilter(true, 10000, 0.001);
+        String[] revoked = IntStream.range(0, 5000).mapToObj(i -> UUID.randomUUID().toString()).toArray(String[]::new);
+
+        // When
+        filter.rebuild(sink -> {
+            for (int i = 0; i < revoked.length / 2; i++) {
+                sink.accept(revoked[i]);
+            }
+        });
+        for (int i = revoked.length / 2; i < revoked.length; i++) {
+            filter.add(revoked[i]);
+        }
+
+        // Then
+        assertThat(filter.isReady()).isTrue();
+        for (String tokenId : revoked) {
+            assertThat(filter.mightBeRevoked(tokenId)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Não deve perder revogação recebida quando a reconstrução termina durante a inclusão")
+    void shouldKeepRevocationAddedWhileRebuildCompletes() throws Exception {
+        // Given - a inclusão no filtro atual só prossegue depois que a reconstrução termina
+        RevokedTokenFilter filter = new RevokedTokenFilter(true, 1000, 0.001);
+        BloomFilter previous = spy(BloomFilter.create(1000, 0.001));
+        ReflectionTestUtils.setField(filter, "current", previous);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch addInProgress = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        CountDownLatch rebuilt = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            addInProgress.countDown();
+            rebuilt.await(5, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(previous).put(anyString());
+
+        // When - a fonte foi lida antes de a revogação chegar ao Redis
+        Thread rebuild = new Thread(() -> {
+            filter.rebuild(sink -> {
+                loading.countDown();
+                await(releaseLoader);
+            });
+            rebuilt.countDown();
+        });
+        rebuild.start();
+        await(loading);
+        Thread add = new Thread(() -> filter.add("revoked-jti"));
+        add.start();
+        await(addInProgress);
+        releaseLoader.countDown();
+        rebuild.join(5000);
+        add.join(5000);
+
+        // Then
+        assertThat(filter.isReady()).isTrue();
+        assertThat(filter.mightBeRevoked("revoked-jti")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve manter a taxa de falsos positivos próxima da taxa alvo")
+    void shouldKeepFalsePositiveRateNearTarget() {
+        // Given
+        RevokedTokenFilter filter = new RevokedTokenFilter(true, 10000, 0.01);
+        filter.rebuild(sink -> IntStream.range(0, 10000).forEach(i -> sink.accept("revoked-" + i)));
+
+        // When
+        long falsePositives = IntStream.range(0, 20000)
+                .filter(i -> filter.mightBeRevoked("active-" + i))
+                .count();
+
+        // Then - margem folgada sobre a taxa alvo de 1%
+        assertThat(falsePositives / 20000.0).isLessThan(0.03);
+    }
+
+    @Test
+    @DisplayName("Deve dimensionar o filtro pela fórmula ótima")
+    void shouldSizeFilterWithOptimalFormula() {
+        // When
+        long bits = BloomFilter.optimalBitCount(100000, 0.001);
+        int hashFunctions = BloomFilter.optimalHashFunctions(100000, bits);
+
+        // Then - aproximadamente 14,4 bits por elemento e 10 funções de hash
+        assertThat(bits).isBetween(1_430_000L, 1_450_000L);
+        assertThat(hashFunctions).isEqualTo(10);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.sistema.security;
+
+import com.sistema.entity.User;
+import com.sistema.entity.UserRole;
+import com.sistema.service.UserSecurityVersionService;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitários para StatelessPrincipalResolver
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StatelessPrincipalResolver Tests")
+class StatelessPrincipalResolverTest {
+
+    @Mock
+    private UserSecurityVersionService userSecurityVersionService;
+
+    private VerifiedToken accessToken(Long securityVersion) {
+        return VerifiedToken.of("header.payload.signature", Jwts.claims()
+                .subject("admin@example.com")
+                .expiration(new Date(System.currentTimeMillis() + 60000))
+                .add("type", "access")
+                .add("userId", 7L)
+                .add("roles", List.of("ROLE_ADMIN"))
+                .add("fullName", "Admin User")
+                .add(VerifiedToken.SECURITY_VERSION_CLAIM, securityVersion)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Deve montar principal a partir dos claims quando habilitado")
+    void shouldBuildPrincipalFromClaimsWhenEnabled() {
+        // Given
+        StatelessPrincipalResolver resolver = new StatelessPrincipalResolver(true, userSecurityVersionService);
+
+        // When
+        User principal = resolver.resolve(accessToken(2L));
+
+        // Then
+        assertThat(principal).isNotNull();
+        assertThat(principal.getId()).isEqualTo(7L);
+        assertThat(principal.getUsername()).isEqualTo("admin@example.com");
+        assertThat(principal.getRole()).isEqualTo(UserRole.ADMIN);
+        assertThat(principal.getAuthorities()).extracting("authority").containsExactly("ROLE_ADMIN");
+        assertThat(principal.isEnabled()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Não deve montar principal quando desabilitado")
+    void shouldNotBuildPrincipalWhenDisabled() {
+        // Given
+        StatelessPrincipalResolver resolver = new StatelessPrincipalResolver(false, userSecurityVersionService);
+
+        // When / Then
+        assertThat(resolver.resolve(accessToken(2L))).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve detectar token com versão de segurança desatualizada")
+    void shouldDetectStaleSecurityVersion() {
+        // Given
+        StatelessPrincipalResolver resolver = new StatelessPrincipalResolver(true, userSecurityVersionService);
+        when(userSecurityVersionService.isCurrentVersion(7L, 1L)).thenReturn(false);
+        when(userSecurityVersionService.isCurrentVersion(7L, 2L)).thenReturn(true);
+
+        // When / Then
+        assertThat(resolver.isSecurityVersionStale(accessToken(1L))).isTrue();
+        assertThat(resolver.isSecurityVersionStale(accessToken(2L))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Não deve considerar desatualizado token sem versão de segurança")
+    void shouldNotTreatTokenWithoutVersionAsStale() {
+        // Given
+        StatelessPrincipalResolver resolver = new StatelessPrincipalResolver(true, userSecurityVersionService);
+
+        // When
+        boolean stale = resolver.isSecurityVersionStale(accessToken(null));
+
+        // Then
+        assertThat(stale).isFalse();
+        assertThat(resolver.resolve(accessToken(null))).isNull();
+        verifyNoInteractions(userSecurityVersionService);
+    }
+}
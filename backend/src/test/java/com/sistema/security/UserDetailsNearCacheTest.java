@@ -0,0 +1,146 @@
+package com.sistema.security;
+
+import com.sistema.entity.User;
+import com.sistema.entity.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Testes unitários para UserDetailsNearCache
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserDetailsNearCache Tests")
+class UserDetailsNearCacheTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private UserDetailsNearCache nearCache;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        nearCache = new UserDetailsNearCache(true, 100, 30);
+        nearCache.setRedisTemplate(redisTemplate);
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("encodedPassword");
+        testUser.setRole(UserRole.USER);
+    }
+
+    @Test
+    @DisplayName("Deve retornar usuário armazenado ignorando caixa do email")
+    void shouldReturnCachedUserIgnoringEmailCase() {
+        // When
+        nearCache.put(testUser);
+
+        // Then
+        User cached = nearCache.get("Test@Example.com");
+        assertThat(cached).isNotNull().isNotSameAs(testUser);
+        assertThat(cached.getId()).isEqualTo(1L);
+        assertThat(cached.getEmail()).isEqualTo("test@example.com");
+        assertThat(cached.getPassword()).isEqualTo("encodedPassword");
+        assertThat(cached.getRole()).isEqualTo(UserRole.USER);
+    }
+
+    @Test
+    @DisplayName("Não deve refletir alterações na entidade nem em cópias já retornadas")
+    void shouldIsolateCachedSnapshotFromEntityAndReturnedCopies() {
+        // Given
+        nearCache.put(testUser);
+
+        // When
+        testUser.setPassword("changedPassword");
+        nearCache.get("test@example.com").setEnabled(false);
+
+        // Then
+        User cached = nearCache.get("test@example.com");
+        assertThat(cached.getPassword()).isEqualTo("encodedPassword");
+        assertThat(cached.isEnabled()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve repetir a invalidação após o commit da transação")
+    void shouldInvalidateAgainAfterCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            nearCache.put(testUser);
+            nearCache.invalidate("test@example.com");
+            // Leitura concorrente da linha ainda não confirmada volta a preencher o cache
+            nearCache.put(testUser);
+
+            // When
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertThat(nearCache.get("test@example.com")).isNull();
+        verify(redisTemplate, times(2))
+                .convertAndSend(UserDetailsNearCache.INVALIDATION_CHANNEL, "test@example.com");
+    }
+
+    @Test
+    @DisplayName("Deve invalidar localmente e publicar invalidação")
+    void shouldInvalidateLocallyAndPublish() {
+        // Given
+        nearCache.put(testUser);
+
+        // When
+        nearCache.invalidate("test@example.com");
+
+        // Then
+        assertThat(nearCache.get("test@example.com")).isNull();
+        verify(redisTemplate).convertAndSend(UserDetailsNearCache.INVALIDATION_CHANNEL, "test@example.com");
+    }
+
+    @Test
+    @DisplayName("Deve invalidar ao receber mensagem de outra instância")
+    void shouldInvalidateOnRemoteMessage() {
+        // Given
+        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+        doReturn(serializer).when(redisTemplate).getValueSerializer();
+        nearCache.put(testUser);
+
+        // When
+        nearCache.onMessage(new DefaultMessage(
+                UserDetailsNearCache.INVALIDATION_CHANNEL.getBytes(),
+                serializer.serialize("test@example.com")), null);
+
+        // Then
+        assertThat(nearCache.get("test@example.com")).isNull();
+    }
+
+    @Test
+    @DisplayName("Não deve armazenar nada quando desabilitado")
+    void shouldNotCacheWhenDisabled() {
+        // Given
+        UserDetailsNearCache disabled = new UserDetailsNearCache(false, 100, 30);
+
+        // When
+        disabled.put(testUser);
+
+        // Then
+        assertThat(disabled.get("test@example.com")).isNull();
+    }
+}
@@ -0,0 +1,147 @@
+package com.sistema.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Testes unitários para UserRevocationEpochs
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserRevocationEpochs Tests")
+class UserRevocationEpochsTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private UserRevocationEpochs epochs;
+
+    @BeforeEach
+    void setUp() {
+        epochs = new UserRevocationEpochs(true);
+        epochs.setRedisTemplate(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Não deve estar pronta antes da primeira carga")
+    void shouldNotBeReadyBeforeFirstLoad() {
+        assertThat(epochs.isReady()).isFalse();
+
+        // When
+        epochs.rebuild(sink -> { });
+
+        // Then
+        assertThat(epochs.isReady()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve registrar localmente e publicar a revogação")
+    void shouldRecordLocallyAndPublish() {
+        // When
+        epochs.record("user@example.com", 1000L);
+
+        // Then
+        assertThat(epochs.getEpoch("user@example.com")).isEqualTo(1000L);
+        verify(redisTemplate).convertAndSend(UserRevocationEpochs.REVOCATION_CHANNEL, "1000:user@example.com");
+    }
+
+    @Test
+    @DisplayName("Deve aplicar revogação recebida de outra instância mantendo a mais recente")
+    void shouldApplyRemoteRevocationKeepingLatest() {
+        // Given
+        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+        doReturn(serializer).when(redisTemplate).getValueSerializer();
+        epochs.rebuild(sink -> sink.accept("user@example.com", 2000L));
+
+        // When
+        epochs.onMessage(new DefaultMessage(UserRevocationEpochs.REVOCATION_CHANNEL.getBytes(),
+                serializer.serialize("1000:user@example.com")), null);
+        epochs.onMessage(new DefaultMessage(UserRevocationEpochs.REVOCATION_CHANNEL.getBytes(),
+                serializer.serialize("3000:other@example.com")), null);
+
+        // Then
+        assertThat(epochs.getEpoch("user@example.com")).isEqualTo(2000L);
+        assertThat(epochs.getEpoch("other@example.com")).isEqualTo(3000L);
+    }
+
+    @Test
+    @DisplayName("Deve manter a tabela atual quando a recarga falha")
+    void shouldKeepCurrentTableWhenRebuildFails() {
+        // Given
+        epochs.rebuild(sink -> sink.accept("user@example.com", 1000L));
+
+        // When
+        boolean rebuilt = epochs.rebuild(sink -> {
+            throw new IllegalStateException("Redis indisponível");
+        });
+
+        // Then
+        assertThat(rebuilt).isFalse();
+        assertThat(epochs.getEpoch("user@example.com")).isEqualTo(1000L);
+    }
+
+    @Test
+    @DisplayName("Não deve perder época recebida quando a recarga termina durante a gravação")
+    void shouldKeepEpochRecordedWhileRebuildCompletes() throws Exception {
+        // Given - a gravação na tabela atual só prossegue depois que a recarga termina
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch recordInProgress = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        CountDownLatch rebuilt = new CountDownLatch(1);
+        ReflectionTestUtils.setField(epochs, "epochs", new ConcurrentHashMap<String, Long>() {
+            @Override
+            public Long merge(String key, Long value, BiFunction<? super Long, ? super Long, ? extends Long> function) {
+                recordInProgress.countDown();
+                await(rebuilt);
+                return super.merge(key, value, function);
+            }
+        });
+
+        // When - a fonte foi lida antes de a época chegar ao Redis
+        Thread rebuild = new Thread(() -> {
+            epochs.rebuild(sink -> {
+                loading.countDown();
+                await(releaseLoader);
+            });
+            rebuilt.countDown();
+        });
+        rebuild.start();
+        await(loading);
+        Thread record = new Thread(() -> epochs.record("user@example.com", 5000L));
+        record.start();
+        await(recordInProgress);
+        releaseLoader.countDown();
+        rebuild.join(5000);
+        record.join(5000);
+
+        // Then
+        assertThat(epochs.isReady()).isTrue();
+        assertThat(epochs.getEpoch("user@example.com")).isEqualTo(5000L);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
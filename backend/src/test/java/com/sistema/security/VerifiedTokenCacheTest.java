@@ -0,0 +1,83 @@
+package com.sistema.security;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitários para VerifiedTokenCache
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@DisplayName("VerifiedTokenCache Tests")
+class VerifiedTokenCacheTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    private VerifiedToken tokenExpiringIn(long millis) {
+        return VerifiedToken.of(TOKEN, Jwts.claims()
+                .subject("test@example.com")
+                .expiration(new Date(System.currentTimeMillis() + millis))
+                .build());
+    }
+
+    @Test
+    @DisplayName("Deve retornar token armazenado quando habilitado")
+    void shouldReturnCachedTokenWhenEnabled() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, 300);
+        VerifiedToken verifiedToken = tokenExpiringIn(60000);
+
+        // When
+        cache.put(verifiedToken);
+
+        // Then
+        assertThat(cache.get(TOKEN)).isSameAs(verifiedToken);
+        assertThat(cache.get("other.token.value")).isNull();
+    }
+
+    @Test
+    @DisplayName("Não deve armazenar nada quando desabilitado")
+    void shouldNotCacheWhenDisabled() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(false, 100, 300);
+
+        // When
+        cache.put(tokenExpiringIn(60000));
+
+        // Then
+        assertThat(cache.get(TOKEN)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Não deve servir token após sua expiração")
+    void shouldNotServeTokenAfterItsExpiration() throws InterruptedException {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, 300);
+        cache.put(tokenExpiringIn(50));
+
+        // When
+        Thread.sleep(100);
+
+        // Then
+        assertThat(cache.get(TOKEN)).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve remover token invalidado")
+    void shouldRemoveInvalidatedToken() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(true, 100, 300);
+        cache.put(tokenExpiringIn(60000));
+
+        // When
+        cache.invalidate(TOKEN);
+
+        // Then
+        assertThat(cache.get(TOKEN)).isNull();
+    }
+}
@@ -0,0 +1,180 @@
+package com.sistema.service;
+
+import com.sistema.service.interfaces.AttemptControlOperations;
+import com.sistema.service.ratelimit.AttemptRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para AttemptService com o registro consolidado de tentativas habilitado
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AttemptService com AttemptRecord Tests")
+class AttemptServiceAttemptRecordTest {
+
+    private static final String IP = "192.168.1.1";
+    private static final String CPF = "12345678901";
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    private AttemptService attemptService;
+
+    @BeforeEach
+    void setUp() {
+        attemptService = new AttemptService();
+        ReflectionTestUtils.setField(attemptService, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(attemptService, "attemptRecordEnabled", true);
+    }
+
+    @Test
+    @DisplayName("Deve incrementar o campo do tipo com a sua própria janela de expiração")
+    void shouldIncrementFieldWithItsOwnExpiryWindow() {
+        // Given
+        when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class), any(),
+                eq(List.of("attempts:" + IP)), anyString(), anyString(), anyString(), anyString(),
+                anyString(), anyString(), anyString(), anyString())).thenReturn(2L);
+
+        // When
+        int attempts = attemptService.recordLoginAttempt(IP);
+
+        // Then
+        assertThat(attempts).isEqualTo(2);
+        verify(redisTemplate).execute(any(RedisScript.class), any(RedisSerializer.class), any(),
+                eq(List.of("attempts:" + IP)), matches("\\d+"), eq("1800000"), eq("3"), eq("1"),
+                eq("login"), eq("captcha:login"), eq("expires:login"), eq("1"));
+    }
+
+    @Test
+    @DisplayName("Deve exigir captcha pela marcação gravada no registro")
+    void shouldRequireCaptchaFromRecordFlag() {
+        // Given - contador abaixo do limite, mas o tipo já foi marcado
+        mockRecord(Map.of(
+                "login", "1",
+                AttemptRecord.captchaField("login"), "1",
+                AttemptRecord.expiryField("login"), future()));
+
+        // When & Then
+        assertThat(attemptService.isCaptchaRequiredForLogin(IP)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve ignorar tipo com janela vencida sem afetar os demais tipos")
+    void shouldIgnoreExpiredTypeWithoutAffectingOthers() {
+        // Given - login venceu; password_reset segue válido no mesmo hash
+        mockRecord(Map.of(
+                "login", "5",
+                AttemptRecord.captchaField("login"), "1",
+                AttemptRecord.expiryField("login"), past(),
+                "password_reset", "3",
+                AttemptRecord.captchaField("password_reset"), "1",
+                AttemptRecord.expiryField("password_reset"), future()));
+
+        // When & Then
+        assertThat(attemptService.isCaptchaRequiredForLogin(IP)).isFalse();
+        assertThat(attemptService.getLoginAttempts(IP)).isZero();
+        assertThat(attemptService.isCaptchaRequiredForPasswordReset(IP)).isTrue();
+        assertThat(attemptService.getPasswordResetAttempts(IP)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Deve calcular tentativas restantes com um único HGETALL")
+    void shouldComputeRemainingAttemptsWithSingleRead() {
+        // Given
+        mockRecord(Map.of("login", "1", AttemptRecord.expiryField("login"), future()));
+
+        // When
+        int remaining = attemptService.getRemainingAttempts(IP);
+
+        // Then
+        assertThat(remaining).isEqualTo(2);
+        verify(redisTemplate, times(1)).execute(any(RedisCallback.class));
+    }
+
+    @Test
+    @DisplayName("Não deve restar tentativas para tipo marcado com captcha")
+    void shouldHaveNoRemainingAttemptsWhenFlagged() {
+        // Given
+        mockRecord(Map.of(
+                "cpf_error", "1",
+                AttemptRecord.captchaField("cpf_error"), "1",
+                AttemptRecord.expiryField("cpf_error"), future()));
+
+        // When & Then
+        assertThat(attemptService.getRemainingCpfAttempts(CPF)).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve montar as estatísticas com um único HGETALL, incluindo as marcações")
+    void shouldBuildStatisticsFromSingleRead() {
+        // Given
+        mockRecord(Map.of(
+                "login", "1",
+                AttemptRecord.captchaField("login"), "1",
+                AttemptRecord.expiryField("login"), future(),
+                "password_reset", "2",
+                AttemptRecord.expiryField("password_reset"), future()));
+
+        // When
+        AttemptControlOperations.AttemptStatistics statistics = attemptService.getAttemptStatistics(IP);
+
+        // Then
+        assertThat(statistics.getLoginAttempts()).isEqualTo(1);
+        assertThat(statistics.getOperationAttempts()).isEqualTo(2);
+        assertThat(statistics.isLoginCaptchaRequired()).isTrue();
+        assertThat(statistics.isOperationCaptchaRequired()).isFalse();
+        verify(redisTemplate, times(1)).execute(any(RedisCallback.class));
+    }
+
+    @Test
+    @DisplayName("Deve remover contador, marcação e expiração do tipo ao limpar as tentativas")
+    void shouldClearCounterFlagAndExpiryFields() {
+        // Given
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+
+        // When
+        attemptService.clearLoginAttempts(IP);
+
+        // Then
+        verify(hashOperations).delete("attempts:" + IP, "login", "captcha:login", "expires:login");
+        verify(redisTemplate, never()).delete(anyString());
+    }
+
+    private void mockRecord(Map<String, String> fields) {
+        Map<byte[], byte[]> raw = new HashMap<>();
+        fields.forEach((field, value) -> raw.put(field.getBytes(StandardCharsets.UTF_8),
+                value.getBytes(StandardCharsets.US_ASCII)));
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn(raw);
+    }
+
+    private static String future() {
+        return String.valueOf(System.currentTimeMillis() + 600_000);
+    }
+
+    private static String past() {
+        return String.valueOf(System.currentTimeMillis() - 1);
+    }
+}
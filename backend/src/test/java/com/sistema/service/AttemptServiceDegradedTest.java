@@ -0,0 +1,73 @@
+package com.sistema.service;
+
+import com.sistema.service.resilience.RedisCircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para AttemptService com o circuit breaker do Redis
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AttemptService - Redis degradado Tests")
+class AttemptServiceDegradedTest {
+
+    private static final String IP = "192.168.1.1";
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    @Mock
+    private RedisCircuitBreaker circuitBreaker;
+
+    private AttemptService attemptService;
+
+    @BeforeEach
+    void setUp() {
+        attemptService = new AttemptService();
+        ReflectionTestUtils.setField(attemptService, "redisTemplate", redisTemplate);
+        attemptService.setCircuitBreaker(circuitBreaker);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @DisplayName("Deve gravar o rate limiting de recuperação de senha pelo circuit breaker")
+    void shouldRecordPasswordResetThroughCircuitBreaker() {
+        // Given
+        when(circuitBreaker.tryAcquirePermission()).thenReturn(true);
+
+        // When
+        attemptService.recordPasswordResetSuccess(IP);
+
+        // Then
+        verify(valueOperations).set("password_reset_rate_limit:" + IP, "true", Duration.ofMinutes(1));
+        verify(circuitBreaker).onSuccess(anyLong());
+    }
+
+    @Test
+    @DisplayName("Não deve acessar o Redis ao registrar recuperação de senha com o circuito aberto")
+    void shouldSkipPasswordResetWriteWhenCircuitIsOpen() {
+        // Given
+        when(circuitBreaker.tryAcquirePermission()).thenReturn(false);
+
+        // When & Then
+        assertThatCode(() -> attemptService.recordPasswordResetSuccess(IP)).doesNotThrowAnyException();
+        verifyNoInteractions(redisTemplate);
+    }
+}
@@ -0,0 +1,107 @@
+package com.sistema.service;
+
+import com.sistema.entity.UserRole;
+import com.sistema.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes do cache de estatísticas de usuários do AuthService, pelo proxy de cache do Spring
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@DisplayName("AuthService - Cache de estatísticas Tests")
+class AuthServiceStatisticsCacheTest {
+
+    private AnnotationConfigApplicationContext context;
+    private AuthService authService;
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext(CachingConfig.class);
+        authService = context.getBean(AuthService.class);
+        userRepository = context.getBean(UserRepository.class);
+        when(userRepository.count()).thenReturn(4L);
+        when(userRepository.countByEnabledTrue()).thenReturn(3L);
+        when(userRepository.countByRole(UserRole.ADMIN)).thenReturn(1L);
+        when(userRepository.countByRole(UserRole.USER)).thenReturn(3L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Deve servir as estatísticas do cache na segunda consulta")
+    void shouldServeStatisticsFromCache() {
+        // When
+        Map<String, Object> first = authService.getUserStatisticsAsMap();
+        Map<String, Object> second = authService.getUserStatisticsAsMap();
+
+        // Then
+        assertThat(first.get("totalUsers")).isEqualTo(4L);
+        assertThat(second).isEqualTo(first);
+        verify(userRepository, times(1)).count();
+    }
+
+    @Test
+    @DisplayName("Deve recalcular as estatísticas após alterar o status de um usuário")
+    void shouldEvictStatisticsOnUserStatusChange() {
+        // Given
+        authService.getUserStatisticsAsMap();
+
+        // When
+        authService.setUserEnabled(1L, false);
+        authService.getUserStatisticsAsMap();
+
+        // Then
+        verify(userRepository, times(2)).count();
+    }
+
+    @Configuration
+    @EnableCaching(proxyTargetClass = true)
+    static class CachingConfig {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(AuthService.USER_STATISTICS_CACHE);
+        }
+
+        @Bean
+        UserRepository userRepository() {
+            return mock(UserRepository.class);
+        }
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return mock(PasswordEncoder.class);
+        }
+
+        @Bean
+        AuthenticationManager authenticationManager() {
+            return mock(AuthenticationManager.class);
+        }
+
+        @Bean
+        AuthService authService() {
+            return new AuthService(mock(JwtService.class), mock(RefreshTokenService.class),
+                    mock(EmailVerificationService.class));
+        }
+    }
+}
@@ -291,6 +291,23 @@ class AuthServiceTest {
         verify(userRepository).save(testUser);
     }
 
+    @Test
+    @DisplayName("Should not change password when security version bump fails")
+    void changePassword_BumpFails_PasswordUnchanged() {
+        // Given
+        UserSecurityVersionService userSecurityVersionService = mock(UserSecurityVersionService.class);
+        authService.setUserSecurityVersionService(userSecurityVersionService);
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("currentPassword", "encodedPassword")).thenReturn(true);
+        when(userSecurityVersionService.bumpVersion(1L)).thenThrow(new RuntimeException("Redis indisponível"));
+
+        // When & Then
+        assertThatThrownBy(() -> authService.changePassword("test@example.com", "currentPassword", "newPassword"))
+                .isInstanceOf(RuntimeException.class);
+        verify(userRepository, never()).save(any(User.class));
+        assertThat(testUser.getPassword()).isEqualTo("encodedPassword");
+    }
+
     @Test
     @DisplayName("Should throw exception when current password is incorrect")
     void changePassword_IncorrectCurrentPassword() {
@@ -328,6 +345,20 @@ class AuthServiceTest {
         verify(userRepository).updateUserStatus(1L, false);
     }
 
+    @Test
+    @DisplayName("Should bump security version when user status changes")
+    void setUserEnabled_BumpsSecurityVersion() {
+        // Given
+        UserSecurityVersionService userSecurityVersionService = mock(UserSecurityVersionService.class);
+        authService.setUserSecurityVersionService(userSecurityVersionService);
+
+        // When
+        authService.setUserEnabled(1L, false);
+
+        // Then
+        verify(userSecurityVersionService).bumpVersion(1L);
+    }
+
     @Test
     @DisplayName("Should find user by ID")
     void findById_Success() {
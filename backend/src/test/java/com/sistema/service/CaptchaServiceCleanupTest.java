@@ -0,0 +1,103 @@
+package com.sistema.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para a limpeza de captchas vencidos do CaptchaService
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CaptchaService - Cleanup Tests")
+class CaptchaServiceCleanupTest {
+
+    private static final String CAPTCHA_KEY_PREFIX = "captcha:";
+    private static final String CAPTCHA_INDEX = "stats:captcha";
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ZSetOperations<String, Object> zSetOperations;
+
+    private CaptchaService captchaService;
+
+    @BeforeEach
+    void setUp() {
+        captchaService = new CaptchaService();
+        ReflectionTestUtils.setField(captchaService, "redisTemplate", redisTemplate);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+    }
+
+    @Test
+    @DisplayName("Should cleanup expired captchas")
+    void cleanupExpiredCaptchas_Success() {
+        // Given
+        Set<Object> expiredIds = new LinkedHashSet<>(List.of("captcha1", "captcha2", "captcha3"));
+        when(zSetOperations.rangeByScore(eq(CAPTCHA_INDEX), eq(Double.NEGATIVE_INFINITY), anyDouble(), eq(0L), anyLong()))
+                .thenReturn(expiredIds);
+        when(zSetOperations.remove(eq(CAPTCHA_INDEX), any(Object[].class))).thenReturn(3L);
+
+        // When
+        long result = captchaService.cleanupExpiredCaptchas();
+
+        // Then
+        assertThat(result).isEqualTo(3);
+        verify(redisTemplate).unlink(List.of(
+                CAPTCHA_KEY_PREFIX + "captcha1",
+                CAPTCHA_KEY_PREFIX + "captcha2",
+                CAPTCHA_KEY_PREFIX + "captcha3"));
+        verify(redisTemplate, never()).scan(any(ScanOptions.class));
+        verify(redisTemplate, never()).keys(anyString());
+    }
+
+    @Test
+    @DisplayName("Should not cleanup non-expired captchas")
+    void cleanupExpiredCaptchas_NonExpired_NoCleanup() {
+        // Given - captchas ativos têm score no futuro e não entram no intervalo vencido
+        when(zSetOperations.rangeByScore(eq(CAPTCHA_INDEX), eq(Double.NEGATIVE_INFINITY), anyDouble(), eq(0L), anyLong()))
+                .thenReturn(Collections.emptySet());
+
+        // When
+        long result = captchaService.cleanupExpiredCaptchas();
+
+        // Then
+        assertThat(result).isEqualTo(0);
+        verify(redisTemplate, never()).unlink(anyCollection());
+        verify(redisTemplate, never()).delete(anyString());
+        verify(zSetOperations, never()).remove(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Should not cleanup when no captchas exist")
+    void cleanupExpiredCaptchas_NoKeys_NoCleanup() {
+        // Given
+        when(zSetOperations.rangeByScore(eq(CAPTCHA_INDEX), eq(Double.NEGATIVE_INFINITY), anyDouble(), eq(0L), anyLong()))
+                .thenReturn(null);
+
+        // When
+        long result = captchaService.cleanupExpiredCaptchas();
+
+        // Then
+        assertThat(result).isEqualTo(0);
+        verify(redisTemplate, never()).unlink(anyCollection());
+        verify(redisTemplate, never()).delete(anyString());
+    }
+}
@@ -0,0 +1,153 @@
+package com.sistema.service;
+
+import com.sistema.service.captcha.CaptchaTokenSealer;
+import com.sistema.service.resilience.LocalCaptchaStore;
+import com.sistema.service.resilience.RedisCircuitBreaker;
+import com.sistema.util.SecurityUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para CaptchaService no modo sem estado (captchas selados)
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CaptchaService - Captchas selados Tests")
+class CaptchaServiceSealedTest {
+
+    private static final String ANSWER = "AB3XY";
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    @Mock
+    private RedisCircuitBreaker circuitBreaker;
+
+    private CaptchaService captchaService;
+    private String captchaId;
+    private String usedKey;
+
+    @BeforeEach
+    void setUp() {
+        CaptchaTokenSealer sealer = new CaptchaTokenSealer(true, "segredo-compartilhado");
+        captchaId = sealer.seal(HexFormat.of().parseHex(SecurityUtils.hashSHA256(ANSWER.toLowerCase())),
+                Instant.now().plus(Duration.ofMinutes(10)));
+        usedKey = "captcha_used:" + sealer.open(captchaId).getId();
+
+        captchaService = new CaptchaService();
+        ReflectionTestUtils.setField(captchaService, "redisTemplate", redisTemplate);
+        captchaService.setTokenSealer(sealer);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @DisplayName("Deve aceitar o captcha selado apenas na primeira validação")
+    void shouldRejectSecondValidationOfSameSealedId() {
+        // Given
+        when(valueOperations.setIfAbsent(eq(usedKey), eq(1), any(Duration.class))).thenReturn(true, false);
+
+        // When
+        boolean first = captchaService.validateCaptcha(captchaId, ANSWER);
+        boolean second = captchaService.validateCaptcha(captchaId, ANSWER);
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        verify(valueOperations, times(2)).setIfAbsent(eq(usedKey), eq(1), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("Não deve registrar uso do captcha selado com resposta incorreta")
+    void shouldNotMarkSealedIdUsedOnWrongAnswer() {
+        // When
+        boolean valid = captchaService.validateCaptcha(captchaId, "ZZZZZ");
+
+        // Then
+        assertThat(valid).isFalse();
+        verifyNoInteractions(valueOperations);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar a validação de um captcha selado já removido")
+    void shouldRejectValidationAfterRemoval() {
+        // Given
+        when(valueOperations.setIfAbsent(eq(usedKey), eq(1), any(Duration.class))).thenReturn(true, false);
+
+        // When
+        boolean removed = captchaService.removeCaptcha(captchaId);
+        boolean valid = captchaService.validateCaptcha(captchaId, ANSWER);
+
+        // Then
+        assertThat(removed).isTrue();
+        assertThat(valid).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve registrar o uso localmente com o circuito aberto, mantendo o uso único")
+    void shouldMarkSealedIdUsedLocallyWhenCircuitOpen() {
+        // Given
+        captchaService.setCircuitBreaker(circuitBreaker);
+        captchaService.setLocalCaptchaStore(new LocalCaptchaStore(100, 10));
+        when(circuitBreaker.isDegraded()).thenReturn(true);
+
+        // When
+        boolean first = captchaService.validateCaptcha(captchaId, ANSWER);
+        boolean second = captchaService.validateCaptcha(captchaId, ANSWER);
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        verify(circuitBreaker, times(2)).recordFallback("captcha");
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve continuar usando o registro local após o fechamento do circuito")
+    void shouldKeepLocalUsageAfterCircuitCloses() {
+        // Given - uso registrado localmente durante a indisponibilidade
+        captchaService.setCircuitBreaker(circuitBreaker);
+        captchaService.setLocalCaptchaStore(new LocalCaptchaStore(100, 10));
+        when(circuitBreaker.isDegraded()).thenReturn(true, false);
+        captchaService.validateCaptcha(captchaId, ANSWER);
+
+        // When - Redis disponível novamente
+        boolean valid = captchaService.validateCaptcha(captchaId, ANSWER);
+
+        // Then
+        assertThat(valid).isFalse();
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve recusar o captcha selado com o circuito aberto e sem armazenamento local")
+    void shouldRejectSealedIdWhenCircuitOpenWithoutLocalStore() {
+        // Given
+        captchaService.setCircuitBreaker(circuitBreaker);
+        when(circuitBreaker.tryAcquirePermission()).thenReturn(false);
+
+        // When
+        boolean valid = captchaService.validateCaptcha(captchaId, ANSWER);
+
+        // Then
+        assertThat(valid).isFalse();
+        verifyNoInteractions(redisTemplate);
+    }
+}
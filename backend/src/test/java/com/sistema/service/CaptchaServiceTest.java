@@ -280,50 +280,6 @@ class CaptchaServiceTest {
         }
     }
 
-    @Nested
-    @DisplayName("Cleanup Tests")
-    class CleanupTests {
-
-        @Test
-        @DisplayName("Should cleanup expired captchas")
-        void cleanupExpiredCaptchas_Success() {
-            // Given
-            Set<String> captchaKeys = Set.of(
-                    CAPTCHA_KEY_PREFIX + "captcha1",
-                    CAPTCHA_KEY_PREFIX + "captcha2",
-                    CAPTCHA_KEY_PREFIX + "captcha3"
-            );
-            when(redisTemplate.keys(CAPTCHA_KEY_PREFIX + "*")).thenReturn(captchaKeys);
-            when(redisTemplate.getExpire(anyString(), eq(TimeUnit.SECONDS))).thenReturn(-1L); // Expired
-
-            // When
-            long result = captchaService.cleanupExpiredCaptchas();
-
-            // Then
-            assertThat(result).isEqualTo(3);
-            verify(redisTemplate).delete(captchaKeys);
-        }
-
-        @Test
-        @DisplayName("Should not cleanup non-expired captchas")
-        void cleanupExpiredCaptchas_NonExpired_NoCleanup() {
-            // Given
-            Set<String> captchaKeys = Set.of(
-                    CAPTCHA_KEY_PREFIX + "captcha1",
-                    CAPTCHA_KEY_PREFIX + "captcha2"
-            );
-            when(redisTemplate.keys(CAPTCHA_KEY_PREFIX + "*")).thenReturn(captchaKeys);
-            when(redisTemplate.getExpire(anyString(), eq(TimeUnit.SECONDS))).thenReturn(300L); // Not expired
-
-            // When
-            long result = captchaService.cleanupExpiredCaptchas();
-
-            // Then
-            assertThat(result).isEqualTo(0);
-            verify(redisTemplate, never()).delete(anyString());
-        }
-    }
-
     @Nested
     @DisplayName("Integration with CaptchaOperations Interface Tests")
     class InterfaceImplementationTests {
@@ -101,7 +101,7 @@ class CookiePersistenceTest {
     void shouldFindValidTokenToAvoidReloginAfterBrowserClose() {
         // Given
         String persistentToken = "persistent-cookie-token-123";
-        when(refreshTokenRepository.findValidByToken(eq(persistentToken), any(LocalDateTime.class)))
+        when(refreshTokenRepository.findValidByToken(eq(RefreshToken.hashToken(persistentToken)), any(LocalDateTime.class)))
                 .thenReturn(Optional.of(testRefreshToken));
         when(refreshTokenRepository.save(any(RefreshToken.class))).thenReturn(testRefreshToken);
 
@@ -115,7 +115,7 @@ class CookiePersistenceTest {
         assertTrue(foundToken.get().getExpiresAt().isAfter(LocalDateTime.now()), 
                   "Token deve estar dentro do prazo de validade");
         
-        verify(refreshTokenRepository).findValidByToken(eq(persistentToken), any(LocalDateTime.class));
+        verify(refreshTokenRepository).findValidByToken(eq(RefreshToken.hashToken(persistentToken)), any(LocalDateTime.class));
         verify(refreshTokenRepository).save(testRefreshToken); // Atualiza lastUsedAt
     }
 
@@ -124,7 +124,7 @@ class CookiePersistenceTest {
     void shouldRejectExpiredTokenForcingNewLogin() {
         // Given
         String expiredToken = "expired-cookie-token-456";
-        when(refreshTokenRepository.findValidByToken(eq(expiredToken), any(LocalDateTime.class)))
+        when(refreshTokenRepository.findValidByToken(eq(RefreshToken.hashToken(expiredToken)), any(LocalDateTime.class)))
                 .thenReturn(Optional.empty()); // Token expirado não é retornado pela query
 
         // When
@@ -133,7 +133,7 @@ class CookiePersistenceTest {
         // Then
         assertFalse(foundToken.isPresent(), "Token expirado não deve ser considerado válido");
         
-        verify(refreshTokenRepository).findValidByToken(eq(expiredToken), any(LocalDateTime.class));
+        verify(refreshTokenRepository).findValidByToken(eq(RefreshToken.hashToken(expiredToken)), any(LocalDateTime.class));
         verify(refreshTokenRepository, never()).save(any()); // Não deve atualizar token inválido
     }
 
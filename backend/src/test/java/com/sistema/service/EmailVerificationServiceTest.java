@@ -3,6 +3,7 @@ package com.sistema.service;
 import com.sistema.entity.User;
 import com.sistema.entity.UserRole;
 import com.sistema.repository.UserRepository;
+import com.sistema.security.UserDetailsNearCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -31,6 +32,9 @@ class EmailVerificationServiceTest {
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private UserDetailsNearCache userDetailsNearCache;
+
     @InjectMocks
     private EmailVerificationService emailVerificationService;
 
@@ -115,6 +119,7 @@ class EmailVerificationServiceTest {
         assertThat(result).isTrue();
         verify(userRepository).findByVerificationToken(token);
         verify(userRepository).save(testUser);
+        verify(userDetailsNearCache).invalidate("test@example.com");
     }
 
     @Test
@@ -3,6 +3,8 @@ package com.sistema.service;
 import com.sistema.config.RSAKeyManager;
 import com.sistema.entity.User;
 import com.sistema.entity.UserRole;
+import com.sistema.security.VerifiedToken;
+import com.sistema.security.VerifiedTokenCache;
 import com.sistema.service.interfaces.TokenOperations;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
@@ -33,6 +35,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.ArgumentMatchers.anyLong;
 
 /**
  * Testes unitários para JwtService
@@ -81,6 +87,22 @@ class JwtServiceTest {
         ReflectionTestUtils.setField(jwtService, "issuer", "sistema-java");
     }
 
+    @Test
+    @DisplayName("Não deve consultar a versão de segurança quando o modo sem estado está desabilitado")
+    void shouldNotReadSecurityVersionWhenStatelessPrincipalIsDisabled() {
+        // Given
+        UserSecurityVersionService userSecurityVersionService = mock(UserSecurityVersionService.class);
+        when(userSecurityVersionService.isEnabled()).thenReturn(false);
+        jwtService.setUserSecurityVersionService(userSecurityVersionService);
+
+        // When
+        String accessToken = jwtService.generateAccessToken(testUser);
+
+        // Then
+        verify(userSecurityVersionService, never()).getCurrentVersion(anyLong());
+        assertThat(jwtService.verifyToken(accessToken).getSecurityVersion()).isNull();
+    }
+
     @Test
     @DisplayName("Deve gerar access token válido para usuário")
     void shouldGenerateValidAccessTokenForUser() {
@@ -157,6 +179,58 @@ class JwtServiceTest {
         assertThat(isValid).isTrue();
     }
 
+    @Test
+    @DisplayName("Deve verificar token uma única vez e expor claims imutáveis")
+    void shouldVerifyTokenOnceAndExposeClaims() {
+        // Given
+        String token = jwtService.generateAccessToken(testUser);
+
+        // When
+        VerifiedToken verifiedToken = jwtService.verifyToken(token);
+
+        // Then
+        assertThat(verifiedToken.getToken()).isEqualTo(token);
+        assertThat(verifiedToken.getSubject()).isEqualTo("test@example.com");
+        assertThat(verifiedToken.getType()).isEqualTo("access");
+        assertThat(verifiedToken.getUserId()).isEqualTo(1L);
+        assertThat(verifiedToken.getRoles()).containsExactly("ROLE_USER");
+        assertThat(verifiedToken.getIssuedAt()).isNotNull();
+        assertThat(verifiedToken.isValidAccessToken()).isTrue();
+        assertThat(verifiedToken.isValidRefreshToken()).isFalse();
+        assertThatThrownBy(() -> verifiedToken.getRoles().add("ROLE_ADMIN"))
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("Deve reutilizar token verificado do cache quando habilitado")
+    void shouldReuseVerifiedTokenFromCacheWhenEnabled() {
+        // Given
+        jwtService.setVerifiedTokenCache(new VerifiedTokenCache(true, 100, 300));
+        String token = jwtService.generateAccessToken(testUser);
+        VerifiedToken first = jwtService.verifyToken(token);
+
+        // When
+        VerifiedToken second = jwtService.verifyToken(token);
+        jwtService.invalidateCachedToken(token);
+        VerifiedToken afterInvalidation = jwtService.verifyToken(token);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(afterInvalidation).isNotSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar verificação de token com assinatura inválida")
+    void shouldRejectVerificationWhenSignatureIsInvalid() {
+        // Given
+        String token = jwtService.generateAccessToken(testUser);
+        String tamperedToken = token.substring(0, token.length() - 10) + "tampered123";
+
+        // When & Then
+        assertThatThrownBy(() -> jwtService.verifyToken(tamperedToken))
+            .isInstanceOf(SignatureException.class);
+    }
+
     @Test
     @DisplayName("Deve rejeitar token quando assinatura é inválida")
     void shouldRejectTokenWhenSignatureIsInvalid() {
@@ -0,0 +1,114 @@
+package com.sistema.service;
+
+import com.sistema.entity.User;
+import com.sistema.entity.UserRole;
+import com.sistema.repository.UserRepository;
+import com.sistema.security.UserDetailsNearCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitários para PasswordResetService
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PasswordResetService Tests")
+class PasswordResetServiceTest {
+
+    private static final String RESET_TOKEN = "valid-reset-token";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private UserSecurityVersionService userSecurityVersionService;
+
+    @Mock
+    private UserDetailsNearCache userDetailsNearCache;
+
+    private PasswordResetService passwordResetService;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        passwordResetService = new PasswordResetService(userRepository, emailService);
+        passwordResetService.setUserSecurityVersionService(userSecurityVersionService);
+        passwordResetService.setUserDetailsNearCache(userDetailsNearCache);
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("oldEncodedPassword");
+        testUser.setRole(UserRole.USER);
+        testUser.setResetPasswordToken(RESET_TOKEN);
+        testUser.setResetPasswordTokenExpiresAt(LocalDateTime.now().plusHours(1));
+    }
+
+    @Test
+    @DisplayName("Deve incrementar a versão de segurança antes de salvar a nova senha")
+    void shouldBumpSecurityVersionBeforeSavingNewPassword() {
+        // Given
+        when(userRepository.findByResetPasswordToken(RESET_TOKEN)).thenReturn(Optional.of(testUser));
+
+        // When
+        boolean reset = passwordResetService.resetPassword(RESET_TOKEN, "newEncodedPassword");
+
+        // Then
+        assertThat(reset).isTrue();
+        assertThat(testUser.getPassword()).isEqualTo("newEncodedPassword");
+        InOrder order = inOrder(userSecurityVersionService, userRepository);
+        order.verify(userSecurityVersionService).bumpVersion(1L);
+        order.verify(userRepository).save(testUser);
+    }
+
+    @Test
+    @DisplayName("Deve remover o usuário do near-cache após redefinir a senha")
+    void shouldInvalidateNearCacheAfterPasswordReset() {
+        // Given
+        when(userRepository.findByResetPasswordToken(RESET_TOKEN)).thenReturn(Optional.of(testUser));
+
+        // When
+        passwordResetService.resetPassword(RESET_TOKEN, "newEncodedPassword");
+
+        // Then
+        InOrder order = inOrder(userRepository, userDetailsNearCache);
+        order.verify(userRepository).save(testUser);
+        order.verify(userDetailsNearCache).invalidate("test@example.com");
+    }
+
+    @Test
+    @DisplayName("Não deve alterar a senha quando a versão de segurança não pode ser incrementada")
+    void shouldNotResetPasswordWhenSecurityVersionBumpFails() {
+        // Given
+        when(userRepository.findByResetPasswordToken(RESET_TOKEN)).thenReturn(Optional.of(testUser));
+        when(userSecurityVersionService.bumpVersion(1L)).thenThrow(new RuntimeException("Redis indisponível"));
+
+        // When
+        boolean reset = passwordResetService.resetPassword(RESET_TOKEN, "newEncodedPassword");
+
+        // Then
+        assertThat(reset).isFalse();
+        assertThat(testUser.getPassword()).isEqualTo("oldEncodedPassword");
+        verify(userRepository, never()).save(any(User.class));
+        verify(userDetailsNearCache, never()).invalidate(anyString());
+    }
+}
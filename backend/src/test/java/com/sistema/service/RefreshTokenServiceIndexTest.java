@@ -0,0 +1,152 @@
+package com.sistema.service;
+
+import com.sistema.entity.RefreshToken;
+import com.sistema.entity.User;
+import com.sistema.repository.RefreshTokenRepository;
+import com.sistema.repository.UserRepository;
+import com.sistema.service.refreshtoken.IndexedRefreshToken;
+import com.sistema.service.refreshtoken.RefreshTokenIndex;
+import com.sistema.service.refreshtoken.RefreshTokenLastUsedWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para RefreshTokenService com o índice de validação no Redis habilitado
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RefreshTokenService com índice Tests")
+class RefreshTokenServiceIndexTest {
+
+    private static final String TOKEN = "valid-token-123";
+    private static final String TOKEN_HASH = RefreshToken.hashToken(TOKEN);
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RefreshTokenIndex refreshTokenIndex;
+
+    @Mock
+    private RefreshTokenLastUsedWriter lastUsedWriter;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(7L);
+        user.setEmail("test@example.com");
+        refreshTokenService.setRefreshTokenIndex(refreshTokenIndex);
+        lenient().when(refreshTokenIndex.isEnabled()).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Deve validar o token pelo índice sem consultar a tabela refresh_tokens")
+    void shouldServeValidTokenFromIndex() {
+        // Given
+        IndexedRefreshToken entry = new IndexedRefreshToken(42L, 7L, LocalDateTime.now().plusDays(1), false, 0L);
+        when(refreshTokenIndex.lookup(eq(TOKEN_HASH), any(LocalDateTime.class))).thenReturn(entry);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+
+        // When
+        Optional<RefreshToken> result = refreshTokenService.findValidRefreshToken(TOKEN);
+
+        // Then
+        assertThat(result).isPresent();
+        assertThat(result.get().getId()).isEqualTo(42L);
+        assertThat(result.get().getUser()).isSameAs(user);
+        assertThat(result.get().getTokenHash()).isEqualTo(TOKEN_HASH);
+        verify(refreshTokenRepository, never()).findValidByToken(anyString(), any(LocalDateTime.class));
+        verify(refreshTokenRepository).updateLastUsed(eq(TOKEN_HASH), any(LocalDateTime.class));
+        verify(refreshTokenIndex, never()).index(any(RefreshToken.class), anyLong());
+    }
+
+    @Test
+    @DisplayName("Deve adiar o registro do último uso quando a gravação adiada está habilitada")
+    void shouldDeferLastUsedOnIndexHit() {
+        // Given
+        refreshTokenService.setLastUsedWriter(lastUsedWriter);
+        when(lastUsedWriter.isEnabled()).thenReturn(true);
+        IndexedRefreshToken entry = new IndexedRefreshToken(42L, 7L, LocalDateTime.now().plusDays(1), false, 0L);
+        when(refreshTokenIndex.lookup(eq(TOKEN_HASH), any(LocalDateTime.class))).thenReturn(entry);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+
+        // When
+        refreshTokenService.findValidRefreshToken(TOKEN);
+
+        // Then
+        verify(lastUsedWriter).record(eq(42L), any(LocalDateTime.class));
+        verify(refreshTokenRepository, never()).updateLastUsed(anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar o token revogado segundo o índice sem consultar o banco")
+    void shouldRejectRevokedTokenFromIndex() {
+        // Given
+        IndexedRefreshToken entry = new IndexedRefreshToken(42L, 7L, LocalDateTime.now().plusDays(1), true, 0L);
+        when(refreshTokenIndex.lookup(eq(TOKEN_HASH), any(LocalDateTime.class))).thenReturn(entry);
+
+        // When
+        Optional<RefreshToken> result = refreshTokenService.findValidRefreshToken(TOKEN);
+
+        // Then
+        assertThat(result).isEmpty();
+        verifyNoInteractions(refreshTokenRepository, userRepository);
+    }
+
+    @Test
+    @DisplayName("Deve consultar o banco e reindexar quando o índice não tem resposta confiável")
+    void shouldFallBackToDatabaseAndReindexOnMiss() {
+        // Given
+        RefreshToken stored = new RefreshToken(TOKEN, user, LocalDateTime.now().plusDays(30));
+        stored.setId(42L);
+        when(refreshTokenIndex.lookup(eq(TOKEN_HASH), any(LocalDateTime.class))).thenReturn(null);
+        when(refreshTokenRepository.findValidByToken(eq(TOKEN_HASH), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(stored));
+        long before = System.currentTimeMillis();
+
+        // When
+        Optional<RefreshToken> result = refreshTokenService.findValidRefreshToken(TOKEN);
+
+        // Then - validAsOf é anterior à leitura no banco
+        assertThat(result).containsSame(stored);
+        verify(refreshTokenIndex).index(same(stored), longThat(validAsOf -> validAsOf >= before));
+    }
+
+    @Test
+    @DisplayName("Deve consultar o banco quando o usuário da entrada do índice não existe")
+    void shouldFallBackToDatabaseWhenIndexedUserIsMissing() {
+        // Given
+        IndexedRefreshToken entry = new IndexedRefreshToken(42L, 7L, LocalDateTime.now().plusDays(1), false, 0L);
+        when(refreshTokenIndex.lookup(eq(TOKEN_HASH), any(LocalDateTime.class))).thenReturn(entry);
+        when(userRepository.findById(7L)).thenReturn(Optional.empty());
+        when(refreshTokenRepository.findValidByToken(eq(TOKEN_HASH), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+
+        // When
+        Optional<RefreshToken> result = refreshTokenService.findValidRefreshToken(TOKEN);
+
+        // Then
+        assertThat(result).isEmpty();
+        verify(refreshTokenRepository).findValidByToken(eq(TOKEN_HASH), any(LocalDateTime.class));
+    }
+}
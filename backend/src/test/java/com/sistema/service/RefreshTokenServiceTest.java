@@ -4,6 +4,7 @@ import com.sistema.entity.RefreshToken;
 import com.sistema.entity.User;
 import com.sistema.entity.UserRole;
 import com.sistema.repository.RefreshTokenRepository;
+import com.sistema.service.refreshtoken.RefreshTokenHashMigration;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -104,7 +105,7 @@ class RefreshTokenServiceTest {
         testRefreshToken.setExpiresAt(LocalDateTime.now().plusDays(30));
         testRefreshToken.setIsRevoked(false);
         
-        when(refreshTokenRepository.findValidByToken(eq(tokenValue), any(LocalDateTime.class)))
+        when(refreshTokenRepository.findValidByToken(eq(RefreshToken.hashToken(tokenValue)), any(LocalDateTime.class)))
                 .thenReturn(Optional.of(testRefreshToken));
         when(refreshTokenRepository.save(any(RefreshToken.class)))
                 .thenReturn(testRefreshToken);
@@ -116,7 +117,7 @@ class RefreshTokenServiceTest {
         assertTrue(result.isPresent(), "Token válido deve ser encontrado");
         assertEquals(testRefreshToken, result.get(), "Token retornado deve ser o mesmo");
         
-        verify(refreshTokenRepository).findValidByToken(eq(tokenValue), any(LocalDateTime.class));
+        verify(refreshTokenRepository).findValidByToken(eq(RefreshToken.hashToken(tokenValue)), any(LocalDateTime.class));
         verify(refreshTokenRepository).save(testRefreshToken); // Para atualizar lastUsedAt
     }
 
@@ -126,7 +127,7 @@ class RefreshTokenServiceTest {
         // Given
         String invalidToken = "invalid-token-456";
         
-        when(refreshTokenRepository.findValidByToken(eq(invalidToken), any(LocalDateTime.class)))
+        when(refreshTokenRepository.findValidByToken(eq(RefreshToken.hashToken(invalidToken)), any(LocalDateTime.class)))
                 .thenReturn(Optional.empty());
 
         // When
@@ -135,10 +136,34 @@ class RefreshTokenServiceTest {
         // Then
         assertFalse(result.isPresent(), "Token inválido não deve ser encontrado");
         
-        verify(refreshTokenRepository).findValidByToken(eq(invalidToken), any(LocalDateTime.class));
+        verify(refreshTokenRepository).findValidByToken(eq(RefreshToken.hashToken(invalidToken)), any(LocalDateTime.class));
         verify(refreshTokenRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("Deve encontrar token em texto puro e convertê-lo para hash durante a migração")
+    void shouldFindLegacyPlainTokenAndConvertToHash() {
+        // Given
+        String tokenValue = "legacy-plain-token-789";
+        RefreshTokenHashMigration hashMigration = mock(RefreshTokenHashMigration.class);
+        when(hashMigration.isComplete()).thenReturn(false);
+        refreshTokenService.setHashMigration(hashMigration);
+        testRefreshToken.setTokenHash(tokenValue);
+
+        when(refreshTokenRepository.findValidByToken(eq(RefreshToken.hashToken(tokenValue)), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        when(refreshTokenRepository.findValidByToken(eq(tokenValue), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(testRefreshToken));
+
+        // When
+        Optional<RefreshToken> result = refreshTokenService.findValidRefreshToken(tokenValue);
+
+        // Then
+        assertTrue(result.isPresent(), "Token em texto puro deve ser encontrado durante a migração");
+        assertEquals(RefreshToken.hashToken(tokenValue), result.get().getTokenHash(),
+                "Token deve ser convertido para hash");
+    }
+
     @Test
     @DisplayName("Deve retornar vazio para token nulo ou vazio")
     void shouldReturnEmptyForNullOrEmptyToken() {
@@ -0,0 +1,117 @@
+package com.sistema.service;
+
+import com.sistema.service.resilience.RedisCircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para TokenBlacklistService com o circuit breaker do Redis aberto
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenBlacklistService - Redis degradado Tests")
+class TokenBlacklistServiceDegradedTest {
+
+    private static final String TOKEN = "header.payload.signature";
+    private static final String JTI = "test-jti-123";
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private RedisCircuitBreaker circuitBreaker;
+
+    private TokenBlacklistService tokenBlacklistService;
+
+    @BeforeEach
+    void setUp() {
+        tokenBlacklistService = new TokenBlacklistService();
+        ReflectionTestUtils.setField(tokenBlacklistService, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(tokenBlacklistService, "jwtService", jwtService);
+        ReflectionTestUtils.setField(tokenBlacklistService, "degradedPolicy", "fail-open");
+        tokenBlacklistService.setCircuitBreaker(circuitBreaker);
+
+        // Circuito aberto: nenhuma operação é liberada para o Redis
+        lenient().when(circuitBreaker.isDegraded()).thenReturn(true);
+        lenient().when(circuitBreaker.tryAcquirePermission()).thenReturn(false);
+        lenient().when(jwtService.extractJti(TOKEN)).thenReturn(JTI);
+    }
+
+    @Test
+    @DisplayName("Deve aceitar o token sem consultar o Redis com a política fail-open")
+    void shouldAcceptTokenWhenFailOpen() {
+        // When
+        boolean revoked = tokenBlacklistService.isTokenRevoked(TOKEN);
+
+        // Then
+        assertThat(revoked).isFalse();
+        verify(circuitBreaker).recordFallback("token_blacklist");
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar o token sem consultar o Redis com a política fail-closed")
+    void shouldRejectTokenWhenFailClosed() {
+        // Given
+        ReflectionTestUtils.setField(tokenBlacklistService, "degradedPolicy", "fail-closed");
+
+        // When
+        boolean revoked = tokenBlacklistService.isTokenRevoked(TOKEN);
+
+        // Then
+        assertThat(revoked).isTrue();
+        verify(circuitBreaker).recordFallback("token_blacklist");
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve recusar a revogação de token sem escrever no Redis")
+    void shouldRefuseTokenRevocationWhenCircuitOpen() {
+        // Given
+        when(jwtService.extractExpiration(TOKEN)).thenReturn(new Date(System.currentTimeMillis() + 3_600_000));
+
+        // When
+        boolean result = tokenBlacklistService.revokeToken(TOKEN);
+
+        // Then
+        assertThat(result).isFalse();
+        verifyNoInteractions(redisTemplate);
+        verify(jwtService, never()).invalidateCachedToken(anyString());
+    }
+
+    @Test
+    @DisplayName("Deve recusar a revogação global do usuário sem escrever no Redis")
+    void shouldRefuseUserRevocationWhenCircuitOpen() {
+        // When
+        boolean result = tokenBlacklistService.revokeAllUserTokens("testuser");
+
+        // Then
+        assertThat(result).isFalse();
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve recusar a remoção da blacklist sem acessar o Redis")
+    void shouldRefuseRemovalWhenCircuitOpen() {
+        // When
+        boolean result = tokenBlacklistService.removeFromBlacklist(TOKEN);
+
+        // Then
+        assertThat(result).isFalse();
+        verifyNoInteractions(redisTemplate);
+    }
+}
@@ -1,6 +1,11 @@
 package com.sistema.service;
 
+import com.sistema.security.RevocationStatus;
+import com.sistema.security.RevokedTokenFilter;
+import com.sistema.security.UserRevocationEpochs;
+import com.sistema.security.VerifiedToken;
 import com.sistema.service.interfaces.SecurityOperations;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,12 +16,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -36,6 +43,9 @@ class TokenBlacklistServiceTest {
     @Mock
     private ValueOperations<String, Object> valueOperations;
 
+    @Mock
+    private ZSetOperations<String, Object> zSetOperations;
+
     @Mock
     private JwtService jwtService;
 
@@ -79,8 +89,7 @@ class TokenBlacklistServiceTest {
             verify(valueOperations).set(
                 eq("jwt:blacklist:" + testJti),
                 eq("revoked"),
-                anyLong(),
-                eq(TimeUnit.SECONDS)
+                any(Duration.class)
             );
         }
 
@@ -100,8 +109,7 @@ class TokenBlacklistServiceTest {
             verify(valueOperations).set(
                 eq(expectedKey),
                 eq("revoked"),
-                anyLong(),
-                eq(TimeUnit.SECONDS)
+                any(Duration.class)
             );
         }
 
@@ -117,7 +125,7 @@ class TokenBlacklistServiceTest {
 
             // Then
             assertThat(result).isFalse();
-            verify(valueOperations, never()).set(anyString(), any(), anyLong(), any(TimeUnit.class));
+            verify(valueOperations, never()).set(anyString(), any(), any(Duration.class));
         }
 
         @Test
@@ -195,6 +203,114 @@ class TokenBlacklistServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Verified Token Tests")
+    class VerifiedTokenTests {
+
+        @Test
+        @DisplayName("Deve verificar blacklist usando JTI do token verificado sem nova validação")
+        void shouldCheckBlacklistUsingVerifiedTokenJti() {
+            // Given
+            VerifiedToken verifiedToken = VerifiedToken.of(testToken, Jwts.claims().id(testJti).build());
+            when(redisTemplate.hasKey("jwt:blacklist:" + testJti)).thenReturn(true);
+
+            // When
+            boolean result = tokenBlacklistService.isRevoked(verifiedToken);
+
+            // Then
+            assertThat(result).isTrue();
+            verifyNoInteractions(jwtService);
+        }
+
+        @Test
+        @DisplayName("Deve detectar revogação global usando data de emissão do token verificado")
+        void shouldDetectGlobalRevocationUsingVerifiedTokenIssuedAt() {
+            // Given
+            long revocationTime = System.currentTimeMillis();
+            Date issuedAt = new Date(revocationTime - 60000);
+            VerifiedToken verifiedToken = VerifiedToken.of(testToken, Jwts.claims().issuedAt(issuedAt).build());
+            when(valueOperations.get("jwt:blacklist:user:" + testUsername)).thenReturn(revocationTime);
+
+            // When
+            boolean result = tokenBlacklistService.isGloballyRevoked(verifiedToken, testUsername);
+
+            // Then
+            assertThat(result).isTrue();
+            verifyNoInteractions(jwtService);
+        }
+
+        @Test
+        @DisplayName("Não deve consultar o Redis quando o filtro local responde negativo")
+        void shouldSkipRedisWhenRevocationFilterAnswersNegative() {
+            // Given
+            RevokedTokenFilter revokedTokenFilter = new RevokedTokenFilter(true, 1000, 0.001);
+            revokedTokenFilter.rebuild(sink -> sink.accept("other-jti"));
+            ReflectionTestUtils.setField(tokenBlacklistService, "revokedTokenFilter", revokedTokenFilter);
+            VerifiedToken verifiedToken = VerifiedToken.of(testToken, Jwts.claims().id(testJti).build());
+
+            // When
+            boolean result = tokenBlacklistService.isRevoked(verifiedToken);
+
+            // Then
+            assertThat(result).isFalse();
+            verify(redisTemplate, never()).hasKey(anyString());
+        }
+
+        @Test
+        @DisplayName("Deve verificar blacklist e revogação global em um único MGET")
+        void shouldCheckBlacklistAndGlobalRevocationInSingleMget() {
+            // Given
+            long revocationTime = System.currentTimeMillis();
+            VerifiedToken verifiedToken = VerifiedToken.of(testToken, Jwts.claims()
+                    .id(testJti).issuedAt(new Date(revocationTime - 60000)).build());
+            List<String> keys = List.of("jwt:blacklist:" + testJti, "jwt:blacklist:user:" + testUsername);
+            when(valueOperations.multiGet(keys)).thenReturn(Arrays.asList(null, revocationTime));
+
+            // When
+            RevocationStatus result = tokenBlacklistService.checkRevocation(verifiedToken, testUsername);
+
+            // Then
+            assertThat(result).isEqualTo(RevocationStatus.GLOBALLY_REVOKED);
+            verify(valueOperations, never()).get(anyString());
+            verify(redisTemplate, never()).hasKey(anyString());
+        }
+
+        @Test
+        @DisplayName("Deve retornar ativo quando nenhuma revogação é encontrada")
+        void shouldReturnActiveWhenNothingIsRevoked() {
+            // Given
+            VerifiedToken verifiedToken = VerifiedToken.of(testToken, Jwts.claims()
+                    .id(testJti).issuedAt(new Date()).build());
+            when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList(null, null));
+
+            // When
+            RevocationStatus result = tokenBlacklistService.checkRevocation(verifiedToken, testUsername);
+
+            // Then
+            assertThat(result).isEqualTo(RevocationStatus.ACTIVE);
+            assertThat(result.isRevoked()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Deve usar a tabela local de revogações globais sem consultar o Redis")
+        void shouldUseLocalRevocationEpochsWithoutRedis() {
+            // Given
+            long revocationTime = System.currentTimeMillis();
+            UserRevocationEpochs epochs = new UserRevocationEpochs(true);
+            epochs.rebuild(sink -> sink.accept(testUsername, revocationTime));
+            ReflectionTestUtils.setField(tokenBlacklistService, "userRevocationEpochs", epochs);
+            VerifiedToken revoked = VerifiedToken.of(testToken,
+                    Jwts.claims().issuedAt(new Date(revocationTime - 60000)).build());
+            VerifiedToken otherUser = VerifiedToken.of(testToken,
+                    Jwts.claims().issuedAt(new Date(revocationTime - 60000)).build());
+
+            // When / Then
+            assertThat(tokenBlacklistService.isGloballyRevoked(revoked, testUsername)).isTrue();
+            assertThat(tokenBlacklistService.isGloballyRevoked(otherUser, "otheruser")).isFalse();
+            verify(valueOperations, never()).get(anyString());
+        }
+    }
+
     @Nested
     @DisplayName("Token Removal Tests")
     class TokenRemovalTests {
@@ -354,28 +470,26 @@ class TokenBlacklistServiceTest {
     }
 
     @Test
-    @DisplayName("Deve retornar tamanho da blacklist corretamente")
+    @DisplayName("Deve retornar tamanho da blacklist pelo índice de expiração")
     void shouldReturnBlacklistSizeCorrectly() {
         // Given
-        Set<String> keys = Set.of(
-            "jwt:blacklist:token1",
-            "jwt:blacklist:token2",
-            "jwt:blacklist:user:user1"
-        );
-        when(redisTemplate.keys("jwt:blacklist:*")).thenReturn(keys);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.count(eq("stats:jwt:blacklist"), anyDouble(), eq(Double.POSITIVE_INFINITY)))
+            .thenReturn(3L);
 
         // When
         long size = tokenBlacklistService.getBlacklistSize();
 
         // Then
         assertThat(size).isEqualTo(3);
+        verify(redisTemplate, never()).keys(anyString());
     }
 
     @Test
     @DisplayName("Deve retornar -1 quando erro ocorre ao obter tamanho da blacklist")
     void shouldReturnMinusOneWhenErrorOccursGettingSize() {
         // Given
-        when(redisTemplate.keys("jwt:blacklist:*")).thenThrow(new RuntimeException("Redis error"));
+        when(redisTemplate.opsForZSet()).thenThrow(new RuntimeException("Redis error"));
 
         // When
         long size = tokenBlacklistService.getBlacklistSize();
@@ -399,8 +513,7 @@ class TokenBlacklistServiceTest {
         verify(valueOperations).set(
             eq("jwt:blacklist:" + testJti),
             eq("revoked"),
-            longThat(ttl -> ttl > 0 && ttl <= 3600), // Should be positive and <= 1 hour
-            eq(TimeUnit.SECONDS)
+            argThat((Duration ttl) -> ttl.getSeconds() > 0 && ttl.getSeconds() <= 3600) // Should be positive and <= 1 hour
         );
     }
 
@@ -419,8 +532,7 @@ class TokenBlacklistServiceTest {
         verify(valueOperations).set(
             eq("jwt:blacklist:" + testJti),
             eq("revoked"),
-            eq(86400L), // 24 hours in seconds
-            eq(TimeUnit.SECONDS)
+            eq(Duration.ofSeconds(86400)) // 24 hours in seconds
         );
     }
 
@@ -440,8 +552,7 @@ class TokenBlacklistServiceTest {
         verify(valueOperations).set(
             eq(expectedKey),
             eq("revoked"),
-            anyLong(),
-            eq(TimeUnit.SECONDS)
+            any(Duration.class)
         );
     }
 
@@ -461,8 +572,7 @@ class TokenBlacklistServiceTest {
         verify(valueOperations).set(
             eq(expectedKey),
             eq("revoked"),
-            anyLong(),
-            eq(TimeUnit.SECONDS)
+            any(Duration.class)
         );
     }
 
@@ -660,14 +770,10 @@ class TokenBlacklistServiceTest {
         @DisplayName("Deve obter estatísticas da blacklist")
         void shouldGetBlacklistStatistics() {
             // Given
-            Set<String> blacklistedKeys = Set.of(
-                    "jwt:blacklist:token1",
-                    "jwt:blacklist:token2",
-                    "jwt:blacklist:token3"
-            );
-            when(redisTemplate.keys("jwt:blacklist:*")).thenReturn(blacklistedKeys);
-            when(redisTemplate.getExpire(anyString(), eq(TimeUnit.SECONDS)))
-                    .thenReturn(3600L, 1800L, -1L); // 1 hour, 30 min, expired
+            when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+            when(zSetOperations.zCard("stats:jwt:blacklist")).thenReturn(3L);
+            when(zSetOperations.count(eq("stats:jwt:blacklist"), anyDouble(), eq(Double.POSITIVE_INFINITY)))
+                    .thenReturn(2L);
 
             // When
             var stats = tokenBlacklistService.getBlacklistStatistics();
@@ -678,13 +784,19 @@ class TokenBlacklistServiceTest {
             assertThat(stats).containsKey("activeBlacklisted");
             assertThat(stats).containsKey("expiredBlacklisted");
             assertThat(stats.get("totalBlacklisted")).isEqualTo(3);
+            assertThat(stats.get("activeBlacklisted")).isEqualTo(2);
+            assertThat(stats.get("expiredBlacklisted")).isEqualTo(1);
+            verify(redisTemplate, never()).keys(anyString());
         }
 
         @Test
         @DisplayName("Deve lidar com blacklist vazia nas estatísticas")
         void shouldHandleEmptyBlacklistForStatistics() {
             // Given
-            when(redisTemplate.keys("jwt:blacklist:*")).thenReturn(Set.of());
+            when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+            when(zSetOperations.zCard("stats:jwt:blacklist")).thenReturn(0L);
+            when(zSetOperations.count(eq("stats:jwt:blacklist"), anyDouble(), eq(Double.POSITIVE_INFINITY)))
+                    .thenReturn(0L);
 
             // When
             var stats = tokenBlacklistService.getBlacklistStatistics();
@@ -0,0 +1,81 @@
+package com.sistema.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para UserSecurityVersionService
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserSecurityVersionService Tests")
+class UserSecurityVersionServiceTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    private UserSecurityVersionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new UserSecurityVersionService();
+        ReflectionTestUtils.setField(service, "redisTemplate", redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Não deve acessar o Redis ao incrementar com o principal sem estado desabilitado")
+    void shouldSkipBumpWhenDisabled() {
+        // Given
+        ReflectionTestUtils.setField(service, "enabled", false);
+
+        // When
+        long version = service.bumpVersion(1L);
+
+        // Then
+        assertThat(version).isZero();
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve incrementar a versão no Redis com o principal sem estado habilitado")
+    void shouldBumpVersionWhenEnabled() {
+        // Given
+        ReflectionTestUtils.setField(service, "enabled", true);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment("user:security_version:1")).thenReturn(3L);
+
+        // When
+        long version = service.bumpVersion(1L);
+
+        // Then
+        assertThat(version).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Deve propagar a falha do Redis com o principal sem estado habilitado")
+    void shouldPropagateRedisFailureWhenEnabled() {
+        // Given
+        ReflectionTestUtils.setField(service, "enabled", true);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment("user:security_version:1"))
+                .thenThrow(new RedisConnectionFailureException("indisponível"));
+
+        // When & Then
+        assertThatThrownBy(() -> service.bumpVersion(1L)).isInstanceOf(RuntimeException.class);
+    }
+}
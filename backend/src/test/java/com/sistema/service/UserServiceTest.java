@@ -3,6 +3,7 @@ package com.sistema.service;
 import com.sistema.entity.User;
 import com.sistema.entity.UserRole;
 import com.sistema.repository.UserRepository;
+import com.sistema.security.UserDetailsNearCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -173,6 +174,40 @@ class UserServiceTest {
         verify(userRepository).save(testUser);
     }
 
+    @Test
+    @DisplayName("Deve incrementar a versão de segurança ao alterar status e role")
+    void shouldBumpSecurityVersionOnStatusAndRoleChange() {
+        // Given
+        UserSecurityVersionService userSecurityVersionService = mock(UserSecurityVersionService.class);
+        userService.setUserSecurityVersionService(userSecurityVersionService);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+
+        // When
+        userService.updateUserStatus(1L, false);
+        userService.updateUserRole(1L, UserRole.ADMIN);
+
+        // Then
+        verify(userSecurityVersionService, times(2)).bumpVersion(1L);
+    }
+
+    @Test
+    @DisplayName("Deve remover o usuário do near-cache ao alterar status e role")
+    void shouldInvalidateNearCacheOnStatusAndRoleChange() {
+        // Given
+        UserDetailsNearCache userDetailsNearCache = mock(UserDetailsNearCache.class);
+        userService.setUserDetailsNearCache(userDetailsNearCache);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+
+        // When
+        userService.updateUserStatus(1L, false);
+        userService.updateUserRole(1L, UserRole.ADMIN);
+
+        // Then
+        verify(userDetailsNearCache, times(2)).invalidate("joao@email.com");
+    }
+
     @Test
     @DisplayName("Deve lançar exceção ao atualizar status de usuário inexistente")
     void shouldThrowExceptionWhenUpdatingNonExistentUserStatus() {
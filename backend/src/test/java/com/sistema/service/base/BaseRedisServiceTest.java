@@ -7,10 +7,22 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -226,6 +238,32 @@ class BaseRedisServiceTest {
 
             assertTrue(exception.getMessage().contains("obter valor do Redis"));
         }
+
+        @Test
+        @DisplayName("Should get multiple values in a single MGET")
+        void shouldGetMultipleValuesInSingleMget() {
+            // Given
+            List<String> keys = List.of("test:key1", "test:key2");
+            when(valueOperations.multiGet(keys)).thenReturn(Arrays.asList("value1", null));
+
+            // When
+            List<Object> result = baseRedisService.multiGet(keys);
+
+            // Then
+            assertEquals(Arrays.asList("value1", null), result);
+            verify(valueOperations, never()).get(anyString());
+        }
+
+        @Test
+        @DisplayName("Should not call Redis for empty key list")
+        void shouldNotCallRedisForEmptyKeyList() {
+            // When
+            List<Object> result = baseRedisService.multiGet(List.of());
+
+            // Then
+            assertTrue(result.isEmpty());
+            verifyNoInteractions(valueOperations);
+        }
     }
 
     @Nested
@@ -250,43 +288,79 @@ class BaseRedisServiceTest {
         }
 
         @Test
-        @DisplayName("Should increment value with TTL")
+        @DisplayName("Should increment value with TTL in a single script call")
         void shouldIncrementValueWithTTL() {
             // Given
             String key = "test:counter";
             Duration duration = Duration.ofMinutes(5);
             long expectedValue = 3L;
             
-            when(valueOperations.increment(key)).thenReturn(expectedValue);
-            when(redisTemplate.hasKey(key)).thenReturn(false);
-            when(redisTemplate.expire(key, duration)).thenReturn(true);
+            when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class), any(),
+                    eq(List.of(key)), eq("300000"))).thenReturn(expectedValue);
 
             // When
             long result = baseRedisService.incrementWithTTL(key, duration);
 
             // Then
             assertEquals(expectedValue, result);
-            verify(valueOperations).increment(key);
-            verify(redisTemplate).expire(key, duration);
+            verify(valueOperations, never()).increment(key);
+            verify(redisTemplate, never()).expire(key, duration);
         }
 
         @Test
-        @DisplayName("Should not set TTL when key already exists")
-        void shouldNotSetTTLWhenKeyAlreadyExists() {
+        @DisplayName("Should increment and check threshold in a single script call")
+        void shouldIncrementAndCheckThreshold() {
             // Given
             String key = "test:counter";
+            String flagKey = "test:flag";
             Duration duration = Duration.ofMinutes(5);
-            long expectedValue = 3L; // Valor > 1 indica que a chave já existe
             
-            when(valueOperations.increment(key)).thenReturn(expectedValue);
+            when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class), any(),
+                    eq(List.of(key, flagKey)), eq("300000"), eq("3"), eq("true"))).thenReturn(3L);
 
             // When
-            long result = baseRedisService.incrementWithTTL(key, duration);
+            long result = baseRedisService.incrementAndCheckThreshold(key, duration, 3, flagKey, "true");
 
             // Then
-            assertEquals(expectedValue, result);
-            verify(valueOperations).increment(key);
-            verify(redisTemplate, never()).expire(key, duration);
+            assertEquals(3L, result);
+        }
+
+        @Test
+        @DisplayName("Should increment a batch of counters in a single script call")
+        void shouldIncrementAllAndCheckThreshold() {
+            // Given
+            Map<String, Long> deltas = new LinkedHashMap<>();
+            deltas.put("test:counter:a", 2L);
+            deltas.put("test:counter:b", 1L);
+
+            // When
+            baseRedisService.incrementAllAndCheckThreshold(deltas, key -> key.replace("counter", "flag"),
+                    Duration.ofMinutes(5), 3, "true");
+
+            // Then
+            verify(redisTemplate).execute(any(RedisScript.class), any(RedisSerializer.class), any(),
+                    eq(List.of("test:counter:a", "test:flag:a", "test:counter:b", "test:flag:b")),
+                    eq("300000"), eq("3"), eq("true"), eq("2"), eq("1"));
+        }
+
+        @Test
+        @DisplayName("Should increment hash fields of several records in a single script call")
+        void shouldIncrementFieldsAndCheckThreshold() {
+            // Given
+            Map<String, Map<String, Long>> deltas = new LinkedHashMap<>();
+            deltas.put("test:record:a", Map.of("login", 2L));
+            deltas.put("test:record:b", Map.of("cpf_error", 1L));
+
+            // When
+            baseRedisService.incrementFieldsAndCheckThreshold(deltas, field -> "captcha:" + field,
+                    field -> "expires:" + field, Duration.ofMinutes(5), 3);
+
+            // Then - cada campo leva o seu campo de expiração, para janelas independentes por campo
+            verify(redisTemplate).execute(any(RedisScript.class), any(RedisSerializer.class), any(),
+                    eq(List.of("test:record:a", "test:record:b")),
+                    matches("\\d+"), eq("300000"), eq("3"), eq("1"),
+                    eq("login"), eq("captcha:login"), eq("expires:login"), eq("2"),
+                    eq("cpf_error"), eq("captcha:cpf_error"), eq("expires:cpf_error"), eq("1"));
         }
 
         @Test
@@ -394,54 +468,64 @@ class BaseRedisServiceTest {
         }
 
         @Test
-        @DisplayName("Should find keys by pattern")
+        @DisplayName("Should find keys by pattern with SCAN")
         void shouldFindKeysByPattern() {
             // Given
             String pattern = "test:*";
-            Set<String> expectedKeys = Set.of("test:key1", "test:key2");
-            
-            when(redisTemplate.keys(pattern)).thenReturn(expectedKeys);
+            mockScan("test:key1", "test:key2", "test:key1");
 
             // When
             Set<String> result = baseRedisService.findKeys(pattern);
 
             // Then
-            assertEquals(expectedKeys, result);
-            verify(redisTemplate).keys(pattern);
+            assertEquals(Set.of("test:key1", "test:key2"), result);
+            verify(redisTemplate, never()).keys(anyString());
         }
 
         @Test
-        @DisplayName("Should count keys by pattern")
+        @DisplayName("Should count keys by pattern with SCAN")
         void shouldCountKeysByPattern() {
             // Given
             String pattern = "test:*";
-            Set<String> keys = Set.of("test:key1", "test:key2", "test:key3");
-            
-            when(redisTemplate.keys(pattern)).thenReturn(keys);
+            mockScan("test:key1", "test:key2", "test:key3");
 
             // When
             long result = baseRedisService.countKeys(pattern);
 
             // Then
             assertEquals(3L, result);
+            verify(redisTemplate, never()).keys(anyString());
         }
 
         @Test
-        @DisplayName("Should cleanup keys by pattern")
+        @DisplayName("Should cleanup keys by pattern with UNLINK")
         void shouldCleanupKeysByPattern() {
             // Given
             String pattern = "test:*";
-            Set<String> keys = Set.of("test:key1", "test:key2");
-            
-            when(redisTemplate.keys(pattern)).thenReturn(keys);
-            when(redisTemplate.delete(keys)).thenReturn(2L);
+            mockScan("test:key1", "test:key2");
+            when(redisTemplate.unlink(List.of("test:key1", "test:key2"))).thenReturn(2L);
 
             // When
             long result = baseRedisService.cleanupKeys(pattern);
 
             // Then
             assertEquals(2L, result);
-            verify(redisTemplate).delete(keys);
+            verify(redisTemplate, never()).delete(anyCollection());
+        }
+
+        @Test
+        @DisplayName("Should deliver scanned keys in batches")
+        void shouldDeliverScannedKeysInBatches() {
+            // Given
+            mockScan("test:key1", "test:key2", "test:key3");
+            List<List<String>> batches = new ArrayList<>();
+
+            // When
+            long scanned = baseRedisService.scanKeys("test:*", 2, batches::add);
+
+            // Then
+            assertEquals(3L, scanned);
+            assertEquals(List.of(List.of("test:key1", "test:key2"), List.of("test:key3")), batches);
         }
 
         @Test
@@ -449,16 +533,82 @@ class BaseRedisServiceTest {
         void shouldReturnZeroWhenNoKeysToCleanup() {
             // Given
             String pattern = "test:*";
-            Set<String> emptyKeys = Set.of();
-            
-            when(redisTemplate.keys(pattern)).thenReturn(emptyKeys);
+            mockScan();
 
             // When
             long result = baseRedisService.cleanupKeys(pattern);
 
             // Then
             assertEquals(0L, result);
-            verify(redisTemplate, never()).delete(any(Set.class));
+            verify(redisTemplate, never()).unlink(anyCollection());
+        }
+
+        @Test
+        @DisplayName("Should track and count members of an expiring index")
+        void shouldTrackAndCountExpiringIndex() {
+            // Given
+            ZSetOperations<String, Object> zSetOperations = mock(ZSetOperations.class);
+            when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+            when(zSetOperations.count(eq("stats:test"), anyDouble(), eq(Double.POSITIVE_INFINITY))).thenReturn(2L);
+            when(zSetOperations.zCard("stats:test")).thenReturn(3L);
+
+            // When
+            baseRedisService.trackExpiring("stats:test", "member", Duration.ofMinutes(5));
+
+            // Then
+            verify(redisTemplate).execute(any(RedisScript.class), any(RedisSerializer.class), any(),
+                    eq(List.of("stats:test")), anyString(), anyString(), eq("member"));
+            assertEquals(2L, baseRedisService.countActive("stats:test"));
+            assertEquals(3L, baseRedisService.countTracked("stats:test"));
+        }
+
+        @Test
+        @DisplayName("Should cleanup only expired members of an expiring index")
+        void shouldCleanupOnlyExpiredTrackedMembers() {
+            // Given
+            ZSetOperations<String, Object> zSetOperations = mock(ZSetOperations.class);
+            when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+            long before = System.currentTimeMillis();
+            when(zSetOperations.rangeByScore(eq("stats:test"), eq(Double.NEGATIVE_INFINITY), anyDouble(), eq(0L), anyLong()))
+                    .thenReturn(new LinkedHashSet<>(List.of("old1", "old2")));
+            when(zSetOperations.remove("stats:test", "old1", "old2")).thenReturn(2L);
+
+            // When
+            long result = baseRedisService.cleanupExpiredTracked("stats:test", "test:");
+
+            // Then
+            assertEquals(2L, result);
+            verify(zSetOperations).rangeByScore(eq("stats:test"), eq(Double.NEGATIVE_INFINITY),
+                    doubleThat(max -> max >= before && max <= System.currentTimeMillis()), eq(0L), anyLong());
+            verify(redisTemplate).unlink(List.of("test:old1", "test:old2"));
+            verify(redisTemplate, never()).scan(any(ScanOptions.class));
+        }
+
+        @Test
+        @DisplayName("Should not touch keys when no tracked member has expired")
+        void shouldNotCleanupWhenNothingExpired() {
+            // Given
+            ZSetOperations<String, Object> zSetOperations = mock(ZSetOperations.class);
+            when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+            when(zSetOperations.rangeByScore(eq("stats:test"), eq(Double.NEGATIVE_INFINITY), anyDouble(), eq(0L), anyLong()))
+                    .thenReturn(Set.of());
+
+            // When
+            long result = baseRedisService.cleanupExpiredTracked("stats:test", "test:");
+
+            // Then
+            assertEquals(0L, result);
+            verify(redisTemplate, never()).unlink(anyCollection());
+            verify(zSetOperations, never()).remove(anyString(), any(Object[].class));
+        }
+
+        @SuppressWarnings("unchecked")
+        private void mockScan(String... keys) {
+            Cursor<String> cursor = mock(Cursor.class);
+            Iterator<String> iterator = List.of(keys).iterator();
+            when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+            lenient().when(cursor.next()).thenAnswer(invocation -> iterator.next());
+            when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
         }
     }
 
@@ -0,0 +1,94 @@
+package com.sistema.service.base;
+
+import com.sistema.service.resilience.RedisUnavailableException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitários para RedisCommandMetrics
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@DisplayName("RedisCommandMetrics Tests")
+class RedisCommandMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RedisCommandMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new RedisCommandMetrics(true, false,
+                new String[] {"jwt:blacklist:", "jwt:blacklist:user:", "login_attempts:", "captcha:"});
+        metrics.setMeterRegistry(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Deve derivar a família pelo prefixo mais longo")
+    void shouldResolveFamilyByLongestPrefix() {
+        // Then
+        assertThat(metrics.familyOf("jwt:blacklist:user:maria")).isEqualTo("jwt:blacklist:user");
+        assertThat(metrics.familyOf("jwt:blacklist:abc")).isEqualTo("jwt:blacklist");
+        assertThat(metrics.familyOf("captcha:*")).isEqualTo("captcha");
+        assertThat(metrics.familyOf("sessao:123")).isEqualTo("other");
+        assertThat(metrics.familyOf(null)).isEqualTo("other");
+    }
+
+    @Test
+    @DisplayName("Deve registrar a duração por operação, família e resultado")
+    void shouldRecordTimerPerOperationFamilyAndOutcome() {
+        // When
+        metrics.record("incrementWithTTL", "login_attempts:10.0.0.1", Duration.ofMillis(2).toNanos(), null);
+        metrics.record("incrementWithTTL", "login_attempts:10.0.0.2", Duration.ofMillis(4).toNanos(), null);
+
+        // Then
+        Timer timer = meterRegistry.get(RedisCommandMetrics.METRIC_NAME)
+                .tags("operation", "incrementWithTTL", "family", "login_attempts", "outcome", "success")
+                .timer();
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(6.0);
+    }
+
+    @Test
+    @DisplayName("Deve separar erros, timeouts e recusas do circuit breaker")
+    void shouldClassifyErrorOutcomes() {
+        // When
+        metrics.record("get", "captcha:abc", 1_000, new RuntimeException("falha", new QueryTimeoutException("timeout")));
+        metrics.record("get", "captcha:abc", 1_000, new RuntimeException("falha", new IllegalStateException("erro")));
+        metrics.record("get", "captcha:abc", 1_000, new RedisUnavailableException("circuito aberto"));
+
+        // Then
+        assertThat(count("get", "captcha", "timeout")).isEqualTo(1);
+        assertThat(count("get", "captcha", "error")).isEqualTo(1);
+        assertThat(count("get", "captcha", "rejected")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Não deve registrar métricas quando desabilitado")
+    void shouldNotRecordWhenDisabled() {
+        // Given
+        RedisCommandMetrics disabled = new RedisCommandMetrics(false, false, new String[] {"captcha:"});
+        disabled.setMeterRegistry(meterRegistry);
+
+        // When
+        disabled.record("get", "captcha:abc", 1_000, null);
+
+        // Then
+        assertThat(meterRegistry.find(RedisCommandMetrics.METRIC_NAME).timers()).isEmpty();
+    }
+
+    private long count(String operation, String family, String outcome) {
+        return meterRegistry.get(RedisCommandMetrics.METRIC_NAME)
+                .tags("operation", operation, "family", family, "outcome", outcome)
+                .timer()
+                .count();
+    }
+}
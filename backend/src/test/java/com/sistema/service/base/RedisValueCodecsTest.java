@@ -0,0 +1,93 @@
+package com.sistema.service.base;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitários para RedisValueCodecs
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@DisplayName("RedisValueCodecs Tests")
+class RedisValueCodecsTest {
+
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+
+    @Test
+    @DisplayName("Deve codificar contadores no mesmo decimal gravado pelo INCR")
+    void shouldEncodeCountersAsDecimal() {
+        // When
+        byte[] encoded = RedisValueCodecs.COUNTER.encode(42L);
+
+        // Then
+        assertThat(new String(encoded, StandardCharsets.US_ASCII)).isEqualTo("42");
+        assertThat(RedisValueCodecs.COUNTER.decode(encoded)).isEqualTo(42L);
+        assertThat(RedisValueCodecs.COUNTER.decode("-3".getBytes(StandardCharsets.US_ASCII))).isEqualTo(-3L);
+        assertThat(RedisValueCodecs.COUNTER.decode(json.serialize(7L))).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("Deve codificar timestamps em 8 bytes e ler o JSON legado")
+    void shouldEncodeTimestampsAsEightBytes() {
+        // Given
+        long now = 1_700_000_000_000L;
+
+        // When
+        byte[] encoded = RedisValueCodecs.TIMESTAMP.encode(now);
+
+        // Then
+        assertThat(encoded).hasSize(8);
+        assertThat(RedisValueCodecs.TIMESTAMP.isCompact(encoded)).isTrue();
+        assertThat(RedisValueCodecs.TIMESTAMP.decode(encoded)).isEqualTo(now);
+
+        byte[] legacy = json.serialize(now);
+        assertThat(RedisValueCodecs.TIMESTAMP.isCompact(legacy)).isFalse();
+        assertThat(RedisValueCodecs.TIMESTAMP.decode(legacy)).isEqualTo(now);
+    }
+
+    @Test
+    @DisplayName("Deve codificar sinalizações em um byte e aceitar os valores legados")
+    void shouldEncodeFlagsAsSingleByte() {
+        // When
+        byte[] encoded = RedisValueCodecs.FLAG.encode(Boolean.TRUE);
+
+        // Then
+        assertThat(encoded).containsExactly((byte) '1');
+        assertThat(RedisValueCodecs.FLAG.decode(encoded)).isTrue();
+        assertThat(RedisValueCodecs.FLAG.decode(RedisValueCodecs.FLAG.encode(Boolean.FALSE))).isFalse();
+        assertThat(RedisValueCodecs.FLAG.decode(json.serialize("revoked"))).isTrue();
+        assertThat(RedisValueCodecs.FLAG.decode(json.serialize("true"))).isTrue();
+        assertThat(RedisValueCodecs.FLAG.fromLegacy("false")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve codificar digests SHA-256 em 32 bytes e ler o hexadecimal legado")
+    void shouldEncodeDigestsAsRawBytes() {
+        // Given
+        String hex = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+        byte[] digest = HexFormat.of().parseHex(hex);
+
+        // When
+        byte[] encoded = RedisValueCodecs.SHA256.encode(digest);
+
+        // Then
+        assertThat(encoded).hasSize(32).isEqualTo(digest);
+        assertThat(RedisValueCodecs.SHA256.decode(encoded)).isEqualTo(digest);
+        assertThat(RedisValueCodecs.SHA256.decode(json.serialize(hex))).isEqualTo(digest);
+        assertThat(RedisValueCodecs.SHA256.fromLegacy(hex)).isEqualTo(digest);
+    }
+
+    @Test
+    @DisplayName("Deve retornar null para chaves inexistentes")
+    void shouldReturnNullForMissingKeys() {
+        // Then
+        assertThat(RedisValueCodecs.COUNTER.decode(null)).isNull();
+        assertThat(RedisValueCodecs.TIMESTAMP.fromLegacy(null)).isNull();
+        assertThat(RedisValueCodecs.FLAG.decode(new byte[0])).isNull();
+    }
+}
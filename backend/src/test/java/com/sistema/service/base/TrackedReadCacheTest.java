@@ -0,0 +1,146 @@
+package com.sistema.service.base;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushListener;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.RedisCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitários para TrackedReadCache
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TrackedReadCache Tests")
+class TrackedReadCacheTest {
+
+    private static final String KEY = "jwt:blacklist:abc";
+
+    @Mock
+    private LettuceConnectionFactory connectionFactory;
+
+    @Mock
+    private RedisClient redisClient;
+
+    @Mock
+    private StatefulRedisConnection<String, byte[]> connection;
+
+    @Mock
+    private RedisCommands<String, byte[]> commands;
+
+    private TrackedReadCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(connectionFactory.getNativeClient()).thenReturn(redisClient);
+        when(redisClient.connect(any(RedisCodec.class))).thenReturn(connection);
+        when(connection.sync()).thenReturn(commands);
+        when(commands.clientTracking(any(TrackingArgs.class))).thenReturn("OK");
+
+        cache = new TrackedReadCache(true, new String[] {"jwt:blacklist:"}, 100, 300);
+        cache.setConnectionFactory(connectionFactory);
+        cache.start();
+    }
+
+    @Test
+    @DisplayName("Deve responder leituras repetidas da memória")
+    void shouldServeRepeatedReadsFromMemory() {
+        // Given
+        when(commands.get(KEY)).thenReturn(bytes("1"));
+
+        // When
+        byte[] first = cache.get(KEY);
+        byte[] second = cache.get(KEY);
+
+        // Then
+        assertThat(first).isEqualTo(bytes("1"));
+        assertThat(second).isEqualTo(bytes("1"));
+        verify(commands, times(1)).get(KEY);
+    }
+
+    @Test
+    @DisplayName("Deve guardar também a ausência da chave")
+    void shouldCacheMissingKeys() {
+        // When
+        boolean first = cache.exists(KEY);
+        byte[] value = cache.get(KEY);
+
+        // Then
+        assertThat(first).isFalse();
+        assertThat(value).isNull();
+        verify(commands, times(1)).exists(KEY);
+    }
+
+    @Test
+    @DisplayName("Deve descartar a entrada ao receber invalidação do servidor")
+    void shouldEvictOnServerInvalidation() {
+        // Given
+        when(commands.get(KEY)).thenReturn(bytes("1"), bytes("0"));
+        cache.get(KEY);
+
+        // When
+        cache.onPushMessage(invalidation(KEY));
+
+        // Then
+        assertThat(cache.get(KEY)).isEqualTo(bytes("0"));
+        verify(commands, times(2)).get(KEY);
+    }
+
+    @Test
+    @DisplayName("Não deve guardar valor lido enquanto a chave era invalidada")
+    void shouldNotStoreValueInvalidatedDuringLoad() {
+        // Given
+        PushMessage invalidation = invalidation(KEY);
+        when(commands.get(KEY)).thenAnswer(invocation -> {
+            cache.onPushMessage(invalidation);
+            return bytes("1");
+        }).thenReturn(bytes("0"));
+
+        // When
+        cache.get(KEY);
+
+        // Then
+        assertThat(cache.get(KEY)).isEqualTo(bytes("0"));
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve acompanhar apenas os prefixos configurados")
+    void shouldCoverOnlyConfiguredPrefixes() {
+        // Then
+        assertThat(cache.covers(KEY)).isTrue();
+        assertThat(cache.covers("login_attempts:1.2.3.4")).isFalse();
+        verify(connection).addListener(any(PushListener.class));
+    }
+
+    private static PushMessage invalidation(String key) {
+        PushMessage message = mock(PushMessage.class);
+        when(message.getType()).thenReturn("invalidate");
+        when(message.getContent(any())).thenReturn(List.of("invalidate", List.of(key)));
+        return message;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
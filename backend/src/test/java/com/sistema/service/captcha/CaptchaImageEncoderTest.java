@@ -0,0 +1,128 @@
+package com.sistema.service.captcha;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Testes unitários para CaptchaImageEncoder
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@DisplayName("CaptchaImageEncoder Tests")
+class CaptchaImageEncoderTest {
+
+    private BufferedImage image;
+
+    @BeforeEach
+    void setUp() {
+        image = new CaptchaRenderer().createImage("AB3XY");
+    }
+
+    @Test
+    @DisplayName("Deve gerar PNG indexado legível e menor que o PNG truecolor")
+    void shouldEncodeSmallerIndexedPng() throws IOException {
+        // Given
+        CaptchaImageEncoder indexed = new CaptchaImageEncoder(CaptchaImageEncoder.FORMAT_PNG_INDEXED, 0.6f);
+        CaptchaImageEncoder truecolor = new CaptchaImageEncoder(CaptchaImageEncoder.FORMAT_PNG, 0.6f);
+
+        // When
+        byte[] indexedBytes = indexed.encode(image);
+        byte[] truecolorBytes = truecolor.encode(image);
+
+        // Then
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(indexedBytes));
+        assertThat(decoded.getWidth()).isEqualTo(CaptchaRenderer.IMAGE_WIDTH);
+        assertThat(decoded.getHeight()).isEqualTo(CaptchaRenderer.IMAGE_HEIGHT);
+        assertThat(indexedBytes.length).isLessThan(truecolorBytes.length);
+        assertThat(indexed.getContentType()).isEqualTo("image/png");
+    }
+
+    @Test
+    @DisplayName("Deve mapear preto e branco para as mesmas cores na paleta")
+    void shouldKeepBlackAndWhite() {
+        // Given
+        BufferedImage source = new BufferedImage(2, 1, BufferedImage.TYPE_INT_RGB);
+        source.setRGB(0, 0, 0x000000);
+        source.setRGB(1, 0, 0xffffff);
+
+        // When
+        BufferedImage indexed = CaptchaImageEncoder.toIndexed(source);
+
+        // Then
+        assertThat(indexed.getRGB(0, 0) & 0xffffff).isEqualTo(0x000000);
+        assertThat(indexed.getRGB(1, 0) & 0xffffff).isEqualTo(0xffffff);
+    }
+
+    @Test
+    @DisplayName("Deve gerar JPEG com o tipo de conteúdo correspondente")
+    void shouldEncodeJpeg() throws IOException {
+        // Given
+        CaptchaImageEncoder encoder = new CaptchaImageEncoder(CaptchaImageEncoder.FORMAT_JPEG, 0.5f);
+
+        // When
+        byte[] bytes = encoder.encode(image);
+
+        // Then
+        assertThat(encoder.getContentType()).isEqualTo("image/jpeg");
+        assertThat(bytes[0] & 0xff).isEqualTo(0xff);
+        assertThat(bytes[1] & 0xff).isEqualTo(0xd8);
+        assertThat(ImageIO.read(new ByteArrayInputStream(bytes)).getWidth()).isEqualTo(CaptchaRenderer.IMAGE_WIDTH);
+    }
+
+    @Test
+    @DisplayName("Deve reutilizar o codificador em chamadas sucessivas")
+    void shouldReuseWriterAcrossCalls() {
+        // Given
+        CaptchaImageEncoder encoder = new CaptchaImageEncoder();
+
+        // When
+        byte[] first = encoder.encode(image);
+        byte[] second = encoder.encode(image);
+
+        // Then
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    @DisplayName("Deve usar PNG truecolor por padrão")
+    void shouldDefaultToTruecolorPng() {
+        // When
+        CaptchaImageEncoder encoder = new CaptchaImageEncoder();
+
+        // Then
+        assertThat(encoder.getFormat()).isEqualTo(CaptchaImageEncoder.FORMAT_PNG);
+        assertThat(encoder.getContentType()).isEqualTo("image/png");
+    }
+
+    @Test
+    @DisplayName("Deve liberar os writers no encerramento e criar outro se voltar a ser usado")
+    void shouldDisposeWritersOnClose() throws IOException {
+        // Given
+        CaptchaImageEncoder encoder = new CaptchaImageEncoder(CaptchaImageEncoder.FORMAT_JPEG, 0.5f);
+        byte[] before = encoder.encode(image);
+
+        // When
+        encoder.close();
+        byte[] after = encoder.encode(image);
+
+        // Then
+        assertThat(after).isEqualTo(before);
+        assertThat(ImageIO.read(new ByteArrayInputStream(after)).getWidth()).isEqualTo(CaptchaRenderer.IMAGE_WIDTH);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar formato não suportado")
+    void shouldRejectUnsupportedFormat() {
+        // When / Then
+        assertThatThrownBy(() -> new CaptchaImageEncoder("gif", 0.6f))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,194 @@
+package com.sistema.service.captcha;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitários para CaptchaPool
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CaptchaPool Tests")
+class CaptchaPoolTest {
+
+    private static final RenderedCaptcha CAPTCHA = new RenderedCaptcha("hash", new byte[] {1, 2, 3});
+
+    @Mock
+    private CaptchaRenderer renderer;
+
+    private ManualExecutor executor;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ManualExecutor();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        meterRegistry.close();
+    }
+
+    @Test
+    @DisplayName("Deve encher a reserva em segundo plano ao iniciar")
+    void shouldFillPoolOnStart() {
+        // Given
+        when(renderer.render()).thenReturn(CAPTCHA);
+        CaptchaPool pool = newPool(true, 4, 1);
+
+        // When
+        pool.start();
+        executor.runPending();
+
+        // Then
+        assertThat(pool.depth()).isEqualTo(4);
+        verify(renderer, times(4)).render();
+        assertThat(meterRegistry.get("captcha.pool.depth").gauge().value()).isEqualTo(4.0);
+        assertThat(meterRegistry.get("captcha.render").tag("mode", "background").timer().count()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Deve servir da reserva e repor apenas ao atingir a marca mínima")
+    void shouldServeFromPoolAndRefillAtLowWaterMark() {
+        // Given
+        when(renderer.render()).thenReturn(CAPTCHA);
+        CaptchaPool pool = newPool(true, 4, 2);
+        pool.start();
+        executor.runPending();
+
+        // When
+        RenderedCaptcha first = pool.take();
+        int pendingAfterFirst = executor.pending();
+        pool.take();
+
+        // Then
+        assertThat(first).isSameAs(CAPTCHA);
+        assertThat(pendingAfterFirst).isZero();
+        assertThat(executor.pending()).isEqualTo(1);
+        assertThat(meterRegistry.get("captcha.pool.served").tag("result", "hit").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Deve renderizar na requisição quando a reserva está vazia")
+    void shouldRenderSynchronouslyWhenPoolIsEmpty() {
+        // Given
+        when(renderer.render()).thenReturn(CAPTCHA);
+        CaptchaPool pool = newPool(true, 4, 1);
+        pool.start();
+
+        // When
+        RenderedCaptcha captcha = pool.take();
+
+        // Then
+        assertThat(captcha).isSameAs(CAPTCHA);
+        assertThat(meterRegistry.get("captcha.pool.served").tag("result", "miss").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("captcha.render").tag("mode", "sync").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Não deve produzir em segundo plano quando desabilitada")
+    void shouldNotProduceWhenDisabled() {
+        // Given
+        when(renderer.render()).thenReturn(CAPTCHA);
+        CaptchaPool pool = newPool(false, 4, 1);
+
+        // When
+        pool.start();
+        pool.take();
+
+        // Then
+        assertThat(executor.pending()).isZero();
+        assertThat(pool.depth()).isZero();
+        verify(renderer, times(1)).render();
+    }
+
+    @Test
+    @DisplayName("Deve limitar o número de produtores ativos")
+    void shouldLimitActiveProducers() {
+        // Given
+        CaptchaPool pool = newPool(true, 4, 1);
+        pool.start();
+
+        // When
+        pool.requestRefill();
+        pool.requestRefill();
+
+        // Then
+        assertThat(executor.pending()).isEqualTo(1);
+    }
+
+    private CaptchaPool newPool(boolean enabled, int capacity, int lowWaterMark) {
+        CaptchaPool pool = new CaptchaPool(renderer, enabled, capacity, lowWaterMark, 1, executor);
+        pool.bindMetrics(meterRegistry);
+        return pool;
+    }
+
+    /**
+     * Executor que acumula as tarefas para execução explícita na thread do teste.
+     */
+    private static class ManualExecutor extends AbstractExecutorService {
+
+        private final List<Runnable> tasks = new ArrayList<>();
+        private boolean shutdown;
+
+        void runPending() {
+            while (!tasks.isEmpty()) {
+                tasks.remove(0).run();
+            }
+        }
+
+        int pending() {
+            return tasks.size();
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            List<Runnable> pending = new ArrayList<>(tasks);
+            tasks.clear();
+            return pending;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown && tasks.isEmpty();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return isTerminated();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.sistema.service.captcha;
+
+import com.sistema.util.SecurityUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitários para CaptchaTokenSealer
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@DisplayName("CaptchaTokenSealer Tests")
+class CaptchaTokenSealerTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+    private static final String SECRET = "segredo-compartilhado";
+
+    private CaptchaTokenSealer sealer;
+    private byte[] answerHash;
+
+    @BeforeEach
+    void setUp() {
+        sealer = new CaptchaTokenSealer(true, SECRET, Clock.fixed(NOW, ZoneOffset.UTC));
+        answerHash = HexFormat.of().parseHex(SecurityUtils.hashSHA256("ab3xy"));
+    }
+
+    @Test
+    @DisplayName("Deve abrir o ID selado com o hash da resposta e a expiração")
+    void shouldOpenSealedId() {
+        // Given
+        String captchaId = sealer.seal(answerHash, NOW.plusSeconds(600));
+
+        // When
+        CaptchaTokenSealer.SealedCaptcha sealed = sealer.open(captchaId);
+
+        // Then
+        assertThat(captchaId).hasSize(CaptchaTokenSealer.ENCODED_LENGTH);
+        assertThat(sealed).isNotNull();
+        assertThat(sealed.getAnswerHash()).isEqualTo(answerHash);
+        assertThat(sealed.getExpiresAt()).isEqualTo(NOW.plusSeconds(600));
+        assertThat(sealed.getId()).hasSize(16);
+    }
+
+    @Test
+    @DisplayName("Não deve expor o hash da resposta no ID")
+    void shouldNotExposeAnswerHash() {
+        // When
+        String captchaId = sealer.seal(answerHash, NOW.plusSeconds(600));
+
+        // Then
+        assertThat(captchaId).doesNotContain(Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(answerHash).substring(0, 12));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar ID alterado ou selado com outro segredo")
+    void shouldRejectTamperedOrForeignId() {
+        // Given
+        String captchaId = sealer.seal(answerHash, NOW.plusSeconds(600));
+        char[] chars = captchaId.toCharArray();
+        chars[40] = chars[40] == 'A' ? 'B' : 'A';
+        CaptchaTokenSealer other = new CaptchaTokenSealer(true, "outro-segredo", Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // When / Then
+        assertThat(sealer.open(new String(chars))).isNull();
+        assertThat(other.open(captchaId)).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar ID expirado")
+    void shouldRejectExpiredId() {
+        // Given
+        String captchaId = sealer.seal(answerHash, NOW.plusSeconds(600));
+        CaptchaTokenSealer later = new CaptchaTokenSealer(true, SECRET,
+                Clock.fixed(NOW.plusSeconds(600), ZoneOffset.UTC));
+
+        // When / Then
+        assertThat(later.open(captchaId)).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve ignorar IDs aleatórios do modo com estado")
+    void shouldIgnoreStatefulIds() {
+        // When / Then
+        assertThat(sealer.open(SecurityUtils.generateSecureToken(32))).isNull();
+        assertThat(sealer.open("!".repeat(CaptchaTokenSealer.ENCODED_LENGTH))).isNull();
+        assertThat(sealer.open(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve gerar IDs distintos para o mesmo desafio")
+    void shouldGenerateDistinctIds() {
+        // When
+        String first = sealer.seal(answerHash, NOW.plusSeconds(600));
+        String second = sealer.seal(answerHash, NOW.plusSeconds(600));
+
+        // Then
+        assertThat(first).isNotEqualTo(second);
+        assertThat(sealer.open(first).getId()).isNotEqualTo(sealer.open(second).getId());
+    }
+}
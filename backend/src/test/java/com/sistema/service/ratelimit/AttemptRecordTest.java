@@ -0,0 +1,106 @@
+package com.sistema.service.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitários para AttemptRecord
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@DisplayName("AttemptRecord Tests")
+class AttemptRecordTest {
+
+    @Test
+    @DisplayName("Deve montar o registro a partir dos campos do hash")
+    void shouldBuildRecordFromHashEntries() {
+        // Given
+        Map<String, byte[]> entries = new HashMap<>();
+        entries.put("login", bytes("3"));
+        entries.put("password_reset", bytes("1"));
+        entries.put(AttemptRecord.captchaField("login"), bytes("1"));
+
+        // When
+        AttemptRecord record = AttemptRecord.fromHash(entries);
+
+        // Then
+        assertThat(record.getAttempts("login")).isEqualTo(3);
+        assertThat(record.getAttempts("password_reset")).isEqualTo(1);
+        assertThat(record.getAttempts("cpf_error")).isZero();
+        assertThat(record.isCaptchaFlagged("login")).isTrue();
+        assertThat(record.isCaptchaFlagged("password_reset")).isFalse();
+        assertThat(record.getAttempts()).containsOnlyKeys("login", "password_reset");
+    }
+
+    @Test
+    @DisplayName("Deve retornar registro vazio para hash inexistente")
+    void shouldReturnEmptyRecordForMissingHash() {
+        // When
+        AttemptRecord record = AttemptRecord.fromHash(Map.of());
+
+        // Then
+        assertThat(record).isSameAs(AttemptRecord.EMPTY);
+        assertThat(record.getAttempts("login")).isZero();
+        assertThat(record.isCaptchaFlagged("login")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve nomear o campo de captcha pelo tipo de tentativa")
+    void shouldNameCaptchaFieldByType() {
+        // Then
+        assertThat(AttemptRecord.captchaField("cpf_error")).isEqualTo("captcha:cpf_error");
+    }
+
+    @Test
+    @DisplayName("Deve ignorar contador e marcação de tipo com janela vencida")
+    void shouldIgnoreTypesWhoseWindowExpired() {
+        // Given - login venceu; password_reset ainda está na janela
+        long now = 1_000_000L;
+        Map<String, byte[]> entries = new HashMap<>();
+        entries.put("login", bytes("5"));
+        entries.put(AttemptRecord.captchaField("login"), bytes("1"));
+        entries.put(AttemptRecord.expiryField("login"), bytes(String.valueOf(now - 1)));
+        entries.put("password_reset", bytes("2"));
+        entries.put(AttemptRecord.expiryField("password_reset"), bytes(String.valueOf(now + 60_000)));
+
+        // When
+        AttemptRecord record = AttemptRecord.fromHash(entries, now);
+
+        // Then
+        assertThat(record.getAttempts("login")).isZero();
+        assertThat(record.isCaptchaFlagged("login")).isFalse();
+        assertThat(record.getAttempts("password_reset")).isEqualTo(2);
+        assertThat(record.getAttempts()).containsOnlyKeys("password_reset");
+    }
+
+    @Test
+    @DisplayName("Deve retornar registro vazio quando todas as janelas venceram")
+    void shouldReturnEmptyRecordWhenAllWindowsExpired() {
+        // Given
+        Map<String, byte[]> entries = new HashMap<>();
+        entries.put("login", bytes("2"));
+        entries.put(AttemptRecord.expiryField("login"), bytes("10"));
+
+        // When
+        AttemptRecord record = AttemptRecord.fromHash(entries, 10L);
+
+        // Then
+        assertThat(record).isSameAs(AttemptRecord.EMPTY);
+    }
+
+    @Test
+    @DisplayName("Deve nomear o campo de expiração pelo tipo de tentativa")
+    void shouldNameExpiryFieldByType() {
+        // Then
+        assertThat(AttemptRecord.expiryField("login")).isEqualTo("expires:login");
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,134 @@
+package com.sistema.service.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitários para InMemoryRateLimiter (semântica GCRA)
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@DisplayName("InMemoryRateLimiter Tests")
+class InMemoryRateLimiterTest {
+
+    private static final String IP = "192.168.1.1";
+
+    private MutableClock clock;
+    private InMemoryRateLimiter rateLimiter;
+    private RateLimitPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        rateLimiter = new InMemoryRateLimiter(clock);
+        policy = RateLimitPolicy.of("login", RateLimitDimension.IP, 3, Duration.ofMinutes(30));
+    }
+
+    @Test
+    @DisplayName("Deve aceitar rajada até o limite e negar a seguinte")
+    void shouldAllowBurstUpToLimit() {
+        // When
+        RateLimitDecision first = rateLimiter.tryAcquire(policy, IP);
+        rateLimiter.tryAcquire(policy, IP);
+        RateLimitDecision third = rateLimiter.tryAcquire(policy, IP);
+        RateLimitDecision fourth = rateLimiter.tryAcquire(policy, IP);
+
+        // Then
+        assertThat(first.isAllowed()).isTrue();
+        assertThat(first.getRemaining()).isEqualTo(2);
+        assertThat(third.isAllowed()).isTrue();
+        assertThat(third.getRemaining()).isZero();
+        assertThat(fourth.isAllowed()).isFalse();
+        assertThat(fourth.getRetryAfter()).isEqualTo(Duration.ofMinutes(10));
+        assertThat(fourth.consumed(policy)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Deve liberar capacidade gradualmente em janela deslizante")
+    void shouldReleaseCapacityGradually() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire(policy, IP);
+        }
+
+        // When
+        clock.advance(Duration.ofMinutes(10));
+
+        // Then
+        assertThat(rateLimiter.peek(policy, IP).getRemaining()).isEqualTo(1);
+        assertThat(rateLimiter.tryAcquire(policy, IP).isAllowed()).isTrue();
+        assertThat(rateLimiter.tryAcquire(policy, IP).isAllowed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Não deve consumir capacidade ao apenas consultar")
+    void peekShouldNotConsume() {
+        // When
+        RateLimitDecision decision = rateLimiter.peek(policy, IP);
+
+        // Then
+        assertThat(decision.isAllowed()).isTrue();
+        assertThat(decision.getRemaining()).isEqualTo(3);
+        assertThat(rateLimiter.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve isolar identificadores e liberar tudo no reset")
+    void shouldIsolateIdentifiersAndReset() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire(policy, IP);
+        }
+
+        // When / Then
+        assertThat(rateLimiter.tryAcquire(policy, "10.0.0.1").isAllowed()).isTrue();
+        rateLimiter.reset(policy, IP);
+        assertThat(rateLimiter.peek(policy, IP).getRemaining()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Deve remover chaves vencidas na limpeza")
+    void shouldCleanupExpiredKeys() {
+        // Given
+        rateLimiter.tryAcquire(policy, IP);
+
+        // When
+        clock.advance(Duration.ofMinutes(11));
+        rateLimiter.cleanup();
+
+        // Then
+        assertThat(rateLimiter.size()).isZero();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.sistema.service.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitários para LocalAttemptTier
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@DisplayName("LocalAttemptTier Tests")
+class LocalAttemptTierTest {
+
+    private static final String IP = "192.168.1.1";
+    private static final int THRESHOLD = 5;
+
+    private MutableClock clock;
+    private LocalAttemptTier tier;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        tier = new LocalAttemptTier(true, 4, 16, 3, 1.0, 2000, 1, clock);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar localmente a rajada acima da capacidade e recarregar com o tempo")
+    void shouldThrottleBurstAndRefill() {
+        // When
+        boolean first = tier.tryAdmit("login", IP);
+        tier.tryAdmit("login", IP);
+        boolean third = tier.tryAdmit("login", IP);
+        boolean fourth = tier.tryAdmit("login", IP);
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(third).isTrue();
+        assertThat(fourth).isFalse();
+        assertThat(tier.tryAdmit("login", "10.0.0.1")).isTrue();
+        assertThat(tier.tryAdmit("verify_cpf", IP)).isTrue();
+
+        // When - um segundo depois há um novo token
+        clock.advance(Duration.ofSeconds(1));
+
+        // Then
+        assertThat(tier.tryAdmit("login", IP)).isTrue();
+        assertThat(tier.tryAdmit("login", IP)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve exigir consulta ao Redis sem visão local ou com visão expirada")
+    void shouldDeferToRedisWithoutFreshView() {
+        // Then
+        assertThat(tier.captchaRequired("login", IP, THRESHOLD)).isNull();
+        assertThat(tier.tryRecordLocally("login", IP, THRESHOLD)).isEqualTo(LocalAttemptTier.UNKNOWN);
+
+        // When
+        tier.observe("login", IP, 0);
+        clock.advance(Duration.ofSeconds(3));
+
+        // Then
+        assertThat(tier.captchaRequired("login", IP, THRESHOLD)).isNull();
+        assertThat(tier.knownCount("login", IP)).isEqualTo(LocalAttemptTier.UNKNOWN);
+    }
+
+    @Test
+    @DisplayName("Deve decidir localmente longe do limite e consultar o Redis perto dele")
+    void shouldDecideLocallyAwayFromThreshold() {
+        // Given
+        tier.observe("login", IP, 1);
+
+        // Then
+        assertThat(tier.captchaRequired("login", IP, THRESHOLD)).isFalse();
+
+        // When
+        tier.observe("login", IP, 4);
+
+        // Then
+        assertThat(tier.captchaRequired("login", IP, THRESHOLD)).isNull();
+
+        // When
+        tier.observe("login", IP, 5);
+
+        // Then
+        assertThat(tier.captchaRequired("login", IP, THRESHOLD)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve acumular tentativas longe do limite e entregá-las em lote")
+    void shouldAccumulateAndDrainPendingAttempts() {
+        // Given
+        tier.observe("login", IP, 1);
+
+        // When
+        int second = tier.tryRecordLocally("login", IP, THRESHOLD);
+        int third = tier.tryRecordLocally("login", IP, THRESHOLD);
+        int fourth = tier.tryRecordLocally("login", IP, THRESHOLD);
+
+        // Then
+        assertThat(second).isEqualTo(2);
+        assertThat(third).isEqualTo(3);
+        assertThat(fourth).isEqualTo(LocalAttemptTier.UNKNOWN);
+        assertThat(tier.pending("login", IP)).isEqualTo(2);
+
+        // When
+        List<LocalAttemptTier.PendingAttempts> batch = tier.drainPending();
+
+        // Then
+        assertThat(batch).hasSize(1);
+        assertThat(batch.get(0).getType()).isEqualTo("login");
+        assertThat(batch.get(0).getIdentifier()).isEqualTo(IP);
+        assertThat(batch.get(0).getDelta()).isEqualTo(2);
+        assertThat(tier.pending("login", IP)).isZero();
+        assertThat(tier.knownCount("login", IP)).isEqualTo(3);
+        assertThat(tier.drainPending()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve preservar deltas pendentes de entradas descartadas e devolvidas")
+    void shouldKeepPendingAttemptsOfEvictedEntries() {
+        // Given
+        LocalAttemptTier small = new LocalAttemptTier(true, 1, 1, 3, 1.0, 2000, 1, clock);
+        small.observe("login", IP, 0);
+        small.tryRecordLocally("login", IP, THRESHOLD);
+
+        // When - a nova entrada descarta a anterior
+        small.observe("login", "10.0.0.1", 0);
+        List<LocalAttemptTier.PendingAttempts> batch = small.drainPending();
+
+        // Then
+        assertThat(batch).extracting(LocalAttemptTier.PendingAttempts::getIdentifier).containsExactly(IP);
+
+        // When - o envio falha e o lote é devolvido
+        small.restore(batch);
+
+        // Then
+        assertThat(small.drainPending()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Deve descartar visão e deltas ao limpar as tentativas")
+    void shouldClearLocalState() {
+        // Given
+        tier.observe("cpf_error", "12345678901", 0);
+        tier.tryRecordLocally("cpf_error", "12345678901", THRESHOLD);
+
+        // When
+        tier.clear("cpf_error", "12345678901");
+
+        // Then
+        assertThat(tier.knownCount("cpf_error", "12345678901")).isEqualTo(LocalAttemptTier.UNKNOWN);
+        assertThat(tier.drainPending()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve ser transparente quando desabilitada")
+    void shouldBeTransparentWhenDisabled() {
+        // Given
+        LocalAttemptTier disabled = new LocalAttemptTier(false, 4, 16, 1, 1.0, 2000, 1, clock);
+        disabled.observe("login", IP, 0);
+
+        // Then
+        assertThat(disabled.tryAdmit("login", IP)).isTrue();
+        assertThat(disabled.tryAdmit("login", IP)).isTrue();
+        assertThat(disabled.captchaRequired("login", IP, THRESHOLD)).isNull();
+        assertThat(disabled.tryRecordLocally("login", IP, THRESHOLD)).isEqualTo(LocalAttemptTier.UNKNOWN);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.sistema.service.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitários para RateLimitPolicies
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@DisplayName("RateLimitPolicies Tests")
+class RateLimitPoliciesTest {
+
+    @Test
+    @DisplayName("Deve aplicar precedência dimensão, operação e padrão")
+    void shouldResolvePoliciesByPrecedence() {
+        // Given
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.rate-limit.policies.login.limit", "5")
+                .withProperty("app.rate-limit.policies.login.email.limit", "10")
+                .withProperty("app.rate-limit.policies.login.email.period-seconds", "60");
+        RateLimitPolicies policies = new RateLimitPolicies(environment, 3, 1800);
+
+        // When
+        RateLimitPolicy byEmail = policies.get("login", RateLimitDimension.EMAIL);
+        RateLimitPolicy byIp = policies.get("login", RateLimitDimension.IP);
+        RateLimitPolicy fallback = policies.get("cpf_error", RateLimitDimension.CPF);
+
+        // Then
+        assertThat(byEmail.getLimit()).isEqualTo(10);
+        assertThat(byEmail.getPeriod()).isEqualTo(Duration.ofSeconds(60));
+        assertThat(byIp.getLimit()).isEqualTo(5);
+        assertThat(byIp.getPeriod()).isEqualTo(Duration.ofMinutes(30));
+        assertThat(fallback.getLimit()).isEqualTo(3);
+        assertThat(fallback.keyFor("12345678909")).isEqualTo("rate_limit:cpf_error:cpf:12345678909");
+    }
+}
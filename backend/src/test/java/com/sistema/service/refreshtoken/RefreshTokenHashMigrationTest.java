@@ -0,0 +1,104 @@
+package com.sistema.service.refreshtoken;
+
+import com.sistema.entity.RefreshToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitários para RefreshTokenHashMigration
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RefreshTokenHashMigration Tests")
+class RefreshTokenHashMigrationTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private RefreshTokenHashMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        migration = new RefreshTokenHashMigration(true, 2);
+        migration.setJdbcTemplate(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve converter os tokens em lotes percorrendo a tabela por ID")
+    @SuppressWarnings("unchecked")
+    void shouldMigrateInBatchesById() {
+        // Given
+        when(jdbcTemplate.queryForList(RefreshTokenHashMigration.SELECT_SQL, 0L, 2))
+                .thenReturn(List.of(row(1L, "token-a"), row(4L, "token-b")));
+        when(jdbcTemplate.queryForList(RefreshTokenHashMigration.SELECT_SQL, 4L, 2))
+                .thenReturn(List.of(row(7L, "token-c")));
+
+        // When
+        int migrated = migration.migrate();
+
+        // Then
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2))
+                .batchUpdate(eq(RefreshTokenHashMigration.UPDATE_SQL), captor.capture());
+        assertThat(captor.getAllValues().get(0).get(0))
+                .containsExactly(RefreshToken.hashToken("token-a"), 1L, "token-a");
+        assertThat(captor.getAllValues().get(1).get(0))
+                .containsExactly(RefreshToken.hashToken("token-c"), 7L, "token-c");
+        assertThat(migrated).isEqualTo(3);
+        assertThat(migration.isComplete()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve concluir sem gravar quando não há tokens em texto puro")
+    void shouldCompleteWhenNothingToMigrate() {
+        // Given
+        when(jdbcTemplate.queryForList(RefreshTokenHashMigration.SELECT_SQL, 0L, 2)).thenReturn(List.of());
+
+        // When
+        int migrated = migration.migrate();
+
+        // Then
+        assertThat(migrated).isZero();
+        assertThat(migration.isComplete()).isTrue();
+        verify(jdbcTemplate, never()).batchUpdate(eq(RefreshTokenHashMigration.UPDATE_SQL), anyList());
+    }
+
+    @Test
+    @DisplayName("Deve permanecer incompleta quando a gravação falhar")
+    void shouldRemainIncompleteOnFailure() {
+        // Given
+        when(jdbcTemplate.queryForList(RefreshTokenHashMigration.SELECT_SQL, 0L, 2))
+                .thenReturn(List.of(row(1L, "token-a")));
+        when(jdbcTemplate.batchUpdate(eq(RefreshTokenHashMigration.UPDATE_SQL), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("banco indisponível"));
+
+        // When
+        int migrated = migration.migrate();
+
+        // Then
+        assertThat(migrated).isZero();
+        assertThat(migration.isComplete()).isFalse();
+    }
+
+    private static Map<String, Object> row(long id, String token) {
+        return Map.of("id", id, "token", token);
+    }
+}
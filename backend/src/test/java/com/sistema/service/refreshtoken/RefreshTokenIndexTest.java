@@ -0,0 +1,172 @@
+package com.sistema.service.refreshtoken;
+
+import com.sistema.entity.RefreshToken;
+import com.sistema.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para RefreshTokenIndex
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RefreshTokenIndex Tests")
+class RefreshTokenIndexTest {
+
+    private static final long USER_ID = 7L;
+    private static final long EPOCH = 1_700_000_000_000L;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    private RefreshTokenIndex index;
+    private RefreshToken refreshToken;
+    private String entryKey;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        index = new RefreshTokenIndex();
+        ReflectionTestUtils.setField(index, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "maxTtlSeconds", 300L);
+        ReflectionTestUtils.setField(index, "clockSkewMillis", 2000L);
+        ReflectionTestUtils.setField(index, "refreshTokenExpiration", 15552000L);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        User user = new User();
+        user.setId(USER_ID);
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        refreshToken = new RefreshToken("refresh-token", user, now.plusDays(1));
+        refreshToken.setId(42L);
+        entryKey = "refresh_token:" + refreshToken.getTokenHash();
+    }
+
+    @Test
+    @DisplayName("Deve indexar pelo script condicional, com a época do usuário e a margem de relógio")
+    void shouldIndexThroughConditionalScript() {
+        // When
+        index.index(refreshToken, EPOCH + 5000);
+
+        // Then
+        verify(redisTemplate).execute(any(RedisScript.class), any(RedisSerializer.class), any(),
+                eq(List.of(entryKey, "refresh_token_epoch:" + USER_ID)),
+                eq(IndexedRefreshToken.of(refreshToken, EPOCH + 5000).encode()), matches("\\d+"),
+                eq(String.valueOf(EPOCH + 5000)), eq("2000"));
+        verify(valueOperations, never()).setIfAbsent(anyString(), any(), any(Duration.class));
+        verify(valueOperations, never()).set(anyString(), any(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("Deve limitar o TTL das entradas a max-ttl-seconds, que limita a defasagem das demais instâncias")
+    void shouldCapEntryTtlAtMaxTtl() {
+        // When - o token expira em um dia, bem depois do limite de 5 minutos
+        index.index(refreshToken, EPOCH);
+
+        // Then
+        verify(redisTemplate).execute(any(RedisScript.class), any(RedisSerializer.class), any(),
+                anyList(), anyString(), eq("300000"), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Deve manter a marca de revogação diante de uma indexação concorrente")
+    void shouldKeepTombstoneAgainstConcurrentIndex() {
+        // Given - a revogação é gravada incondicionalmente
+        index.markRevoked(refreshToken);
+        String tombstone = IndexedRefreshToken.of(refreshToken, 0L).revoked().encode();
+        verify(valueOperations).set(eq(entryKey), eq(tombstone), any(Duration.class));
+
+        // When - uma leitura do banco anterior à revogação tenta indexar o token depois dela
+        index.index(refreshToken, EPOCH);
+        when(valueOperations.get(entryKey)).thenReturn(tombstone);
+        IndexedRefreshToken entry = index.lookup(refreshToken.getTokenHash(), now);
+
+        // Then - a indexação só passa pelo script, que não substitui marcas de revogação
+        verify(valueOperations, times(1)).set(anyString(), any(), any(Duration.class));
+        assertThat(entry).isNotNull();
+        assertThat(entry.isRevoked()).isTrue();
+        assertThat(entry.isUsableAt(now)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve consultar o banco para entradas anteriores à época do usuário")
+    void shouldIgnoreEntryOlderThanUserEpoch() {
+        // Given - validAsOf dentro da margem de relógio da época
+        when(valueOperations.get(entryKey)).thenReturn(IndexedRefreshToken.of(refreshToken, EPOCH + 1000).encode());
+        when(valueOperations.get("refresh_token_epoch:" + USER_ID)).thenReturn(String.valueOf(EPOCH));
+
+        // When
+        IndexedRefreshToken entry = index.lookup(refreshToken.getTokenHash(), now);
+
+        // Then
+        assertThat(entry).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve aceitar entradas posteriores à época do usuário")
+    void shouldAcceptEntryNewerThanUserEpoch() {
+        // Given
+        when(valueOperations.get(entryKey)).thenReturn(IndexedRefreshToken.of(refreshToken, EPOCH + 3000).encode());
+        when(valueOperations.get("refresh_token_epoch:" + USER_ID)).thenReturn(String.valueOf(EPOCH));
+
+        // When
+        IndexedRefreshToken entry = index.lookup(refreshToken.getTokenHash(), now);
+
+        // Then
+        assertThat(entry).isNotNull();
+        assertThat(entry.getId()).isEqualTo(42L);
+        assertThat(entry.isUsableAt(now)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve suspender o índice após falha ao gravar revogação até refazer a gravação")
+    void shouldSuspendIndexAfterFailedInvalidationWrite() {
+        // Given - a gravação da revogação falha e continua falhando na primeira consulta
+        String tombstone = IndexedRefreshToken.of(refreshToken, 0L).revoked().encode();
+        doThrow(new RedisConnectionFailureException("indisponível"))
+                .doThrow(new RedisConnectionFailureException("indisponível"))
+                .doNothing()
+                .when(valueOperations).set(eq(entryKey), eq(tombstone), any(Duration.class));
+        index.markRevoked(refreshToken);
+        assertThat(index.getPendingInvalidations()).isEqualTo(1);
+
+        // When
+        IndexedRefreshToken whileFailing = index.lookup(refreshToken.getTokenHash(), now);
+
+        // Then - nenhuma entrada é lida enquanto a revogação não chegar ao Redis
+        assertThat(whileFailing).isNull();
+        verify(valueOperations, never()).get(anyString());
+        assertThat(index.getPendingInvalidations()).isEqualTo(1);
+
+        // When - a nova tentativa é bem-sucedida
+        when(valueOperations.get(entryKey)).thenReturn(tombstone);
+        IndexedRefreshToken afterRetry = index.lookup(refreshToken.getTokenHash(), now);
+
+        // Then
+        assertThat(index.getPendingInvalidations()).isZero();
+        assertThat(afterRetry).isNotNull();
+        assertThat(afterRetry.isRevoked()).isTrue();
+    }
+}
@@ -0,0 +1,114 @@
+package com.sistema.service.refreshtoken;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Testes unitários para RefreshTokenLastUsedWriter
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RefreshTokenLastUsedWriter Tests")
+class RefreshTokenLastUsedWriterTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private RefreshTokenLastUsedWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new RefreshTokenLastUsedWriter(true, 2);
+        writer.setJdbcTemplate(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve manter apenas o uso mais recente de cada token")
+    @SuppressWarnings("unchecked")
+    void shouldCoalesceUsesPerToken() {
+        // Given
+        writer.record(1L, NOW);
+        writer.record(1L, NOW.plusSeconds(30));
+        writer.record(1L, NOW.plusSeconds(10));
+
+        // When
+        writer.flush();
+
+        // Then
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(RefreshTokenLastUsedWriter.UPDATE_SQL), captor.capture());
+        List<Object[]> batch = captor.getValue();
+        assertThat(batch).hasSize(1);
+        assertThat(batch.get(0)).containsExactly(
+                Timestamp.valueOf(NOW.plusSeconds(30)), 1L, Timestamp.valueOf(NOW.plusSeconds(30)));
+        assertThat(writer.getPendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve dividir a gravação em lotes de batch-size")
+    void shouldSplitIntoBatches() {
+        // Given
+        writer.record(1L, NOW);
+        writer.record(2L, NOW);
+        writer.record(3L, NOW);
+
+        // When
+        writer.flush();
+
+        // Then
+        verify(jdbcTemplate, times(2)).batchUpdate(eq(RefreshTokenLastUsedWriter.UPDATE_SQL), anyList());
+        assertThat(writer.getPendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve manter os usos pendentes quando a gravação falhar")
+    void shouldKeepPendingUsesOnFailure() {
+        // Given
+        writer.record(1L, NOW);
+        when(jdbcTemplate.batchUpdate(eq(RefreshTokenLastUsedWriter.UPDATE_SQL), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("banco indisponível"));
+
+        // When
+        writer.flush();
+
+        // Then
+        assertThat(writer.getPendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Não deve gravar quando desabilitado")
+    void shouldNotWriteWhenDisabled() {
+        // Given
+        RefreshTokenLastUsedWriter disabled = new RefreshTokenLastUsedWriter(false, 2);
+        disabled.setJdbcTemplate(jdbcTemplate);
+        disabled.record(1L, NOW);
+
+        // When
+        disabled.flush();
+
+        // Then
+        assertThat(disabled.isEnabled()).isFalse();
+        verify(jdbcTemplate, never()).batchUpdate(eq(RefreshTokenLastUsedWriter.UPDATE_SQL), anyList());
+    }
+}
@@ -0,0 +1,52 @@
+package com.sistema.service.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitários para DegradedAttemptCounter
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@DisplayName("DegradedAttemptCounter Tests")
+class DegradedAttemptCounterTest {
+
+    private DegradedAttemptCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new DegradedAttemptCounter(100, 30);
+    }
+
+    @Test
+    @DisplayName("Deve contar tentativas por tipo e identificador")
+    void shouldCountAttemptsPerTypeAndIdentifier() {
+        // When
+        counter.increment("login", "192.168.1.1");
+        int attempts = counter.increment("login", "192.168.1.1");
+        counter.increment("password_reset", "192.168.1.1");
+
+        // Then
+        assertThat(attempts).isEqualTo(2);
+        assertThat(counter.get("login", "192.168.1.1")).isEqualTo(2);
+        assertThat(counter.get("password_reset", "192.168.1.1")).isEqualTo(1);
+        assertThat(counter.get("login", "10.0.0.1")).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve remover apenas a contagem do tipo limpo")
+    void shouldClearOnlyGivenType() {
+        // Given
+        counter.increment("login", "192.168.1.1");
+        counter.increment("password_reset", "192.168.1.1");
+
+        // When
+        counter.clear("login", "192.168.1.1");
+
+        // Then
+        assertThat(counter.get("login", "192.168.1.1")).isZero();
+        assertThat(counter.get("password_reset", "192.168.1.1")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,48 @@
+package com.sistema.service.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitários para LocalCaptchaStore
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@DisplayName("LocalCaptchaStore Tests")
+class LocalCaptchaStoreTest {
+
+    private LocalCaptchaStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new LocalCaptchaStore(100, 10);
+    }
+
+    @Test
+    @DisplayName("Deve devolver o hash da resposta armazenado localmente")
+    void shouldReturnStoredAnswerHash() {
+        // Given
+        byte[] hash = {1, 2, 3};
+
+        // When
+        store.put("captcha-1", hash);
+
+        // Then
+        assertThat(store.get("captcha-1")).isEqualTo(hash);
+        assertThat(store.get("captcha-2")).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve permitir remover o captcha apenas uma vez")
+    void shouldRemoveCaptchaOnlyOnce() {
+        // Given
+        store.put("captcha-1", new byte[] {1});
+
+        // When & Then
+        assertThat(store.remove("captcha-1")).isTrue();
+        assertThat(store.remove("captcha-1")).isFalse();
+        assertThat(store.get("captcha-1")).isNull();
+    }
+}
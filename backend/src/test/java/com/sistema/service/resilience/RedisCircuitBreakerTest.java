@@ -0,0 +1,168 @@
+package com.sistema.service.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testes unitários para RedisCircuitBreaker
+ * Seguindo práticas de TDD com padrão Given-When-Then
+ */
+@DisplayName("RedisCircuitBreaker Tests")
+class RedisCircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(5).toNanos();
+    private static final long SLOW = Duration.ofMillis(800).toNanos();
+
+    private MutableClock clock;
+    private RedisCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        breaker = new RedisCircuitBreaker(true, 3, 500, 10_000, clock);
+    }
+
+    @Test
+    @DisplayName("Deve abrir o circuito após falhas consecutivas de conexão")
+    void shouldOpenAfterConsecutiveFailures() {
+        // When
+        for (int i = 0; i < 3; i++) {
+            breaker.onError(new RuntimeException("erro", new RedisConnectionFailureException("recusada")), FAST);
+        }
+
+        // Then
+        assertThat(breaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+        assertThat(breaker.isDegraded()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve contar chamadas lentas como falhas")
+    void shouldCountSlowCallsAsFailures() {
+        // When
+        breaker.onSuccess(SLOW);
+        breaker.onSuccess(SLOW);
+        breaker.onSuccess(SLOW);
+
+        // Then
+        assertThat(breaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    @DisplayName("Não deve abrir o circuito por erros que não indicam indisponibilidade")
+    void shouldIgnoreNonAvailabilityErrors() {
+        // When
+        for (int i = 0; i < 5; i++) {
+            breaker.onError(new InvalidDataAccessApiUsageException("comando inválido"), FAST);
+        }
+
+        // Then
+        assertThat(breaker.getState()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+        assertThat(breaker.getConsecutiveFailures()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve liberar uma única chamada de teste e fechar após sucesso")
+    void shouldCloseAfterSuccessfulProbe() {
+        // Given
+        openCircuit();
+        clock.advance(Duration.ofSeconds(10));
+
+        // When
+        boolean probe = breaker.tryAcquirePermission();
+        boolean concurrent = breaker.tryAcquirePermission();
+        breaker.onSuccess(FAST);
+
+        // Then
+        assertThat(probe).isTrue();
+        assertThat(concurrent).isFalse();
+        assertThat(breaker.getState()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+        assertThat(breaker.isDegraded()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve reabrir o circuito quando a chamada de teste falha")
+    void shouldReopenAfterFailedProbe() {
+        // Given
+        openCircuit();
+        clock.advance(Duration.ofSeconds(10));
+        breaker.tryAcquirePermission();
+
+        // When
+        breaker.onError(new RedisUnavailableException("timeout"), FAST);
+
+        // Then
+        assertThat(breaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+        clock.advance(Duration.ofSeconds(5));
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve contar fallbacks por serviço")
+    void shouldCountFallbacksPerService() {
+        // When
+        breaker.recordFallback("attempts");
+        breaker.recordFallback("attempts");
+        breaker.recordFallback("captcha");
+
+        // Then
+        assertThat(breaker.getFallbackCounts())
+                .containsEntry("attempts", 2L)
+                .containsEntry("captcha", 1L);
+    }
+
+    @Test
+    @DisplayName("Deve permitir todas as chamadas quando desabilitado")
+    void shouldAlwaysPermitWhenDisabled() {
+        // Given
+        RedisCircuitBreaker disabled = new RedisCircuitBreaker(false, 1, 500, 10_000, clock);
+
+        // When
+        disabled.onError(new RedisUnavailableException("timeout"), FAST);
+
+        // Then
+        assertThat(disabled.tryAcquirePermission()).isTrue();
+        assertThat(disabled.isDegraded()).isFalse();
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onError(new RedisUnavailableException("timeout"), FAST);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}